@@ -1,5 +1,12 @@
 package com.harman.demo.pizzaria.config;
 
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +16,1077 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Catalog catalog = new Catalog();
+
+    private final Orders orders = new Orders();
+
+    private final Kitchen kitchen = new Kitchen();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Stream stream = new Stream();
+
+    private final Inventory inventory = new Inventory();
+
+    private final Analytics analytics = new Analytics();
+
+    private final Journal journal = new Journal();
+
+    private final Delivery delivery = new Delivery();
+
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    private final Security security = new Security();
+
+    public Catalog getCatalog() {
+        return catalog;
+    }
+
+    public Orders getOrders() {
+        return orders;
+    }
+
+    public Kitchen getKitchen() {
+        return kitchen;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public Stream getStream() {
+        return stream;
+    }
+
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    public Analytics getAnalytics() {
+        return analytics;
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    public Delivery getDelivery() {
+        return delivery;
+    }
+
+    public ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public static class Catalog {
+
+        private final Snapshot snapshot = new Snapshot();
+
+        private final ResponseCache responseCache = new ResponseCache();
+
+        private final CountCache countCache = new CountCache();
+
+        /**
+         * Interval at which the catalog version is read from the database, to notice the changes made by other
+         * instances.
+         */
+        private long versionCheckIntervalMs = 1_000;
+
+        public Snapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public ResponseCache getResponseCache() {
+            return responseCache;
+        }
+
+        public CountCache getCountCache() {
+            return countCache;
+        }
+
+        public long getVersionCheckIntervalMs() {
+            return versionCheckIntervalMs;
+        }
+
+        public void setVersionCheckIntervalMs(long versionCheckIntervalMs) {
+            this.versionCheckIntervalMs = versionCheckIntervalMs;
+        }
+
+        public static class Snapshot {
+
+            /**
+             * Serve catalog reads from the in-memory snapshot instead of the database.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Interval of the safety-net rebuild, picking up changes made by other instances.
+             */
+            private long refreshIntervalMs = 300_000;
+
+            /**
+             * Where topping criteria queries are evaluated when the snapshot is enabled.
+             */
+            private CriteriaEngine criteriaEngine = CriteriaEngine.MEMORY;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getRefreshIntervalMs() {
+                return refreshIntervalMs;
+            }
+
+            public void setRefreshIntervalMs(long refreshIntervalMs) {
+                this.refreshIntervalMs = refreshIntervalMs;
+            }
+
+            public CriteriaEngine getCriteriaEngine() {
+                return criteriaEngine;
+            }
+
+            public void setCriteriaEngine(CriteriaEngine criteriaEngine) {
+                this.criteriaEngine = criteriaEngine;
+            }
+
+            public enum CriteriaEngine {
+                /**
+                 * On the columnar copy of the toppings held by the snapshot.
+                 */
+                MEMORY,
+                /**
+                 * In the database, through the JPA criteria API.
+                 */
+                JPA,
+            }
+        }
+
+        public static class ResponseCache {
+
+            /**
+             * Cache the serialized responses of topping criteria queries.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Store and serve the cached responses gzip-compressed to clients accepting it.
+             */
+            private boolean gzip = false;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public boolean isGzip() {
+                return gzip;
+            }
+
+            public void setGzip(boolean gzip) {
+                this.gzip = gzip;
+            }
+        }
+
+        public static class CountCache {
+
+            /**
+             * Cache the totals of paged topping criteria queries.
+             */
+            private boolean enabled = true;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+    }
+
+    public static class Orders {
+
+        /**
+         * Number of orders the intake ring buffer holds, rounded up to a power of two. Orders beyond it are refused.
+         */
+        private int ringBufferSize = 8192;
+
+        /**
+         * Maximum number of orders persisted in one transaction by the writer thread.
+         */
+        private int batchSize = 100;
+
+        /**
+         * When {@code POST /api/orders} answers.
+         */
+        private Ack ack = Ack.ENQUEUE;
+
+        /**
+         * How long a request waits for its order to be persisted, with {@code ack: flush}.
+         */
+        private long flushTimeoutMs = 5_000;
+
+        public int getRingBufferSize() {
+            return ringBufferSize;
+        }
+
+        public void setRingBufferSize(int ringBufferSize) {
+            this.ringBufferSize = ringBufferSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Ack getAck() {
+            return ack;
+        }
+
+        public void setAck(Ack ack) {
+            this.ack = ack;
+        }
+
+        public long getFlushTimeoutMs() {
+            return flushTimeoutMs;
+        }
+
+        public void setFlushTimeoutMs(long flushTimeoutMs) {
+            this.flushTimeoutMs = flushTimeoutMs;
+        }
+
+        public enum Ack {
+            /**
+             * Once the order is in the ring buffer: fastest, but queued orders are lost if the instance dies.
+             */
+            ENQUEUE,
+            /**
+             * Once the transaction holding the order is committed.
+             */
+            FLUSH,
+        }
+    }
+
+    public static class Kitchen {
+
+        /**
+         * Number of ovens, each baking one pizza at a time.
+         */
+        private int ovens = 4;
+
+        /**
+         * Time to bake a pizza of each size.
+         */
+        private final Map<PizzaSize, Duration> bakeTimes = new EnumMap<>(
+            Map.of(
+                PizzaSize.SMALL,
+                Duration.ofMinutes(6),
+                PizzaSize.MEDIUM,
+                Duration.ofMinutes(8),
+                PizzaSize.LARGE,
+                Duration.ofMinutes(10),
+                PizzaSize.EXTRA_LARGE,
+                Duration.ofMinutes(12)
+            )
+        );
+
+        public int getOvens() {
+            return ovens;
+        }
+
+        public void setOvens(int ovens) {
+            this.ovens = ovens;
+        }
+
+        public Map<PizzaSize, Duration> getBakeTimes() {
+            return bakeTimes;
+        }
+    }
+
+    public static class Idempotency {
+
+        /**
+         * How long the response to a request with an {@code Idempotency-Key} is replayed to retries.
+         */
+        private Duration ttl = Duration.ofHours(24);
+
+        /**
+         * Maximum size of the responses kept in memory, evicting the oldest first.
+         */
+        private long maxBytes = 16 * 1024 * 1024;
+
+        /**
+         * Number of independently locked parts of the in-memory store, rounded up to a power of two.
+         */
+        private int stripes = 16;
+
+        /**
+         * How long a retry waits for the original request to complete before it is refused.
+         */
+        private long waitTimeoutMs = 10_000;
+
+        /**
+         * How long a request in progress stays claimed in the database before another instance may execute it again,
+         * should the instance which claimed it not write its response.
+         */
+        private long leaseMs = 30_000;
+
+        /**
+         * Also keep the responses in the database, so retries reaching another instance are replayed as well.
+         */
+        private boolean database = false;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+
+        public long getWaitTimeoutMs() {
+            return waitTimeoutMs;
+        }
+
+        public void setWaitTimeoutMs(long waitTimeoutMs) {
+            this.waitTimeoutMs = waitTimeoutMs;
+        }
+
+        public long getLeaseMs() {
+            return leaseMs;
+        }
+
+        public void setLeaseMs(long leaseMs) {
+            this.leaseMs = leaseMs;
+        }
+
+        public boolean isDatabase() {
+            return database;
+        }
+
+        public void setDatabase(boolean database) {
+            this.database = database;
+        }
+    }
+
+    public static class Stream {
+
+        /**
+         * Number of events kept for each stream, rounded up to a power of two. Subscribers falling further behind
+         * skip to the latest event.
+         */
+        private int bufferSize = 1024;
+
+        /**
+         * Number of threads writing events to the subscribers.
+         */
+        private int senderThreads = 4;
+
+        /**
+         * How long a subscription stays open, after which clients reconnect with their {@code Last-Event-ID}.
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        /**
+         * How long writing an event to a subscriber may block, after which its subscription is closed.
+         */
+        private Duration sendTimeout = Duration.ofSeconds(10);
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getSenderThreads() {
+            return senderThreads;
+        }
+
+        public void setSenderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Duration getSendTimeout() {
+            return sendTimeout;
+        }
+
+        public void setSendTimeout(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+    }
+
+    public static class Inventory {
+
+        /**
+         * Interval at which the stock reserved in memory is written to the database, and the changes made by other
+         * instances read back.
+         */
+        private long reconcileIntervalMs = 1_000;
+
+        public long getReconcileIntervalMs() {
+            return reconcileIntervalMs;
+        }
+
+        public void setReconcileIntervalMs(long reconcileIntervalMs) {
+            this.reconcileIntervalMs = reconcileIntervalMs;
+        }
+    }
+
+    public static class Analytics {
+
+        /**
+         * Number of minutes of sales kept in memory.
+         */
+        private int minutes = 120;
+
+        /**
+         * Number of hours of sales kept in memory.
+         */
+        private int hours = 48;
+
+        /**
+         * Interval at which the sales of the periods over are written to the rollup tables.
+         */
+        private long flushIntervalMs = 30_000;
+
+        public int getMinutes() {
+            return minutes;
+        }
+
+        public void setMinutes(int minutes) {
+            this.minutes = minutes;
+        }
+
+        public int getHours() {
+            return hours;
+        }
+
+        public void setHours(int hours) {
+            this.hours = hours;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+    }
+
+    public static class Journal {
+
+        /**
+         * Directory of the journal of the order status changes, and of its snapshot.
+         */
+        private String directory = "journal";
+
+        /**
+         * Size of a journal segment file, mapped in memory while it is appended to.
+         */
+        private int segmentBytes = 64 * 1024 * 1024;
+
+        /**
+         * Interval at which the journal is written to the disk. Status changes since are lost if the machine crashes,
+         * not if the application does.
+         */
+        private long syncIntervalMs = 1_000;
+
+        /**
+         * Interval at which the status of the orders is written to a snapshot, and the journal before it deleted.
+         */
+        private long compactIntervalMs = 300_000;
+
+        /**
+         * How long the status of an order is kept after its last change.
+         */
+        private Duration retention = Duration.ofHours(24);
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getSegmentBytes() {
+            return segmentBytes;
+        }
+
+        public void setSegmentBytes(int segmentBytes) {
+            this.segmentBytes = segmentBytes;
+        }
+
+        public long getSyncIntervalMs() {
+            return syncIntervalMs;
+        }
+
+        public void setSyncIntervalMs(long syncIntervalMs) {
+            this.syncIntervalMs = syncIntervalMs;
+        }
+
+        public long getCompactIntervalMs() {
+            return compactIntervalMs;
+        }
+
+        public void setCompactIntervalMs(long compactIntervalMs) {
+            this.compactIntervalMs = compactIntervalMs;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    public static class Delivery {
+
+        /**
+         * Latitude of the shop the drivers leave from, in degrees.
+         */
+        private double shopLatitude;
+
+        /**
+         * Longitude of the shop the drivers leave from, in degrees.
+         */
+        private double shopLongitude;
+
+        /**
+         * Side of the square cells orders are indexed by.
+         */
+        private double cellMeters = 500;
+
+        /**
+         * Longest distance a run may be extended by to deliver one more order.
+         */
+        private double maxDetourMeters = 1000;
+
+        /**
+         * Number of pizzas a driver carries.
+         */
+        private int capacity = 6;
+
+        /**
+         * Interval at which the orders which became ready are added to the delivery plans.
+         */
+        private long planIntervalMs = 1000;
+
+        public double getShopLatitude() {
+            return shopLatitude;
+        }
+
+        public void setShopLatitude(double shopLatitude) {
+            this.shopLatitude = shopLatitude;
+        }
+
+        public double getShopLongitude() {
+            return shopLongitude;
+        }
+
+        public void setShopLongitude(double shopLongitude) {
+            this.shopLongitude = shopLongitude;
+        }
+
+        public double getCellMeters() {
+            return cellMeters;
+        }
+
+        public void setCellMeters(double cellMeters) {
+            this.cellMeters = cellMeters;
+        }
+
+        public double getMaxDetourMeters() {
+            return maxDetourMeters;
+        }
+
+        public void setMaxDetourMeters(double maxDetourMeters) {
+            this.maxDetourMeters = maxDetourMeters;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public long getPlanIntervalMs() {
+            return planIntervalMs;
+        }
+
+        public void setPlanIntervalMs(long planIntervalMs) {
+            this.planIntervalMs = planIntervalMs;
+        }
+    }
+
+    public static class ConcurrencyLimit {
+
+        /**
+         * Whether the requests of the groups are limited.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Seconds after which clients may retry a request rejected for lack of capacity.
+         */
+        private int retryAfterSeconds = 1;
+
+        /**
+         * How much slower than usual requests may get before the limits shrink: 1.5 tolerates half as slow again.
+         */
+        private double tolerance = 1.5;
+
+        /**
+         * The groups of endpoints sharing a limit, by name.
+         */
+        private final Map<String, Group> groups = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        public void setRetryAfterSeconds(int retryAfterSeconds) {
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public void setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+        }
+
+        public Map<String, Group> getGroups() {
+            return groups;
+        }
+
+        public static class Group {
+
+            /**
+             * Ant patterns of the paths of the endpoints, below the servlet context.
+             */
+            private List<String> paths = new ArrayList<>();
+
+            /**
+             * HTTP methods limited on these paths.
+             */
+            private List<String> methods = new ArrayList<>(List.of("POST", "PUT", "PATCH", "DELETE"));
+
+            /**
+             * Number of requests processed at once before any latency is observed.
+             */
+            private int initialLimit = 20;
+
+            /**
+             * Fewest requests processed at once, however slow they get.
+             */
+            private int minLimit = 2;
+
+            /**
+             * Most requests processed at once, however fast they are.
+             */
+            private int maxLimit = 200;
+
+            public List<String> getPaths() {
+                return paths;
+            }
+
+            public void setPaths(List<String> paths) {
+                this.paths = paths;
+            }
+
+            public List<String> getMethods() {
+                return methods;
+            }
+
+            public void setMethods(List<String> methods) {
+                this.methods = methods;
+            }
+
+            public int getInitialLimit() {
+                return initialLimit;
+            }
+
+            public void setInitialLimit(int initialLimit) {
+                this.initialLimit = initialLimit;
+            }
+
+            public int getMinLimit() {
+                return minLimit;
+            }
+
+            public void setMinLimit(int minLimit) {
+                this.minLimit = minLimit;
+            }
+
+            public int getMaxLimit() {
+                return maxLimit;
+            }
+
+            public void setMaxLimit(int maxLimit) {
+                this.maxLimit = maxLimit;
+            }
+        }
+    }
+
+    public static class Security {
+
+        private final TokenCache tokenCache = new TokenCache();
+
+        private final Login login = new Login();
+
+        private final LoginThrottle loginThrottle = new LoginThrottle();
+
+        private final TokenRevocation tokenRevocation = new TokenRevocation();
+
+        private final UserDetailsCache userDetailsCache = new UserDetailsCache();
+
+        public TokenCache getTokenCache() {
+            return tokenCache;
+        }
+
+        public UserDetailsCache getUserDetailsCache() {
+            return userDetailsCache;
+        }
+
+        public TokenRevocation getTokenRevocation() {
+            return tokenRevocation;
+        }
+
+        public Login getLogin() {
+            return login;
+        }
+
+        public LoginThrottle getLoginThrottle() {
+            return loginThrottle;
+        }
+
+        public static class TokenCache {
+
+            /**
+             * Maximum number of verified JWT tokens whose authentication is kept, evicting the least recently used first.
+             * 0 verifies every token on every request.
+             */
+            private int maxEntries = 10_000;
+
+            /**
+             * Number of independently locked parts of the cache, rounded up to a power of two.
+             */
+            private int stripes = 16;
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public int getStripes() {
+                return stripes;
+            }
+
+            public void setStripes(int stripes) {
+                this.stripes = stripes;
+            }
+        }
+
+        public static class UserDetailsCache {
+
+            /**
+             * Maximum number of logins and emails whose user, or lack of one, is kept, evicting the least recently used
+             * first. 0 looks every user up on every login.
+             */
+            private int maxEntries = 10_000;
+
+            /**
+             * Number of independently locked parts of the cache, rounded up to a power of two.
+             */
+            private int stripes = 16;
+
+            /**
+             * Time a user found is kept. Changes made through other instances are seen after it at the latest.
+             */
+            private long timeToLiveMs = 60_000;
+
+            /**
+             * Time a login or email matching no user is kept.
+             */
+            private long unknownTimeToLiveMs = 5_000;
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public int getStripes() {
+                return stripes;
+            }
+
+            public void setStripes(int stripes) {
+                this.stripes = stripes;
+            }
+
+            public long getTimeToLiveMs() {
+                return timeToLiveMs;
+            }
+
+            public void setTimeToLiveMs(long timeToLiveMs) {
+                this.timeToLiveMs = timeToLiveMs;
+            }
+
+            public long getUnknownTimeToLiveMs() {
+                return unknownTimeToLiveMs;
+            }
+
+            public void setUnknownTimeToLiveMs(long unknownTimeToLiveMs) {
+                this.unknownTimeToLiveMs = unknownTimeToLiveMs;
+            }
+        }
+
+        public static class TokenRevocation {
+
+            /**
+             * Interval at which the revoked tokens are read back from the database, to learn those revoked by other
+             * instances and forget those expired.
+             */
+            private long refreshIntervalMs = 30_000;
+
+            /**
+             * Number of revocations the Bloom filters are sized for, at least. They are sized for twice the revocations
+             * found when read back, if more.
+             */
+            private int expectedEntries = 10_000;
+
+            /**
+             * Rate of the tokens which are not revoked, but still looked up in the exact denylist.
+             */
+            private double falsePositiveRate = 0.01;
+
+            public long getRefreshIntervalMs() {
+                return refreshIntervalMs;
+            }
+
+            public void setRefreshIntervalMs(long refreshIntervalMs) {
+                this.refreshIntervalMs = refreshIntervalMs;
+            }
+
+            public int getExpectedEntries() {
+                return expectedEntries;
+            }
+
+            public void setExpectedEntries(int expectedEntries) {
+                this.expectedEntries = expectedEntries;
+            }
+
+            public double getFalsePositiveRate() {
+                return falsePositiveRate;
+            }
+
+            public void setFalsePositiveRate(double falsePositiveRate) {
+                this.falsePositiveRate = falsePositiveRate;
+            }
+        }
+
+        public static class Login {
+
+            /**
+             * Number of threads verifying the passwords of the users logging in, apart from the server worker threads. Half
+             * the processors by default, so a burst of logins leaves the others to the rest of the requests.
+             */
+            private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+            /**
+             * Number of logins waiting for a thread, beyond which logins are refused with a {@code 503}.
+             */
+            private int queueCapacity = 100;
+
+            /**
+             * Time a login may wait for a thread, after which it is refused with a {@code 503} rather than verified for a
+             * client which likely gave up.
+             */
+            private long maxWaitMs = 5_000;
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public long getMaxWaitMs() {
+                return maxWaitMs;
+            }
+
+            public void setMaxWaitMs(long maxWaitMs) {
+                this.maxWaitMs = maxWaitMs;
+            }
+        }
+
+        public static class LoginThrottle {
+
+            /**
+             * Whether login attempts are throttled per login and per client IP.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of logins, and of client IPs, whose attempts are tracked. Beyond it, the buckets which
+             * refilled the most are evicted first.
+             */
+            private int maxEntries = 65_536;
+
+            /**
+             * Regular expression matching the addresses of the proxies whose {@code X-Forwarded-For} header is
+             * trusted to give the client IP, by default the loopback and private addresses.
+             */
+            private String trustedProxies =
+                "10\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|" +
+                "192\\.168\\.\\d{1,3}\\.\\d{1,3}|" +
+                "169\\.254\\.\\d{1,3}\\.\\d{1,3}|" +
+                "127\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|" +
+                "172\\.(1[6-9]|2[0-9]|3[0-1])\\.\\d{1,3}\\.\\d{1,3}|" +
+                "0:0:0:0:0:0:0:1|::1";
+
+            private final Bucket login = new Bucket(5, 5);
+
+            private final Bucket clientIp = new Bucket(30, 30);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public String getTrustedProxies() {
+                return trustedProxies;
+            }
+
+            public void setTrustedProxies(String trustedProxies) {
+                this.trustedProxies = trustedProxies;
+            }
+
+            public Bucket getLogin() {
+                return login;
+            }
+
+            public Bucket getClientIp() {
+                return clientIp;
+            }
+
+            public static class Bucket {
+
+                /**
+                 * Number of attempts allowed in a burst.
+                 */
+                private int capacity;
+
+                /**
+                 * Number of attempts allowed per minute once the burst is spent.
+                 */
+                private int refillPerMinute;
+
+                public Bucket() {}
+
+                Bucket(int capacity, int refillPerMinute) {
+                    this.capacity = capacity;
+                    this.refillPerMinute = refillPerMinute;
+                }
+
+                public int getCapacity() {
+                    return capacity;
+                }
+
+                public void setCapacity(int capacity) {
+                    this.capacity = capacity;
+                }
+
+                public int getRefillPerMinute() {
+                    return refillPerMinute;
+                }
+
+                public void setRefillPerMinute(int refillPerMinute) {
+                    this.refillPerMinute = refillPerMinute;
+                }
+            }
+        }
+    }
+}
@@ -50,6 +50,8 @@ public class CacheConfiguration {
             createCache(cm, com.harman.demo.pizzaria.domain.User.class.getName() + ".authorities");
             createCache(cm, com.harman.demo.pizzaria.domain.Pizza.class.getName());
             createCache(cm, com.harman.demo.pizzaria.domain.Topping.class.getName());
+            createCache(cm, com.harman.demo.pizzaria.web.rest.ToppingResponseCache.CACHE_NAME);
+            createCache(cm, com.harman.demo.pizzaria.service.catalog.ToppingCountCache.CACHE_NAME);
             // jhipster-needle-ehcache-add-entry
         };
     }
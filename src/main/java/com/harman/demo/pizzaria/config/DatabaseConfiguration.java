@@ -1,5 +1,6 @@
 package com.harman.demo.pizzaria.config;
 
+import com.harman.demo.pizzaria.repository.KeysetJpaRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -10,7 +11,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 import tech.jhipster.config.JHipsterConstants;
 
 @Configuration
-@EnableJpaRepositories({ "com.harman.demo.pizzaria.repository" })
+@EnableJpaRepositories(value = { "com.harman.demo.pizzaria.repository" }, repositoryBaseClass = KeysetJpaRepository.class)
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
 public class DatabaseConfiguration {}
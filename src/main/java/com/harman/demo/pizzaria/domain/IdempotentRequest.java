@@ -0,0 +1,188 @@
+package com.harman.demo.pizzaria.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A request made with an {@code Idempotency-Key}, and its response once it has one.
+ * <p>
+ * The id is chosen by the first instance receiving the request, so inserting it claims the request: a concurrent
+ * insert of the same id fails rather than overwriting it.
+ */
+@Entity
+@Table(name = "idempotent_request")
+public class IdempotentRequest implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Hash of the key, the user and the endpoint.
+     */
+    @Id
+    @Size(max = 64)
+    @Column(name = "id", length = 64)
+    private String id;
+
+    /**
+     * Hash of the request body, so a key cannot be reused for another request.
+     */
+    @NotNull
+    @Size(max = 64)
+    @Column(name = "fingerprint", length = 64, nullable = false)
+    private String fingerprint;
+
+    /**
+     * The HTTP status of the response, {@code null} while the request is in progress.
+     */
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    /**
+     * The headers of the response, as a JSON object.
+     */
+    @Lob
+    @Column(name = "response_headers")
+    private String responseHeaders;
+
+    /**
+     * The body of the response, as JSON.
+     */
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    /**
+     * When the response expires or, while the request is in progress, when its claim does.
+     */
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Transient
+    private boolean isPersisted;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    @Override
+    public String getId() {
+        return this.id;
+    }
+
+    public IdempotentRequest id(String id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFingerprint() {
+        return this.fingerprint;
+    }
+
+    public IdempotentRequest fingerprint(String fingerprint) {
+        this.setFingerprint(fingerprint);
+        return this;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Integer getResponseStatus() {
+        return this.responseStatus;
+    }
+
+    public IdempotentRequest responseStatus(Integer responseStatus) {
+        this.setResponseStatus(responseStatus);
+        return this;
+    }
+
+    public void setResponseStatus(Integer responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    public String getResponseHeaders() {
+        return this.responseHeaders;
+    }
+
+    public IdempotentRequest responseHeaders(String responseHeaders) {
+        this.setResponseHeaders(responseHeaders);
+        return this;
+    }
+
+    public void setResponseHeaders(String responseHeaders) {
+        this.responseHeaders = responseHeaders;
+    }
+
+    public String getResponseBody() {
+        return this.responseBody;
+    }
+
+    public IdempotentRequest responseBody(String responseBody) {
+        this.setResponseBody(responseBody);
+        return this;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Instant getExpiresAt() {
+        return this.expiresAt;
+    }
+
+    public IdempotentRequest expiresAt(Instant expiresAt) {
+        this.setExpiresAt(expiresAt);
+        return this;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdempotentRequest)) {
+            return false;
+        }
+        return id != null && id.equals(((IdempotentRequest) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IdempotentRequest{" +
+            "id=" + getId() +
+            ", fingerprint='" + getFingerprint() + "'" +
+            ", responseStatus=" + getResponseStatus() +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,179 @@
+package com.harman.demo.pizzaria.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A OrderLine.
+ */
+@Entity
+@Table(name = "order_line")
+public class OrderLine implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orderLineIdGenerator")
+    @TableGenerator(
+        name = "orderLineIdGenerator",
+        table = "id_generator",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "order_line",
+        allocationSize = 50
+    )
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Min(value = 1)
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    /**
+     * Price of one pizza of the line with its toppings, when the order was placed.
+     */
+    @NotNull
+    @Column(name = "unit_price", nullable = false)
+    private Float unitPrice;
+
+    @ManyToOne(optional = false)
+    @NotNull
+    @JsonIgnoreProperties(value = { "lines" }, allowSetters = true)
+    private PizzaOrder pizzaOrder;
+
+    @ManyToOne(optional = false)
+    @NotNull
+    private Pizza pizza;
+
+    @ManyToMany
+    @JoinTable(
+        name = "rel_order_line__topping",
+        joinColumns = @JoinColumn(name = "order_line_id"),
+        inverseJoinColumns = @JoinColumn(name = "topping_id")
+    )
+    private Set<Topping> toppings = new HashSet<>();
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public OrderLine id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getQuantity() {
+        return this.quantity;
+    }
+
+    public OrderLine quantity(Integer quantity) {
+        this.setQuantity(quantity);
+        return this;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Float getUnitPrice() {
+        return this.unitPrice;
+    }
+
+    public OrderLine unitPrice(Float unitPrice) {
+        this.setUnitPrice(unitPrice);
+        return this;
+    }
+
+    public void setUnitPrice(Float unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public PizzaOrder getPizzaOrder() {
+        return this.pizzaOrder;
+    }
+
+    public void setPizzaOrder(PizzaOrder pizzaOrder) {
+        this.pizzaOrder = pizzaOrder;
+    }
+
+    public OrderLine pizzaOrder(PizzaOrder pizzaOrder) {
+        this.setPizzaOrder(pizzaOrder);
+        return this;
+    }
+
+    public Pizza getPizza() {
+        return this.pizza;
+    }
+
+    public void setPizza(Pizza pizza) {
+        this.pizza = pizza;
+    }
+
+    public OrderLine pizza(Pizza pizza) {
+        this.setPizza(pizza);
+        return this;
+    }
+
+    public Set<Topping> getToppings() {
+        return this.toppings;
+    }
+
+    public void setToppings(Set<Topping> toppings) {
+        this.toppings = toppings;
+    }
+
+    public OrderLine toppings(Set<Topping> toppings) {
+        this.setToppings(toppings);
+        return this;
+    }
+
+    public OrderLine addTopping(Topping topping) {
+        this.toppings.add(topping);
+        return this;
+    }
+
+    public OrderLine removeTopping(Topping topping) {
+        this.toppings.remove(topping);
+        return this;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OrderLine)) {
+            return false;
+        }
+        return id != null && id.equals(((OrderLine) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OrderLine{" +
+            "id=" + getId() +
+            ", quantity=" + getQuantity() +
+            ", unitPrice=" + getUnitPrice() +
+            "}";
+    }
+}
@@ -18,7 +18,15 @@ public class Pizza implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pizzaIdGenerator")
+    @TableGenerator(
+        name = "pizzaIdGenerator",
+        table = "id_generator",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "pizza",
+        allocationSize = 50
+    )
     @Column(name = "id")
     private Long id;
 
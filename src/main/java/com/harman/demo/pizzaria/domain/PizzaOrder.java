@@ -0,0 +1,206 @@
+package com.harman.demo.pizzaria.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.hibernate.annotations.Type;
+
+/**
+ * A PizzaOrder.
+ */
+@Entity
+@Table(name = "pizza_order")
+public class PizzaOrder implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "pizzaOrderIdGenerator")
+    @TableGenerator(
+        name = "pizzaOrderIdGenerator",
+        table = "id_generator",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "pizza_order",
+        allocationSize = 50
+    )
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The id given to the client when the order is accepted, before it is persisted.
+     */
+    @NotNull
+    @Type(type = "uuid-char")
+    @Column(name = "reference", length = 36, nullable = false, unique = true)
+    private UUID reference;
+
+    @NotNull
+    @Column(name = "total", nullable = false)
+    private Float total;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @OneToMany(mappedBy = "pizzaOrder", cascade = CascadeType.ALL)
+    @JsonIgnoreProperties(value = { "pizzaOrder" }, allowSetters = true)
+    private Set<OrderLine> lines = new HashSet<>();
+
+    /**
+     * Where the order is delivered, {@code null} with the longitude if it is picked up.
+     */
+    @Column(name = "delivery_latitude")
+    private Double deliveryLatitude;
+
+    @Column(name = "delivery_longitude")
+    private Double deliveryLongitude;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public PizzaOrder id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getReference() {
+        return this.reference;
+    }
+
+    public PizzaOrder reference(UUID reference) {
+        this.setReference(reference);
+        return this;
+    }
+
+    public void setReference(UUID reference) {
+        this.reference = reference;
+    }
+
+    public Float getTotal() {
+        return this.total;
+    }
+
+    public PizzaOrder total(Float total) {
+        this.setTotal(total);
+        return this;
+    }
+
+    public void setTotal(Float total) {
+        this.total = total;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public PizzaOrder createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Set<OrderLine> getLines() {
+        return this.lines;
+    }
+
+    public void setLines(Set<OrderLine> orderLines) {
+        if (this.lines != null) {
+            this.lines.forEach(i -> i.setPizzaOrder(null));
+        }
+        if (orderLines != null) {
+            orderLines.forEach(i -> i.setPizzaOrder(this));
+        }
+        this.lines = orderLines;
+    }
+
+    public PizzaOrder lines(Set<OrderLine> orderLines) {
+        this.setLines(orderLines);
+        return this;
+    }
+
+    public PizzaOrder addLines(OrderLine orderLine) {
+        this.lines.add(orderLine);
+        orderLine.setPizzaOrder(this);
+        return this;
+    }
+
+    public PizzaOrder removeLines(OrderLine orderLine) {
+        this.lines.remove(orderLine);
+        orderLine.setPizzaOrder(null);
+        return this;
+    }
+
+    public Double getDeliveryLatitude() {
+        return this.deliveryLatitude;
+    }
+
+    public PizzaOrder deliveryLatitude(Double deliveryLatitude) {
+        this.setDeliveryLatitude(deliveryLatitude);
+        return this;
+    }
+
+    public void setDeliveryLatitude(Double deliveryLatitude) {
+        this.deliveryLatitude = deliveryLatitude;
+    }
+
+    public Double getDeliveryLongitude() {
+        return this.deliveryLongitude;
+    }
+
+    public PizzaOrder deliveryLongitude(Double deliveryLongitude) {
+        this.setDeliveryLongitude(deliveryLongitude);
+        return this;
+    }
+
+    public void setDeliveryLongitude(Double deliveryLongitude) {
+        this.deliveryLongitude = deliveryLongitude;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PizzaOrder)) {
+            return false;
+        }
+        return id != null && id.equals(((PizzaOrder) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PizzaOrder{" +
+            "id=" + getId() +
+            ", reference='" + getReference() + "'" +
+            ", total=" + getTotal() +
+            ", createdDate='" + getCreatedDate() + "'" +
+            ", deliveryLatitude=" + getDeliveryLatitude() +
+            ", deliveryLongitude=" + getDeliveryLongitude() +
+            "}";
+    }
+}
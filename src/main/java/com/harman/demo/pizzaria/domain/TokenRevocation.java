@@ -0,0 +1,161 @@
+package com.harman.demo.pizzaria.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The revocation of a JWT token before it expires: either of a single token, by its id, or of all the tokens of a user
+ * issued until {@code revokedAt}.
+ */
+@Entity
+@Table(name = "token_revocation")
+public class TokenRevocation implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Size(max = 36)
+    @Column(name = "id", length = 36)
+    private String id;
+
+    /**
+     * The id of the revoked token, {@code null} for the revocation of the tokens of a user.
+     */
+    @Size(max = 36)
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
+    /**
+     * The login whose tokens are revoked, {@code null} for the revocation of a single token.
+     */
+    @Size(max = 50)
+    @Column(name = "login", length = 50)
+    private String login;
+
+    @NotNull
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    /**
+     * When every token revoked has expired anyway, so the revocation can be deleted.
+     */
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Transient
+    private boolean isPersisted;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    @Override
+    public String getId() {
+        return this.id;
+    }
+
+    public TokenRevocation id(String id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTokenId() {
+        return this.tokenId;
+    }
+
+    public TokenRevocation tokenId(String tokenId) {
+        this.setTokenId(tokenId);
+        return this;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public String getLogin() {
+        return this.login;
+    }
+
+    public TokenRevocation login(String login) {
+        this.setLogin(login);
+        return this;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public Instant getRevokedAt() {
+        return this.revokedAt;
+    }
+
+    public TokenRevocation revokedAt(Instant revokedAt) {
+        this.setRevokedAt(revokedAt);
+        return this;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return this.expiresAt;
+    }
+
+    public TokenRevocation expiresAt(Instant expiresAt) {
+        this.setExpiresAt(expiresAt);
+        return this;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TokenRevocation)) {
+            return false;
+        }
+        return id != null && id.equals(((TokenRevocation) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TokenRevocation{" +
+            "id=" + getId() +
+            ", tokenId='" + getTokenId() + "'" +
+            ", login='" + getLogin() + "'" +
+            ", revokedAt='" + getRevokedAt() + "'" +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            "}";
+    }
+}
@@ -17,7 +17,15 @@ public class Topping implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "toppingIdGenerator")
+    @TableGenerator(
+        name = "toppingIdGenerator",
+        table = "id_generator",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "topping",
+        allocationSize = 50
+    )
     @Column(name = "id")
     private Long id;
 
@@ -33,6 +41,12 @@ public class Topping implements Serializable {
     @Column(name = "description")
     private String description;
 
+    /**
+     * Units left, {@code null} if the stock is not tracked. Only written by the {@code ToppingInventory}.
+     */
+    @Column(name = "stock", insertable = false, updatable = false)
+    private Integer stock;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -87,6 +101,10 @@ public class Topping implements Serializable {
         this.description = description;
     }
 
+    public Integer getStock() {
+        return this.stock;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -1,7 +1,11 @@
 package com.harman.demo.pizzaria.management;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +17,72 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+    public static final String TOKEN_CACHE_METER_DESCRIPTION =
+        "Indicates lookups of the tokens presented by the clients in the cache of verified tokens.";
+    public static final String TOKEN_CACHE_METER_BASE_UNIT = "lookups";
+    public static final String TOKEN_CACHE_METER_RESULT_DIMENSION = "result";
+    public static final String TOKEN_CACHE_SIZE_METER_NAME = "security.authentication.token-cache.size";
+
+    public static final String USER_DETAILS_CACHE_METER_NAME = "security.authentication.user-details-cache";
+    public static final String USER_DETAILS_CACHE_METER_DESCRIPTION =
+        "Indicates lookups of the users logging in, in the cache of users. Hits on unknown logins are counted apart.";
+    public static final String USER_DETAILS_CACHE_METER_BASE_UNIT = "lookups";
+    public static final String USER_DETAILS_CACHE_METER_RESULT_DIMENSION = "result";
+    public static final String USER_DETAILS_CACHE_SIZE_METER_NAME = "security.authentication.user-details-cache.size";
+
+    public static final String LOGINS_METER_NAME = "security.authentication.logins";
+    public static final String LOGINS_METER_DESCRIPTION = "Indicates the time taken to verify the credentials of the users logging in.";
+    public static final String LOGINS_METER_OUTCOME_DIMENSION = "outcome";
+    public static final String REJECTED_LOGINS_METER_NAME = "security.authentication.logins.rejected";
+    public static final String REJECTED_LOGINS_METER_DESCRIPTION = "Indicates logins refused because too many were waiting.";
+    public static final String REJECTED_LOGINS_METER_BASE_UNIT = "logins";
+
+    public static final String THROTTLED_LOGINS_METER_NAME = "security.authentication.logins.throttled";
+    public static final String THROTTLED_LOGINS_METER_DESCRIPTION = "Indicates login attempts refused because their bucket was empty.";
+    public static final String THROTTLED_LOGINS_METER_BASE_UNIT = "logins";
+    public static final String THROTTLED_LOGINS_METER_KEY_DIMENSION = "key";
+
+    private final MeterRegistry registry;
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter tokenRevokedCounter;
+    private final Counter tokenCacheHitCounter;
+    private final Counter tokenCacheMissCounter;
+    private final Counter userDetailsCacheHitCounter;
+    private final Counter userDetailsCacheUnknownCounter;
+    private final Counter userDetailsCacheMissCounter;
+    private final Timer loginSuccessTimer;
+    private final Timer loginFailureTimer;
+    private final Counter loginRejectedCounter;
+    private final Counter loginThrottledByLoginCounter;
+    private final Counter loginThrottledByClientIpCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
+        this.registry = registry;
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.tokenRevokedCounter = invalidTokensCounterForCauseBuilder("revoked").register(registry);
+        this.tokenCacheHitCounter = tokenCacheCounterForResultBuilder("hit").register(registry);
+        this.tokenCacheMissCounter = tokenCacheCounterForResultBuilder("miss").register(registry);
+        this.userDetailsCacheHitCounter = userDetailsCacheCounterForResultBuilder("hit").register(registry);
+        this.userDetailsCacheUnknownCounter = userDetailsCacheCounterForResultBuilder("unknown").register(registry);
+        this.userDetailsCacheMissCounter = userDetailsCacheCounterForResultBuilder("miss").register(registry);
+        this.loginSuccessTimer = loginsTimerForOutcomeBuilder("success").register(registry);
+        this.loginFailureTimer = loginsTimerForOutcomeBuilder("failure").register(registry);
+        this.loginRejectedCounter =
+            Counter
+                .builder(REJECTED_LOGINS_METER_NAME)
+                .baseUnit(REJECTED_LOGINS_METER_BASE_UNIT)
+                .description(REJECTED_LOGINS_METER_DESCRIPTION)
+                .register(registry);
+        this.loginThrottledByLoginCounter = throttledLoginsCounterForKeyBuilder("login").register(registry);
+        this.loginThrottledByClientIpCounter = throttledLoginsCounterForKeyBuilder("client-ip").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -33,6 +93,64 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder tokenCacheCounterForResultBuilder(String result) {
+        return Counter
+            .builder(TOKEN_CACHE_METER_NAME)
+            .baseUnit(TOKEN_CACHE_METER_BASE_UNIT)
+            .description(TOKEN_CACHE_METER_DESCRIPTION)
+            .tag(TOKEN_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
+    private Counter.Builder userDetailsCacheCounterForResultBuilder(String result) {
+        return Counter
+            .builder(USER_DETAILS_CACHE_METER_NAME)
+            .baseUnit(USER_DETAILS_CACHE_METER_BASE_UNIT)
+            .description(USER_DETAILS_CACHE_METER_DESCRIPTION)
+            .tag(USER_DETAILS_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
+    private Timer.Builder loginsTimerForOutcomeBuilder(String outcome) {
+        return Timer
+            .builder(LOGINS_METER_NAME)
+            .description(LOGINS_METER_DESCRIPTION)
+            .tag(LOGINS_METER_OUTCOME_DIMENSION, outcome)
+            .publishPercentileHistogram();
+    }
+
+    private Counter.Builder throttledLoginsCounterForKeyBuilder(String key) {
+        return Counter
+            .builder(THROTTLED_LOGINS_METER_NAME)
+            .baseUnit(THROTTLED_LOGINS_METER_BASE_UNIT)
+            .description(THROTTLED_LOGINS_METER_DESCRIPTION)
+            .tag(THROTTLED_LOGINS_METER_KEY_DIMENSION, key);
+    }
+
+    /**
+     * Publish the number of tokens in the cache of verified tokens.
+     *
+     * @param cache the cache.
+     * @param size how to get its size.
+     */
+    public <T> void registerTokenCacheSize(T cache, ToDoubleFunction<T> size) {
+        Gauge
+            .builder(TOKEN_CACHE_SIZE_METER_NAME, cache, size)
+            .description("Indicates the number of verified tokens cached.")
+            .register(registry);
+    }
+
+    /**
+     * Publish the number of logins and emails in the cache of users.
+     *
+     * @param cache the cache.
+     * @param size how to get its size.
+     */
+    public <T> void registerUserDetailsCacheSize(T cache, ToDoubleFunction<T> size) {
+        Gauge
+            .builder(USER_DETAILS_CACHE_SIZE_METER_NAME, cache, size)
+            .description("Indicates the number of logins and emails whose user is cached.")
+            .register(registry);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -48,4 +166,50 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenRevoked() {
+        this.tokenRevokedCounter.increment();
+    }
+
+    public void trackTokenCacheHit() {
+        this.tokenCacheHitCounter.increment();
+    }
+
+    public void trackTokenCacheMiss() {
+        this.tokenCacheMissCounter.increment();
+    }
+
+    public void trackUserDetailsCacheHit() {
+        this.userDetailsCacheHitCounter.increment();
+    }
+
+    public void trackUserDetailsCacheUnknown() {
+        this.userDetailsCacheUnknownCounter.increment();
+    }
+
+    public void trackUserDetailsCacheMiss() {
+        this.userDetailsCacheMissCounter.increment();
+    }
+
+    /**
+     * Record a login, from when it was submitted to when its credentials were verified.
+     *
+     * @param nanos how long it took.
+     * @param success whether the credentials were right.
+     */
+    public void trackLogin(long nanos, boolean success) {
+        (success ? this.loginSuccessTimer : this.loginFailureTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackLoginRejected() {
+        this.loginRejectedCounter.increment();
+    }
+
+    public void trackLoginThrottledByLogin() {
+        this.loginThrottledByLoginCounter.increment();
+    }
+
+    public void trackLoginThrottledByClientIp() {
+        this.loginThrottledByClientIpCounter.increment();
+    }
 }
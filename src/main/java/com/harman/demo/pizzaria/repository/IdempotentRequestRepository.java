@@ -0,0 +1,24 @@
+package com.harman.demo.pizzaria.repository;
+
+import com.harman.demo.pizzaria.domain.IdempotentRequest;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the IdempotentRequest entity.
+ */
+@Repository
+public interface IdempotentRequestRepository extends JpaRepository<IdempotentRequest, String> {
+    @Modifying
+    @Query("delete from IdempotentRequest idempotentRequest where idempotentRequest.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    /**
+     * Delete a request unless it was claimed again since it expired.
+     */
+    @Modifying
+    @Query("delete from IdempotentRequest idempotentRequest where idempotentRequest.id = :id and idempotentRequest.expiresAt <= :now")
+    int deleteExpiredById(@Param("id") String id, @Param("now") Instant now);
+}
@@ -0,0 +1,140 @@
+package com.harman.demo.pizzaria.repository;
+
+import java.util.Objects;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.support.DefaultFormattingConversionService;
+
+/**
+ * Position in a keyset (seek) paginated listing: the sort property and direction, the sort value and id of the last
+ * row already read, and the number of rows to read next.
+ * <p>
+ * Rows are ordered by the sort property, then by id in the same direction, so the position is unique. The next rows
+ * are found with a seek predicate such as {@code name > :name or (name = :name and id > :id)} instead of an
+ * offset, so reading a deep page costs the same as reading the first one. The sort property must be a mandatory
+ * column, since {@code null} values cannot be compared, and not a floating point one, since the value read back does
+ * not compare equal to the stored one, which would skip the rows tied at a page boundary.
+ * <p>
+ * The sort value is kept as a string, converted to and from the type of the property, so keysets can be carried by
+ * clients.
+ */
+public final class Keyset {
+
+    private static final ConversionService CONVERSION_SERVICE = new DefaultFormattingConversionService();
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    private final String lastValue;
+
+    private final Long lastId;
+
+    private final int size;
+
+    private Keyset(String property, Sort.Direction direction, String lastValue, Long lastId, int size) {
+        this.property = Objects.requireNonNull(property);
+        this.direction = Objects.requireNonNull(direction);
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+        this.size = size;
+    }
+
+    /**
+     * Position before the first row.
+     *
+     * @param order the sort property and direction.
+     * @param size the number of rows to read.
+     * @return the keyset.
+     */
+    public static Keyset first(Sort.Order order, int size) {
+        return new Keyset(order.getProperty(), order.getDirection(), null, null, size);
+    }
+
+    /**
+     * Position after a given row.
+     *
+     * @param property the sort property.
+     * @param direction the sort direction.
+     * @param lastValue the sort value of the last row read, as a string.
+     * @param lastId the id of the last row read.
+     * @param size the number of rows to read.
+     * @return the keyset.
+     */
+    public static Keyset after(String property, Sort.Direction direction, String lastValue, Long lastId, int size) {
+        return new Keyset(property, direction, Objects.requireNonNull(lastValue), Objects.requireNonNull(lastId), size);
+    }
+
+    /**
+     * Position after a row of the current page.
+     *
+     * @param value the sort value of the row.
+     * @param id the id of the row.
+     * @return the keyset.
+     */
+    public Keyset next(Object value, Long id) {
+        return after(property, direction, CONVERSION_SERVICE.convert(value, String.class), id, size);
+    }
+
+    public boolean isFirst() {
+        return lastId == null;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * Get the sort value of the last row read.
+     *
+     * @param type the type of the sort property.
+     * @param <Y> the type of the sort property.
+     * @return the value.
+     * @throws IllegalArgumentException if the value cannot be converted.
+     */
+    public <Y> Y getLastValue(Class<Y> type) {
+        try {
+            return CONVERSION_SERVICE.convert(lastValue, type);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + property + " value: " + lastValue, e);
+        }
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the order of the rows: by the sort property, then by id.
+     *
+     * @return the sort.
+     */
+    public Sort getSort() {
+        Sort sort = Sort.by(direction, property);
+        return "id".equals(property) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "Keyset{" +
+            "property='" + property + "'" +
+            ", direction=" + direction +
+            ", lastValue='" + lastValue + "'" +
+            ", lastId=" + lastId +
+            ", size=" + size +
+            "}";
+    }
+}
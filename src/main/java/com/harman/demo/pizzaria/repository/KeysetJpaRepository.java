@@ -0,0 +1,108 @@
+package com.harman.demo.pizzaria.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+/**
+ * Base class of the repositories, adding {@link KeysetRepository} and {@link MultiGetRepository} support to
+ * {@link SimpleJpaRepository}.
+ *
+ * @param <T> the entity type.
+ * @param <ID> the id type.
+ */
+public class KeysetJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> implements KeysetRepository<T>, MultiGetRepository<T, ID> {
+
+    private final EntityManager entityManager;
+
+    public KeysetJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * One row more than requested is read, to know whether there is a next page.
+     */
+    @Override
+    public Slice<T> findAll(Specification<T> specification, Keyset keyset) {
+        Specification<T> seek = keyset.isFirst()
+            ? null
+            : (root, query, cb) -> seek(root.get(keyset.getProperty()), root.get("id"), keyset, cb);
+        TypedQuery<T> query = getQuery(Specification.where(specification).and(seek), getDomainClass(), keyset.getSort());
+        query.setMaxResults(keyset.getSize() + 1);
+        List<T> rows = query.getResultList();
+        boolean hasNext = rows.size() > keyset.getSize();
+        List<T> content = hasNext ? rows.subList(0, keyset.getSize()) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, keyset.getSize(), keyset.getSort()), hasNext);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * One row more than requested is read, to know whether there is a next page.
+     */
+    @Override
+    public Slice<T> findSlice(Specification<T> specification, Pageable pageable) {
+        TypedQuery<T> query = getQuery(specification, getDomainClass(), pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<T> multiGet(Collection<ID> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        List<T> entities = new ArrayList<>(ids.size());
+        List<ID> misses = new ArrayList<>();
+        for (ID id : ids) {
+            // an entry evicted since the check is loaded by find() with its own query, so results stay correct
+            T cached = cache.contains(getDomainClass(), id) ? entityManager.find(getDomainClass(), id) : null;
+            if (cached != null) {
+                entities.add(cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            entities.addAll(findAllById(misses));
+        }
+        return entities;
+    }
+
+    /**
+     * Build {@code value > :last or (value = :last and id > :lastId)}, or its descending counterpart.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Predicate seek(Path value, Path<Long> id, Keyset keyset, CriteriaBuilder cb) {
+        boolean ascending = keyset.getDirection() == Sort.Direction.ASC;
+        Long lastId = keyset.getLastId();
+        Predicate idAfter = ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+        if ("id".equals(keyset.getProperty())) {
+            return idAfter;
+        }
+        Comparable last = (Comparable) keyset.getLastValue(value.getJavaType());
+        Predicate valueAfter = ascending ? cb.greaterThan(value, last) : cb.lessThan(value, last);
+        return cb.or(valueAfter, cb.and(cb.equal(value, last), idAfter));
+    }
+}
@@ -0,0 +1,33 @@
+package com.harman.demo.pizzaria.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Repository supporting pagination without counting rows, implemented by {@link KeysetJpaRepository}: keyset (seek)
+ * pagination, and offset pagination returning a {@link Slice}.
+ *
+ * @param <T> the entity type, which must have a {@code Long id}.
+ */
+@NoRepositoryBean
+public interface KeysetRepository<T> {
+    /**
+     * Get the rows following a keyset, without counting them all.
+     *
+     * @param specification additional filters, or {@code null}.
+     * @param keyset the position to read from.
+     * @return the next rows, and whether there are more.
+     */
+    Slice<T> findAll(Specification<T> specification, Keyset keyset);
+
+    /**
+     * Get a page of rows, without counting them all.
+     *
+     * @param specification filters, or {@code null}.
+     * @param pageable the pagination information.
+     * @return the rows, and whether there are more.
+     */
+    Slice<T> findSlice(Specification<T> specification, Pageable pageable);
+}
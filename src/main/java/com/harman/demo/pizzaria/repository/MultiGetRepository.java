@@ -0,0 +1,25 @@
+package com.harman.demo.pizzaria.repository;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Repository loading several entities by id at once, implemented by {@link KeysetJpaRepository}.
+ *
+ * @param <T> the entity type.
+ * @param <ID> the id type.
+ */
+@NoRepositoryBean
+public interface MultiGetRepository<T, ID> {
+    /**
+     * Get the entities with the given ids, reading the second-level cache first.
+     * <p>
+     * Entities held by the second-level cache are resolved without a query; the others are loaded with a single
+     * {@code IN} query.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities found, in no particular order.
+     */
+    List<T> multiGet(Collection<ID> ids);
+}
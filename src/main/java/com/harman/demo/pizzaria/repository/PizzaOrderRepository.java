@@ -0,0 +1,16 @@
+package com.harman.demo.pizzaria.repository;
+
+import com.harman.demo.pizzaria.domain.PizzaOrder;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the PizzaOrder entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface PizzaOrderRepository extends JpaRepository<PizzaOrder, Long> {
+    Optional<PizzaOrder> findOneByReference(UUID reference);
+}
@@ -1,6 +1,12 @@
 package com.harman.demo.pizzaria.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.harman.demo.pizzaria.domain.Pizza;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +15,23 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PizzaRepository extends JpaRepository<Pizza, Long> {}
+public interface PizzaRepository
+    extends JpaRepository<Pizza, Long>, JpaSpecificationExecutor<Pizza>, KeysetRepository<Pizza>, MultiGetRepository<Pizza, Long> {
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * Stream all the pizzas, ordered by id. Rows are read from a server-side cursor {@link #EXPORT_FETCH_SIZE} at a time,
+     * and the entities are neither put in the second-level cache nor tracked for changes.
+     *
+     * @return the pizzas, to be consumed within the transaction.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query("select pizza from Pizza pizza order by pizza.id")
+    Stream<Pizza> streamAll();
+}
@@ -0,0 +1,20 @@
+package com.harman.demo.pizzaria.repository;
+
+import com.harman.demo.pizzaria.domain.TokenRevocation;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the TokenRevocation entity.
+ */
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, String> {
+    List<TokenRevocation> findAllByExpiresAtAfter(Instant now);
+
+    @Modifying
+    @Query("delete from TokenRevocation tokenRevocation where tokenRevocation.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,7 +1,16 @@
 package com.harman.demo.pizzaria.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.harman.demo.pizzaria.domain.Topping;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +18,30 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ToppingRepository extends JpaRepository<Topping, Long>, JpaSpecificationExecutor<Topping> {}
+public interface ToppingRepository
+    extends JpaRepository<Topping, Long>, JpaSpecificationExecutor<Topping>, KeysetRepository<Topping>, MultiGetRepository<Topping, Long> {
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * Stream all the toppings, ordered by id. Rows are read from a server-side cursor {@link #EXPORT_FETCH_SIZE} at a time,
+     * and the entities are neither put in the second-level cache nor tracked for changes.
+     *
+     * @return the toppings, to be consumed within the transaction.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query("select topping from Topping topping order by topping.id")
+    Stream<Topping> streamAll();
+
+    /**
+     * @param names the names to look for, compared by the collation of the column.
+     * @return the names of the toppings found, as stored.
+     */
+    @Query("select topping.name from Topping topping where topping.name in :names")
+    Set<String> findExistingNames(@Param("names") Collection<String> names);
+}
@@ -13,50 +13,74 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * Users are looked up in the {@link UserDetailsCache} first, and only read from the database, in a read-only
+ * transaction, when not cached.
  */
 @Component("userDetailsService")
 public class DomainUserDetailsService implements UserDetailsService {
 
+    private static final EmailValidator EMAIL_VALIDATOR = new EmailValidator();
+
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final UserDetailsCache userDetailsCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public DomainUserDetailsService(
+        UserRepository userRepository,
+        UserDetailsCache userDetailsCache,
+        PlatformTransactionManager transactionManager
+    ) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
     }
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
 
-        if (new EmailValidator().isValid(login, null)) {
-            return userRepository
-                .findOneWithAuthoritiesByEmailIgnoreCase(login)
-                .map(user -> createSpringSecurityUser(login, user))
-                .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
+        String key = UserDetailsCache.key(login);
+        UserDetailsCache.CachedUser user = userDetailsCache.get(key);
+        if (user == null) {
+            long generation = userDetailsCache.generation(key);
+            user = transactionTemplate.execute(status -> findUser(login));
+            userDetailsCache.put(key, user, generation);
+        }
+        if (user == UserDetailsCache.UNKNOWN) {
+            throw new UsernameNotFoundException("User " + key + " was not found in the database");
+        }
+        if (!user.isActivated()) {
+            throw new UserNotActivatedException("User " + key + " was not activated");
+        }
+        return user.toUserDetails();
+    }
+
+    private UserDetailsCache.CachedUser findUser(String login) {
+        if (EMAIL_VALIDATOR.isValid(login, null)) {
+            return userRepository.findOneWithAuthoritiesByEmailIgnoreCase(login).map(this::toCachedUser).orElse(UserDetailsCache.UNKNOWN);
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
-        return userRepository
-            .findOneWithAuthoritiesByLogin(lowercaseLogin)
-            .map(user -> createSpringSecurityUser(lowercaseLogin, user))
-            .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
+        return userRepository.findOneWithAuthoritiesByLogin(lowercaseLogin).map(this::toCachedUser).orElse(UserDetailsCache.UNKNOWN);
     }
 
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
-        if (!user.isActivated()) {
-            throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
-        }
+    private UserDetailsCache.CachedUser toCachedUser(User user) {
         List<GrantedAuthority> grantedAuthorities = user
             .getAuthorities()
             .stream()
             .map(authority -> new SimpleGrantedAuthority(authority.getName()))
             .collect(Collectors.toList());
-        return new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(), grantedAuthorities);
+        return new UserDetailsCache.CachedUser(user.getLogin(), user.getPassword(), grantedAuthorities, user.isActivated());
     }
 }
@@ -0,0 +1,15 @@
+package com.harman.demo.pizzaria.security;
+
+/**
+ * Thrown when too many logins wait for their password to be verified, so the client should retry later.
+ * <p>
+ * It is thrown at the rate of the logins refused during a burst, so it has no stack trace to fill in and log.
+ */
+public class LoginCapacityExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LoginCapacityExceededException() {
+        super("Too many logins in progress, please retry later", null, false, false);
+    }
+}
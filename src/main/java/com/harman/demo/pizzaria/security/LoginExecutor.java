@@ -0,0 +1,108 @@
+package com.harman.demo.pizzaria.security;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.management.SecurityMetersService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates the users logging in with their password, on threads of its own.
+ * <p>
+ * BCrypt makes verifying a password cost tens of milliseconds of CPU on purpose, so a burst of logins run on the server
+ * worker threads would hold all of them and stall every other request. Logins instead wait for one of
+ * {@code application.security.login.threads} threads, half the processors by default, so they hold neither a worker
+ * thread nor every processor. Beyond {@code application.security.login.queue-capacity} logins waiting, they are refused
+ * at once, and logins which waited longer than {@code application.security.login.max-wait-ms} are refused rather than
+ * verified.
+ */
+@Component
+public class LoginExecutor {
+
+    private final AuthenticationManagerBuilder authenticationManagerBuilder;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long maxWaitNanos;
+
+    public LoginExecutor(
+        ApplicationProperties applicationProperties,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        SecurityMetersService securityMetersService
+    ) {
+        ApplicationProperties.Security.Login properties = applicationProperties.getSecurity().getLogin();
+        if (properties.getThreads() < 1 || properties.getQueueCapacity() < 1) {
+            throw new IllegalArgumentException("application.security.login.threads and queue-capacity must be positive");
+        }
+        this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.securityMetersService = securityMetersService;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(properties.getMaxWaitMs());
+        this.executor =
+            new ThreadPoolExecutor(
+                properties.getThreads(),
+                properties.getThreads(),
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                threadFactory("login-")
+            );
+    }
+
+    /**
+     * Authenticate a user with their password.
+     *
+     * @param authenticationToken the login and the password.
+     * @return the authentication of the user, failed with an {@link org.springframework.security.core.AuthenticationException}
+     * if the credentials are wrong, or with a {@link LoginCapacityExceededException} if it waited too long.
+     * @throws LoginCapacityExceededException if too many logins are waiting.
+     */
+    public CompletableFuture<Authentication> authenticate(Authentication authenticationToken) {
+        long start = System.nanoTime();
+        CompletableFuture<Authentication> authentication = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (System.nanoTime() - start > maxWaitNanos) {
+                    securityMetersService.trackLoginRejected();
+                    authentication.completeExceptionally(new LoginCapacityExceededException());
+                    return;
+                }
+                try {
+                    Authentication authenticated = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+                    securityMetersService.trackLogin(System.nanoTime() - start, true);
+                    authentication.complete(authenticated);
+                } catch (RuntimeException e) {
+                    securityMetersService.trackLogin(System.nanoTime() - start, false);
+                    authentication.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            securityMetersService.trackLoginRejected();
+            throw new LoginCapacityExceededException();
+        }
+        return authentication;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.harman.demo.pizzaria.security;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.management.SecurityMetersService;
+import java.time.Clock;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the login attempts per login and per client IP, with token buckets.
+ * <p>
+ * Each attempt costs a BCrypt hash, so attempts beyond the buckets are refused before the user is even looked up. The
+ * buckets live in tables of {@code application.security.login-throttle.max-entries} entries, so an attack spread over
+ * many logins or addresses evicts buckets rather than growing the memory used.
+ */
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+
+    private final TokenBuckets logins;
+
+    private final TokenBuckets clientIps;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final Clock clock;
+
+    @Autowired
+    public LoginThrottle(ApplicationProperties applicationProperties, SecurityMetersService securityMetersService) {
+        this(applicationProperties, securityMetersService, Clock.systemUTC());
+    }
+
+    LoginThrottle(ApplicationProperties applicationProperties, SecurityMetersService securityMetersService, Clock clock) {
+        ApplicationProperties.Security.LoginThrottle properties = applicationProperties.getSecurity().getLoginThrottle();
+        this.enabled = properties.isEnabled();
+        this.logins = buckets(properties.getMaxEntries(), properties.getLogin());
+        this.clientIps = buckets(properties.getMaxEntries(), properties.getClientIp());
+        this.securityMetersService = securityMetersService;
+        this.clock = clock;
+    }
+
+    /**
+     * Take an attempt from the buckets of a login and of the client it comes from.
+     *
+     * @param login the login, in any case.
+     * @param clientIp the address of the client, or {@code null} if unknown, so the attempt only counts against the
+     * login: the address of a proxy would be shared by all its clients.
+     * @throws LoginThrottledException if either bucket is empty.
+     */
+    public void acquire(String login, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.millis();
+        long waitMillis = clientIp == null ? 0 : clientIps.tryAcquire(clientIp, now);
+        if (waitMillis > 0) {
+            securityMetersService.trackLoginThrottledByClientIp();
+            throw new LoginThrottledException(retryAfterSeconds(waitMillis));
+        }
+        waitMillis = logins.tryAcquire(login.toLowerCase(Locale.ENGLISH), now);
+        if (waitMillis > 0) {
+            securityMetersService.trackLoginThrottledByLogin();
+            throw new LoginThrottledException(retryAfterSeconds(waitMillis));
+        }
+    }
+
+    private static long retryAfterSeconds(long waitMillis) {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999));
+    }
+
+    private static TokenBuckets buckets(int maxEntries, ApplicationProperties.Security.LoginThrottle.Bucket bucket) {
+        return new TokenBuckets(maxEntries, bucket.getCapacity(), bucket.getRefillPerMinute());
+    }
+}
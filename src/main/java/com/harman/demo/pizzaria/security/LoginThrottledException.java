@@ -0,0 +1,25 @@
+package com.harman.demo.pizzaria.security;
+
+/**
+ * Thrown when a login, or the client it comes from, used up its login attempts for now.
+ * <p>
+ * It is thrown at the rate of the attempts of an attack, so it has no stack trace to fill in and log.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Too many login attempts, please retry later", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the number of seconds until another attempt is allowed.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,209 @@
+package com.harman.demo.pizzaria.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache whose entries expire, split into {@code stripes} parts locked independently, each holding at most its
+ * share of {@code maxEntries} and evicting its least recently used entries first. Expired entries are dropped when
+ * looked up, or evicted.
+ * <p>
+ * A value loaded while its key is removed may be stale: each stripe counts its removals, so a caller can take the
+ * {@link #generation(Object)} of a key before loading its value, and only keep the value if nothing was removed from
+ * the stripe meanwhile.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public final class StripedLruCache<K, V> {
+
+    private final Stripe<K, V>[] stripes;
+
+    private final int stripeMaxEntries;
+
+    /**
+     * @param maxEntries the number of entries kept, {@code 0} to keep none.
+     * @param stripes the number of parts locked independently, rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public StripedLruCache(int maxEntries, int stripes) {
+        int requested = Math.max(1, Math.min(stripes, maxEntries));
+        this.stripes = new Stripe[Integer.highestOneBit(requested) == requested ? requested : Integer.highestOneBit(requested) << 1];
+        this.stripeMaxEntries = maxEntries <= 0 ? 0 : Math.max(1, maxEntries / this.stripes.length);
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe<>(stripeMaxEntries);
+        }
+    }
+
+    /**
+     * @return whether entries are kept at all.
+     */
+    public boolean isEnabled() {
+        return stripeMaxEntries > 0;
+    }
+
+    /**
+     * Get the value of a key, unless it expired.
+     *
+     * @param key the key.
+     * @param now the current time, in milliseconds since the epoch.
+     * @return the value, or {@code null}.
+     */
+    public V get(K key, long now) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Stripe<K, V> stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            Entry<V> entry = stripe.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                stripe.entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Keep the value of a key.
+     *
+     * @param key the key.
+     * @param value the value.
+     * @param expiresAt when the value expires, in milliseconds since the epoch.
+     */
+    public void put(K key, V value, long expiresAt) {
+        if (!isEnabled()) {
+            return;
+        }
+        Stripe<K, V> stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            stripe.entries.put(key, new Entry<>(value, expiresAt));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Keep the value of a key, unless a key was removed from its stripe since its generation was taken.
+     *
+     * @param key the key.
+     * @param value the value.
+     * @param expiresAt when the value expires, in milliseconds since the epoch.
+     * @param generation the {@link #generation(Object)} of the key taken before loading the value.
+     * @return whether the value was kept.
+     */
+    public boolean put(K key, V value, long expiresAt, long generation) {
+        if (!isEnabled()) {
+            return false;
+        }
+        Stripe<K, V> stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            if (stripe.removals != generation) {
+                return false;
+            }
+            stripe.entries.put(key, new Entry<>(value, expiresAt));
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Get the generation of a key, to take before loading its value.
+     *
+     * @param key the key.
+     * @return the generation, which changes whenever a key of the same stripe is removed.
+     */
+    public long generation(K key) {
+        Stripe<K, V> stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            return stripe.removals;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the value of a key, and make the values loaded meanwhile unfit to keep.
+     *
+     * @param key the key.
+     */
+    public void remove(K key) {
+        if (!isEnabled()) {
+            return;
+        }
+        Stripe<K, V> stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(key);
+            stripe.removals++;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of entries, including those expired but not dropped yet.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Stripe<K, V> stripe(K key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Stripe<K, V> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final LinkedHashMap<K, Entry<V>> entries;
+
+        /**
+         * Number of keys removed, guarded by {@link #lock}.
+         */
+        private long removals;
+
+        Stripe(int maxEntries) {
+            this.entries =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                        return size() > maxEntries;
+                    }
+                };
+        }
+    }
+}
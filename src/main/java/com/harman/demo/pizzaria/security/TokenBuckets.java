@@ -0,0 +1,109 @@
+package com.harman.demo.pizzaria.security;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Token buckets keyed by string, in a table of fixed size updated without locks.
+ * <p>
+ * Each key may only live in one of the {@value #WAYS} slots of the set its hash points to. A key which is not there
+ * takes an empty slot, or else evicts the bucket of the set which refilled the most: evicting a full bucket forgets
+ * nothing, so only a set crowded with exhausted buckets loses track of one. Buckets are immutable and replaced by
+ * compare-and-set, so two threads adding the same key at once may each get a slot, until one is evicted.
+ */
+final class TokenBuckets {
+
+    static final int WAYS = 4;
+
+    private final AtomicReferenceArray<Bucket> slots;
+
+    private final int setMask;
+
+    private final double capacity;
+
+    private final double tokensPerMilli;
+
+    /**
+     * @param maxEntries the number of buckets kept, rounded up to a power of two.
+     * @param capacity the number of tokens of a full bucket.
+     * @param refillPerMinute the number of tokens added to a bucket per minute.
+     */
+    TokenBuckets(int maxEntries, int capacity, int refillPerMinute) {
+        if (capacity < 1 || refillPerMinute < 1) {
+            throw new IllegalArgumentException("capacity and refillPerMinute must be positive");
+        }
+        int sets = Math.max(1, maxEntries / WAYS);
+        sets = Integer.highestOneBit(sets) == sets ? sets : Integer.highestOneBit(sets) << 1;
+        this.slots = new AtomicReferenceArray<>(sets * WAYS);
+        this.setMask = sets - 1;
+        this.capacity = capacity;
+        this.tokensPerMilli = refillPerMinute / 60_000.0;
+    }
+
+    /**
+     * Take a token from the bucket of a key.
+     *
+     * @param key the key.
+     * @param now the current time, in milliseconds.
+     * @return {@code 0} if a token was taken, or else the number of milliseconds until one is available.
+     */
+    long tryAcquire(String key, long now) {
+        int h = key.hashCode();
+        int first = ((h ^ (h >>> 16)) & setMask) * WAYS;
+        while (true) {
+            int victim = -1;
+            Bucket victimBucket = null;
+            double victimTokens = -1;
+            boolean raced = false;
+            for (int slot = first; slot < first + WAYS && !raced; slot++) {
+                Bucket bucket = slots.get(slot);
+                double tokens = bucket == null ? Double.MAX_VALUE : bucket.tokensAt(now, capacity, tokensPerMilli);
+                if (bucket != null && bucket.key.equals(key)) {
+                    if (tokens < 1) {
+                        return (long) Math.ceil((1 - tokens) / tokensPerMilli);
+                    }
+                    if (slots.compareAndSet(slot, bucket, new Bucket(key, tokens - 1, now))) {
+                        return 0;
+                    }
+                    raced = true;
+                } else if (tokens > victimTokens) {
+                    victim = slot;
+                    victimBucket = bucket;
+                    victimTokens = tokens;
+                }
+            }
+            // A key not seen yet starts with a full bucket
+            if (!raced && slots.compareAndSet(victim, victimBucket, new Bucket(key, capacity - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            if (slots.get(slot) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static final class Bucket {
+
+        private final String key;
+
+        private final double tokens;
+
+        private final long updatedAt;
+
+        Bucket(String key, double tokens, long updatedAt) {
+            this.key = key;
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+
+        double tokensAt(long now, double capacity, double tokensPerMilli) {
+            return Math.min(capacity, tokens + Math.max(0, now - updatedAt) * tokensPerMilli);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.harman.demo.pizzaria.security;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.management.SecurityMetersService;
+import java.time.Clock;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded cache of the users logging in, by lowercased login or email, ready to be returned by
+ * {@link DomainUserDetailsService}.
+ * <p>
+ * Users found are kept for {@code application.security.user-details-cache.time-to-live-ms}, and logins or emails
+ * matching no user for the shorter {@code unknown-time-to-live-ms}, so repeated attempts with unknown logins do not all
+ * reach the database. Entries are kept in a {@link StripedLruCache}.
+ * <p>
+ * The entries of a user are evicted when the user changes, and again once the transaction changing it completes. A
+ * user loaded meanwhile, possibly as it was before the change, is only kept if no eviction happened since the
+ * {@link #generation(String)} taken before loading it. Changes made through other instances are seen once the entries
+ * expire.
+ */
+@Component
+public class UserDetailsCache {
+
+    /**
+     * The value cached for the logins and emails matching no user.
+     */
+    static final CachedUser UNKNOWN = new CachedUser(null, null, List.of(), false);
+
+    private final StripedLruCache<String, CachedUser> cache;
+
+    private final long timeToLiveMillis;
+
+    private final long unknownTimeToLiveMillis;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final Clock clock;
+
+    @Autowired
+    public UserDetailsCache(ApplicationProperties applicationProperties, SecurityMetersService securityMetersService) {
+        this(applicationProperties.getSecurity().getUserDetailsCache(), securityMetersService, Clock.systemUTC());
+    }
+
+    UserDetailsCache(ApplicationProperties.Security.UserDetailsCache properties, SecurityMetersService securityMetersService, Clock clock) {
+        this.cache = new StripedLruCache<>(properties.getMaxEntries(), properties.getStripes());
+        this.timeToLiveMillis = properties.getTimeToLiveMs();
+        this.unknownTimeToLiveMillis = properties.getUnknownTimeToLiveMs();
+        this.securityMetersService = securityMetersService;
+        this.clock = clock;
+        securityMetersService.registerUserDetailsCacheSize(this, UserDetailsCache::size);
+    }
+
+    /**
+     * Get the key of a login or email.
+     *
+     * @param login the login or email.
+     * @return its key.
+     */
+    static String key(String login) {
+        return login.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Get the user of a login or email, unless it expired.
+     *
+     * @param key the key of the login or email.
+     * @return the user, {@link #UNKNOWN} if there is none, or {@code null} if not cached.
+     */
+    CachedUser get(String key) {
+        CachedUser user = cache.get(key, clock.millis());
+        if (user == null) {
+            securityMetersService.trackUserDetailsCacheMiss();
+        } else if (user == UNKNOWN) {
+            securityMetersService.trackUserDetailsCacheUnknown();
+        } else {
+            securityMetersService.trackUserDetailsCacheHit();
+        }
+        return user;
+    }
+
+    /**
+     * Get the generation of a login or email, to take before loading its user.
+     *
+     * @param key the key of the login or email.
+     * @return the generation.
+     */
+    long generation(String key) {
+        return cache.generation(key);
+    }
+
+    /**
+     * Keep the user of a login or email, unless an eviction since its generation was taken may have made it stale.
+     *
+     * @param key the key of the login or email.
+     * @param user the user, or {@link #UNKNOWN} if there is none.
+     * @param generation the {@link #generation(String)} taken before loading the user.
+     */
+    void put(String key, CachedUser user, long generation) {
+        long expiresAt = clock.millis() + (user == UNKNOWN ? unknownTimeToLiveMillis : timeToLiveMillis);
+        cache.put(key, user, expiresAt, generation);
+    }
+
+    /**
+     * Evict the entries of a user, now and once the current transaction completes, if any.
+     *
+     * @param login the login of the user.
+     * @param email the email of the user, or {@code null}.
+     */
+    public void evict(String login, String email) {
+        evictNow(login, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        evictNow(login, email);
+                    }
+                }
+            );
+        }
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    private void evictNow(String login, String email) {
+        for (String value : new String[] { login, email }) {
+            if (value != null) {
+                cache.remove(key(value));
+            }
+        }
+    }
+
+    /**
+     * What is needed of a user to authenticate it, without the entity.
+     */
+    static final class CachedUser {
+
+        private final String login;
+
+        private final String password;
+
+        private final List<GrantedAuthority> authorities;
+
+        private final boolean activated;
+
+        CachedUser(String login, String password, List<GrantedAuthority> authorities, boolean activated) {
+            this.login = login;
+            this.password = password;
+            this.authorities = List.copyOf(authorities);
+            this.activated = activated;
+        }
+
+        boolean isActivated() {
+            return activated;
+        }
+
+        /**
+         * @return new user details, since the authentication manager erases the password of those it returns.
+         */
+        UserDetails toUserDetails() {
+            return new User(login, password, authorities);
+        }
+    }
+}
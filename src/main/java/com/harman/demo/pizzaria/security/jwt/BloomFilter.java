@@ -0,0 +1,85 @@
+package com.harman.demo.pizzaria.security.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of strings, which may be added to while it is read.
+ * <p>
+ * The bits are derived from a single 64-bit hash of the string, split in two hashes combined as
+ * {@code h1 + i * h2} for each of the {@code k} bits.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+
+    private final long bits;
+
+    private final int hashes;
+
+    /**
+     * @param expectedEntries the number of strings the filter is sized for.
+     * @param falsePositiveRate the rate of strings not added which the filter may contain, once it holds
+     * {@code expectedEntries}.
+     */
+    BloomFilter(int expectedEntries, double falsePositiveRate) {
+        int entries = Math.max(1, expectedEntries);
+        double rate = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+        long optimalBits = (long) Math.ceil(-entries * Math.log(rate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) Math.max(1, (optimalBits + 63) / 64));
+        this.bits = words.length() * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / entries * Math.log(2)));
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.accumulateAndGet(word, mask, (current, set) -> current | set);
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the string was never added, {@code true} if it may have been.
+     */
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long bitCount() {
+        return bits;
+    }
+
+    int hashCount() {
+        return hashes;
+    }
+
+    private static long hash(String value) {
+        // FNV-1a over the chars, then the MurmurHash3 finalizer to spread them over all 64 bits
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
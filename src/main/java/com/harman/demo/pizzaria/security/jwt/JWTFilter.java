@@ -1,6 +1,7 @@
 package com.harman.demo.pizzaria.security.jwt;
 
 import java.io.IOException;
+import java.util.Optional;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
@@ -30,9 +31,11 @@ public class JWTFilter extends GenericFilterBean {
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(jwt)) {
+            Optional<Authentication> authentication = this.tokenProvider.authenticate(jwt);
+            if (authentication.isPresent()) {
+                SecurityContextHolder.getContext().setAuthentication(authentication.get());
+            }
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
@@ -1,16 +1,25 @@
 package com.harman.demo.pizzaria.security.jwt;
 
+import com.harman.demo.pizzaria.config.ApplicationProperties;
 import com.harman.demo.pizzaria.management.SecurityMetersService;
+import com.harman.demo.pizzaria.security.StripedLruCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -20,6 +29,18 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 import tech.jhipster.config.JHipsterProperties;
 
+/**
+ * Creates and verifies the JWT tokens authenticating the users.
+ * <p>
+ * {@link #authenticate(String)} verifies a token once, then keeps the authentication it grants in a
+ * {@link StripedLruCache} keyed by its SHA-256 digest, so the cache holds no credentials, up to
+ * {@code application.security.token-cache.max-entries}, until the token expires: the requests of a user presenting the
+ * same token again skip parsing it and checking its signature. Authorities are interned, so the tokens of all users
+ * with the same roles share them.
+ * <p>
+ * Tokens carry an id and their issue time, so they can be revoked one by one or per user before they expire, through
+ * {@link TokenRevocations}, which is checked for cached tokens too.
+ */
 @Component
 public class TokenProvider {
 
@@ -39,7 +60,39 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    private final Clock clock;
+
+    private final StripedLruCache<ByteBuffer, VerifiedToken> cache;
+
+    private final TokenRevocations tokenRevocations;
+
+    private final ConcurrentMap<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        SecurityMetersService securityMetersService,
+        ApplicationProperties applicationProperties,
+        TokenRevocations tokenRevocations
+    ) {
+        this(
+            jHipsterProperties,
+            securityMetersService,
+            applicationProperties.getSecurity().getTokenCache(),
+            tokenRevocations,
+            Clock.systemUTC()
+        );
+    }
+
+    TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        SecurityMetersService securityMetersService,
+        ApplicationProperties.Security.TokenCache tokenCache,
+        TokenRevocations tokenRevocations,
+        Clock clock
+    ) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -54,18 +107,22 @@ public class TokenProvider {
             keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         }
         key = Keys.hmacShaKeyFor(keyBytes);
-        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        jwtParser = Jwts.parserBuilder().setSigningKey(key).setClock(() -> new Date(clock.millis())).build();
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.clock = clock;
+        this.cache = new StripedLruCache<>(tokenCache.getMaxEntries(), tokenCache.getStripes());
+        this.tokenRevocations = tokenRevocations;
+        securityMetersService.registerTokenCacheSize(cache, StripedLruCache::size);
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
         String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
 
-        long now = (new Date()).getTime();
+        long now = clock.millis();
         Date validity;
         if (rememberMe) {
             validity = new Date(now + this.tokenValidityInMillisecondsForRememberMe);
@@ -75,32 +132,104 @@ public class TokenProvider {
 
         return Jwts
             .builder()
+            .setId(UUID.randomUUID().toString())
             .setSubject(authentication.getName())
+            .setIssuedAt(new Date(now))
             .claim(AUTHORITIES_KEY, authorities)
             .signWith(key, SignatureAlgorithm.HS512)
             .setExpiration(validity)
             .compact();
     }
 
+    /**
+     * Verify a token, and get the authentication it grants.
+     *
+     * @param token the compact JWT.
+     * @return the authentication, with the token as credentials, or empty if the token is invalid or revoked.
+     */
+    public Optional<Authentication> authenticate(String token) {
+        ByteBuffer key = digest(token);
+        VerifiedToken verified = cache.get(key, clock.millis());
+        if (verified != null) {
+            securityMetersService.trackTokenCacheHit();
+        } else {
+            securityMetersService.trackTokenCacheMiss();
+            Claims claims = parse(token);
+            if (claims == null) {
+                return Optional.empty();
+            }
+            verified = toVerifiedToken(claims);
+            if (claims.getExpiration() != null) {
+                cache.put(key, verified, claims.getExpiration().getTime());
+            }
+        }
+        Authentication authentication = verified.getAuthentication();
+        if (isRevoked(verified)) {
+            return Optional.empty();
+        }
+        return Optional.of(new UsernamePasswordAuthenticationToken(authentication.getPrincipal(), token, authentication.getAuthorities()));
+    }
+
+    /**
+     * Revoke a token before it expires.
+     *
+     * @param token the compact JWT.
+     * @return whether the token was revoked, {@code false} if it is invalid or has no id.
+     */
+    public boolean revokeToken(String token) {
+        Claims claims = parse(token);
+        if (claims == null || claims.getId() == null || claims.getExpiration() == null) {
+            return false;
+        }
+        tokenRevocations.revokeToken(claims.getId(), claims.getSubject(), claims.getExpiration().toInstant());
+        return true;
+    }
+
     public Authentication getAuthentication(String token) {
         Claims claims = jwtParser.parseClaimsJws(token).getBody();
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+        return toAuthentication(claims, token);
+    }
 
-        User principal = new User(claims.getSubject(), "", authorities);
+    public boolean validateToken(String authToken) {
+        Claims claims = parse(authToken);
+        return claims != null && !isRevoked(toVerifiedToken(claims));
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    private boolean isRevoked(VerifiedToken verified) {
+        if (tokenRevocations.isRevoked(verified.getId(), verified.getAuthentication().getName(), verified.getIssuedAt())) {
+            this.securityMetersService.trackTokenRevoked();
+            return true;
+        }
+        return false;
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Digest a token into its cache key.
+     *
+     * @param token the compact JWT.
+     * @return the key of the token.
+     */
+    private static ByteBuffer digest(String token) {
         try {
-            jwtParser.parseClaimsJws(authToken);
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform implements SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 
-            return true;
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        return new VerifiedToken(
+            toAuthentication(claims, null),
+            claims.getId(),
+            claims.getIssuedAt() == null ? 0 : claims.getIssuedAt().getTime()
+        );
+    }
+
+    private Claims parse(String authToken) {
+        try {
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -121,6 +250,23 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    private Authentication toAuthentication(Claims claims, String token) {
+        // Claims are signed by this application, so there are as many as combinations of authorities granted
+        Collection<? extends GrantedAuthority> authorities = authoritiesByClaim.computeIfAbsent(
+            claims.get(AUTHORITIES_KEY).toString(),
+            claim ->
+                Arrays
+                    .stream(claim.split(","))
+                    .filter(auth -> !auth.trim().isEmpty())
+                    .map(auth -> this.authorities.computeIfAbsent(auth, SimpleGrantedAuthority::new))
+                    .collect(Collectors.toUnmodifiableList())
+        );
+
+        User principal = new User(claims.getSubject(), "", authorities);
+
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
     }
 }
@@ -0,0 +1,249 @@
+package com.harman.demo.pizzaria.security.jwt;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.TokenRevocation;
+import com.harman.demo.pizzaria.repository.TokenRevocationRepository;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Denylist of the JWT tokens revoked before they expire, either one by one or all the tokens of a user issued until
+ * the revocation.
+ * <p>
+ * Revocations are written to the {@code token_revocation} table, and checked in memory on every request: a Bloom
+ * filter of the revoked token ids and one of the logins whose tokens are revoked tell most tokens apart with a few
+ * hashes, and only the tokens they may contain are looked up in the exact denylist. Revocations made here are added at
+ * once; the table is read back every {@code application.security.token-revocation.refresh-interval-ms} to learn those
+ * made by other instances, and rebuild the filters without the expired ones.
+ * <p>
+ * Token issue times are in seconds, so a user's tokens issued during the second of the revocation are revoked too.
+ */
+@Component
+public class TokenRevocations {
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocations.class);
+
+    private final ApplicationProperties.Security.TokenRevocation properties;
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final long longestTokenValidityMillis;
+
+    private final Clock clock;
+
+    private volatile Denylist denylist;
+
+    @Autowired
+    public TokenRevocations(
+        ApplicationProperties applicationProperties,
+        JHipsterProperties jHipsterProperties,
+        TokenRevocationRepository tokenRevocationRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this(
+            applicationProperties.getSecurity().getTokenRevocation(),
+            jHipsterProperties,
+            tokenRevocationRepository,
+            transactionManager,
+            Clock.systemUTC()
+        );
+    }
+
+    TokenRevocations(
+        ApplicationProperties.Security.TokenRevocation properties,
+        JHipsterProperties jHipsterProperties,
+        TokenRevocationRepository tokenRevocationRepository,
+        PlatformTransactionManager transactionManager,
+        Clock clock
+    ) {
+        this.properties = properties;
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.longestTokenValidityMillis = 1000 * Math.max(jwt.getTokenValidityInSeconds(), jwt.getTokenValidityInSecondsForRememberMe());
+        this.clock = clock;
+        this.denylist = new Denylist(properties.getExpectedEntries(), properties.getFalsePositiveRate());
+    }
+
+    /**
+     * Check whether a token is revoked.
+     *
+     * @param tokenId the id of the token, or {@code null} if it has none.
+     * @param login the login of its user.
+     * @param issuedAt when it was issued, in milliseconds since the epoch, or {@code 0} if unknown.
+     * @return whether it is revoked.
+     */
+    public boolean isRevoked(String tokenId, String login, long issuedAt) {
+        Denylist current = denylist;
+        if (tokenId != null && current.tokenIds.mightContain(tokenId) && current.tokens.containsKey(tokenId)) {
+            return true;
+        }
+        if (login != null && current.logins.mightContain(login)) {
+            UserRevocation revocation = current.users.get(login);
+            return revocation != null && issuedAt <= revocation.revokedAt;
+        }
+        return false;
+    }
+
+    /**
+     * Revoke a single token, in the current transaction if any.
+     *
+     * @param tokenId the id of the token.
+     * @param login the login of its user.
+     * @param expiresAt when it expires.
+     */
+    public void revokeToken(String tokenId, String login, Instant expiresAt) {
+        tokenRevocationRepository.save(
+            new TokenRevocation()
+                .id(UUID.randomUUID().toString())
+                .tokenId(tokenId)
+                .login(login)
+                .revokedAt(clock.instant())
+                .expiresAt(expiresAt)
+        );
+        synchronized (this) {
+            denylist.revokeToken(tokenId, expiresAt.toEpochMilli());
+        }
+        log.debug("Revoked token {} of user {}", tokenId, login);
+    }
+
+    /**
+     * Revoke all the tokens of a user issued until now, in the current transaction if any.
+     *
+     * @param login the login of the user.
+     */
+    public void revokeUser(String login) {
+        Instant now = clock.instant();
+        Instant expiresAt = now.plusMillis(longestTokenValidityMillis);
+        tokenRevocationRepository.save(
+            new TokenRevocation().id(UUID.randomUUID().toString()).login(login).revokedAt(now).expiresAt(expiresAt)
+        );
+        synchronized (this) {
+            denylist.revokeUser(login, new UserRevocation(now.toEpochMilli(), expiresAt.toEpochMilli()));
+        }
+        log.debug("Revoked the tokens of user {}", login);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    /**
+     * Delete the expired revocations, then rebuild the denylist from the others.
+     * <p>
+     * The revocations kept in memory are carried over until they expire, since those made in a transaction not
+     * committed yet are not read back.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.security.token-revocation.refresh-interval-ms:30000}",
+        initialDelayString = "${application.security.token-revocation.refresh-interval-ms:30000}"
+    )
+    public synchronized void refresh() {
+        Instant now = clock.instant();
+        List<TokenRevocation> stored = transactionTemplate.execute(status -> {
+            tokenRevocationRepository.deleteExpired(now);
+            return tokenRevocationRepository.findAllByExpiresAtAfter(now);
+        });
+        Denylist previous = denylist;
+        long nowMillis = now.toEpochMilli();
+        int entries = stored.size() + previous.size();
+        Denylist rebuilt = new Denylist(Math.max(properties.getExpectedEntries(), 2 * entries), properties.getFalsePositiveRate());
+        for (TokenRevocation revocation : stored) {
+            long expiresAt = revocation.getExpiresAt().toEpochMilli();
+            if (revocation.getTokenId() != null) {
+                rebuilt.revokeToken(revocation.getTokenId(), expiresAt);
+            } else if (revocation.getLogin() != null) {
+                rebuilt.revokeUser(revocation.getLogin(), new UserRevocation(revocation.getRevokedAt().toEpochMilli(), expiresAt));
+            }
+        }
+        previous.tokens.forEach((tokenId, expiresAt) -> {
+            if (expiresAt > nowMillis) {
+                rebuilt.revokeToken(tokenId, expiresAt);
+            }
+        });
+        previous.users.forEach((login, revocation) -> {
+            if (revocation.expiresAt > nowMillis) {
+                rebuilt.revokeUser(login, revocation);
+            }
+        });
+        denylist = rebuilt;
+        log.debug("Rebuilt the denylist of {} revoked tokens and {} users", rebuilt.tokens.size(), rebuilt.users.size());
+    }
+
+    /**
+     * @return the number of tokens and users revoked.
+     */
+    public int size() {
+        return denylist.size();
+    }
+
+    /**
+     * The revoked tokens and users, with a Bloom filter of each in front.
+     */
+    private static final class Denylist {
+
+        private final BloomFilter tokenIds;
+
+        private final BloomFilter logins;
+
+        /**
+         * When each revoked token expires.
+         */
+        private final ConcurrentMap<String, Long> tokens = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<String, UserRevocation> users = new ConcurrentHashMap<>();
+
+        Denylist(int expectedEntries, double falsePositiveRate) {
+            this.tokenIds = new BloomFilter(expectedEntries, falsePositiveRate);
+            this.logins = new BloomFilter(expectedEntries, falsePositiveRate);
+        }
+
+        void revokeToken(String tokenId, long expiresAt) {
+            // Added to the exact denylist first, so a token found in the filter is found in it too
+            tokens.merge(tokenId, expiresAt, Math::max);
+            tokenIds.add(tokenId);
+        }
+
+        void revokeUser(String login, UserRevocation revocation) {
+            users.merge(login, revocation, UserRevocation::latest);
+            logins.add(login);
+        }
+
+        int size() {
+            return tokens.size() + users.size();
+        }
+    }
+
+    private static final class UserRevocation {
+
+        private final long revokedAt;
+
+        private final long expiresAt;
+
+        UserRevocation(long revokedAt, long expiresAt) {
+            this.revokedAt = revokedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        static UserRevocation latest(UserRevocation first, UserRevocation second) {
+            return first.revokedAt >= second.revokedAt ? first : second;
+        }
+    }
+}
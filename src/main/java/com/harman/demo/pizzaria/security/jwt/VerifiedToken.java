@@ -0,0 +1,39 @@
+package com.harman.demo.pizzaria.security.jwt;
+
+import org.springframework.security.core.Authentication;
+
+/**
+ * A token whose signature and expiry were verified: the authentication it grants, and what tells whether it was
+ * revoked since.
+ */
+final class VerifiedToken {
+
+    private final Authentication authentication;
+
+    private final String id;
+
+    private final long issuedAt;
+
+    /**
+     * @param authentication the authentication granted, without credentials.
+     * @param id the id of the token, or {@code null} if it has none.
+     * @param issuedAt when it was issued, in milliseconds since the epoch, or {@code 0} if unknown.
+     */
+    VerifiedToken(Authentication authentication, String id, long issuedAt) {
+        this.authentication = authentication;
+        this.id = id;
+        this.issuedAt = issuedAt;
+    }
+
+    Authentication getAuthentication() {
+        return authentication;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    long getIssuedAt() {
+        return issuedAt;
+    }
+}
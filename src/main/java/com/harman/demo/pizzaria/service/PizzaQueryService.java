@@ -0,0 +1,118 @@
+package com.harman.demo.pizzaria.service;
+
+import com.harman.demo.pizzaria.domain.*; // for static metamodels
+import com.harman.demo.pizzaria.domain.Pizza;
+import com.harman.demo.pizzaria.repository.Keyset;
+import com.harman.demo.pizzaria.repository.PizzaRepository;
+import com.harman.demo.pizzaria.service.criteria.PizzaCriteria;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.service.mapper.PizzaMapper;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link Pizza} entities in the database.
+ * The main input is a {@link PizzaCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link PizzaDTO} or a {@link Page} of {@link PizzaDTO} which fulfills the criteria.
+ * <p>
+ * Filters on the size and the price are served by the {@code (pizza_size, price)} index.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PizzaQueryService extends QueryService<Pizza> {
+
+    private final Logger log = LoggerFactory.getLogger(PizzaQueryService.class);
+
+    private final PizzaRepository pizzaRepository;
+
+    private final PizzaMapper pizzaMapper;
+
+    public PizzaQueryService(PizzaRepository pizzaRepository, PizzaMapper pizzaMapper) {
+        this.pizzaRepository = pizzaRepository;
+        this.pizzaMapper = pizzaMapper;
+    }
+
+    /**
+     * Return a {@link List} of {@link PizzaDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<PizzaDTO> findByCriteria(PizzaCriteria criteria) {
+        log.debug("find by criteria : {}", criteria);
+        final Specification<Pizza> specification = createSpecification(criteria);
+        return pizzaMapper.toDto(pizzaRepository.findAll(specification));
+    }
+
+    /**
+     * Return a {@link Page} of {@link PizzaDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<PizzaDTO> findByCriteria(PizzaCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<Pizza> specification = createSpecification(criteria);
+        return pizzaRepository.findAll(specification, page).map(pizzaMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link PizzaDTO} which matches the criteria from the database, following a keyset.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param keyset The position to read from.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PizzaDTO> findByCriteria(PizzaCriteria criteria, Keyset keyset) {
+        log.debug("find by criteria : {}, keyset: {}", criteria, keyset);
+        final Specification<Pizza> specification = createSpecification(criteria);
+        return pizzaRepository.findAll(specification, keyset).map(pizzaMapper::toDto);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(PizzaCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Pizza> specification = createSpecification(criteria);
+        return pizzaRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link PizzaCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Pizza> createSpecification(PizzaCriteria criteria) {
+        Specification<Pizza> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Pizza_.id));
+            }
+            if (criteria.getPizzaSize() != null) {
+                specification = specification.and(buildSpecification(criteria.getPizzaSize(), Pizza_.pizzaSize));
+            }
+            if (criteria.getPrice() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getPrice(), Pizza_.price));
+            }
+        }
+        return specification;
+    }
+}
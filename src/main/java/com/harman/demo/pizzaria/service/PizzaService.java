@@ -2,11 +2,25 @@ package com.harman.demo.pizzaria.service;
 
 import com.harman.demo.pizzaria.domain.Pizza;
 import com.harman.demo.pizzaria.repository.PizzaRepository;
+import com.harman.demo.pizzaria.service.catalog.CatalogChangedEvent;
+import com.harman.demo.pizzaria.service.catalog.CatalogChangedEvent.ChangeType;
 import com.harman.demo.pizzaria.service.dto.PizzaDTO;
 import com.harman.demo.pizzaria.service.mapper.PizzaMapper;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,9 +39,20 @@ public class PizzaService {
 
     private final PizzaMapper pizzaMapper;
 
-    public PizzaService(PizzaRepository pizzaRepository, PizzaMapper pizzaMapper) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final EntityManager entityManager;
+
+    public PizzaService(
+        PizzaRepository pizzaRepository,
+        PizzaMapper pizzaMapper,
+        ApplicationEventPublisher eventPublisher,
+        EntityManager entityManager
+    ) {
         this.pizzaRepository = pizzaRepository;
         this.pizzaMapper = pizzaMapper;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -40,9 +65,24 @@ public class PizzaService {
         log.debug("Request to save Pizza : {}", pizzaDTO);
         Pizza pizza = pizzaMapper.toEntity(pizzaDTO);
         pizza = pizzaRepository.save(pizza);
+        eventPublisher.publishEvent(CatalogChangedEvent.pizza(pizza.getId(), ChangeType.CREATED));
         return pizzaMapper.toDto(pizza);
     }
 
+    /**
+     * Save new pizzas in a single transaction. Their inserts are sent to the database in JDBC batches, and a single
+     * {@link CatalogChangedEvent} is published for all of them.
+     *
+     * @param pizzaDTOs the entities to save, without ids.
+     * @return the persisted entities, in the same order.
+     */
+    public List<PizzaDTO> saveAll(List<PizzaDTO> pizzaDTOs) {
+        log.debug("Request to save {} Pizzas", pizzaDTOs.size());
+        List<Pizza> pizzas = pizzaRepository.saveAll(pizzaMapper.toEntity(pizzaDTOs));
+        eventPublisher.publishEvent(CatalogChangedEvent.pizza(null, ChangeType.CREATED));
+        return pizzaMapper.toDto(pizzas);
+    }
+
     /**
      * Update a pizza.
      *
@@ -53,6 +93,7 @@ public class PizzaService {
         log.debug("Request to save Pizza : {}", pizzaDTO);
         Pizza pizza = pizzaMapper.toEntity(pizzaDTO);
         pizza = pizzaRepository.save(pizza);
+        eventPublisher.publishEvent(CatalogChangedEvent.pizza(pizza.getId(), ChangeType.UPDATED));
         return pizzaMapper.toDto(pizza);
     }
 
@@ -73,6 +114,10 @@ public class PizzaService {
                 return existingPizza;
             })
             .map(pizzaRepository::save)
+            .map(savedPizza -> {
+                eventPublisher.publishEvent(CatalogChangedEvent.pizza(savedPizza.getId(), ChangeType.UPDATED));
+                return savedPizza;
+            })
             .map(pizzaMapper::toDto);
     }
 
@@ -88,6 +133,49 @@ public class PizzaService {
         return pizzaRepository.findAll(pageable).map(pizzaMapper::toDto);
     }
 
+    /**
+     * Get the pizzas with the given ids, resolved from the second-level cache first.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities found, in the order of their ids, missing ones being skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<PizzaDTO> findAllById(Collection<Long> ids) {
+        log.debug("Request to get Pizzas : {}", ids);
+        Collection<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        Map<Long, Pizza> pizzas = pizzaRepository
+            .multiGet(distinctIds)
+            .stream()
+            .collect(Collectors.toMap(Pizza::getId, Function.identity()));
+        return distinctIds
+            .stream()
+            .map(pizzas::get)
+            .filter(Objects::nonNull)
+            .map(pizzaMapper::toDto)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Export all the pizzas, ordered by id, with constant memory: they are streamed from the database, and the
+     * persistence context is cleared after every {@link PizzaRepository#EXPORT_FETCH_SIZE} rows.
+     *
+     * @param consumer receives the pizzas one by one.
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<PizzaDTO> consumer) {
+        log.debug("Request to export all Pizzas");
+        try (Stream<Pizza> pizzas = pizzaRepository.streamAll()) {
+            Iterator<Pizza> iterator = pizzas.iterator();
+            for (int count = 1; iterator.hasNext(); count++) {
+                consumer.accept(pizzaMapper.toDto(iterator.next()));
+                if (count % PizzaRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
     /**
      * Get one pizza by id.
      *
@@ -108,5 +196,6 @@ public class PizzaService {
     public void delete(Long id) {
         log.debug("Request to delete Pizza : {}", id);
         pizzaRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangedEvent.pizza(id, ChangeType.DELETED));
     }
 }
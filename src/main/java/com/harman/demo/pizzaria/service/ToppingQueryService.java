@@ -2,7 +2,9 @@ package com.harman.demo.pizzaria.service;
 
 import com.harman.demo.pizzaria.domain.*; // for static metamodels
 import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.repository.Keyset;
 import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.service.catalog.ToppingCountCache;
 import com.harman.demo.pizzaria.service.criteria.ToppingCriteria;
 import com.harman.demo.pizzaria.service.dto.ToppingDTO;
 import com.harman.demo.pizzaria.service.mapper.ToppingMapper;
@@ -11,7 +13,9 @@ import javax.persistence.criteria.JoinType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,9 +37,12 @@ public class ToppingQueryService extends QueryService<Topping> {
 
     private final ToppingMapper toppingMapper;
 
-    public ToppingQueryService(ToppingRepository toppingRepository, ToppingMapper toppingMapper) {
+    private final ToppingCountCache toppingCountCache;
+
+    public ToppingQueryService(ToppingRepository toppingRepository, ToppingMapper toppingMapper, ToppingCountCache toppingCountCache) {
         this.toppingRepository = toppingRepository;
         this.toppingMapper = toppingMapper;
+        this.toppingCountCache = toppingCountCache;
     }
 
     /**
@@ -52,6 +59,7 @@ public class ToppingQueryService extends QueryService<Topping> {
 
     /**
      * Return a {@link Page} of {@link ToppingDTO} which matches the criteria from the database.
+     * The total is only counted when it does not follow from the page, and then taken from the {@link ToppingCountCache}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -60,7 +68,46 @@ public class ToppingQueryService extends QueryService<Topping> {
     public Page<ToppingDTO> findByCriteria(ToppingCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Topping> specification = createSpecification(criteria);
-        return toppingRepository.findAll(specification, page).map(toppingMapper::toDto);
+        Slice<Topping> slice = toppingRepository.findSlice(specification, page);
+        return new PageImpl<>(slice.getContent(), page, total(criteria, slice)).map(toppingMapper::toDto);
+    }
+
+    private long total(ToppingCriteria criteria, Slice<Topping> slice) {
+        Pageable page = slice.getPageable();
+        if (page.isUnpaged()) {
+            return slice.getNumberOfElements();
+        }
+        // the last page tells the total, unless it is past the end
+        if (!slice.hasNext() && (slice.hasContent() || page.getOffset() == 0)) {
+            return page.getOffset() + slice.getNumberOfElements();
+        }
+        return countByCriteria(criteria);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link ToppingDTO} which matches the criteria from the database, without counting them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ToppingDTO> findSliceByCriteria(ToppingCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Topping> specification = createSpecification(criteria);
+        return toppingRepository.findSlice(specification, page).map(toppingMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link ToppingDTO} which matches the criteria from the database, following a keyset.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param keyset The position to read from.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ToppingDTO> findByCriteria(ToppingCriteria criteria, Keyset keyset) {
+        log.debug("find by criteria : {}, keyset: {}", criteria, keyset);
+        final Specification<Topping> specification = createSpecification(criteria);
+        return toppingRepository.findAll(specification, keyset).map(toppingMapper::toDto);
     }
 
     /**
@@ -71,8 +118,7 @@ public class ToppingQueryService extends QueryService<Topping> {
     @Transactional(readOnly = true)
     public long countByCriteria(ToppingCriteria criteria) {
         log.debug("count by criteria : {}", criteria);
-        final Specification<Topping> specification = createSpecification(criteria);
-        return toppingRepository.count(specification);
+        return toppingCountCache.count(criteria, () -> toppingRepository.count(createSpecification(criteria)));
     }
 
     /**
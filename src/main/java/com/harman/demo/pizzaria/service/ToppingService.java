@@ -2,11 +2,29 @@ package com.harman.demo.pizzaria.service;
 
 import com.harman.demo.pizzaria.domain.Topping;
 import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.service.catalog.CatalogChangedEvent;
+import com.harman.demo.pizzaria.service.catalog.CatalogChangedEvent.ChangeType;
 import com.harman.demo.pizzaria.service.dto.ToppingDTO;
 import com.harman.demo.pizzaria.service.mapper.ToppingMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -25,9 +43,20 @@ public class ToppingService {
 
     private final ToppingMapper toppingMapper;
 
-    public ToppingService(ToppingRepository toppingRepository, ToppingMapper toppingMapper) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final EntityManager entityManager;
+
+    public ToppingService(
+        ToppingRepository toppingRepository,
+        ToppingMapper toppingMapper,
+        ApplicationEventPublisher eventPublisher,
+        EntityManager entityManager
+    ) {
         this.toppingRepository = toppingRepository;
         this.toppingMapper = toppingMapper;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -40,9 +69,58 @@ public class ToppingService {
         log.debug("Request to save Topping : {}", toppingDTO);
         Topping topping = toppingMapper.toEntity(toppingDTO);
         topping = toppingRepository.save(topping);
+        eventPublisher.publishEvent(CatalogChangedEvent.topping(topping.getId(), ChangeType.CREATED));
         return toppingMapper.toDto(topping);
     }
 
+    /**
+     * Save new toppings in a single transaction. Their inserts are sent to the database in JDBC batches, and a single
+     * {@link CatalogChangedEvent} is published for all of them.
+     *
+     * @param toppingDTOs the entities to save, without ids.
+     * @return the persisted entities, in the same order.
+     */
+    public List<ToppingDTO> saveAll(List<ToppingDTO> toppingDTOs) {
+        log.debug("Request to save {} Toppings", toppingDTOs.size());
+        List<Topping> toppings = toppingRepository.saveAll(toppingMapper.toEntity(toppingDTOs));
+        eventPublisher.publishEvent(CatalogChangedEvent.topping(null, ChangeType.CREATED));
+        return toppingMapper.toDto(toppings);
+    }
+
+    /**
+     * Check that new toppings can be saved together: names are unique, so a name already taken by an existing topping, or
+     * by an earlier topping of the list, would fail the whole batch. Names are compared ignoring case, as the database
+     * collation does.
+     *
+     * @param toppingDTOs the entities to save, without ids.
+     * @return for each entity, why it cannot be saved, or {@code null}.
+     */
+    @Transactional(readOnly = true)
+    public List<String> checkAll(List<ToppingDTO> toppingDTOs) {
+        Set<String> names = toppingDTOs.stream().map(ToppingDTO::getName).collect(Collectors.toSet());
+        Set<String> taken = names.isEmpty()
+            ? Set.of()
+            : toppingRepository.findExistingNames(names).stream().map(ToppingService::nameKey).collect(Collectors.toSet());
+        Set<String> seen = new HashSet<>();
+        List<String> errors = new ArrayList<>(toppingDTOs.size());
+        for (ToppingDTO toppingDTO : toppingDTOs) {
+            String name = toppingDTO.getName();
+            String key = nameKey(name);
+            if (taken.contains(key)) {
+                errors.add("A topping named " + name + " already exists");
+            } else if (!seen.add(key)) {
+                errors.add("Another topping of the request is named " + name);
+            } else {
+                errors.add(null);
+            }
+        }
+        return errors;
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Update a topping.
      *
@@ -53,6 +131,7 @@ public class ToppingService {
         log.debug("Request to save Topping : {}", toppingDTO);
         Topping topping = toppingMapper.toEntity(toppingDTO);
         topping = toppingRepository.save(topping);
+        eventPublisher.publishEvent(CatalogChangedEvent.topping(topping.getId(), ChangeType.UPDATED));
         return toppingMapper.toDto(topping);
     }
 
@@ -73,6 +152,10 @@ public class ToppingService {
                 return existingTopping;
             })
             .map(toppingRepository::save)
+            .map(savedTopping -> {
+                eventPublisher.publishEvent(CatalogChangedEvent.topping(savedTopping.getId(), ChangeType.UPDATED));
+                return savedTopping;
+            })
             .map(toppingMapper::toDto);
     }
 
@@ -88,6 +171,49 @@ public class ToppingService {
         return toppingRepository.findAll(pageable).map(toppingMapper::toDto);
     }
 
+    /**
+     * Get the toppings with the given ids, resolved from the second-level cache first.
+     *
+     * @param ids the ids of the entities.
+     * @return the entities found, in the order of their ids, missing ones being skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<ToppingDTO> findAllById(Collection<Long> ids) {
+        log.debug("Request to get Toppings : {}", ids);
+        Collection<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        Map<Long, Topping> toppings = toppingRepository
+            .multiGet(distinctIds)
+            .stream()
+            .collect(Collectors.toMap(Topping::getId, Function.identity()));
+        return distinctIds
+            .stream()
+            .map(toppings::get)
+            .filter(Objects::nonNull)
+            .map(toppingMapper::toDto)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Export all the toppings, ordered by id, with constant memory: they are streamed from the database, and the
+     * persistence context is cleared after every {@link ToppingRepository#EXPORT_FETCH_SIZE} rows.
+     *
+     * @param consumer receives the toppings one by one.
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<ToppingDTO> consumer) {
+        log.debug("Request to export all Toppings");
+        try (Stream<Topping> toppings = toppingRepository.streamAll()) {
+            Iterator<Topping> iterator = toppings.iterator();
+            for (int count = 1; iterator.hasNext(); count++) {
+                consumer.accept(toppingMapper.toDto(iterator.next()));
+                if (count % ToppingRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
     /**
      * Get one topping by id.
      *
@@ -108,5 +234,6 @@ public class ToppingService {
     public void delete(Long id) {
         log.debug("Request to delete Topping : {}", id);
         toppingRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangedEvent.topping(id, ChangeType.DELETED));
     }
 }
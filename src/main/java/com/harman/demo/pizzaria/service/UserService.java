@@ -4,9 +4,12 @@ import com.harman.demo.pizzaria.config.Constants;
 import com.harman.demo.pizzaria.domain.Authority;
 import com.harman.demo.pizzaria.domain.User;
 import com.harman.demo.pizzaria.repository.AuthorityRepository;
+import com.harman.demo.pizzaria.repository.Keyset;
 import com.harman.demo.pizzaria.repository.UserRepository;
 import com.harman.demo.pizzaria.security.AuthoritiesConstants;
 import com.harman.demo.pizzaria.security.SecurityUtils;
+import com.harman.demo.pizzaria.security.UserDetailsCache;
+import com.harman.demo.pizzaria.security.jwt.TokenRevocations;
 import com.harman.demo.pizzaria.service.dto.AdminUserDTO;
 import com.harman.demo.pizzaria.service.dto.UserDTO;
 import java.time.Instant;
@@ -18,6 +21,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -41,16 +45,24 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final TokenRevocations tokenRevocations;
+
+    private final UserDetailsCache userDetailsCache;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        TokenRevocations tokenRevocations,
+        UserDetailsCache userDetailsCache
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.tokenRevocations = tokenRevocations;
+        this.userDetailsCache = userDetailsCache;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -182,6 +194,9 @@ public class UserService {
 
     /**
      * Update all information for a specific user, and return the modified user.
+     * <p>
+     * The tokens already issued to the user are revoked if they no longer match the user: if the user is deactivated,
+     * renamed, or granted other authorities.
      *
      * @param userDTO user to update.
      * @return updated user.
@@ -193,6 +208,9 @@ public class UserService {
             .map(Optional::get)
             .map(user -> {
                 this.clearUserCaches(user);
+                String login = user.getLogin();
+                boolean activated = user.isActivated();
+                Set<Authority> authorities = new HashSet<>(user.getAuthorities());
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -212,6 +230,9 @@ public class UserService {
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
                 this.clearUserCaches(user);
+                if ((activated && !user.isActivated()) || !login.equals(user.getLogin()) || !authorities.equals(managedAuthorities)) {
+                    tokenRevocations.revokeUser(login);
+                }
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -224,6 +245,7 @@ public class UserService {
             .ifPresent(user -> {
                 userRepository.delete(user);
                 this.clearUserCaches(user);
+                tokenRevocations.revokeUser(user.getLogin());
                 log.debug("Deleted User: {}", user);
             });
     }
@@ -242,6 +264,8 @@ public class UserService {
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                // Evicted before the change too, while the entries of the previous email are still known
+                this.clearUserCaches(user);
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -276,6 +300,11 @@ public class UserService {
         return userRepository.findAll(pageable).map(AdminUserDTO::new);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<AdminUserDTO> getAllManagedUsers(Keyset keyset) {
+        return userRepository.findAll(null, keyset).map(AdminUserDTO::new);
+    }
+
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllPublicUsers(Pageable pageable) {
         return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
@@ -321,5 +350,6 @@ public class UserService {
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
+        userDetailsCache.evict(user.getLogin(), user.getEmail());
     }
 }
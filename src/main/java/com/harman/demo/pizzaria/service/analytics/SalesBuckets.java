@@ -0,0 +1,153 @@
+package com.harman.demo.pizzaria.service.analytics;
+
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.service.dto.SalesPeriodDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * The sales of the last periods of a given length, in a ring of buckets reused once their period is out of retention.
+ * <p>
+ * Each bucket counts the pizzas sold in an array indexed by {@link PizzaSize#ordinal()}, and the toppings sold in an
+ * array indexed by the dense index {@link SalesRollups} gives each topping, grown when a new topping is sold. The
+ * memory used only depends on the retention and on the number of toppings, whatever the number of orders.
+ * <p>
+ * Not thread-safe, guarded by the {@link SalesRollups}.
+ */
+final class SalesBuckets {
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final String granularity;
+
+    private final long periodMillis;
+
+    /**
+     * Period counted by each bucket, {@link #NONE} if unused.
+     */
+    private final long[] periods;
+
+    private final long[][] pizzas;
+
+    private final long[][] toppings;
+
+    private final boolean[] flushed;
+
+    /**
+     * The latest period counted, so a clock going back in time does not reuse the bucket of a newer period.
+     */
+    private long latest = NONE;
+
+    SalesBuckets(String granularity, Duration period, int retention) {
+        if (retention < 2) {
+            throw new IllegalArgumentException("At least two periods of " + granularity + " sales must be kept");
+        }
+        this.granularity = granularity;
+        this.periodMillis = period.toMillis();
+        this.periods = new long[retention];
+        Arrays.fill(periods, NONE);
+        this.pizzas = new long[retention][PizzaSize.values().length];
+        this.toppings = new long[retention][0];
+        this.flushed = new boolean[retention];
+    }
+
+    String getGranularity() {
+        return granularity;
+    }
+
+    int getRetention() {
+        return periods.length;
+    }
+
+    long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    long periodAt(long epochMillis) {
+        return Math.max(Math.floorDiv(epochMillis, periodMillis), latest);
+    }
+
+    /**
+     * Get the bucket of the period at a given time, cleared if it still holds a period out of retention.
+     *
+     * @param epochMillis the time.
+     * @return the index of the bucket.
+     */
+    int bucketAt(long epochMillis) {
+        long period = periodAt(epochMillis);
+        int bucket = bucketOf(period);
+        if (periods[bucket] != period) {
+            periods[bucket] = period;
+            Arrays.fill(pizzas[bucket], 0);
+            Arrays.fill(toppings[bucket], 0);
+            flushed[bucket] = false;
+        }
+        latest = period;
+        return bucket;
+    }
+
+    void addPizzas(int bucket, PizzaSize pizzaSize, long quantity) {
+        pizzas[bucket][pizzaSize.ordinal()] += quantity;
+    }
+
+    void addToppings(int bucket, int toppingIndex, long quantity) {
+        long[] counts = toppings[bucket];
+        if (toppingIndex >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(toppingIndex + 1, counts.length * 2));
+            toppings[bucket] = counts;
+        }
+        counts[toppingIndex] += quantity;
+    }
+
+    /**
+     * Copy the sales of a period.
+     *
+     * @param period the period.
+     * @param toppingIds the topping id of each topping index.
+     * @return the sales, empty if none were counted or the period is out of retention.
+     */
+    SalesPeriodDTO read(long period, long[] toppingIds) {
+        SalesPeriodDTO sales = new SalesPeriodDTO(Instant.ofEpochMilli(period * periodMillis));
+        int bucket = bucketOf(period);
+        if (periods[bucket] != period) {
+            return sales;
+        }
+        for (PizzaSize pizzaSize : PizzaSize.values()) {
+            long quantity = pizzas[bucket][pizzaSize.ordinal()];
+            if (quantity != 0) {
+                sales.getPizzas().put(pizzaSize, quantity);
+            }
+        }
+        long[] counts = toppings[bucket];
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                sales.getToppings().put(toppingIds[i], counts[i]);
+            }
+        }
+        return sales;
+    }
+
+    /**
+     * @param current the current period.
+     * @return the periods over but not written yet.
+     */
+    long[] unflushedBefore(long current) {
+        return Arrays
+            .stream(periods)
+            .filter(period -> period != NONE && period < current && !flushed[bucketOf(period)])
+            .sorted()
+            .toArray();
+    }
+
+    void markFlushed(long period) {
+        int bucket = bucketOf(period);
+        if (periods[bucket] == period) {
+            flushed[bucket] = true;
+        }
+    }
+
+    private int bucketOf(long period) {
+        return (int) Math.floorMod(period, (long) periods.length);
+    }
+}
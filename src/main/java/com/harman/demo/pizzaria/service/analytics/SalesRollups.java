@@ -0,0 +1,224 @@
+package com.harman.demo.pizzaria.service.analytics;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.OrderLine;
+import com.harman.demo.pizzaria.domain.PizzaOrder;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.service.dto.SalesPeriodDTO;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service counting the pizzas sold per size and the toppings sold, per minute and per hour.
+ * <p>
+ * The counters are updated as orders are written, in the {@link SalesBuckets} of the last
+ * {@code application.analytics.minutes} minutes and {@code application.analytics.hours} hours, and read from there:
+ * dashboards never query the orders. Every {@code application.analytics.flush-interval-ms}, the sales of the periods
+ * over are inserted into the {@code pizza_sales_rollup} and {@code topping_sales_rollup} tables, where they are kept
+ * beyond the retention. Sales of the current periods are lost if the instance stops.
+ */
+@Service
+public class SalesRollups {
+
+    static final String MINUTE = "MINUTE";
+
+    static final String HOUR = "HOUR";
+
+    private static final String INSERT_PIZZAS =
+        "insert into pizza_sales_rollup (granularity, period_start, pizza_size, quantity) values (?, ?, ?, ?)";
+
+    private static final String INSERT_TOPPINGS =
+        "insert into topping_sales_rollup (granularity, period_start, topping_id, quantity) values (?, ?, ?, ?)";
+
+    private final Logger log = LoggerFactory.getLogger(SalesRollups.class);
+
+    private final Clock clock;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SalesBuckets minutes;
+
+    private final SalesBuckets hours;
+
+    /**
+     * The index of each topping sold in the topping arrays of the buckets.
+     */
+    private final Map<Long, Integer> toppingIndexes = new HashMap<>();
+
+    /**
+     * The topping id of each topping index.
+     */
+    private long[] toppingIds = new long[16];
+
+    private final Object flushLock = new Object();
+
+    @Autowired
+    public SalesRollups(
+        ApplicationProperties applicationProperties,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager
+    ) {
+        this(applicationProperties.getAnalytics(), jdbcTemplate, transactionManager, Clock.systemUTC());
+    }
+
+    SalesRollups(
+        ApplicationProperties.Analytics properties,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        Clock clock
+    ) {
+        this.clock = clock;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minutes = new SalesBuckets(MINUTE, Duration.ofMinutes(1), properties.getMinutes());
+        this.hours = new SalesBuckets(HOUR, Duration.ofHours(1), properties.getHours());
+        // A minute over must still be in memory when it is flushed
+        if (properties.getFlushIntervalMs() >= (properties.getMinutes() - 1) * minutes.getPeriodMillis()) {
+            throw new IllegalArgumentException("application.analytics.flush-interval-ms must be shorter than the minutes kept");
+        }
+    }
+
+    /**
+     * Count the sales of orders just written.
+     *
+     * @param pizzaOrders the orders.
+     */
+    public synchronized void record(Collection<PizzaOrder> pizzaOrders) {
+        long now = clock.millis();
+        int minute = minutes.bucketAt(now);
+        int hour = hours.bucketAt(now);
+        for (PizzaOrder pizzaOrder : pizzaOrders) {
+            for (OrderLine line : pizzaOrder.getLines()) {
+                int quantity = line.getQuantity();
+                minutes.addPizzas(minute, line.getPizza().getPizzaSize(), quantity);
+                hours.addPizzas(hour, line.getPizza().getPizzaSize(), quantity);
+                for (Topping topping : line.getToppings()) {
+                    int toppingIndex = toppingIndex(topping.getId());
+                    minutes.addToppings(minute, toppingIndex, quantity);
+                    hours.addToppings(hour, toppingIndex, quantity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the sales of the last minutes, the current one included.
+     *
+     * @param count the number of minutes, up to {@code application.analytics.minutes}.
+     * @return the sales of each minute, the latest first.
+     */
+    public List<SalesPeriodDTO> getSalesPerMinute(int count) {
+        return read(minutes, count);
+    }
+
+    /**
+     * Get the sales of the last hours, the current one included.
+     *
+     * @param count the number of hours, up to {@code application.analytics.hours}.
+     * @return the sales of each hour, the latest first.
+     */
+    public List<SalesPeriodDTO> getSalesPerHour(int count) {
+        return read(hours, count);
+    }
+
+    /**
+     * Write the sales of the periods over to the rollup tables, once.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.analytics.flush-interval-ms:30000}",
+        initialDelayString = "${application.analytics.flush-interval-ms:30000}"
+    )
+    @PreDestroy
+    public void flush() {
+        synchronized (flushLock) {
+            List<Object[]> pizzaRows = new ArrayList<>();
+            List<Object[]> toppingRows = new ArrayList<>();
+            long[] minutesOver;
+            long[] hoursOver;
+            synchronized (this) {
+                long now = clock.millis();
+                minutesOver = periodsOver(minutes, now, pizzaRows, toppingRows);
+                hoursOver = periodsOver(hours, now, pizzaRows, toppingRows);
+            }
+            if (!pizzaRows.isEmpty() || !toppingRows.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.batchUpdate(INSERT_PIZZAS, pizzaRows);
+                        jdbcTemplate.batchUpdate(INSERT_TOPPINGS, toppingRows);
+                    });
+                } catch (RuntimeException e) {
+                    int periods = minutesOver.length + hoursOver.length;
+                    log.warn("Could not write the sales of {} periods, retrying later: {}", periods, e.getMessage());
+                    return;
+                }
+                log.debug("Wrote {} pizza and {} topping sales rollups", pizzaRows.size(), toppingRows.size());
+            }
+            synchronized (this) {
+                Arrays.stream(minutesOver).forEach(minutes::markFlushed);
+                Arrays.stream(hoursOver).forEach(hours::markFlushed);
+            }
+        }
+    }
+
+    private synchronized List<SalesPeriodDTO> read(SalesBuckets buckets, int count) {
+        long current = buckets.periodAt(clock.millis());
+        int periods = Math.min(Math.max(count, 0), buckets.getRetention());
+        List<SalesPeriodDTO> sales = new ArrayList<>(periods);
+        for (int i = 0; i < periods; i++) {
+            sales.add(buckets.read(current - i, toppingIds));
+        }
+        return sales;
+    }
+
+    /**
+     * Add the rows of the periods over but not written yet.
+     *
+     * @return these periods.
+     */
+    private long[] periodsOver(SalesBuckets buckets, long now, List<Object[]> pizzaRows, List<Object[]> toppingRows) {
+        long[] periods = buckets.unflushedBefore(buckets.periodAt(now));
+        for (long period : periods) {
+            SalesPeriodDTO sales = buckets.read(period, toppingIds);
+            String granularity = buckets.getGranularity();
+            Timestamp start = Timestamp.from(sales.getStart());
+            sales
+                .getPizzas()
+                .forEach((pizzaSize, quantity) -> pizzaRows.add(new Object[] { granularity, start, pizzaSize.name(), quantity }));
+            sales.getToppings().forEach((toppingId, quantity) -> toppingRows.add(new Object[] { granularity, start, toppingId, quantity }));
+        }
+        // Opening the current period, once the older ones are read, makes sure no order is counted in those written
+        buckets.bucketAt(now);
+        return periods;
+    }
+
+    private int toppingIndex(Long toppingId) {
+        Integer toppingIndex = toppingIndexes.get(toppingId);
+        if (toppingIndex == null) {
+            toppingIndex = toppingIndexes.size();
+            if (toppingIndex == toppingIds.length) {
+                toppingIds = Arrays.copyOf(toppingIds, toppingIds.length * 2);
+            }
+            toppingIds[toppingIndex] = toppingId;
+            toppingIndexes.put(toppingId, toppingIndex);
+        }
+        return toppingIndex;
+    }
+}
@@ -0,0 +1,69 @@
+package com.harman.demo.pizzaria.service.catalog;
+
+import java.util.Objects;
+
+/**
+ * Published by {@link com.harman.demo.pizzaria.service.PizzaService} and
+ * {@link com.harman.demo.pizzaria.service.ToppingService} whenever they change the catalog.
+ * <p>
+ * Listeners which derive state from the catalog should consume it with
+ * {@link org.springframework.transaction.event.TransactionalEventListener}, so they only react to committed changes.
+ */
+public class CatalogChangedEvent {
+
+    public enum EntityType {
+        PIZZA,
+        TOPPING,
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+    }
+
+    private final EntityType entityType;
+
+    /**
+     * The id of the changed entity, or {@code null} if several entities changed at once.
+     */
+    private final Long entityId;
+
+    private final ChangeType changeType;
+
+    public CatalogChangedEvent(EntityType entityType, Long entityId, ChangeType changeType) {
+        this.entityType = Objects.requireNonNull(entityType);
+        this.entityId = entityId;
+        this.changeType = Objects.requireNonNull(changeType);
+    }
+
+    public static CatalogChangedEvent pizza(Long id, ChangeType changeType) {
+        return new CatalogChangedEvent(EntityType.PIZZA, id, changeType);
+    }
+
+    public static CatalogChangedEvent topping(Long id, ChangeType changeType) {
+        return new CatalogChangedEvent(EntityType.TOPPING, id, changeType);
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CatalogChangedEvent{" +
+            "entityType=" + entityType +
+            ", entityId=" + entityId +
+            ", changeType=" + changeType +
+            "}";
+    }
+}
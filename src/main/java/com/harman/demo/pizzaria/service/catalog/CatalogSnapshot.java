@@ -0,0 +1,242 @@
+package com.harman.demo.pizzaria.service.catalog;
+
+import com.harman.demo.pizzaria.service.criteria.PizzaCriteria;
+import com.harman.demo.pizzaria.service.criteria.ToppingCriteria;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.service.dto.ToppingDTO;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Immutable, point-in-time copy of the whole catalog, held as arrays of DTOs sorted by id.
+ * <p>
+ * Instances are never modified after construction: a change to the catalog produces a new snapshot which replaces
+ * the previous one atomically (see {@link CatalogSnapshotService}). The DTOs handed out are shared between all
+ * readers and must be treated as read-only.
+ * <p>
+ * Sorting follows the database semantics of the columns: {@code null} sorts lowest, text sorts ignoring case as the
+ * MySQL collations do, and enums sort by name, since they are stored as strings. Topping criteria are evaluated on a
+ * columnar copy of the toppings, see {@link ToppingColumns}.
+ */
+public final class CatalogSnapshot {
+
+    private static final Map<String, Function<PizzaDTO, ?>> PIZZA_SORT_KEYS = Map.of(
+        "id",
+        PizzaDTO::getId,
+        "pizzaSize",
+        pizza -> pizza.getPizzaSize() == null ? null : pizza.getPizzaSize().name(),
+        "price",
+        PizzaDTO::getPrice
+    );
+
+    private static final Map<String, Function<ToppingDTO, ?>> TOPPING_SORT_KEYS = Map.of(
+        "id",
+        ToppingDTO::getId,
+        "name",
+        ToppingDTO::getName,
+        "price",
+        ToppingDTO::getPrice,
+        "description",
+        ToppingDTO::getDescription
+    );
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static final Comparator<Object> IGNORE_CASE_ORDER = (a, b) ->
+        a instanceof String && b instanceof String
+            ? String.CASE_INSENSITIVE_ORDER.compare((String) a, (String) b)
+            : ((Comparable) a).compareTo(b);
+
+    private final PizzaDTO[] pizzas;
+
+    private final long[] pizzaIds;
+
+    private final ToppingDTO[] toppings;
+
+    private final long[] toppingIds;
+
+    private final ToppingColumns toppingColumns;
+
+    private final long fingerprint;
+
+    public CatalogSnapshot(Collection<PizzaDTO> pizzas, Collection<ToppingDTO> toppings) {
+        this.pizzas = pizzas.toArray(new PizzaDTO[0]);
+        Arrays.sort(this.pizzas, Comparator.comparing(PizzaDTO::getId));
+        this.pizzaIds = Arrays.stream(this.pizzas).mapToLong(PizzaDTO::getId).toArray();
+        this.toppings = toppings.toArray(new ToppingDTO[0]);
+        Arrays.sort(this.toppings, Comparator.comparing(ToppingDTO::getId));
+        this.toppingIds = Arrays.stream(this.toppings).mapToLong(ToppingDTO::getId).toArray();
+        this.toppingColumns = new ToppingColumns(this.toppings);
+        this.fingerprint = fingerprint(this.pizzas, this.toppings);
+    }
+
+    private static long fingerprint(PizzaDTO[] pizzas, ToppingDTO[] toppings) {
+        long hash = 1;
+        for (PizzaDTO pizza : pizzas) {
+            hash = 31 * hash + Objects.hash(pizza.getId(), pizza.getPizzaSize(), pizza.getPrice());
+        }
+        for (ToppingDTO topping : toppings) {
+            hash = 31 * hash + Objects.hash(topping.getId(), topping.getName(), topping.getPrice(), topping.getDescription());
+        }
+        return hash;
+    }
+
+    public int getPizzaCount() {
+        return pizzas.length;
+    }
+
+    public int getToppingCount() {
+        return toppings.length;
+    }
+
+    /**
+     * Get a hash of the whole content, used to detect changes the snapshot was not notified of.
+     *
+     * @return the content hash.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Get one pizza by id.
+     *
+     * @param id the id of the pizza.
+     * @return the pizza, or empty if the catalog has no such pizza.
+     */
+    public Optional<PizzaDTO> findPizza(Long id) {
+        int index = id == null ? -1 : Arrays.binarySearch(pizzaIds, id);
+        return index < 0 ? Optional.empty() : Optional.of(pizzas[index]);
+    }
+
+    /**
+     * Get one topping by id.
+     *
+     * @param id the id of the topping.
+     * @return the topping, or empty if the catalog has no such topping.
+     */
+    public Optional<ToppingDTO> findTopping(Long id) {
+        int index = id == null ? -1 : Arrays.binarySearch(toppingIds, id);
+        return index < 0 ? Optional.empty() : Optional.of(toppings[index]);
+    }
+
+    /**
+     * Get a page of pizzas.
+     *
+     * @param pageable the pagination information.
+     * @return the page, or empty if the requested sort cannot be evaluated on the snapshot.
+     */
+    public Optional<Page<PizzaDTO>> findPizzas(Pageable pageable) {
+        return page(pizzas, pageable, PIZZA_SORT_KEYS);
+    }
+
+    /**
+     * Get a page of toppings.
+     *
+     * @param criteria the filters the toppings should match.
+     * @param pageable the pagination information.
+     * @return the page, or empty if the criteria or the requested sort cannot be evaluated on the snapshot.
+     */
+    public Optional<Page<ToppingDTO>> findToppings(ToppingCriteria criteria, Pageable pageable) {
+        if (isUnfiltered(criteria)) {
+            return page(toppings, pageable, TOPPING_SORT_KEYS);
+        }
+        long[] rows = toppingColumns.select(criteria);
+        if (rows == null) {
+            return Optional.empty();
+        }
+        int[] indexes = ToppingColumns.rowIndexes(rows);
+        ToppingDTO[] matches = new ToppingDTO[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            matches[i] = toppings[indexes[i]];
+        }
+        return page(matches, pageable, TOPPING_SORT_KEYS);
+    }
+
+    /**
+     * Count the toppings matching criteria.
+     *
+     * @param criteria the filters the toppings should match.
+     * @return the count, or empty if the criteria cannot be evaluated on the snapshot.
+     */
+    public OptionalLong countToppings(ToppingCriteria criteria) {
+        if (isUnfiltered(criteria)) {
+            return OptionalLong.of(toppings.length);
+        }
+        long[] rows = toppingColumns.select(criteria);
+        return rows == null ? OptionalLong.empty() : OptionalLong.of(ToppingColumns.count(rows));
+    }
+
+    /**
+     * Check whether pizza criteria have no filter at all, {@code distinct} not changing the result of a single table
+     * query.
+     *
+     * @param criteria the criteria.
+     * @return whether every pizza matches.
+     */
+    public static boolean isUnfiltered(PizzaCriteria criteria) {
+        return criteria == null || (criteria.getId() == null && criteria.getPizzaSize() == null && criteria.getPrice() == null);
+    }
+
+    /**
+     * Check whether criteria have no filter at all, {@code distinct} not changing the result of a single table query.
+     *
+     * @param criteria the criteria.
+     * @return whether every topping matches.
+     */
+    public static boolean isUnfiltered(ToppingCriteria criteria) {
+        return (
+            criteria == null ||
+            (criteria.getId() == null && criteria.getName() == null && criteria.getPrice() == null && criteria.getDescription() == null)
+        );
+    }
+
+    private static <T> Optional<Page<T>> page(T[] sortedById, Pageable pageable, Map<String, Function<T, ?>> sortKeys) {
+        T[] content = sortedById;
+        Sort sort = pageable.getSort();
+        if (sort.isSorted() && !isAscendingById(sort)) {
+            Comparator<T> comparator = null;
+            for (Sort.Order order : sort) {
+                Function<T, ?> key = sortKeys.get(order.getProperty());
+                if (key == null) {
+                    return Optional.empty();
+                }
+                Comparator<T> next = comparator(key, order);
+                comparator = comparator == null ? next : comparator.thenComparing(next);
+            }
+            content = sortedById.clone();
+            // Arrays.sort is stable, so ties keep the id order
+            Arrays.sort(content, comparator);
+        }
+        if (pageable.isUnpaged()) {
+            return Optional.of(new PageImpl<>(Collections.unmodifiableList(Arrays.asList(content)), pageable, content.length));
+        }
+        int from = (int) Math.min(pageable.getOffset(), content.length);
+        int to = Math.min(from + pageable.getPageSize(), content.length);
+        List<T> slice = Collections.unmodifiableList(Arrays.asList(Arrays.copyOfRange(content, from, to)));
+        return Optional.of(new PageImpl<>(slice, pageable, content.length));
+    }
+
+    private static boolean isAscendingById(Sort sort) {
+        Sort.Order order = sort.getOrderFor("id");
+        return order != null && order.isAscending() && sort.stream().count() == 1;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <T> Comparator<T> comparator(Function<T, ?> key, Sort.Order order) {
+        // Text ignores case whether or not the order asks for it, as the database collation does
+        Comparator<T> comparator = Comparator.comparing((Function) key, Comparator.nullsFirst(IGNORE_CASE_ORDER));
+        return order.isAscending() ? comparator : comparator.reversed();
+    }
+}
@@ -0,0 +1,257 @@
+package com.harman.demo.pizzaria.service.catalog;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.config.ApplicationProperties.Catalog.Snapshot.CriteriaEngine;
+import com.harman.demo.pizzaria.repository.PizzaRepository;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.service.criteria.PizzaCriteria;
+import com.harman.demo.pizzaria.service.criteria.ToppingCriteria;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.service.dto.ToppingDTO;
+import com.harman.demo.pizzaria.service.mapper.PizzaMapper;
+import com.harman.demo.pizzaria.service.mapper.ToppingMapper;
+import java.util.Optional;
+import java.util.OptionalLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service holding the current {@link CatalogSnapshot} and catalog version.
+ * <p>
+ * The snapshot is built when the application starts and rebuilt after every committed {@link CatalogChangedEvent}.
+ * Reading it never touches the database, so callers holding it do not need a transaction.
+ * <p>
+ * The version is kept in the {@code catalog_version} table, incremented in the transaction of every change, so all
+ * instances agree on it and it survives restarts. Each instance reads it after its own commits and every
+ * {@code application.catalog.version-check-interval-ms}, whether snapshots are enabled or not, and only publishes it
+ * once the matching state is visible. A reader which takes the version before reading the catalog can therefore never
+ * tag new data with an old version.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final ApplicationProperties.Catalog.Snapshot properties;
+
+    private final PizzaRepository pizzaRepository;
+
+    private final ToppingRepository toppingRepository;
+
+    private final PizzaMapper pizzaMapper;
+
+    private final ToppingMapper toppingMapper;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate writeTransactionTemplate;
+
+    private volatile long version;
+
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogSnapshotService(
+        ApplicationProperties applicationProperties,
+        PizzaRepository pizzaRepository,
+        ToppingRepository toppingRepository,
+        PizzaMapper pizzaMapper,
+        ToppingMapper toppingMapper,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.properties = applicationProperties.getCatalog().getSnapshot();
+        this.pizzaRepository = pizzaRepository;
+        this.toppingRepository = toppingRepository;
+        this.pizzaMapper = pizzaMapper;
+        this.toppingMapper = toppingMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Rebuilds run after the writer's commit, so they need a transaction of their own
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        // Joins the writer's transaction, so the version changes if and only if the catalog does
+        this.writeTransactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Get the current snapshot.
+     *
+     * @return the snapshot, or empty if snapshots are disabled or the first one has not been built yet.
+     */
+    public Optional<CatalogSnapshot> getSnapshot() {
+        return properties.isEnabled() ? Optional.ofNullable(snapshot) : Optional.empty();
+    }
+
+    /**
+     * Find pizzas by criteria on the current snapshot. Only unfiltered listings are served from the snapshot, filtered
+     * ones are left to the {@code (pizza_size, price)} index.
+     *
+     * @param criteria the filters the pizzas should match.
+     * @param pageable the pagination information.
+     * @return the page, or empty if it must be read from the database.
+     */
+    public Optional<Page<PizzaDTO>> findPizzas(PizzaCriteria criteria, Pageable pageable) {
+        return CatalogSnapshot.isUnfiltered(criteria) ? getSnapshot().flatMap(current -> current.findPizzas(pageable)) : Optional.empty();
+    }
+
+    /**
+     * Count pizzas by criteria on the current snapshot, see {@link #findPizzas(PizzaCriteria, Pageable)}.
+     *
+     * @param criteria the filters the pizzas should match.
+     * @return the count, or empty if it must be read from the database.
+     */
+    public OptionalLong countPizzas(PizzaCriteria criteria) {
+        Optional<CatalogSnapshot> current = CatalogSnapshot.isUnfiltered(criteria) ? getSnapshot() : Optional.empty();
+        return current.isPresent() ? OptionalLong.of(current.get().getPizzaCount()) : OptionalLong.empty();
+    }
+
+    /**
+     * Find toppings by criteria on the current snapshot.
+     * <p>
+     * Filtered queries are only evaluated in memory with the {@code MEMORY} criteria engine; with {@code JPA}, only
+     * unfiltered listings are served from the snapshot.
+     *
+     * @param criteria the filters the toppings should match.
+     * @param pageable the pagination information.
+     * @return the page, or empty if it must be read from the database.
+     */
+    public Optional<Page<ToppingDTO>> findToppings(ToppingCriteria criteria, Pageable pageable) {
+        return getSnapshot(criteria).flatMap(current -> current.findToppings(criteria, pageable));
+    }
+
+    /**
+     * Count toppings by criteria on the current snapshot, see {@link #findToppings(ToppingCriteria, Pageable)}.
+     *
+     * @param criteria the filters the toppings should match.
+     * @return the count, or empty if it must be read from the database.
+     */
+    public OptionalLong countToppings(ToppingCriteria criteria) {
+        Optional<CatalogSnapshot> current = getSnapshot(criteria);
+        return current.isPresent() ? current.get().countToppings(criteria) : OptionalLong.empty();
+    }
+
+    private Optional<CatalogSnapshot> getSnapshot(ToppingCriteria criteria) {
+        if (properties.getCriteriaEngine() == CriteriaEngine.JPA && !CatalogSnapshot.isUnfiltered(criteria)) {
+            return Optional.empty();
+        }
+        return getSnapshot();
+    }
+
+    /**
+     * Get the current catalog version.
+     *
+     * @return the version, which changes whenever the catalog does, on every instance.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        checkVersion();
+    }
+
+    /**
+     * Increment the version in the transaction changing the catalog.
+     */
+    @EventListener
+    public void incrementVersion(CatalogChangedEvent event) {
+        writeTransactionTemplate.executeWithoutResult(status -> incrementStoredVersion());
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        log.debug("Checking catalog version after {}", event);
+        checkVersion();
+    }
+
+    /**
+     * Pick up the catalog changes committed by other instances.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.catalog.version-check-interval-ms:1000}",
+        initialDelayString = "${application.catalog.version-check-interval-ms:1000}"
+    )
+    public void scheduledVersionCheck() {
+        checkVersion();
+    }
+
+    /**
+     * Safety net picking up catalog changes made without incrementing the version, directly in the database.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.catalog.snapshot.refresh-interval-ms:300000}",
+        initialDelayString = "${application.catalog.snapshot.refresh-interval-ms:300000}"
+    )
+    public void scheduledRefresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        CatalogSnapshot previous = snapshot;
+        CatalogSnapshot next = refresh();
+        if (previous != null && previous.getFingerprint() != next.getFingerprint()) {
+            writeTransactionTemplate.executeWithoutResult(status -> incrementStoredVersion());
+            checkVersion();
+        }
+    }
+
+    /**
+     * Read the version from the database, rebuilding the snapshot first if it changed.
+     */
+    synchronized void checkVersion() {
+        if (properties.isEnabled()) {
+            if (snapshot == null || transactionTemplate.execute(status -> readStoredVersion()) != version) {
+                refresh();
+            }
+        } else {
+            snapshot = null;
+            version = transactionTemplate.execute(status -> readStoredVersion());
+        }
+    }
+
+    /**
+     * Rebuild the snapshot from the database and publish it, with the version read before it.
+     * <p>
+     * Rebuilds are serialized, so the last one to run always started after the last committed change.
+     *
+     * @return the new snapshot.
+     */
+    public synchronized CatalogSnapshot refresh() {
+        long start = System.nanoTime();
+        long[] nextVersion = new long[1];
+        CatalogSnapshot next = transactionTemplate.execute(status -> {
+            nextVersion[0] = readStoredVersion();
+            return new CatalogSnapshot(pizzaMapper.toDto(pizzaRepository.findAll()), toppingMapper.toDto(toppingRepository.findAll()));
+        });
+        snapshot = next;
+        version = nextVersion[0];
+        log.debug(
+            "Catalog snapshot rebuilt with {} pizzas and {} toppings in {} ms",
+            next.getPizzaCount(),
+            next.getToppingCount(),
+            (System.nanoTime() - start) / 1_000_000
+        );
+        return next;
+    }
+
+    private long readStoredVersion() {
+        return jdbcTemplate.queryForObject("select version from catalog_version where id = 1", Long.class);
+    }
+
+    private void incrementStoredVersion() {
+        jdbcTemplate.update("update catalog_version set version = version + 1 where id = 1");
+    }
+}
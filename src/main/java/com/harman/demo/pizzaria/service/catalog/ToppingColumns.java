@@ -0,0 +1,385 @@
+package com.harman.demo.pizzaria.service.catalog;
+
+import com.harman.demo.pizzaria.service.criteria.ToppingCriteria;
+import com.harman.demo.pizzaria.service.dto.ToppingDTO;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import tech.jhipster.service.filter.FloatFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Columnar copy of the toppings of a {@link CatalogSnapshot}, evaluating a {@link ToppingCriteria} in memory the same
+ * way {@link com.harman.demo.pizzaria.service.ToppingQueryService} does in the database.
+ * <p>
+ * Rows are in id order: ids are a sorted {@code long[]}, so id filters are binary searches, prices a {@code float[]},
+ * and names and descriptions are kept both as-is, for the exact comparisons, and upper-cased in one {@code char[]}
+ * per column, for the {@code contains} filters which the database evaluates as {@code upper(column) like '%VALUE%'}.
+ * A selection is a bitmap of rows.
+ * <p>
+ * String equality is binary, like in H2 and on a binary collation; a case-insensitive MySQL collation would also
+ * match values differing in case. Criteria this class cannot evaluate exactly, such as {@code contains} values with
+ * {@code LIKE} wildcards or empty {@code in} lists, are reported as unsupported so the caller can fall back to the
+ * database.
+ */
+final class ToppingColumns {
+
+    private final int size;
+
+    private final long[] ids;
+
+    private final float[] prices;
+
+    private final String[] names;
+
+    private final String[] descriptions;
+
+    private final char[] upperNames;
+
+    private final int[] nameOffsets;
+
+    private final char[] upperDescriptions;
+
+    private final int[] descriptionOffsets;
+
+    ToppingColumns(ToppingDTO[] toppingsSortedById) {
+        size = toppingsSortedById.length;
+        ids = new long[size];
+        prices = new float[size];
+        names = new String[size];
+        descriptions = new String[size];
+        nameOffsets = new int[size + 1];
+        descriptionOffsets = new int[size + 1];
+        StringBuilder upperNameData = new StringBuilder();
+        StringBuilder upperDescriptionData = new StringBuilder();
+        for (int row = 0; row < size; row++) {
+            ToppingDTO topping = toppingsSortedById[row];
+            ids[row] = topping.getId();
+            prices[row] = topping.getPrice();
+            names[row] = topping.getName();
+            descriptions[row] = topping.getDescription();
+            if (topping.getName() != null) {
+                upperNameData.append(upperCase(topping.getName()));
+            }
+            nameOffsets[row + 1] = upperNameData.length();
+            if (topping.getDescription() != null) {
+                upperDescriptionData.append(upperCase(topping.getDescription()));
+            }
+            descriptionOffsets[row + 1] = upperDescriptionData.length();
+        }
+        upperNames = upperNameData.toString().toCharArray();
+        upperDescriptions = upperDescriptionData.toString().toCharArray();
+    }
+
+    /**
+     * Select the rows matching the criteria.
+     *
+     * @param criteria the criteria, {@code null} selecting every row.
+     * @return the bitmap of the matching rows, or {@code null} if the criteria cannot be evaluated in memory.
+     */
+    long[] select(ToppingCriteria criteria) {
+        long[] rows = new long[(size + 63) >>> 6];
+        for (int row = 0; row < size; row++) {
+            rows[row >>> 6] |= 1L << row;
+        }
+        if (criteria == null) {
+            return rows;
+        }
+        if (criteria.getId() != null && !applyId(rows, criteria.getId())) {
+            return null;
+        }
+        if (criteria.getPrice() != null && !applyPrice(rows, criteria.getPrice())) {
+            return null;
+        }
+        if (criteria.getName() != null && !applyString(rows, criteria.getName(), names, upperNames, nameOffsets)) {
+            return null;
+        }
+        if (
+            criteria.getDescription() != null &&
+            !applyString(rows, criteria.getDescription(), descriptions, upperDescriptions, descriptionOffsets)
+        ) {
+            return null;
+        }
+        return rows;
+    }
+
+    /**
+     * Get the rows of a bitmap, in id order.
+     *
+     * @param rows the bitmap.
+     * @return the row indexes.
+     */
+    static int[] rowIndexes(long[] rows) {
+        int[] indexes = new int[count(rows)];
+        int next = 0;
+        for (int word = 0; word < rows.length; word++) {
+            long bits = rows[word];
+            while (bits != 0) {
+                indexes[next++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return indexes;
+    }
+
+    static int count(long[] rows) {
+        int count = 0;
+        for (long word : rows) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private boolean applyId(long[] rows, LongFilter filter) {
+        if (filter.getEquals() != null) {
+            retainOnly(rows, filter.getEquals());
+            return true;
+        }
+        if (filter.getIn() != null) {
+            return !filter.getIn().isEmpty() && retainOnly(rows, filter.getIn());
+        }
+        if (Boolean.FALSE.equals(filter.getSpecified())) {
+            Arrays.fill(rows, 0);
+        }
+        if (filter.getNotEquals() != null) {
+            clear(rows, indexOfId(filter.getNotEquals()));
+        }
+        if (filter.getNotIn() != null) {
+            if (filter.getNotIn().isEmpty() || hasNull(filter.getNotIn())) {
+                return false;
+            }
+            filter.getNotIn().forEach(id -> clear(rows, indexOfId(id)));
+        }
+        // ids are sorted, so the bounds are a contiguous range of rows
+        int from = 0;
+        int to = size;
+        if (filter.getGreaterThan() != null) {
+            from = Math.max(from, upperBound(filter.getGreaterThan()));
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            from = Math.max(from, lowerBound(filter.getGreaterThanOrEqual()));
+        }
+        if (filter.getLessThan() != null) {
+            to = Math.min(to, lowerBound(filter.getLessThan()));
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            to = Math.min(to, upperBound(filter.getLessThanOrEqual()));
+        }
+        for (int row = 0; row < size; row++) {
+            if (row < from || row >= to) {
+                clear(rows, row);
+            }
+        }
+        return true;
+    }
+
+    private void retainOnly(long[] rows, Long id) {
+        int row = indexOfId(id);
+        boolean matched = row >= 0 && isSet(rows, row);
+        Arrays.fill(rows, 0);
+        if (matched) {
+            rows[row >>> 6] |= 1L << row;
+        }
+    }
+
+    private boolean retainOnly(long[] rows, List<Long> ids) {
+        long[] retained = new long[rows.length];
+        for (Long id : ids) {
+            int row = indexOfId(id);
+            if (row >= 0) {
+                retained[row >>> 6] |= 1L << row;
+            }
+        }
+        for (int word = 0; word < rows.length; word++) {
+            rows[word] &= retained[word];
+        }
+        return true;
+    }
+
+    private int indexOfId(Long id) {
+        return id == null ? -1 : Math.max(-1, Arrays.binarySearch(ids, id));
+    }
+
+    /**
+     * @return the first row whose id is greater than or equal to the given one.
+     */
+    private int lowerBound(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * @return the first row whose id is greater than the given one.
+     */
+    private int upperBound(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private boolean applyPrice(long[] rows, FloatFilter filter) {
+        if (filter.getEquals() != null) {
+            float value = filter.getEquals();
+            retainWhere(rows, row -> prices[row] == value);
+            return true;
+        }
+        if (filter.getIn() != null) {
+            if (filter.getIn().isEmpty() || hasNull(filter.getIn())) {
+                return false;
+            }
+            retainWhere(rows, row -> containsValue(filter.getIn(), prices[row]));
+            return true;
+        }
+        // the price is mandatory, so only "specified=false" filters anything
+        if (Boolean.FALSE.equals(filter.getSpecified())) {
+            Arrays.fill(rows, 0);
+        }
+        if (filter.getNotEquals() != null) {
+            float value = filter.getNotEquals();
+            retainWhere(rows, row -> prices[row] != value);
+        }
+        if (filter.getNotIn() != null) {
+            if (filter.getNotIn().isEmpty() || hasNull(filter.getNotIn())) {
+                return false;
+            }
+            retainWhere(rows, row -> !containsValue(filter.getNotIn(), prices[row]));
+        }
+        if (filter.getGreaterThan() != null) {
+            float value = filter.getGreaterThan();
+            retainWhere(rows, row -> prices[row] > value);
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            float value = filter.getGreaterThanOrEqual();
+            retainWhere(rows, row -> prices[row] >= value);
+        }
+        if (filter.getLessThan() != null) {
+            float value = filter.getLessThan();
+            retainWhere(rows, row -> prices[row] < value);
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            float value = filter.getLessThanOrEqual();
+            retainWhere(rows, row -> prices[row] <= value);
+        }
+        return true;
+    }
+
+    /**
+     * String filters apply only their first set condition, in the order used by {@link tech.jhipster.service.QueryService}.
+     * Comparisons with a {@code null} value are never true, like in SQL.
+     */
+    private boolean applyString(long[] rows, StringFilter filter, String[] values, char[] upperValues, int[] offsets) {
+        if (filter.getEquals() != null) {
+            String value = filter.getEquals();
+            retainWhere(rows, row -> value.equals(values[row]));
+        } else if (filter.getIn() != null) {
+            if (filter.getIn().isEmpty()) {
+                return false;
+            }
+            retainWhere(rows, row -> values[row] != null && filter.getIn().contains(values[row]));
+        } else if (filter.getNotIn() != null) {
+            if (filter.getNotIn().isEmpty() || hasNull(filter.getNotIn())) {
+                return false;
+            }
+            retainWhere(rows, row -> values[row] != null && !filter.getNotIn().contains(values[row]));
+        } else if (filter.getContains() != null) {
+            char[] pattern = likePattern(filter.getContains());
+            if (pattern == null) {
+                return false;
+            }
+            retainWhere(rows, row -> values[row] != null && contains(upperValues, offsets[row], offsets[row + 1], pattern));
+        } else if (filter.getDoesNotContain() != null) {
+            char[] pattern = likePattern(filter.getDoesNotContain());
+            if (pattern == null) {
+                return false;
+            }
+            retainWhere(rows, row -> values[row] != null && !contains(upperValues, offsets[row], offsets[row + 1], pattern));
+        } else if (filter.getNotEquals() != null) {
+            String value = filter.getNotEquals();
+            retainWhere(rows, row -> values[row] != null && !value.equals(values[row]));
+        } else if (filter.getSpecified() != null) {
+            boolean specified = filter.getSpecified();
+            retainWhere(rows, row -> (values[row] != null) == specified);
+        }
+        return true;
+    }
+
+    /**
+     * @return the upper-cased value to look for, or {@code null} if it holds characters {@code LIKE} does not take literally.
+     */
+    private static char[] likePattern(String value) {
+        if (value.indexOf('%') >= 0 || value.indexOf('_') >= 0 || value.indexOf('\\') >= 0) {
+            return null;
+        }
+        return upperCase(value).toCharArray();
+    }
+
+    private static boolean contains(char[] data, int from, int to, char[] pattern) {
+        for (int start = from, last = to - pattern.length; start <= last; start++) {
+            if (matchesAt(data, start, pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesAt(char[] data, int start, char[] pattern) {
+        for (int i = 0; i < pattern.length; i++) {
+            if (data[start + i] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code contains(null)} throws on immutable lists.
+     */
+    private static boolean hasNull(List<?> values) {
+        for (Object value : values) {
+            if (value == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsValue(List<Float> values, float value) {
+        for (Float candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String upperCase(String value) {
+        return value.toUpperCase(Locale.ROOT);
+    }
+
+    private interface RowPredicate {
+        boolean test(int row);
+    }
+
+    private static void retainWhere(long[] rows, RowPredicate predicate) {
+        for (int word = 0; word < rows.length; word++) {
+            long bits = rows[word];
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (!predicate.test((word << 6) + bit)) {
+                    rows[word] &= ~(1L << bit);
+                }
+            }
+        }
+    }
+
+    private static boolean isSet(long[] rows, int row) {
+        return (rows[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private static void clear(long[] rows, int row) {
+        if (row >= 0) {
+            rows[row >>> 6] &= ~(1L << row);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.harman.demo.pizzaria.service.catalog;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.service.criteria.ToppingCriteria;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache of the number of toppings matching criteria, so paged topping queries do not run a count query each time.
+ * <p>
+ * Entries are keyed by the normalized criteria and the catalog version, so a count computed concurrently with a write
+ * is never used after it. The cache is still cleared on topping writes so outdated entries do not hold memory.
+ */
+@Component
+public class ToppingCountCache {
+
+    public static final String CACHE_NAME = "toppingCounts";
+
+    private final Logger log = LoggerFactory.getLogger(ToppingCountCache.class);
+
+    private final ApplicationProperties.Catalog.CountCache properties;
+
+    private final CacheManager cacheManager;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    public ToppingCountCache(
+        ApplicationProperties applicationProperties,
+        CacheManager cacheManager,
+        CatalogSnapshotService catalogSnapshotService
+    ) {
+        this.properties = applicationProperties.getCatalog().getCountCache();
+        this.cacheManager = cacheManager;
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    /**
+     * Get the number of toppings matching criteria, counting them only if it is not cached.
+     *
+     * @param criteria the criteria.
+     * @param counter the count query.
+     * @return the count.
+     */
+    public long count(ToppingCriteria criteria, LongSupplier counter) {
+        if (!properties.isEnabled()) {
+            return counter.getAsLong();
+        }
+        // the version is read before counting, so a count can never be stored under a newer version than its data
+        Key key = new Key(criteria, catalogSnapshotService.getVersion());
+        Long count = cache().get(key, Long.class);
+        if (count == null) {
+            count = counter.getAsLong();
+            cache().put(key, count);
+        }
+        return count;
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getEntityType() == CatalogChangedEvent.EntityType.TOPPING) {
+            log.debug("Clearing topping count cache after {}", event);
+            cache().clear();
+        }
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+    }
+
+    /**
+     * Key of a cached count.
+     */
+    static final class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ToppingCriteria criteria;
+
+        private final long catalogVersion;
+
+        Key(ToppingCriteria criteria, long catalogVersion) {
+            // "distinct" does not change the result of a single table query
+            this.criteria = criteria == null ? new ToppingCriteria() : criteria.copy();
+            this.criteria.setDistinct(null);
+            this.catalogVersion = catalogVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return catalogVersion == that.catalogVersion && criteria.equals(that.criteria);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(criteria, catalogVersion);
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Key{" +
+                "criteria=" + criteria +
+                ", catalogVersion=" + catalogVersion +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.harman.demo.pizzaria.service.criteria;
+
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import java.io.Serializable;
+import java.util.Objects;
+import org.springdoc.api.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.FloatFilter;
+import tech.jhipster.service.filter.LongFilter;
+
+/**
+ * Criteria class for the {@link com.harman.demo.pizzaria.domain.Pizza} entity. This class is used
+ * in {@link com.harman.demo.pizzaria.web.rest.PizzaResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /pizzas?pizzaSize.in=SMALL,MEDIUM&price.lessThanOrEqual=10}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+public class PizzaCriteria implements Serializable, Criteria {
+
+    /**
+     * Class for filtering PizzaSize
+     */
+    public static class PizzaSizeFilter extends Filter<PizzaSize> {
+
+        public PizzaSizeFilter() {}
+
+        public PizzaSizeFilter(PizzaSizeFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public PizzaSizeFilter copy() {
+            return new PizzaSizeFilter(this);
+        }
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private PizzaSizeFilter pizzaSize;
+
+    private FloatFilter price;
+
+    private Boolean distinct;
+
+    public PizzaCriteria() {}
+
+    public PizzaCriteria(PizzaCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.pizzaSize = other.pizzaSize == null ? null : other.pizzaSize.copy();
+        this.price = other.price == null ? null : other.price.copy();
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public PizzaCriteria copy() {
+        return new PizzaCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public PizzaSizeFilter getPizzaSize() {
+        return pizzaSize;
+    }
+
+    public PizzaSizeFilter pizzaSize() {
+        if (pizzaSize == null) {
+            pizzaSize = new PizzaSizeFilter();
+        }
+        return pizzaSize;
+    }
+
+    public void setPizzaSize(PizzaSizeFilter pizzaSize) {
+        this.pizzaSize = pizzaSize;
+    }
+
+    public FloatFilter getPrice() {
+        return price;
+    }
+
+    public FloatFilter price() {
+        if (price == null) {
+            price = new FloatFilter();
+        }
+        return price;
+    }
+
+    public void setPrice(FloatFilter price) {
+        this.price = price;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final PizzaCriteria that = (PizzaCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(pizzaSize, that.pizzaSize) &&
+            Objects.equals(price, that.price) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, pizzaSize, price, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PizzaCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (pizzaSize != null ? "pizzaSize=" + pizzaSize + ", " : "") +
+            (price != null ? "price=" + price + ", " : "") +
+            (distinct != null ? "distinct=" + distinct + ", " : "") +
+            "}";
+    }
+}
@@ -0,0 +1,349 @@
+package com.harman.demo.pizzaria.service.delivery;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.OrderLine;
+import com.harman.demo.pizzaria.domain.PizzaOrder;
+import com.harman.demo.pizzaria.service.dto.DeliveryPlanDTO;
+import com.harman.demo.pizzaria.service.dto.DeliveryStopDTO;
+import com.harman.demo.pizzaria.service.dto.LocationDTO;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service batching the orders to deliver into runs, each carried by one driver from the shop.
+ * <p>
+ * Locations are projected on a plane centered on the shop, and indexed on a grid of square cells of
+ * {@code application.delivery.cell-meters}. Every {@code application.delivery.plan-interval-ms}, the orders which
+ * became ready are added one by one, in ready order, to the cheapest run with a stop in the cells within
+ * {@code application.delivery.max-detour-meters} of them: the run must have room for their pizzas within
+ * {@code application.delivery.capacity}, and delivering them must lengthen it by at most the detour, at the best place
+ * along it. Otherwise they start a run of their own. Runs already planned are never recomputed and full runs leave the
+ * grid, so adding an order only costs a look at the runs with room nearby.
+ * <p>
+ * Runs stay planned until a driver takes them through {@link #dispatch(long)}. The plan only lives in memory.
+ */
+@Service
+public class DeliveryPlanner {
+
+    /**
+     * Length of a degree of latitude, on a spherical Earth.
+     */
+    static final double METERS_PER_DEGREE = 111_195;
+
+    private final Logger log = LoggerFactory.getLogger(DeliveryPlanner.class);
+
+    private final Clock clock;
+
+    private final double shopLatitude;
+
+    private final double shopLongitude;
+
+    private final double metersPerDegreeOfLongitude;
+
+    private final double cellMeters;
+
+    private final double maxDetourMeters;
+
+    private final int capacity;
+
+    /**
+     * Number of cells around the cell of an order whose runs may deliver it.
+     */
+    private final int searchRadius;
+
+    /**
+     * The orders not ready yet, earliest first.
+     */
+    private final PriorityQueue<Stop> cooking = new PriorityQueue<>(Comparator.comparingLong(stop -> stop.readyAt));
+
+    /**
+     * The runs delivering an order in each cell.
+     */
+    private final Map<Long, List<Run>> cells = new HashMap<>();
+
+    private final Map<Long, Run> runs = new LinkedHashMap<>();
+
+    private long nextRunId = 1;
+
+    /**
+     * Incremented for each order planned, to look at each run around it once.
+     */
+    private long lookup;
+
+    @Autowired
+    public DeliveryPlanner(ApplicationProperties applicationProperties) {
+        this(applicationProperties.getDelivery(), Clock.systemUTC());
+    }
+
+    DeliveryPlanner(ApplicationProperties.Delivery properties, Clock clock) {
+        if (properties.getCapacity() < 1) {
+            throw new IllegalArgumentException("A driver must carry at least one pizza");
+        }
+        if (!(properties.getCellMeters() > 0) || !(properties.getMaxDetourMeters() >= 0)) {
+            throw new IllegalArgumentException("Invalid delivery grid: " + properties.getCellMeters() + " m cells");
+        }
+        this.clock = clock;
+        this.shopLatitude = properties.getShopLatitude();
+        this.shopLongitude = properties.getShopLongitude();
+        this.metersPerDegreeOfLongitude = METERS_PER_DEGREE * Math.cos(Math.toRadians(shopLatitude));
+        this.cellMeters = properties.getCellMeters();
+        this.maxDetourMeters = properties.getMaxDetourMeters();
+        this.capacity = properties.getCapacity();
+        this.searchRadius = (int) Math.ceil(maxDetourMeters / cellMeters);
+    }
+
+    /**
+     * Deliver an order once it is ready, if it is not picked up.
+     *
+     * @param pizzaOrder the order, persisted.
+     * @param readyAt when it is ready.
+     */
+    public void add(PizzaOrder pizzaOrder, Instant readyAt) {
+        if (pizzaOrder.getDeliveryLatitude() == null || pizzaOrder.getDeliveryLongitude() == null) {
+            return;
+        }
+        int pizzas = pizzaOrder.getLines().stream().mapToInt(OrderLine::getQuantity).sum();
+        add(pizzaOrder.getReference(), pizzaOrder.getDeliveryLatitude(), pizzaOrder.getDeliveryLongitude(), pizzas, readyAt);
+    }
+
+    /**
+     * Get the runs planned.
+     *
+     * @return the runs, those whose orders are ready first first.
+     */
+    public synchronized List<DeliveryPlanDTO> getPlans() {
+        return runs.values().stream().sorted(Comparator.comparingLong(run -> run.readyAt)).map(Run::toDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Give a run to a driver, so its orders are no longer planned.
+     *
+     * @param id the id of the run.
+     * @return the run, or empty if it is unknown or was already dispatched.
+     */
+    public synchronized Optional<DeliveryPlanDTO> dispatch(long id) {
+        Run run = runs.remove(id);
+        if (run == null) {
+            return Optional.empty();
+        }
+        unindex(run);
+        return Optional.of(run.toDto());
+    }
+
+    /**
+     * Add the orders which became ready to the runs.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.delivery.plan-interval-ms:1000}",
+        initialDelayString = "${application.delivery.plan-interval-ms:1000}"
+    )
+    public synchronized void plan() {
+        long started = System.nanoTime();
+        long now = clock.millis();
+        int planned = 0;
+        while (!cooking.isEmpty() && cooking.peek().readyAt <= now) {
+            plan(cooking.poll());
+            planned++;
+        }
+        if (planned > 0) {
+            log.debug(
+                "Planned the delivery of {} orders in {} us, {} runs planned",
+                planned,
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started),
+                runs.size()
+            );
+        }
+    }
+
+    synchronized void add(UUID reference, double latitude, double longitude, int pizzas, Instant readyAt) {
+        double x = (longitude - shopLongitude) * metersPerDegreeOfLongitude;
+        double y = (latitude - shopLatitude) * METERS_PER_DEGREE;
+        cooking.add(new Stop(reference, latitude, longitude, x, y, cellOf(x), cellOf(y), pizzas, readyAt.toEpochMilli()));
+    }
+
+    private void plan(Stop stop) {
+        lookup++;
+        Run best = null;
+        int bestPosition = 0;
+        double bestCost = maxDetourMeters;
+        for (int dy = -searchRadius; dy <= searchRadius; dy++) {
+            for (int dx = -searchRadius; dx <= searchRadius; dx++) {
+                List<Run> cell = cells.get(key(stop.cellX + dx, stop.cellY + dy));
+                if (cell == null) {
+                    continue;
+                }
+                for (Run run : cell) {
+                    if (run.lookup == lookup || run.pizzas + stop.pizzas > capacity) {
+                        continue;
+                    }
+                    run.lookup = lookup;
+                    // Delivered before the stop at the position, the order replaces its leg by one leg to the order and one from it
+                    double fromPrevious = stop.fromShop;
+                    for (int position = 0; position <= run.stops.size(); position++) {
+                        double cost = fromPrevious;
+                        if (position < run.stops.size()) {
+                            Stop next = run.stops.get(position);
+                            fromPrevious = distance(stop, next);
+                            cost += fromPrevious - next.leg;
+                        }
+                        if (cost < bestCost || (best == null && cost <= bestCost)) {
+                            best = run;
+                            bestPosition = position;
+                            bestCost = cost;
+                        }
+                    }
+                }
+            }
+        }
+        if (best == null) {
+            best = new Run(nextRunId++);
+            runs.put(best.id, best);
+        }
+        best.insert(bestPosition, stop);
+        if (best.pizzas >= capacity) {
+            // A full run can take no more orders, so it is no longer looked at
+            unindex(best);
+            return;
+        }
+        List<Run> cell = cells.computeIfAbsent(stop.cell, key -> new ArrayList<>(2));
+        if (!cell.contains(best)) {
+            cell.add(best);
+        }
+    }
+
+    private void unindex(Run run) {
+        for (Stop stop : run.stops) {
+            List<Run> cell = cells.get(stop.cell);
+            if (cell != null && cell.remove(run) && cell.isEmpty()) {
+                cells.remove(stop.cell);
+            }
+        }
+    }
+
+    private int cellOf(double meters) {
+        return (int) Math.floor(meters / cellMeters);
+    }
+
+    /**
+     * The key of a cell in {@link #cells}. {@code Long.hashCode} of the packed coordinates would be {@code cellX ^ cellY},
+     * the same along a diagonal: multiplying by an odd constant keeps keys unique and spreads neighbouring cells.
+     */
+    private static long key(int cellX, int cellY) {
+        return (((long) cellY << 32) | (cellX & 0xffffffffL)) * 0x9e3779b97f4a7c15L;
+    }
+
+    private static double distance(Stop from, Stop to) {
+        // Coordinates are a few kilometers at most, so Math.hypot guarding against overflow only slows this down
+        double dx = to.x - from.x;
+        double dy = to.y - from.y;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * An order to deliver, located in meters from the shop.
+     */
+    private static final class Stop {
+
+        private final UUID reference;
+
+        private final double latitude;
+
+        private final double longitude;
+
+        private final double x;
+
+        private final double y;
+
+        private final int cellX;
+
+        private final int cellY;
+
+        private final long cell;
+
+        private final int pizzas;
+
+        private final long readyAt;
+
+        private final double fromShop;
+
+        /**
+         * Length of the leg ending at this stop, in its run.
+         */
+        private double leg;
+
+        Stop(UUID reference, double latitude, double longitude, double x, double y, int cellX, int cellY, int pizzas, long readyAt) {
+            this.reference = reference;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.x = x;
+            this.y = y;
+            this.cellX = cellX;
+            this.cellY = cellY;
+            this.cell = key(cellX, cellY);
+            this.pizzas = pizzas;
+            this.readyAt = readyAt;
+            this.fromShop = Math.sqrt(x * x + y * y);
+        }
+
+        DeliveryStopDTO toDto() {
+            return new DeliveryStopDTO(reference, new LocationDTO(latitude, longitude), pizzas, Instant.ofEpochMilli(readyAt));
+        }
+    }
+
+    /**
+     * The orders delivered by one driver, in delivery order.
+     */
+    private static final class Run {
+
+        private final long id;
+
+        private final List<Stop> stops = new ArrayList<>();
+
+        private int pizzas;
+
+        private double meters;
+
+        private long readyAt = Long.MIN_VALUE;
+
+        private long lookup;
+
+        Run(long id) {
+            this.id = id;
+        }
+
+        void insert(int position, Stop stop) {
+            stop.leg = position == 0 ? stop.fromShop : distance(stops.get(position - 1), stop);
+            meters += stop.leg;
+            if (position < stops.size()) {
+                Stop next = stops.get(position);
+                meters -= next.leg;
+                next.leg = distance(stop, next);
+                meters += next.leg;
+            }
+            stops.add(position, stop);
+            pizzas += stop.pizzas;
+            readyAt = Math.max(readyAt, stop.readyAt);
+        }
+
+        DeliveryPlanDTO toDto() {
+            List<DeliveryStopDTO> stopDTOs = stops.stream().map(Stop::toDto).collect(Collectors.toList());
+            return new DeliveryPlanDTO(id, Instant.ofEpochMilli(readyAt), pizzas, Math.round(meters), stopDTOs);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A DTO for a pizza scheduled in an oven.
+ */
+public class BakeDTO implements Serializable {
+
+    private UUID reference;
+
+    private PizzaSize pizzaSize;
+
+    private Instant start;
+
+    private Instant end;
+
+    public BakeDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BakeDTO(UUID reference, PizzaSize pizzaSize, Instant start, Instant end) {
+        this.reference = reference;
+        this.pizzaSize = pizzaSize;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return the reference of the order the pizza belongs to.
+     */
+    public UUID getReference() {
+        return reference;
+    }
+
+    public void setReference(UUID reference) {
+        this.reference = reference;
+    }
+
+    public PizzaSize getPizzaSize() {
+        return pizzaSize;
+    }
+
+    public void setPizzaSize(PizzaSize pizzaSize) {
+        this.pizzaSize = pizzaSize;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public void setStart(Instant start) {
+        this.start = start;
+    }
+
+    public Instant getEnd() {
+        return end;
+    }
+
+    public void setEnd(Instant end) {
+        this.end = end;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BakeDTO{" +
+            "reference='" + getReference() + "'" +
+            ", pizzaSize='" + getPizzaSize() + "'" +
+            ", start='" + getStart() + "'" +
+            ", end='" + getEnd() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,95 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for a run proposed to a driver through {@code GET /api/delivery/plans}.
+ */
+public class DeliveryPlanDTO implements Serializable {
+
+    private Long id;
+
+    private Instant readyAt;
+
+    private int pizzas;
+
+    private long distanceMeters;
+
+    private List<DeliveryStopDTO> stops = new ArrayList<>();
+
+    public DeliveryPlanDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public DeliveryPlanDTO(Long id, Instant readyAt, int pizzas, long distanceMeters, List<DeliveryStopDTO> stops) {
+        this.id = id;
+        this.readyAt = readyAt;
+        this.pizzas = pizzas;
+        this.distanceMeters = distanceMeters;
+        this.stops = stops;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return when the last order of the run is ready.
+     */
+    public Instant getReadyAt() {
+        return readyAt;
+    }
+
+    public void setReadyAt(Instant readyAt) {
+        this.readyAt = readyAt;
+    }
+
+    public int getPizzas() {
+        return pizzas;
+    }
+
+    public void setPizzas(int pizzas) {
+        this.pizzas = pizzas;
+    }
+
+    /**
+     * @return the length of the run as the crow flies, from the shop to its last stop.
+     */
+    public long getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public void setDistanceMeters(long distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+
+    /**
+     * @return the orders, in delivery order.
+     */
+    public List<DeliveryStopDTO> getStops() {
+        return stops;
+    }
+
+    public void setStops(List<DeliveryStopDTO> stops) {
+        this.stops = stops;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DeliveryPlanDTO{" +
+            "id=" + getId() +
+            ", readyAt='" + getReadyAt() + "'" +
+            ", pizzas=" + getPizzas() +
+            ", distanceMeters=" + getDistanceMeters() +
+            ", stops=" + getStops() +
+            "}";
+    }
+}
@@ -0,0 +1,73 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A DTO for an order delivered by a {@link DeliveryPlanDTO}.
+ */
+public class DeliveryStopDTO implements Serializable {
+
+    private UUID reference;
+
+    private LocationDTO location;
+
+    private int pizzas;
+
+    private Instant readyAt;
+
+    public DeliveryStopDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public DeliveryStopDTO(UUID reference, LocationDTO location, int pizzas, Instant readyAt) {
+        this.reference = reference;
+        this.location = location;
+        this.pizzas = pizzas;
+        this.readyAt = readyAt;
+    }
+
+    public UUID getReference() {
+        return reference;
+    }
+
+    public void setReference(UUID reference) {
+        this.reference = reference;
+    }
+
+    public LocationDTO getLocation() {
+        return location;
+    }
+
+    public void setLocation(LocationDTO location) {
+        this.location = location;
+    }
+
+    public int getPizzas() {
+        return pizzas;
+    }
+
+    public void setPizzas(int pizzas) {
+        this.pizzas = pizzas;
+    }
+
+    public Instant getReadyAt() {
+        return readyAt;
+    }
+
+    public void setReadyAt(Instant readyAt) {
+        this.readyAt = readyAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DeliveryStopDTO{" +
+            "reference='" + getReference() + "'" +
+            ", location=" + getLocation() +
+            ", pizzas=" + getPizzas() +
+            ", readyAt='" + getReadyAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,54 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import java.io.Serializable;
+import javax.validation.constraints.*;
+
+/**
+ * A DTO for a point on the map, in degrees.
+ */
+public class LocationDTO implements Serializable {
+
+    @NotNull
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
+    private Double latitude;
+
+    @NotNull
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
+    private Double longitude;
+
+    public LocationDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public LocationDTO(Double latitude, Double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LocationDTO{" +
+            "latitude=" + getLatitude() +
+            ", longitude=" + getLongitude() +
+            "}";
+    }
+}
@@ -0,0 +1,52 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A DTO for when an order placed through {@code POST /api/orders} is expected to be ready.
+ */
+public class OrderEtaDTO implements Serializable {
+
+    private UUID reference;
+
+    private Instant readyAt;
+
+    public OrderEtaDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public OrderEtaDTO(UUID reference, Instant readyAt) {
+        this.reference = reference;
+        this.readyAt = readyAt;
+    }
+
+    public UUID getReference() {
+        return reference;
+    }
+
+    public void setReference(UUID reference) {
+        this.reference = reference;
+    }
+
+    /**
+     * @return when the last pizza of the order comes out of the oven.
+     */
+    public Instant getReadyAt() {
+        return readyAt;
+    }
+
+    public void setReadyAt(Instant readyAt) {
+        this.readyAt = readyAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OrderEtaDTO{" +
+            "reference='" + getReference() + "'" +
+            ", readyAt='" + getReadyAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,59 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.*;
+
+/**
+ * A DTO for a line of an order placed through {@code POST /api/orders}: a pizza, its toppings and how many. Also the
+ * request of {@code POST /api/quote}.
+ */
+public class OrderLineDTO implements Serializable {
+
+    @NotNull
+    private Long pizzaId;
+
+    @NotNull
+    @Size(max = 20)
+    private List<@NotNull Long> toppingIds = new ArrayList<>();
+
+    @NotNull
+    @Min(value = 1)
+    @Max(value = 100)
+    private Integer quantity;
+
+    public Long getPizzaId() {
+        return pizzaId;
+    }
+
+    public void setPizzaId(Long pizzaId) {
+        this.pizzaId = pizzaId;
+    }
+
+    public List<Long> getToppingIds() {
+        return toppingIds;
+    }
+
+    public void setToppingIds(List<Long> toppingIds) {
+        this.toppingIds = toppingIds;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OrderLineDTO{" +
+            "pizzaId=" + getPizzaId() +
+            ", toppingIds=" + getToppingIds() +
+            ", quantity=" + getQuantity() +
+            "}";
+    }
+}
@@ -0,0 +1,90 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A DTO for the answer to an order placed through {@code POST /api/orders}.
+ */
+public class OrderReceiptDTO implements Serializable {
+
+    public enum Status {
+        /**
+         * The order is queued, and will be persisted shortly.
+         */
+        QUEUED,
+        /**
+         * The order is persisted.
+         */
+        PERSISTED,
+    }
+
+    private UUID reference;
+
+    private Float total;
+
+    private Status status;
+
+    private Instant readyAt;
+
+    public OrderReceiptDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public OrderReceiptDTO(UUID reference, Float total, Status status, Instant readyAt) {
+        this.reference = reference;
+        this.total = total;
+        this.status = status;
+        this.readyAt = readyAt;
+    }
+
+    /**
+     * @return the id of the order.
+     */
+    public UUID getReference() {
+        return reference;
+    }
+
+    public void setReference(UUID reference) {
+        this.reference = reference;
+    }
+
+    public Float getTotal() {
+        return total;
+    }
+
+    public void setTotal(Float total) {
+        this.total = total;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * @return when the kitchen expects the order to be ready.
+     */
+    public Instant getReadyAt() {
+        return readyAt;
+    }
+
+    public void setReadyAt(Instant readyAt) {
+        this.readyAt = readyAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OrderReceiptDTO{" +
+            "reference='" + getReference() + "'" +
+            ", total=" + getTotal() +
+            ", status=" + getStatus() +
+            ", readyAt='" + getReadyAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,65 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO for the queue of an oven: the pizzas baking or waiting, in baking order.
+ */
+public class OvenDTO implements Serializable {
+
+    private int oven;
+
+    private Instant readyAt;
+
+    private List<BakeDTO> bakes = new ArrayList<>();
+
+    public OvenDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public OvenDTO(int oven, Instant readyAt, List<BakeDTO> bakes) {
+        this.oven = oven;
+        this.readyAt = readyAt;
+        this.bakes = bakes;
+    }
+
+    public int getOven() {
+        return oven;
+    }
+
+    public void setOven(int oven) {
+        this.oven = oven;
+    }
+
+    /**
+     * @return when the oven is done with its queue, or a past time if it is idle.
+     */
+    public Instant getReadyAt() {
+        return readyAt;
+    }
+
+    public void setReadyAt(Instant readyAt) {
+        this.readyAt = readyAt;
+    }
+
+    public List<BakeDTO> getBakes() {
+        return bakes;
+    }
+
+    public void setBakes(List<BakeDTO> bakes) {
+        this.bakes = bakes;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OvenDTO{" +
+            "oven=" + getOven() +
+            ", readyAt='" + getReadyAt() + "'" +
+            ", bakes=" + getBakes().size() +
+            "}";
+    }
+}
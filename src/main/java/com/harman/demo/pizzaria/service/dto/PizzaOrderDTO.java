@@ -0,0 +1,49 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+
+/**
+ * A DTO for an order placed through {@code POST /api/orders}.
+ */
+public class PizzaOrderDTO implements Serializable {
+
+    @NotEmpty
+    @Size(max = 50)
+    @Valid
+    private List<OrderLineDTO> lines = new ArrayList<>();
+
+    /**
+     * Where the order is delivered, {@code null} if it is picked up.
+     */
+    @Valid
+    private LocationDTO delivery;
+
+    public List<OrderLineDTO> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<OrderLineDTO> lines) {
+        this.lines = lines;
+    }
+
+    public LocationDTO getDelivery() {
+        return delivery;
+    }
+
+    public void setDelivery(LocationDTO delivery) {
+        this.delivery = delivery;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PizzaOrderDTO{" +
+            "lines=" + getLines() +
+            ", delivery=" + getDelivery() +
+            "}";
+    }
+}
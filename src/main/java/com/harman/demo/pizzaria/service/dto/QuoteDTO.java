@@ -0,0 +1,61 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * A DTO for the answer of {@code POST /api/quote}: the price of an {@link OrderLineDTO}, computed in integer cents.
+ */
+public class QuoteDTO implements Serializable {
+
+    private long unitPriceCents;
+
+    private long totalCents;
+
+    public QuoteDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public QuoteDTO(long unitPriceCents, long totalCents) {
+        this.unitPriceCents = unitPriceCents;
+        this.totalCents = totalCents;
+    }
+
+    /**
+     * @return the price of one pizza with its toppings, in cents.
+     */
+    public long getUnitPriceCents() {
+        return unitPriceCents;
+    }
+
+    public void setUnitPriceCents(long unitPriceCents) {
+        this.unitPriceCents = unitPriceCents;
+    }
+
+    /**
+     * @return the price of the line, in cents.
+     */
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public void setTotalCents(long totalCents) {
+        this.totalCents = totalCents;
+    }
+
+    /**
+     * @return the price of the line, with a scale of 2.
+     */
+    public BigDecimal getTotal() {
+        return BigDecimal.valueOf(totalCents, 2);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "QuoteDTO{" +
+            "unitPriceCents=" + getUnitPriceCents() +
+            ", totalCents=" + getTotalCents() +
+            "}";
+    }
+}
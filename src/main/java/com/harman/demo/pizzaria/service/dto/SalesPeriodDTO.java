@@ -0,0 +1,68 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A DTO for the sales of a minute or an hour: the pizzas sold per size, and the toppings sold per topping id.
+ */
+public class SalesPeriodDTO implements Serializable {
+
+    private Instant start;
+
+    private Map<PizzaSize, Long> pizzas = new EnumMap<>(PizzaSize.class);
+
+    private Map<Long, Long> toppings = new TreeMap<>();
+
+    public SalesPeriodDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SalesPeriodDTO(Instant start) {
+        this.start = start;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public void setStart(Instant start) {
+        this.start = start;
+    }
+
+    /**
+     * @return the pizzas sold per size, without the sizes not sold.
+     */
+    public Map<PizzaSize, Long> getPizzas() {
+        return pizzas;
+    }
+
+    public void setPizzas(Map<PizzaSize, Long> pizzas) {
+        this.pizzas = pizzas;
+    }
+
+    /**
+     * @return the toppings sold per topping id, without the toppings not sold.
+     */
+    public Map<Long, Long> getToppings() {
+        return toppings;
+    }
+
+    public void setToppings(Map<Long, Long> toppings) {
+        this.toppings = toppings;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SalesPeriodDTO{" +
+            "start='" + getStart() + "'" +
+            ", pizzas=" + getPizzas() +
+            ", toppings=" + getToppings().size() +
+            "}";
+    }
+}
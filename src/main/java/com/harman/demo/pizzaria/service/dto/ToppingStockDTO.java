@@ -0,0 +1,50 @@
+package com.harman.demo.pizzaria.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the units left of a {@link com.harman.demo.pizzaria.domain.Topping}.
+ */
+public class ToppingStockDTO implements Serializable {
+
+    private Long toppingId;
+
+    private Long available;
+
+    public ToppingStockDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ToppingStockDTO(Long toppingId, Long available) {
+        this.toppingId = toppingId;
+        this.available = available;
+    }
+
+    public Long getToppingId() {
+        return toppingId;
+    }
+
+    public void setToppingId(Long toppingId) {
+        this.toppingId = toppingId;
+    }
+
+    /**
+     * @return the units left, including those reserved by orders not written yet.
+     */
+    public Long getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Long available) {
+        this.available = available;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ToppingStockDTO{" +
+            "toppingId=" + getToppingId() +
+            ", available=" + getAvailable() +
+            "}";
+    }
+}
@@ -0,0 +1,20 @@
+package com.harman.demo.pizzaria.service.inventory;
+
+/**
+ * Thrown when an order needs more units of a topping than are left.
+ */
+public class OutOfStockException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long toppingId;
+
+    public OutOfStockException(Long toppingId) {
+        super("Out of stock: topping " + toppingId);
+        this.toppingId = toppingId;
+    }
+
+    public Long getToppingId() {
+        return toppingId;
+    }
+}
@@ -0,0 +1,274 @@
+package com.harman.demo.pizzaria.service.inventory;
+
+import com.harman.demo.pizzaria.service.catalog.CatalogChangedEvent;
+import com.harman.demo.pizzaria.service.dto.ToppingStockDTO;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stock of the {@link com.harman.demo.pizzaria.domain.Topping}s, reserved by the orders.
+ * <p>
+ * Reservations never touch the database: each tracked topping has an in-memory counter of the units left, decremented
+ * with a compare-and-set which fails rather than going below zero, and a sum of the changes not yet written. Every
+ * {@code application.inventory.reconcile-interval-ms}, the pending changes are written with a single batched
+ * relative {@code UPDATE}, then the stock is read back, so restocking and the reservations of other instances are
+ * picked up. Toppings whose {@code stock} is {@code null} are not tracked, and never run out.
+ */
+@Service
+public class ToppingInventory {
+
+    private static final String UPDATE_STOCK = "update topping set stock = stock + ? where id = ? and stock is not null";
+
+    private static final String SELECT_STOCK = "select id, stock from topping where stock is not null";
+
+    private final Logger log = LoggerFactory.getLogger(ToppingInventory.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Stock> stocks = new ConcurrentHashMap<>();
+
+    public ToppingInventory(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reserve the toppings of an order, all of them or none.
+     *
+     * @param quantities the units of each topping.
+     * @return the reservation, to release if the order is not placed after all.
+     * @throws OutOfStockException if a topping has not enough units left.
+     */
+    public Reservation reserve(Map<Long, Integer> quantities) {
+        List<Stock> reserved = new ArrayList<>(quantities.size());
+        List<Integer> units = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+            Stock stock = stocks.get(quantity.getKey());
+            if (stock == null) {
+                continue;
+            }
+            if (!stock.tryReserve(quantity.getValue())) {
+                for (int i = 0; i < reserved.size(); i++) {
+                    reserved.get(i).release(units.get(i));
+                }
+                throw new OutOfStockException(quantity.getKey());
+            }
+            reserved.add(stock);
+            units.add(quantity.getValue());
+        }
+        return reserved.isEmpty() ? Reservation.EMPTY : new Reservation(reserved, units);
+    }
+
+    /**
+     * Give the units of a reservation back, once.
+     *
+     * @param reservation the reservation.
+     */
+    public void release(Reservation reservation) {
+        for (int i = 0; i < reservation.stocks.size(); i++) {
+            reservation.stocks.get(i).release(reservation.units.get(i));
+        }
+    }
+
+    /**
+     * Get the units left of a topping.
+     *
+     * @param toppingId the id of the topping.
+     * @return the units left, empty if its stock is not tracked.
+     */
+    public Optional<Long> getAvailable(Long toppingId) {
+        return Optional.ofNullable(stocks.get(toppingId)).map(stock -> stock.available.get());
+    }
+
+    /**
+     * @return the units left of every tracked topping.
+     */
+    public List<ToppingStockDTO> getStock() {
+        return stocks
+            .entrySet()
+            .stream()
+            .map(entry -> new ToppingStockDTO(entry.getKey(), entry.getValue().available.get()))
+            .sorted(Comparator.comparing(ToppingStockDTO::getToppingId))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Set the units left of a topping, after a delivery or a count.
+     *
+     * @param toppingId the id of the topping.
+     * @param available the units left, or {@code null} to stop tracking its stock.
+     * @return whether the topping exists.
+     */
+    public synchronized boolean setAvailable(Long toppingId, Long available) {
+        log.debug("Request to set the stock of Topping {} to {}", toppingId, available);
+        // Reservations made after the flush are written on top of the new stock by the next one
+        flush();
+        Integer updated = transactionTemplate.execute(status ->
+            jdbcTemplate.update("update topping set stock = ? where id = ?", available, toppingId)
+        );
+        reload();
+        return updated != null && updated > 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getEntityType() == CatalogChangedEvent.EntityType.TOPPING) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Write the pending changes, then read the stock back.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.inventory.reconcile-interval-ms:1000}",
+        initialDelayString = "${application.inventory.reconcile-interval-ms:1000}"
+    )
+    public synchronized void reconcile() {
+        if (flush()) {
+            reload();
+        }
+    }
+
+    /**
+     * @return whether the pending changes were written.
+     */
+    private boolean flush() {
+        List<Object[]> updates = new ArrayList<>();
+        List<Stock> flushed = new ArrayList<>();
+        for (Map.Entry<Long, Stock> entry : stocks.entrySet()) {
+            Stock stock = entry.getValue();
+            // Only the changes read here are taken out, not those made meanwhile
+            long pending = stock.pending.sum();
+            if (pending != 0) {
+                stock.pending.add(-pending);
+                stock.flushing = pending;
+                updates.add(new Object[] { pending, entry.getKey() });
+                flushed.add(stock);
+            }
+        }
+        if (updates.isEmpty()) {
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_STOCK, updates));
+        } catch (RuntimeException e) {
+            log.warn("Could not write the stock of {} toppings, retrying later: {}", flushed.size(), e.getMessage());
+            flushed.forEach(stock -> stock.pending.add(stock.flushing));
+            return false;
+        }
+        flushed.forEach(stock -> stock.stored += stock.flushing);
+        log.debug("Wrote the stock of {} toppings", flushed.size());
+        return true;
+    }
+
+    private void reload() {
+        Map<Long, Long> stored = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.query(SELECT_STOCK, rs -> {
+                stored.put(rs.getLong(1), rs.getLong(2));
+            })
+        );
+        stocks.keySet().retainAll(stored.keySet());
+        stored.forEach((toppingId, units) -> {
+            Stock stock = stocks.computeIfAbsent(toppingId, id -> new Stock(units));
+            // What changed in the database besides our own writes: restocking, or the reservations of other instances
+            long external = units - stock.stored;
+            if (external != 0) {
+                stock.stored = units;
+                stock.available.addAndGet(external);
+            }
+        });
+    }
+
+    /**
+     * The stock of a topping.
+     */
+    private static final class Stock {
+
+        /**
+         * Units left, including the changes not written yet.
+         */
+        private final AtomicLong available;
+
+        /**
+         * Changes not written yet: a sum, since it is only read when writing them.
+         */
+        private final LongAdder pending = new LongAdder();
+
+        /**
+         * Units in the database after our last write, only accessed while reconciling.
+         */
+        private long stored;
+
+        /**
+         * Changes being written, only accessed while reconciling.
+         */
+        private long flushing;
+
+        Stock(long stored) {
+            this.available = new AtomicLong(stored);
+            this.stored = stored;
+        }
+
+        boolean tryReserve(int units) {
+            long left;
+            do {
+                left = available.get();
+                if (left < units) {
+                    return false;
+                }
+            } while (!available.compareAndSet(left, left - units));
+            pending.add(-units);
+            return true;
+        }
+
+        void release(int units) {
+            available.addAndGet(units);
+            pending.add(units);
+        }
+    }
+
+    /**
+     * Units reserved for an order.
+     */
+    public static final class Reservation {
+
+        static final Reservation EMPTY = new Reservation(Collections.emptyList(), Collections.emptyList());
+
+        private final List<Stock> stocks;
+
+        private final List<Integer> units;
+
+        private Reservation(List<Stock> stocks, List<Integer> units) {
+            this.stocks = stocks;
+            this.units = units;
+        }
+    }
+}
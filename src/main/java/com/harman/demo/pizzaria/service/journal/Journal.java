@@ -0,0 +1,288 @@
+package com.harman.demo.pizzaria.service.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only log of binary records, in memory-mapped segment files of a fixed size.
+ * <p>
+ * Each record is written as its payload length, a CRC32 of its sequence number and payload, its sequence number, then
+ * its payload. The length is written last, and segments are created full of zeros, so a record torn by a crash reads
+ * as either the end of the log or a CRC mismatch: when the journal is opened, the last segment is scanned and cut
+ * after its last intact record. Records are numbered from 1 without gaps, and each segment is named after the sequence
+ * number of its first record.
+ * <p>
+ * Appending copies the record into the mapping: it survives the process crashing at once, and the operating system
+ * crashing once {@link #force()} returned.
+ */
+final class Journal implements Closeable {
+
+    static final int HEADER_BYTES = 16;
+
+    private static final String SUFFIX = ".journal";
+
+    private final Logger log = LoggerFactory.getLogger(Journal.class);
+
+    private final Path directory;
+
+    private final int segmentBytes;
+
+    /**
+     * The segment files, by sequence number of their first record.
+     */
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channel;
+
+    private MappedByteBuffer segment;
+
+    private long nextSequence;
+
+    private Journal(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Open the journal in a directory, creating it if needed, and recover from a crash while appending.
+     *
+     * @param directory the directory of the segment files.
+     * @param segmentBytes the size of a segment file.
+     * @return the journal.
+     * @throws IOException if the directory cannot be read or written.
+     */
+    static Journal open(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Invalid journal segment size: " + segmentBytes);
+        }
+        Files.createDirectories(directory);
+        Journal journal = new Journal(directory, segmentBytes);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Journal::isSegment).forEach(file -> journal.segments.put(firstSequence(file), file));
+        }
+        if (journal.segments.isEmpty()) {
+            journal.roll(1);
+        } else {
+            journal.recover();
+        }
+        return journal;
+    }
+
+    /**
+     * Append a record.
+     *
+     * @param payload the content of the record.
+     * @return its sequence number.
+     */
+    synchronized long append(byte[] payload) {
+        if (payload.length == 0 || HEADER_BYTES + payload.length > segmentBytes) {
+            throw new IllegalArgumentException("Invalid journal record size: " + payload.length);
+        }
+        if (segment.remaining() < HEADER_BYTES + payload.length) {
+            roll(nextSequence);
+        }
+        long sequence = nextSequence++;
+        int position = segment.position();
+        segment.putLong(position + 8, sequence);
+        segment.position(position + HEADER_BYTES);
+        segment.put(payload);
+        segment.putInt(position + 4, checksum(segment, position, payload.length));
+        segment.putInt(position, payload.length);
+        return sequence;
+    }
+
+    /**
+     * Read the records from a sequence number on, in order.
+     *
+     * @param fromSequence the sequence number of the first record to read.
+     * @param handler called with each record, whose payload is only valid during the call.
+     */
+    synchronized void replay(long fromSequence, RecordHandler handler) {
+        Long first = segments.floorKey(fromSequence);
+        for (Map.Entry<Long, Path> entry : segments.tailMap(first == null ? segments.firstKey() : first, true).entrySet()) {
+            boolean active = entry.getKey().equals(segments.lastKey());
+            ByteBuffer buffer = active ? segment.duplicate().flip() : map(entry.getValue());
+            long end = scan(buffer, entry.getKey(), fromSequence, handler);
+            Long next = segments.higherKey(entry.getKey());
+            if (next != null && end != next) {
+                log.warn("Journal segment {} is damaged, records {} to {} are lost", entry.getValue(), end, next - 1);
+            }
+        }
+    }
+
+    /**
+     * Write the appended records to the disk.
+     */
+    synchronized void force() {
+        segment.force();
+    }
+
+    /**
+     * Delete the segments whose records are all up to a sequence number, except the segment being appended to.
+     *
+     * @param sequence the sequence number.
+     * @return the number of segments deleted.
+     */
+    synchronized int deleteUpTo(long sequence) {
+        int deleted = 0;
+        while (segments.size() > 1 && segments.higherKey(segments.firstKey()) <= sequence + 1) {
+            Path file = segments.pollFirstEntry().getValue();
+            try {
+                Files.deleteIfExists(file);
+                deleted++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * @return the sequence number of the last record, {@code 0} if none were appended.
+     */
+    synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        segment.force();
+        channel.close();
+    }
+
+    /**
+     * Find the end of the last segment, and wipe what follows it.
+     */
+    private void recover() throws IOException {
+        Map.Entry<Long, Path> last = segments.lastEntry();
+        open(last.getValue());
+        ByteBuffer records = segment.duplicate();
+        nextSequence = scan(records, last.getKey(), Long.MAX_VALUE, null);
+        int end = records.position();
+        segment.position(end);
+        if (!isZero(end)) {
+            log.warn("Journal segment {} was cut after record {}, at byte {}", last.getValue(), nextSequence - 1, end);
+            for (int i = end; i < segmentBytes; i++) {
+                segment.put(i, (byte) 0);
+            }
+            segment.force();
+        }
+    }
+
+    private boolean isZero(int from) {
+        int i = from;
+        for (; i + Long.BYTES <= segmentBytes; i += Long.BYTES) {
+            if (segment.getLong(i) != 0) {
+                return false;
+            }
+        }
+        for (; i < segmentBytes; i++) {
+            if (segment.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read the intact records of a segment.
+     *
+     * @param buffer the content of the segment, left positioned after its last intact record.
+     * @param sequence the sequence number of its first record.
+     * @param fromSequence the sequence number of the first record to pass to the handler.
+     * @param handler called with each record, or {@code null}.
+     * @return the sequence number following the last intact record.
+     */
+    private long scan(ByteBuffer buffer, long sequence, long fromSequence, RecordHandler handler) {
+        int position = buffer.position();
+        while (position + HEADER_BYTES <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.limit() - position - HEADER_BYTES) {
+                break;
+            }
+            if (buffer.getLong(position + 8) != sequence || buffer.getInt(position + 4) != checksum(buffer, position, length)) {
+                break;
+            }
+            if (handler != null && sequence >= fromSequence) {
+                int start = position + HEADER_BYTES;
+                handler.accept(sequence, buffer.duplicate().position(start).limit(start + length).slice().asReadOnlyBuffer());
+            }
+            position += HEADER_BYTES + length;
+            sequence++;
+        }
+        buffer.position(position);
+        return sequence;
+    }
+
+    private int checksum(ByteBuffer buffer, int position, int length) {
+        crc.reset();
+        crc.update(buffer.duplicate().position(position + 8).limit(position + HEADER_BYTES + length));
+        return (int) crc.getValue();
+    }
+
+    private void roll(long sequence) {
+        try {
+            if (segment != null) {
+                segment.force();
+                channel.close();
+            }
+            Path file = directory.resolve(String.format("%020d%s", sequence, SUFFIX));
+            open(file);
+            segments.put(sequence, file);
+            nextSequence = sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void open(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Grows the file to the segment size, with zeros
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+
+    private static ByteBuffer map(Path file) {
+        try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(SUFFIX) && name.length() == 20 + SUFFIX.length();
+    }
+
+    private static long firstSequence(Path file) {
+        return Long.parseLong(file.getFileName().toString().substring(0, 20));
+    }
+
+    /**
+     * Receives the records of the journal.
+     */
+    @FunctionalInterface
+    interface RecordHandler {
+        void accept(long sequence, ByteBuffer payload);
+    }
+}
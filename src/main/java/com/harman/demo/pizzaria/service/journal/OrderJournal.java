@@ -0,0 +1,287 @@
+package com.harman.demo.pizzaria.service.journal;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.service.dto.OrderReceiptDTO;
+import com.harman.demo.pizzaria.service.order.OrderStatusEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service journaling the status changes of the orders, and keeping the latest status of each recent order.
+ * <p>
+ * Every {@link OrderStatusEvent} is appended to a {@link Journal} in {@code application.journal.directory}, rather
+ * than written to the database. On startup, the status of the orders is rebuilt from the last snapshot and the records
+ * appended after it. Every {@code application.journal.compact-interval-ms}, the orders older than
+ * {@code application.journal.retention} are forgotten, the status of the others written to a new snapshot, and the
+ * segments it covers deleted, so startup only replays the tail of the journal.
+ */
+@Service
+public class OrderJournal {
+
+    static final String SNAPSHOT = "snapshot";
+
+    private static final int SNAPSHOT_MAGIC = 0x4f4a534e;
+
+    /**
+     * Reference, status, ready time and time of the change.
+     */
+    static final int RECORD_BYTES = 16 + 1 + 8 + 8;
+
+    private static final int SNAPSHOT_HEADER_BYTES = 4 + 8 + 4;
+
+    private static final long NO_READY_TIME = Long.MIN_VALUE;
+
+    private static final OrderReceiptDTO.Status[] STATUSES = OrderReceiptDTO.Status.values();
+
+    private final Logger log = LoggerFactory.getLogger(OrderJournal.class);
+
+    private final ApplicationProperties.Journal properties;
+
+    private final Clock clock;
+
+    private final Path directory;
+
+    private final Journal journal;
+
+    private final Map<UUID, OrderState> orders = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OrderJournal(ApplicationProperties applicationProperties) throws IOException {
+        this(applicationProperties.getJournal(), Clock.systemUTC());
+    }
+
+    OrderJournal(ApplicationProperties.Journal properties, Clock clock) throws IOException {
+        this.properties = properties;
+        this.clock = clock;
+        this.directory = Paths.get(properties.getDirectory());
+        this.journal = Journal.open(directory, properties.getSegmentBytes());
+        long started = System.nanoTime();
+        long snapshot = readSnapshot();
+        long[] replayed = new long[1];
+        journal.replay(
+            snapshot + 1,
+            (sequence, payload) -> {
+                apply(payload);
+                replayed[0]++;
+            }
+        );
+        log.info(
+            "Recovered the status of {} orders from {}, replaying {} records in {} ms",
+            orders.size(),
+            directory,
+            replayed[0],
+            Duration.ofNanos(System.nanoTime() - started).toMillis()
+        );
+    }
+
+    /**
+     * Order events are published by the order writer after its commit, outside of any transaction.
+     */
+    @EventListener
+    public void onOrderStatus(OrderStatusEvent event) {
+        append(event.getReference(), event.getStatus(), event.getReadyAt());
+    }
+
+    /**
+     * Get the latest status of an order.
+     *
+     * @param reference the reference of the order.
+     * @return the status, empty if the order is unknown or older than the retention.
+     */
+    public Optional<OrderStatusEvent> getStatus(UUID reference) {
+        OrderState state = orders.get(reference);
+        return Optional.ofNullable(state).map(order -> new OrderStatusEvent(reference, order.status, order.readyAt));
+    }
+
+    /**
+     * @return the number of orders whose status is kept.
+     */
+    public int getOrderCount() {
+        return orders.size();
+    }
+
+    /**
+     * Write the journal to the disk, so it survives the machine crashing.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.journal.sync-interval-ms:1000}",
+        initialDelayString = "${application.journal.sync-interval-ms:1000}"
+    )
+    public void sync() {
+        journal.force();
+    }
+
+    /**
+     * Forget the orders out of retention, write the status of the others to a new snapshot, then delete the segments
+     * it covers.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.journal.compact-interval-ms:300000}",
+        initialDelayString = "${application.journal.compact-interval-ms:300000}"
+    )
+    public void compact() {
+        long started = System.nanoTime();
+        long horizon = clock.millis() - properties.getRetention().toMillis();
+        List<Map.Entry<UUID, OrderState>> kept;
+        long sequence;
+        // Appends wait while the orders are copied, so the snapshot holds exactly the records up to its sequence
+        synchronized (this) {
+            orders.values().removeIf(order -> order.changedAt < horizon);
+            kept = new ArrayList<>(orders.entrySet());
+            sequence = journal.getLastSequence();
+        }
+        try {
+            writeSnapshot(sequence, kept);
+        } catch (IOException e) {
+            log.warn("Could not write a snapshot of the order journal: {}", e.getMessage());
+            return;
+        }
+        int deleted = journal.deleteUpTo(sequence);
+        log.debug(
+            "Wrote a snapshot of {} orders up to record {} and deleted {} segments in {} ms",
+            kept.size(),
+            sequence,
+            deleted,
+            Duration.ofNanos(System.nanoTime() - started).toMillis()
+        );
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    synchronized long append(UUID reference, OrderReceiptDTO.Status status, Instant readyAt) {
+        OrderState order = new OrderState(status, readyAt, clock.millis());
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        write(record, reference, order);
+        long sequence = journal.append(record.array());
+        orders.merge(reference, order, OrderState::latest);
+        return sequence;
+    }
+
+    Journal getJournal() {
+        return journal;
+    }
+
+    private void apply(ByteBuffer record) {
+        orders.merge(new UUID(record.getLong(), record.getLong()), read(record), OrderState::latest);
+    }
+
+    /**
+     * @return the sequence number of the last record in the snapshot, {@code 0} if there is none.
+     */
+    private long readSnapshot() throws IOException {
+        ByteBuffer snapshot;
+        try {
+            snapshot = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(SNAPSHOT)));
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        int end = snapshot.limit() - Long.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(snapshot.array(), 0, Math.max(end, 0));
+        if (end < SNAPSHOT_HEADER_BYTES || snapshot.getLong(end) != crc.getValue() || snapshot.getInt() != SNAPSHOT_MAGIC) {
+            // The orders are in the database: only their recent status is lost
+            log.error("The order journal snapshot in {} is damaged, only replaying the journal", directory);
+            return 0;
+        }
+        long sequence = snapshot.getLong();
+        int count = snapshot.getInt();
+        for (int i = 0; i < count; i++) {
+            apply(snapshot);
+        }
+        return sequence;
+    }
+
+    private void writeSnapshot(long sequence, List<Map.Entry<UUID, OrderState>> kept) throws IOException {
+        ByteBuffer snapshot = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES + kept.size() * RECORD_BYTES + Long.BYTES);
+        snapshot.putInt(SNAPSHOT_MAGIC).putLong(sequence).putInt(kept.size());
+        for (Map.Entry<UUID, OrderState> entry : kept) {
+            write(snapshot, entry.getKey(), entry.getValue());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(snapshot.array(), 0, snapshot.position());
+        snapshot.putLong(crc.getValue()).flip();
+        // Written aside then renamed, so a crash leaves either snapshot whole
+        Path next = directory.resolve(SNAPSHOT + ".tmp");
+        try (
+            FileChannel channel = FileChannel.open(
+                next,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+            )
+        ) {
+            while (snapshot.hasRemaining()) {
+                channel.write(snapshot);
+            }
+            channel.force(true);
+        }
+        Files.move(next, directory.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void write(ByteBuffer buffer, UUID reference, OrderState order) {
+        buffer
+            .putLong(reference.getMostSignificantBits())
+            .putLong(reference.getLeastSignificantBits())
+            .put((byte) order.status.ordinal())
+            .putLong(order.readyAt == null ? NO_READY_TIME : order.readyAt.toEpochMilli())
+            .putLong(order.changedAt);
+    }
+
+    private static OrderState read(ByteBuffer buffer) {
+        OrderReceiptDTO.Status status = STATUSES[buffer.get()];
+        long readyAt = buffer.getLong();
+        return new OrderState(status, readyAt == NO_READY_TIME ? null : Instant.ofEpochMilli(readyAt), buffer.getLong());
+    }
+
+    /**
+     * The latest status of an order.
+     */
+    private static final class OrderState {
+
+        private final OrderReceiptDTO.Status status;
+
+        private final Instant readyAt;
+
+        private final long changedAt;
+
+        OrderState(OrderReceiptDTO.Status status, Instant readyAt, long changedAt) {
+            this.status = status;
+            this.readyAt = readyAt;
+            this.changedAt = changedAt;
+        }
+
+        /**
+         * The status of an order only moves forward, even if its events were published out of order.
+         */
+        static OrderState latest(OrderState previous, OrderState next) {
+            return next.status.compareTo(previous.status) >= 0 ? next : previous;
+        }
+    }
+}
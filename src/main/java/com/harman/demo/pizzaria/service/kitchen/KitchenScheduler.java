@@ -0,0 +1,230 @@
+package com.harman.demo.pizzaria.service.kitchen;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.service.dto.BakeDTO;
+import com.harman.demo.pizzaria.service.dto.OrderEtaDTO;
+import com.harman.demo.pizzaria.service.dto.OvenDTO;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service planning when each pizza is baked, to give customers a ready time.
+ * <p>
+ * The kitchen has {@code application.kitchen.ovens} ovens, each baking one pizza at a time for the bake time of its
+ * size. Every pizza goes to the oven which finishes it earliest, behind the pizzas already planned there. Ovens only
+ * share their planned completion time, an {@link AtomicLong}: a pizza is planned by a compare-and-set on the chosen
+ * oven, so concurrent orders never wait on a lock and two orders racing for the same oven can only make one of them
+ * look again. With a handful of ovens, scanning their completion times costs less than keeping them in a heap.
+ * <p>
+ * The plan only lives in memory, and bakes and ready times are dropped once they are past, or when their order is
+ * cancelled.
+ */
+@Service
+public class KitchenScheduler {
+
+    /**
+     * How long the ready time of an order stays available after it is past.
+     */
+    static final Duration ETA_RETENTION = Duration.ofHours(1);
+
+    private final Logger log = LoggerFactory.getLogger(KitchenScheduler.class);
+
+    private final Clock clock;
+
+    private final long[] bakeMillis;
+
+    private final Oven[] ovens;
+
+    private final Map<UUID, Long> readyTimes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public KitchenScheduler(ApplicationProperties applicationProperties) {
+        this(applicationProperties.getKitchen(), Clock.systemUTC());
+    }
+
+    KitchenScheduler(ApplicationProperties.Kitchen properties, Clock clock) {
+        if (properties.getOvens() < 1) {
+            throw new IllegalArgumentException("The kitchen needs at least one oven");
+        }
+        this.clock = clock;
+        this.bakeMillis = new long[PizzaSize.values().length];
+        for (PizzaSize pizzaSize : PizzaSize.values()) {
+            Duration bakeTime = properties.getBakeTimes().get(pizzaSize);
+            if (bakeTime == null || bakeTime.isNegative() || bakeTime.isZero()) {
+                throw new IllegalArgumentException("Invalid bake time of " + pizzaSize + ": " + bakeTime);
+            }
+            bakeMillis[pizzaSize.ordinal()] = bakeTime.toMillis();
+        }
+        this.ovens = new Oven[properties.getOvens()];
+        for (int i = 0; i < ovens.length; i++) {
+            ovens[i] = new Oven(i);
+        }
+    }
+
+    /**
+     * Plan the pizzas of an order.
+     *
+     * @param reference the reference of the order.
+     * @param pizzaSizes the size of each pizza, a line of several pizzas listing its size several times.
+     * @return when the order is ready.
+     */
+    public Instant schedule(UUID reference, List<PizzaSize> pizzaSizes) {
+        long readyAt = clock.millis();
+        for (PizzaSize pizzaSize : pizzaSizes) {
+            readyAt = Math.max(readyAt, schedule(reference, pizzaSize));
+        }
+        readyTimes.merge(reference, readyAt, Math::max);
+        return Instant.ofEpochMilli(readyAt);
+    }
+
+    /**
+     * Drop the pizzas of an order which will not be baked, such as an order which could not be written.
+     * <p>
+     * An oven whose last pizzas belonged to the order is available again from the end of the pizza before them; a gap
+     * left between other pizzas is not reused.
+     *
+     * @param reference the reference of the order.
+     */
+    public void cancel(UUID reference) {
+        readyTimes.remove(reference);
+        for (Oven oven : ovens) {
+            List<Bake> cancelled = oven.bakes
+                .stream()
+                .filter(bake -> bake.reference.equals(reference))
+                .sorted(Comparator.comparingLong((Bake bake) -> bake.end).reversed())
+                .collect(Collectors.toList());
+            oven.bakes.removeAll(cancelled);
+            for (Bake bake : cancelled) {
+                // Only rewinds while nothing was planned behind the bake
+                oven.readyAt.compareAndSet(bake.end, bake.start);
+            }
+        }
+    }
+
+    /**
+     * Get when an order is ready.
+     *
+     * @param reference the reference of the order.
+     * @return the ready time, or empty if the order is unknown or was ready more than an hour ago.
+     */
+    public Optional<OrderEtaDTO> getEta(UUID reference) {
+        Long readyAt = readyTimes.get(reference);
+        return readyAt == null ? Optional.empty() : Optional.of(new OrderEtaDTO(reference, Instant.ofEpochMilli(readyAt)));
+    }
+
+    /**
+     * Get the pizzas baking or waiting in each oven.
+     *
+     * @return the ovens, with their bakes in baking order.
+     */
+    public List<OvenDTO> getQueue() {
+        long now = clock.millis();
+        List<OvenDTO> queue = new ArrayList<>(ovens.length);
+        for (Oven oven : ovens) {
+            List<BakeDTO> bakes = oven.bakes
+                .stream()
+                .filter(bake -> bake.end > now)
+                .sorted(Comparator.comparingLong(bake -> bake.start))
+                .map(bake ->
+                    new BakeDTO(bake.reference, bake.pizzaSize, Instant.ofEpochMilli(bake.start), Instant.ofEpochMilli(bake.end))
+                )
+                .collect(Collectors.toList());
+            queue.add(new OvenDTO(oven.index, Instant.ofEpochMilli(oven.readyAt.get()), bakes));
+        }
+        return queue;
+    }
+
+    /**
+     * Drop the bakes and ready times which are past.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void prune() {
+        long now = clock.millis();
+        int bakes = 0;
+        for (Oven oven : ovens) {
+            oven.bakes.removeIf(bake -> bake.end <= now);
+            bakes += oven.bakes.size();
+        }
+        long expired = now - ETA_RETENTION.toMillis();
+        readyTimes.values().removeIf(readyAt -> readyAt < expired);
+        log.debug("Kitchen has {} pizzas planned for {} orders", bakes, readyTimes.size());
+    }
+
+    private long schedule(UUID reference, PizzaSize pizzaSize) {
+        long bake = bakeMillis[pizzaSize.ordinal()];
+        // Starting the scan at a random oven spreads orders racing for idle ovens
+        int first = ThreadLocalRandom.current().nextInt(ovens.length);
+        while (true) {
+            long now = clock.millis();
+            Oven earliest = null;
+            long earliestReadyAt = 0;
+            long earliestStart = Long.MAX_VALUE;
+            for (int i = 0; i < ovens.length; i++) {
+                Oven oven = ovens[(first + i) % ovens.length];
+                long readyAt = oven.readyAt.get();
+                long start = Math.max(now, readyAt);
+                if (start < earliestStart) {
+                    earliest = oven;
+                    earliestReadyAt = readyAt;
+                    earliestStart = start;
+                }
+            }
+            if (earliest.readyAt.compareAndSet(earliestReadyAt, earliestStart + bake)) {
+                earliest.bakes.add(new Bake(reference, pizzaSize, earliestStart, earliestStart + bake));
+                return earliestStart + bake;
+            }
+        }
+    }
+
+    private static final class Oven {
+
+        private final int index;
+
+        /**
+         * When the last pizza planned in the oven is baked.
+         */
+        private final AtomicLong readyAt = new AtomicLong();
+
+        private final ConcurrentLinkedQueue<Bake> bakes = new ConcurrentLinkedQueue<>();
+
+        Oven(int index) {
+            this.index = index;
+        }
+    }
+
+    private static final class Bake {
+
+        private final UUID reference;
+
+        private final PizzaSize pizzaSize;
+
+        private final long start;
+
+        private final long end;
+
+        Bake(UUID reference, PizzaSize pizzaSize, long start, long end) {
+            this.reference = reference;
+            this.pizzaSize = pizzaSize;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
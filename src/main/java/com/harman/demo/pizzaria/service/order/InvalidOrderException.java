@@ -0,0 +1,13 @@
+package com.harman.demo.pizzaria.service.order;
+
+/**
+ * Thrown when an order references a pizza or a topping which does not exist.
+ */
+public class InvalidOrderException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidOrderException(String message) {
+        super(message);
+    }
+}
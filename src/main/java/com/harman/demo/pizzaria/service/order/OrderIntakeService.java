@@ -0,0 +1,444 @@
+package com.harman.demo.pizzaria.service.order;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.OrderLine;
+import com.harman.demo.pizzaria.domain.Pizza;
+import com.harman.demo.pizzaria.domain.PizzaOrder;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.repository.PizzaOrderRepository;
+import com.harman.demo.pizzaria.service.PizzaService;
+import com.harman.demo.pizzaria.service.ToppingService;
+import com.harman.demo.pizzaria.service.analytics.SalesRollups;
+import com.harman.demo.pizzaria.service.catalog.CatalogSnapshot;
+import com.harman.demo.pizzaria.service.catalog.CatalogSnapshotService;
+import com.harman.demo.pizzaria.service.delivery.DeliveryPlanner;
+import com.harman.demo.pizzaria.service.dto.OrderLineDTO;
+import com.harman.demo.pizzaria.service.dto.OrderReceiptDTO;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.service.dto.PizzaOrderDTO;
+import com.harman.demo.pizzaria.service.dto.ToppingDTO;
+import com.harman.demo.pizzaria.service.inventory.OutOfStockException;
+import com.harman.demo.pizzaria.service.inventory.ToppingInventory;
+import com.harman.demo.pizzaria.service.kitchen.KitchenScheduler;
+import com.harman.demo.pizzaria.service.pricing.PriceTables;
+import com.harman.demo.pizzaria.service.pricing.PricingEngine;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service accepting {@link PizzaOrder}s.
+ * <p>
+ * Orders are validated and priced on the request thread, from the same {@link PriceTables} as quotes, then placed on a
+ * bounded {@link OrderRingBuffer} and acknowledged before they are persisted. A single writer thread drains the buffer
+ * and saves up to {@code application.orders.batch-size} orders per transaction, so their inserts are sent as JDBC
+ * batches. When the buffer is full, orders are refused with an {@link OrderQueueFullException} rather than queued
+ * without bound. Should writing a batch fail unexpectedly, its orders are failed, and the writer goes on with the next.
+ * <p>
+ * With {@code ack: enqueue}, an order is acknowledged as soon as it is in the buffer, and is lost if the instance
+ * stops abruptly before it is written. With {@code ack: flush}, the acknowledgement waits for the commit, up to
+ * {@code flush-timeout-ms}, after which the order is reported as queued only.
+ * <p>
+ * The intake is stopped after the web server, once its graceful shutdown is over. Orders submitted while it stops are
+ * refused with an {@link OrderIntakeStoppedException}, and those already in the buffer are written before the writer
+ * exits.
+ * <p>
+ * The toppings of an order are reserved from the {@link ToppingInventory} before it is queued, and given back if it
+ * cannot be queued or written. Accepted orders are planned by the {@link KitchenScheduler}, whose ready time is part of
+ * the receipt. An {@link OrderStatusEvent} is published when an order is queued, and another once it is persisted,
+ * when its sales are also counted by the {@link SalesRollups} and, unless it is picked up, its delivery is planned by
+ * the {@link DeliveryPlanner}.
+ */
+@Service
+public class OrderIntakeService implements SmartLifecycle {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Stopped after the web server, whose lifecycle stops in phase {@code Integer.MAX_VALUE - 1}, after its graceful
+     * shutdown in phase {@code Integer.MAX_VALUE}.
+     */
+    private static final int PHASE = Integer.MAX_VALUE - 2;
+
+    private final Logger log = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    private final ApplicationProperties.Orders properties;
+
+    private final PizzaOrderRepository pizzaOrderRepository;
+
+    private final PizzaService pizzaService;
+
+    private final ToppingService toppingService;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final PricingEngine pricingEngine;
+
+    private final KitchenScheduler kitchenScheduler;
+
+    private final ToppingInventory toppingInventory;
+
+    private final SalesRollups salesRollups;
+
+    private final DeliveryPlanner deliveryPlanner;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OrderRingBuffer<PendingOrder> buffer;
+
+    private volatile boolean running;
+
+    /**
+     * Number of submissions which saw the intake running and may still offer their order to the buffer.
+     */
+    private final AtomicInteger submitting = new AtomicInteger();
+
+    /**
+     * Whether the writer is parked, or about to be, so producers know when to wake it up.
+     */
+    private volatile boolean parked;
+
+    private volatile Thread writer;
+
+    public OrderIntakeService(
+        ApplicationProperties applicationProperties,
+        PizzaOrderRepository pizzaOrderRepository,
+        PizzaService pizzaService,
+        ToppingService toppingService,
+        CatalogSnapshotService catalogSnapshotService,
+        PricingEngine pricingEngine,
+        KitchenScheduler kitchenScheduler,
+        ToppingInventory toppingInventory,
+        SalesRollups salesRollups,
+        DeliveryPlanner deliveryPlanner,
+        ApplicationEventPublisher eventPublisher,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.properties = applicationProperties.getOrders();
+        this.pizzaOrderRepository = pizzaOrderRepository;
+        this.pizzaService = pizzaService;
+        this.toppingService = toppingService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.pricingEngine = pricingEngine;
+        this.kitchenScheduler = kitchenScheduler;
+        this.toppingInventory = toppingInventory;
+        this.salesRollups = salesRollups;
+        this.deliveryPlanner = deliveryPlanner;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        if (properties.getBatchSize() < 1) {
+            throw new IllegalArgumentException("application.orders.batch-size must be positive");
+        }
+        this.buffer = new OrderRingBuffer<>(properties.getRingBufferSize());
+    }
+
+    /**
+     * Validate, price and enqueue an order.
+     *
+     * @param pizzaOrderDTO the order.
+     * @return the receipt, completed according to the {@code ack} mode, or failed with an
+     * {@link OrderIntakeStoppedException} if the intake is stopping.
+     * @throws InvalidOrderException if the order references an unknown pizza or topping, or a topping twice in a line.
+     * @throws OutOfStockException if a topping has run out.
+     * @throws OrderQueueFullException if too many orders are waiting to be written.
+     */
+    public CompletableFuture<OrderReceiptDTO> submit(PizzaOrderDTO pizzaOrderDTO) {
+        log.debug("Request to submit PizzaOrder : {}", pizzaOrderDTO);
+        PizzaOrder pizzaOrder = price(pizzaOrderDTO);
+        ApplicationProperties.Orders.Ack ack = properties.getAck();
+        // Counted before running is read, so stop() either waits for this order to be offered or is seen here
+        submitting.incrementAndGet();
+        UUID reference = pizzaOrder.getReference();
+        PendingOrder pending;
+        Instant readyAt;
+        try {
+            if (!running) {
+                return CompletableFuture.failedFuture(new OrderIntakeStoppedException());
+            }
+            pending = new PendingOrder(pizzaOrder, toppingInventory.reserve(toppingQuantities(pizzaOrderDTO)));
+            // Planned before the writer can see the order, so a failed write always finds its bakes to cancel
+            readyAt = kitchenScheduler.schedule(reference, pizzaSizes(pizzaOrder));
+            if (!buffer.offer(pending)) {
+                toppingInventory.release(pending.reservation);
+                kitchenScheduler.cancel(reference);
+                throw new OrderQueueFullException();
+            }
+        } finally {
+            submitting.decrementAndGet();
+        }
+        if (parked) {
+            LockSupport.unpark(writer);
+        }
+        eventPublisher.publishEvent(new OrderStatusEvent(reference, OrderReceiptDTO.Status.QUEUED, readyAt));
+        // Run by the writer after the commit, or right away if the order is already written
+        pending.persisted.thenRun(() -> {
+            eventPublisher.publishEvent(new OrderStatusEvent(reference, OrderReceiptDTO.Status.PERSISTED, readyAt));
+            deliveryPlanner.add(pizzaOrder, readyAt);
+        });
+        if (ack == ApplicationProperties.Orders.Ack.ENQUEUE) {
+            return CompletableFuture.completedFuture(receipt(pizzaOrder, OrderReceiptDTO.Status.QUEUED, readyAt));
+        }
+        return pending.persisted
+            .thenApply(persisted -> receipt(pizzaOrder, OrderReceiptDTO.Status.PERSISTED, readyAt))
+            .completeOnTimeout(
+                receipt(pizzaOrder, OrderReceiptDTO.Status.QUEUED, readyAt),
+                properties.getFlushTimeoutMs(),
+                TimeUnit.MILLISECONDS
+            );
+    }
+
+    /**
+     * @return the number of orders waiting to be written.
+     */
+    public int getQueueSize() {
+        return buffer.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::drain, "order-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    /**
+     * Refuse new orders, then stop the writer once the orders already in the buffer are written.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        while (submitting.get() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("{} orders were still queued at shutdown", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private PizzaOrder price(PizzaOrderDTO pizzaOrderDTO) {
+        Set<Long> pizzaIds = new LinkedHashSet<>();
+        Set<Long> toppingIds = new LinkedHashSet<>();
+        for (OrderLineDTO line : pizzaOrderDTO.getLines()) {
+            pizzaIds.add(line.getPizzaId());
+            toppingIds.addAll(line.getToppingIds());
+        }
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotService.getSnapshot();
+        Map<Long, PizzaDTO> pizzas = snapshot.isPresent()
+            ? lookup(pizzaIds, snapshot.get()::findPizza)
+            : pizzaService.findAllById(pizzaIds).stream().collect(Collectors.toMap(PizzaDTO::getId, Function.identity()));
+        Map<Long, ToppingDTO> toppings = snapshot.isPresent()
+            ? lookup(toppingIds, snapshot.get()::findTopping)
+            : toppingService.findAllById(toppingIds).stream().collect(Collectors.toMap(ToppingDTO::getId, Function.identity()));
+
+        PizzaOrder pizzaOrder = new PizzaOrder().reference(UUID.randomUUID()).createdDate(Instant.now());
+        if (pizzaOrderDTO.getDelivery() != null) {
+            pizzaOrder
+                .deliveryLatitude(pizzaOrderDTO.getDelivery().getLatitude())
+                .deliveryLongitude(pizzaOrderDTO.getDelivery().getLongitude());
+        }
+        // Priced in cents from the tables quotes are made from, so a quote and its order agree
+        PriceTables prices = pricingEngine.getTables();
+        if (!isPriced(prices, pizzas.keySet(), toppings.keySet())) {
+            // Items created through another instance since the last rebuild
+            prices = pricingEngine.refresh();
+        }
+        long totalCents = 0;
+        for (OrderLineDTO lineDTO : pizzaOrderDTO.getLines()) {
+            PizzaDTO pizza = pizzas.get(lineDTO.getPizzaId());
+            long unitCents = pizza == null ? PriceTables.UNKNOWN : prices.pizzaCents(pizza.getId());
+            if (unitCents == PriceTables.UNKNOWN) {
+                throw new InvalidOrderException("Unknown pizza: " + lineDTO.getPizzaId());
+            }
+            OrderLine line = new OrderLine()
+                .quantity(lineDTO.getQuantity())
+                .pizza(new Pizza().id(pizza.getId()).pizzaSize(pizza.getPizzaSize()));
+            Set<Long> lineToppingIds = new HashSet<>();
+            for (Long toppingId : lineDTO.getToppingIds()) {
+                ToppingDTO topping = toppings.get(toppingId);
+                long toppingCents = topping == null ? PriceTables.UNKNOWN : prices.toppingCents(topping.getId());
+                if (toppingCents == PriceTables.UNKNOWN) {
+                    throw new InvalidOrderException("Unknown topping: " + toppingId);
+                }
+                // A line keeps its toppings as a set, so a topping listed twice would be charged twice but added once
+                if (!lineToppingIds.add(toppingId)) {
+                    throw new InvalidOrderException("Duplicate topping: " + toppingId);
+                }
+                line.addTopping(new Topping().id(topping.getId()));
+                unitCents += toppingCents;
+            }
+            pizzaOrder.addLines(line.unitPrice(PriceTables.fromCents(unitCents).floatValue()));
+            totalCents = Math.addExact(totalCents, Math.multiplyExact(unitCents, lineDTO.getQuantity()));
+        }
+        return pizzaOrder.total(PriceTables.fromCents(totalCents).floatValue());
+    }
+
+    private static boolean isPriced(PriceTables prices, Set<Long> pizzaIds, Set<Long> toppingIds) {
+        for (Long pizzaId : pizzaIds) {
+            if (prices.pizzaCents(pizzaId) == PriceTables.UNKNOWN) {
+                return false;
+            }
+        }
+        for (Long toppingId : toppingIds) {
+            if (prices.toppingCents(toppingId) == PriceTables.UNKNOWN) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> Map<Long, T> lookup(Set<Long> ids, Function<Long, Optional<T>> find) {
+        Map<Long, T> found = new HashMap<>();
+        for (Long id : ids) {
+            find.apply(id).ifPresent(value -> found.put(id, value));
+        }
+        return found;
+    }
+
+    private static Map<Long, Integer> toppingQuantities(PizzaOrderDTO pizzaOrderDTO) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (OrderLineDTO line : pizzaOrderDTO.getLines()) {
+            for (Long toppingId : line.getToppingIds()) {
+                quantities.merge(toppingId, line.getQuantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+
+    private static List<PizzaSize> pizzaSizes(PizzaOrder pizzaOrder) {
+        List<PizzaSize> pizzaSizes = new ArrayList<>();
+        for (OrderLine line : pizzaOrder.getLines()) {
+            for (int i = 0; i < line.getQuantity(); i++) {
+                pizzaSizes.add(line.getPizza().getPizzaSize());
+            }
+        }
+        return pizzaSizes;
+    }
+
+    private static OrderReceiptDTO receipt(PizzaOrder pizzaOrder, OrderReceiptDTO.Status status, Instant readyAt) {
+        return new OrderReceiptDTO(pizzaOrder.getReference(), pizzaOrder.getTotal(), status, readyAt);
+    }
+
+    private void drain() {
+        List<PendingOrder> batch = new ArrayList<>(properties.getBatchSize());
+        while (true) {
+            buffer.drainTo(batch, Math.max(1, properties.getBatchSize()));
+            if (!batch.isEmpty()) {
+                try {
+                    write(batch);
+                } catch (Throwable e) {
+                    // Keeps the writer alive, or the orders queued after this batch would never be written
+                    log.error("Could not finish writing a batch of {} orders", batch.size(), e);
+                    batch.forEach(pending -> pending.persisted.completeExceptionally(e));
+                }
+                batch.clear();
+                continue;
+            }
+            if (!running && buffer.isEmpty()) {
+                return;
+            }
+            if (!buffer.isEmpty()) {
+                // A producer claimed a slot but has not published its order yet
+                Thread.yield();
+                continue;
+            }
+            parked = true;
+            // An order enqueued before the flag was raised would not wake us up, so look again before parking
+            if (buffer.isEmpty() && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            parked = false;
+        }
+    }
+
+    private void write(List<PendingOrder> batch) {
+        List<PizzaOrder> orders = batch.stream().map(pending -> pending.pizzaOrder).collect(Collectors.toList());
+        try {
+            transactionTemplate.executeWithoutResult(status -> pizzaOrderRepository.saveAll(orders));
+        } catch (RuntimeException e) {
+            log.warn("Could not write a batch of {} orders, writing them one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::writeOne);
+            return;
+        }
+        salesRollups.record(orders);
+        batch.forEach(pending -> pending.persisted.complete(null));
+        log.debug("Wrote a batch of {} orders", batch.size());
+    }
+
+    private void writeOne(PendingOrder pending) {
+        // Ids given by the rolled back batch are reset, so the order is inserted again
+        pending.pizzaOrder.setId(null);
+        pending.pizzaOrder.getLines().forEach(line -> line.setId(null));
+        try {
+            transactionTemplate.executeWithoutResult(status -> pizzaOrderRepository.save(pending.pizzaOrder));
+        } catch (RuntimeException e) {
+            log.error("Could not write order {}", pending.pizzaOrder.getReference(), e);
+            pending.persisted.completeExceptionally(e);
+            toppingInventory.release(pending.reservation);
+            kitchenScheduler.cancel(pending.pizzaOrder.getReference());
+            return;
+        }
+        salesRollups.record(List.of(pending.pizzaOrder));
+        pending.persisted.complete(null);
+    }
+
+    /**
+     * An order in the buffer, with the future completed once it is written.
+     */
+    private static final class PendingOrder {
+
+        private final PizzaOrder pizzaOrder;
+
+        private final ToppingInventory.Reservation reservation;
+
+        private final CompletableFuture<Void> persisted = new CompletableFuture<>();
+
+        PendingOrder(PizzaOrder pizzaOrder, ToppingInventory.Reservation reservation) {
+            this.pizzaOrder = pizzaOrder;
+            this.reservation = reservation;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.harman.demo.pizzaria.service.order;
+
+/**
+ * Thrown when an order is submitted while the intake is stopping, so the client should retry on another instance.
+ */
+public class OrderIntakeStoppedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public OrderIntakeStoppedException() {
+        super("Orders are not accepted while the server is stopping, please retry later");
+    }
+}
@@ -0,0 +1,13 @@
+package com.harman.demo.pizzaria.service.order;
+
+/**
+ * Thrown when the intake ring buffer is full, so the client should retry later.
+ */
+public class OrderQueueFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public OrderQueueFullException() {
+        super("Too many orders in progress, please retry later");
+    }
+}
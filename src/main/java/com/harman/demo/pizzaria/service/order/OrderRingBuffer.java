@@ -0,0 +1,113 @@
+package com.harman.demo.pizzaria.service.order;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free ring buffer for many producers and a single consumer.
+ * <p>
+ * Producers claim a position by incrementing the tail with a compare-and-set, then publish their element in the slot of
+ * that position. The consumer takes elements in position order, emptying their slots before moving the head, which
+ * frees the slots for the producers. A claimed slot whose element is not published yet reads as empty, so the consumer
+ * stops there until the next poll. {@link #offer(Object)} fails instead of waiting when the buffer is full.
+ *
+ * @param <E> the type of the elements.
+ */
+final class OrderRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+
+    private final int mask;
+
+    /**
+     * Next position to claim by producers.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position to take by the consumer, only written by it.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity the minimum number of elements held, rounded up to a power of two.
+     */
+    OrderRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Add an element, from any thread.
+     *
+     * @param element the element.
+     * @return {@code false} if the buffer is full.
+     */
+    boolean offer(E element) {
+        Objects.requireNonNull(element);
+        long position;
+        do {
+            position = tail.get();
+            if (position - head.get() >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(position, position + 1));
+        slots.lazySet((int) position & mask, element);
+        return true;
+    }
+
+    /**
+     * Take the oldest element, from the consumer thread only.
+     *
+     * @return the element, or {@code null} if the buffer is empty.
+     */
+    E poll() {
+        long position = head.get();
+        int index = (int) position & mask;
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    /**
+     * Take the oldest elements, from the consumer thread only.
+     *
+     * @param sink receives the elements.
+     * @param max the maximum number of elements to take.
+     * @return the number of elements taken.
+     */
+    int drainTo(Collection<? super E> sink, int max) {
+        int count = 0;
+        E element;
+        while (count < max && (element = poll()) != null) {
+            sink.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of claimed positions not taken yet, which may include elements still being published.
+     */
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.harman.demo.pizzaria.service.order;
+
+import com.harman.demo.pizzaria.service.dto.OrderReceiptDTO;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Published by {@link OrderIntakeService} when an order is queued, and again once it is persisted.
+ * <p>
+ * The {@link OrderReceiptDTO.Status#PERSISTED} event is published after the commit, from the order writer, so
+ * listeners should keep their work short.
+ */
+public class OrderStatusEvent {
+
+    private final UUID reference;
+
+    private final OrderReceiptDTO.Status status;
+
+    private final Instant readyAt;
+
+    public OrderStatusEvent(UUID reference, OrderReceiptDTO.Status status, Instant readyAt) {
+        this.reference = Objects.requireNonNull(reference);
+        this.status = Objects.requireNonNull(status);
+        this.readyAt = readyAt;
+    }
+
+    public UUID getReference() {
+        return reference;
+    }
+
+    public OrderReceiptDTO.Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return when the kitchen expects the order to be ready.
+     */
+    public Instant getReadyAt() {
+        return readyAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OrderStatusEvent{" +
+            "reference=" + reference +
+            ", status=" + status +
+            ", readyAt='" + readyAt + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,13 @@
+package com.harman.demo.pizzaria.service.pricing;
+
+/**
+ * Thrown when a quote references a pizza or a topping which has no price.
+ */
+public class InvalidQuoteException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidQuoteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,243 @@
+package com.harman.demo.pizzaria.service.pricing;
+
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.service.dto.ToppingDTO;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable price list of the catalog, compiled into primitive tables of prices in cents.
+ * <p>
+ * Prices are converted from their {@code Float} column once, when the tables are built, by rounding the decimal
+ * representation of the float to the cent. Quotes are then exact sums of {@code long}s, and computing one neither
+ * allocates nor boxes. Like the {@link com.harman.demo.pizzaria.service.catalog.CatalogSnapshot}, instances are never
+ * modified: a catalog change produces new tables which replace the previous ones atomically (see
+ * {@link PricingEngine}).
+ */
+public final class PriceTables {
+
+    /**
+     * Price returned for an unknown pizza or topping.
+     */
+    public static final long UNKNOWN = -1;
+
+    static final PriceTables EMPTY = new PriceTables(IdTable.of(new long[0], new long[0]), IdTable.of(new long[0], new long[0]));
+
+    private final IdTable pizzas;
+
+    private final IdTable toppings;
+
+    private PriceTables(IdTable pizzas, IdTable toppings) {
+        this.pizzas = pizzas;
+        this.toppings = toppings;
+    }
+
+    /**
+     * Compile the price tables of a catalog. Items without a price are left out, so they cannot be quoted.
+     *
+     * @param pizzas the pizzas.
+     * @param toppings the toppings.
+     * @return the tables.
+     */
+    public static PriceTables of(Collection<PizzaDTO> pizzas, Collection<ToppingDTO> toppings) {
+        return new PriceTables(
+            table(pizzas, PizzaDTO::getId, pizza -> toCents(pizza.getPrice())),
+            table(toppings, ToppingDTO::getId, topping -> toCents(topping.getPrice()))
+        );
+    }
+
+    /**
+     * Convert a price to cents, rounding half up.
+     *
+     * @param price the price.
+     * @return the price in cents, or {@link #UNKNOWN} if there is none or it cannot be represented.
+     */
+    public static long toCents(Float price) {
+        if (price == null || price.isNaN() || price.isInfinite() || price < 0) {
+            return UNKNOWN;
+        }
+        try {
+            return new BigDecimal(price.toString()).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * Convert cents to a decimal amount.
+     *
+     * @param cents the amount in cents.
+     * @return the amount, with a scale of 2.
+     */
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public int getPizzaCount() {
+        return pizzas.size();
+    }
+
+    public int getToppingCount() {
+        return toppings.size();
+    }
+
+    /**
+     * @param pizzaId the id of the pizza.
+     * @return the price of the pizza in cents, or {@link #UNKNOWN}.
+     */
+    public long pizzaCents(long pizzaId) {
+        return pizzas.get(pizzaId);
+    }
+
+    /**
+     * @param toppingId the id of the topping.
+     * @return the price of the topping in cents, or {@link #UNKNOWN}.
+     */
+    public long toppingCents(long toppingId) {
+        return toppings.get(toppingId);
+    }
+
+    /**
+     * Price one pizza with toppings. A topping listed twice is charged twice.
+     *
+     * @param pizzaId the id of the pizza.
+     * @param toppingIds the ids of the toppings, in the first {@code toppingCount} elements.
+     * @param toppingCount the number of toppings.
+     * @return the price in cents, or {@link #UNKNOWN} if the pizza or a topping is unknown.
+     */
+    public long unitCents(long pizzaId, long[] toppingIds, int toppingCount) {
+        long cents = pizzas.get(pizzaId);
+        for (int i = 0; i < toppingCount && cents != UNKNOWN; i++) {
+            long toppingCents = toppings.get(toppingIds[i]);
+            cents = toppingCents == UNKNOWN ? UNKNOWN : cents + toppingCents;
+        }
+        return cents;
+    }
+
+    /**
+     * Price one pizza with toppings, see {@link #unitCents(long, long[], int)}.
+     *
+     * @param pizzaId the id of the pizza.
+     * @param toppingIds the ids of the toppings; read by index, so a random access list avoids any allocation.
+     * @return the price in cents, or {@link #UNKNOWN} if the pizza or a topping is unknown.
+     */
+    public long unitCents(long pizzaId, List<Long> toppingIds) {
+        long cents = pizzas.get(pizzaId);
+        for (int i = 0; i < toppingIds.size() && cents != UNKNOWN; i++) {
+            long toppingCents = toppings.get(toppingIds.get(i));
+            cents = toppingCents == UNKNOWN ? UNKNOWN : cents + toppingCents;
+        }
+        return cents;
+    }
+
+    /**
+     * Price several identical pizzas with toppings.
+     *
+     * @param pizzaId the id of the pizza.
+     * @param toppingIds the ids of the toppings, in the first {@code toppingCount} elements.
+     * @param toppingCount the number of toppings.
+     * @param quantity the number of pizzas.
+     * @return the price in cents, or {@link #UNKNOWN} if the pizza or a topping is unknown.
+     * @throws ArithmeticException if the price overflows.
+     */
+    public long quoteCents(long pizzaId, long[] toppingIds, int toppingCount, int quantity) {
+        long unitCents = unitCents(pizzaId, toppingIds, toppingCount);
+        return unitCents == UNKNOWN ? UNKNOWN : Math.multiplyExact(unitCents, quantity);
+    }
+
+    private static <T> IdTable table(Collection<T> items, ToLongFunction<T> getId, ToLongFunction<T> getCents) {
+        long[] ids = new long[items.size()];
+        long[] cents = new long[items.size()];
+        int count = 0;
+        for (T item : items) {
+            long itemCents = getCents.applyAsLong(item);
+            if (itemCents != UNKNOWN) {
+                ids[count] = getId.applyAsLong(item);
+                cents[count] = itemCents;
+                count++;
+            }
+        }
+        return IdTable.of(Arrays.copyOf(ids, count), Arrays.copyOf(cents, count));
+    }
+
+    /**
+     * Prices by id. Ids generated by the database are mostly contiguous, so prices are usually held in an array
+     * indexed by the id minus the smallest id; when the ids are too sparse for that, they are binary searched.
+     */
+    static final class IdTable {
+
+        /**
+         * Maximum ratio between the length of a direct table and the number of prices it holds.
+         */
+        private static final int MAX_SPARSENESS = 4;
+
+        private static final int MIN_DIRECT_LENGTH = 1024;
+
+        private final long minId;
+
+        /**
+         * Prices indexed by id minus {@link #minId}, or {@code null} if the ids are binary searched.
+         */
+        private final long[] direct;
+
+        private final long[] ids;
+
+        private final long[] cents;
+
+        private IdTable(long minId, long[] direct, long[] ids, long[] cents) {
+            this.minId = minId;
+            this.direct = direct;
+            this.ids = ids;
+            this.cents = cents;
+        }
+
+        static IdTable of(long[] ids, long[] cents) {
+            long[] sortedIds = new long[ids.length];
+            long[] sortedCents = new long[cents.length];
+            Integer[] order = new Integer[ids.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(ids[a], ids[b]));
+            for (int i = 0; i < order.length; i++) {
+                sortedIds[i] = ids[order[i]];
+                sortedCents[i] = cents[order[i]];
+            }
+            if (sortedIds.length == 0) {
+                return new IdTable(0, new long[0], sortedIds, sortedCents);
+            }
+            long minId = sortedIds[0];
+            long span = sortedIds[sortedIds.length - 1] - minId + 1;
+            if (span <= 0 || span > Math.max(MIN_DIRECT_LENGTH, (long) MAX_SPARSENESS * sortedIds.length)) {
+                return new IdTable(minId, null, sortedIds, sortedCents);
+            }
+            long[] direct = new long[(int) span];
+            Arrays.fill(direct, UNKNOWN);
+            for (int i = 0; i < sortedIds.length; i++) {
+                direct[(int) (sortedIds[i] - minId)] = sortedCents[i];
+            }
+            return new IdTable(minId, direct, sortedIds, sortedCents);
+        }
+
+        long get(long id) {
+            if (direct != null) {
+                long index = id - minId;
+                return index >= 0 && index < direct.length ? direct[(int) index] : UNKNOWN;
+            }
+            int index = Arrays.binarySearch(ids, id);
+            return index >= 0 ? cents[index] : UNKNOWN;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        boolean isDirect() {
+            return direct != null;
+        }
+    }
+}
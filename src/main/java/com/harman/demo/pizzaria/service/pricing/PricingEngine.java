@@ -0,0 +1,141 @@
+package com.harman.demo.pizzaria.service.pricing;
+
+import com.harman.demo.pizzaria.repository.PizzaRepository;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.service.catalog.CatalogChangedEvent;
+import com.harman.demo.pizzaria.service.dto.OrderLineDTO;
+import com.harman.demo.pizzaria.service.dto.QuoteDTO;
+import com.harman.demo.pizzaria.service.mapper.PizzaMapper;
+import com.harman.demo.pizzaria.service.mapper.ToppingMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service pricing pizzas from the current {@link PriceTables}.
+ * <p>
+ * The tables are compiled when the application starts and after every committed {@link CatalogChangedEvent}, which
+ * {@link com.harman.demo.pizzaria.service.PizzaService} and {@link com.harman.demo.pizzaria.service.ToppingService}
+ * publish on every write, and periodically to pick up the changes committed by other instances. Each rebuild replaces
+ * the previous tables at once, so a quote never mixes prices of two versions of the catalog. Orders are priced from the
+ * same tables, so they cost what they were quoted.
+ */
+@Service
+public class PricingEngine {
+
+    private final Logger log = LoggerFactory.getLogger(PricingEngine.class);
+
+    private final PizzaRepository pizzaRepository;
+
+    private final ToppingRepository toppingRepository;
+
+    private final PizzaMapper pizzaMapper;
+
+    private final ToppingMapper toppingMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile PriceTables tables = PriceTables.EMPTY;
+
+    public PricingEngine(
+        PizzaRepository pizzaRepository,
+        ToppingRepository toppingRepository,
+        PizzaMapper pizzaMapper,
+        ToppingMapper toppingMapper,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.pizzaRepository = pizzaRepository;
+        this.toppingRepository = toppingRepository;
+        this.pizzaMapper = pizzaMapper;
+        this.toppingMapper = toppingMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Rebuilds run after the writer's commit, so they need a transaction of their own
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Get the current tables, to price several items consistently or without going through a DTO.
+     *
+     * @return the tables.
+     */
+    public PriceTables getTables() {
+        return tables;
+    }
+
+    /**
+     * Price an order line.
+     *
+     * @param line the pizza, its toppings and the quantity.
+     * @return the quote.
+     * @throws InvalidQuoteException if the pizza or a topping has no price.
+     */
+    public QuoteDTO quote(OrderLineDTO line) {
+        PriceTables current = tables;
+        long unitCents = current.unitCents(line.getPizzaId(), line.getToppingIds());
+        if (unitCents == PriceTables.UNKNOWN) {
+            if (current.pizzaCents(line.getPizzaId()) == PriceTables.UNKNOWN) {
+                throw new InvalidQuoteException("Unknown pizza: " + line.getPizzaId());
+            }
+            Long toppingId = line
+                .getToppingIds()
+                .stream()
+                .filter(id -> current.toppingCents(id) == PriceTables.UNKNOWN)
+                .findFirst()
+                .orElse(null);
+            throw new InvalidQuoteException("Unknown topping: " + toppingId);
+        }
+        return new QuoteDTO(unitCents, Math.multiplyExact(unitCents, line.getQuantity()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        log.debug("Rebuilding price tables after {}", event);
+        refresh();
+    }
+
+    /**
+     * Safety net picking up catalog changes committed by other instances, at the pace of the catalog snapshot.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.catalog.snapshot.refresh-interval-ms:300000}",
+        initialDelayString = "${application.catalog.snapshot.refresh-interval-ms:300000}"
+    )
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Compile the tables from the database and publish them.
+     * <p>
+     * Rebuilds are serialized, so the last one to run always started after the last committed change.
+     *
+     * @return the new tables.
+     */
+    public synchronized PriceTables refresh() {
+        long start = System.nanoTime();
+        PriceTables next = transactionTemplate.execute(status ->
+            PriceTables.of(pizzaMapper.toDto(pizzaRepository.findAll()), toppingMapper.toDto(toppingRepository.findAll()))
+        );
+        tables = next;
+        log.debug(
+            "Price tables rebuilt with {} pizzas and {} toppings in {} ms",
+            next.getPizzaCount(),
+            next.getToppingCount(),
+            (System.nanoTime() - start) / 1_000_000
+        );
+        return next;
+    }
+}
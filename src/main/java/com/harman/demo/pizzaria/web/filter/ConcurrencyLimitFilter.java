@@ -0,0 +1,211 @@
+package com.harman.demo.pizzaria.web.filter;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter shedding the requests of a group of endpoints beyond its {@link GradientLimit concurrency limit}.
+ * <p>
+ * Each group of {@code application.concurrency-limit.groups} covers some methods on some paths. A request of a group
+ * at its limit is answered at once with a {@code 503 Service Unavailable} and a {@code Retry-After} of
+ * {@code application.concurrency-limit.retry-after-seconds}, instead of waiting for a worker thread and a database
+ * connection behind the others. Requests of no group, such as reads and the management endpoints, are never limited.
+ * <p>
+ * Asynchronous requests keep their slot until their asynchronous dispatch completes. The limit, the requests in flight
+ * and the requests rejected of each group are published as {@value #LIMIT_METER_NAME}, {@value #IN_FLIGHT_METER_NAME}
+ * and {@value #REJECTED_METER_NAME}, tagged with its name.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_METER_NAME = "http.server.concurrency.limit";
+    public static final String IN_FLIGHT_METER_NAME = "http.server.concurrency.in-flight";
+    public static final String REJECTED_METER_NAME = "http.server.concurrency.rejected";
+    public static final String GROUP_DIMENSION = "group";
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitFilter.class.getName() + ".PERMIT";
+
+    private final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final List<Group> groups = new ArrayList<>();
+
+    private final String retryAfter;
+
+    public ConcurrencyLimitFilter(ApplicationProperties.ConcurrencyLimit properties, MeterRegistry registry) {
+        this.retryAfter = Integer.toString(properties.getRetryAfterSeconds());
+        for (Map.Entry<String, ApplicationProperties.ConcurrencyLimit.Group> entry : properties.getGroups().entrySet()) {
+            groups.add(new Group(entry.getKey(), entry.getValue(), properties.getTolerance(), registry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return groups.isEmpty();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // The asynchronous dispatch releases the slot taken by the request
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Permit permit;
+        if (isAsyncDispatch(request)) {
+            permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        } else {
+            Group group = groupOf(request);
+            if (group == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if (!group.limit.tryAcquire()) {
+                group.rejected.increment();
+                log.debug(
+                    "Rejected {} {}, {} is at its limit of {}",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    group.name,
+                    group.limit.getLimit()
+                );
+                response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                return;
+            }
+            permit = new Permit(group.limit);
+            request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = permit != null && request.isAsyncStarted();
+            if (async) {
+                request.getAsyncContext().addListener(permit);
+            }
+        } finally {
+            if (permit != null && !async) {
+                permit.release();
+            }
+        }
+    }
+
+    private Group groupOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Group group : groups) {
+            if (group.methods.contains(request.getMethod()) && group.paths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Endpoints sharing a limit.
+     */
+    private static final class Group {
+
+        private final String name;
+
+        private final List<String> paths;
+
+        private final Set<String> methods;
+
+        private final GradientLimit limit;
+
+        private final Counter rejected;
+
+        Group(String name, ApplicationProperties.ConcurrencyLimit.Group properties, double tolerance, MeterRegistry registry) {
+            this.name = name;
+            this.paths = List.copyOf(properties.getPaths());
+            this.methods = properties.getMethods().stream().map(method -> method.toUpperCase(Locale.ROOT)).collect(Collectors.toSet());
+            this.limit = new GradientLimit(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(), tolerance);
+            Gauge
+                .builder(LIMIT_METER_NAME, limit, GradientLimit::getLimit)
+                .description("Number of requests of the group processed at once, adapted to their latency.")
+                .baseUnit("requests")
+                .tag(GROUP_DIMENSION, name)
+                .register(registry);
+            Gauge
+                .builder(IN_FLIGHT_METER_NAME, limit, GradientLimit::getInFlight)
+                .description("Number of requests of the group being processed.")
+                .baseUnit("requests")
+                .tag(GROUP_DIMENSION, name)
+                .register(registry);
+            this.rejected =
+                Counter
+                    .builder(REJECTED_METER_NAME)
+                    .description("Number of requests of the group rejected because it was at its limit.")
+                    .baseUnit("requests")
+                    .tag(GROUP_DIMENSION, name)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * The slot of a request, released once whether it completes synchronously, asynchronously, or times out.
+     */
+    private static final class Permit implements AsyncListener {
+
+        private final GradientLimit limit;
+
+        private final long startNanos = System.nanoTime();
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(GradientLimit limit) {
+            this.limit = limit;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                limit.release(System.nanoTime() - startNanos);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // The dispatch starting a new asynchronous cycle listens to it again
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.harman.demo.pizzaria.web.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A number of requests processed at once, adapted to their latency by the gradient algorithm of Netflix
+ * concurrency-limits.
+ * <p>
+ * Each request completed updates a short-term and a long-term average of the latency. While the short-term average
+ * stays within {@code tolerance} times the long-term one, the limit grows by about its square root, leaving room for a
+ * small queue. Once requests slow down, typically because they wait for database connections, it shrinks in proportion
+ * to the slowdown. Latency only moves the limit when at least half of it is in use, so a quiet service keeps its limit.
+ */
+final class GradientLimit {
+
+    /**
+     * Number of requests the short-term average of the latency spans.
+     */
+    private static final int SHORT_WINDOW = 10;
+
+    /**
+     * Number of requests the long-term average of the latency spans.
+     */
+    private static final int LONG_WINDOW = 500;
+
+    /**
+     * Share of the new limit blended into the current one, so a single request barely moves it.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    private double estimatedLimit;
+
+    private double shortRttNanos;
+
+    private double longRttNanos;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid concurrency limits: " + minLimit + " <= " + initialLimit + " <= " + maxLimit);
+        }
+        if (!(tolerance >= 1)) {
+            throw new IllegalArgumentException("The latency tolerance must be at least 1: " + tolerance);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Take a slot for a request.
+     *
+     * @return whether the request may proceed, in which case it must be {@link #release(long) released}.
+     */
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Give back the slot of a request, and adapt the limit to its latency.
+     *
+     * @param rttNanos how long it took.
+     */
+    void release(long rttNanos) {
+        int concurrency = inFlight.getAndDecrement();
+        update(Math.max(rttNanos, 1), concurrency);
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    synchronized void update(long rttNanos, int concurrency) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos += (rttNanos - shortRttNanos) * 2 / (SHORT_WINDOW + 1);
+            longRttNanos += (rttNanos - longRttNanos) * 2 / (LONG_WINDOW + 1);
+        }
+        // Once a slowdown is over, the long-term average would otherwise keep the limit growing for a long while
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+        if (concurrency < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1, tolerance * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
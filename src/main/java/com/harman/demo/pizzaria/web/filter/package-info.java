@@ -0,0 +1,4 @@
+/**
+ * Servlet filters.
+ */
+package com.harman.demo.pizzaria.web.filter;
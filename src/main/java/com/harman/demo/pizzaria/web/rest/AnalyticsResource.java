@@ -0,0 +1,51 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.harman.demo.pizzaria.security.AuthoritiesConstants;
+import com.harman.demo.pizzaria.service.analytics.SalesRollups;
+import com.harman.demo.pizzaria.service.dto.SalesPeriodDTO;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the sales dashboards, served from memory, see {@link SalesRollups}.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class AnalyticsResource {
+
+    private final Logger log = LoggerFactory.getLogger(AnalyticsResource.class);
+
+    private final SalesRollups salesRollups;
+
+    public AnalyticsResource(SalesRollups salesRollups) {
+        this.salesRollups = salesRollups;
+    }
+
+    /**
+     * {@code GET  /analytics/sales/minutes} : get the pizzas and toppings sold in each of the last minutes.
+     *
+     * @param count the number of minutes, the current one included.
+     * @return the sales of each minute, the latest first.
+     */
+    @GetMapping("/sales/minutes")
+    public List<SalesPeriodDTO> getSalesPerMinute(@RequestParam(defaultValue = "60") int count) {
+        log.debug("REST request to get the sales of the last {} minutes", count);
+        return salesRollups.getSalesPerMinute(count);
+    }
+
+    /**
+     * {@code GET  /analytics/sales/hours} : get the pizzas and toppings sold in each of the last hours.
+     *
+     * @param count the number of hours, the current one included.
+     * @return the sales of each hour, the latest first.
+     */
+    @GetMapping("/sales/hours")
+    public List<SalesPeriodDTO> getSalesPerHour(@RequestParam(defaultValue = "24") int count) {
+        log.debug("REST request to get the sales of the last {} hours", count);
+        return salesRollups.getSalesPerHour(count);
+    }
+}
@@ -0,0 +1,174 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.harman.demo.pizzaria.web.rest.errors.BadRequestAlertException;
+import com.harman.demo.pizzaria.web.rest.vm.BulkItemResultVM;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Utility class for bulk write endpoints, such as {@code POST /api/toppings/_bulk}, which take a list of items and
+ * answer with one {@link BulkItemResultVM} per item, in the same order.
+ * <p>
+ * Items are validated one by one, so an invalid item is rejected on its own. The valid ones are then checked together,
+ * for what the database would refuse such as a unique name already taken, so these are rejected on their own as well
+ * rather than failing the whole transaction. The remaining ones are saved together, in a single transaction. Should the
+ * database refuse it all the same, because of a concurrent write, they are saved one by one, and only those refused
+ * are rejected, with status {@code 409 (Conflict)}.
+ */
+final class BulkWriteUtil {
+
+    static final int MAX_ITEMS = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(BulkWriteUtil.class);
+
+    private BulkWriteUtil() {}
+
+    /**
+     * Create new entities.
+     *
+     * @param items the items of the request.
+     * @param getId the id of an item, which must be {@code null}.
+     * @param validator the validator of the items.
+     * @param saveAll saves the valid items, returning the persisted entities in the same order.
+     * @param save saves one item, returning the persisted entity.
+     * @param entityName the entity name, for errors.
+     * @param <T> the type of the items.
+     * @return the result of each item.
+     * @throws BadRequestAlertException if there are too many items.
+     */
+    static <T> List<BulkItemResultVM<T>> createAll(
+        List<T> items,
+        Function<T, Long> getId,
+        Validator validator,
+        UnaryOperator<List<T>> saveAll,
+        UnaryOperator<T> save,
+        String entityName
+    ) {
+        return createAll(items, getId, validator, valid -> Collections.nCopies(valid.size(), null), saveAll, save, entityName);
+    }
+
+    /**
+     * Create new entities, checking the valid items against each other and the database before saving them.
+     *
+     * @param items the items of the request.
+     * @param getId the id of an item, which must be {@code null}.
+     * @param validator the validator of the items.
+     * @param checkAll checks the valid items, returning for each why it would be refused, or {@code null}.
+     * @param saveAll saves the items passing the checks, returning the persisted entities in the same order.
+     * @param save saves one item, returning the persisted entity.
+     * @param entityName the entity name, for errors.
+     * @param <T> the type of the items.
+     * @return the result of each item.
+     * @throws BadRequestAlertException if there are too many items.
+     */
+    static <T> List<BulkItemResultVM<T>> createAll(
+        List<T> items,
+        Function<T, Long> getId,
+        Validator validator,
+        Function<List<T>, List<String>> checkAll,
+        UnaryOperator<List<T>> saveAll,
+        UnaryOperator<T> save,
+        String entityName
+    ) {
+        if (items.size() > MAX_ITEMS) {
+            throw new BadRequestAlertException("At most " + MAX_ITEMS + " items can be written at once", entityName, "toomanyitems");
+        }
+        List<BulkItemResultVM<T>> results = new ArrayList<>(items.size());
+        List<T> valid = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            String error = validate(item, getId, validator, entityName);
+            if (error == null) {
+                valid.add(item);
+                results.add(new BulkItemResultVM<>(i, HttpStatus.CREATED.value(), null, null));
+            } else {
+                results.add(new BulkItemResultVM<>(i, HttpStatus.BAD_REQUEST.value(), null, error));
+            }
+        }
+        if (!valid.isEmpty()) {
+            Iterator<String> errors = checkAll.apply(valid).iterator();
+            List<T> checked = new ArrayList<>(valid.size());
+            Iterator<T> item = valid.iterator();
+            for (BulkItemResultVM<T> result : results) {
+                if (result.getError() == null) {
+                    T next = item.next();
+                    String error = errors.next();
+                    if (error == null) {
+                        checked.add(next);
+                    } else {
+                        result.setStatus(HttpStatus.BAD_REQUEST.value());
+                        result.setError(error);
+                    }
+                }
+            }
+            valid = checked;
+        }
+        Iterator<T> saved = saveAll(valid, saveAll, save).iterator();
+        for (BulkItemResultVM<T> result : results) {
+            if (result.getError() == null) {
+                T entity = saved.next();
+                if (entity == null) {
+                    result.setStatus(HttpStatus.CONFLICT.value());
+                    result.setError("Conflicts with another " + entityName + " written meanwhile");
+                } else {
+                    result.setEntity(entity);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the persisted entities, in the same order, {@code null} for those the database refused.
+     */
+    private static <T> List<T> saveAll(List<T> items, UnaryOperator<List<T>> saveAll, UnaryOperator<T> save) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        try {
+            return saveAll.apply(items);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Saving {} items one by one, as they were refused together: {}", items.size(), e.getMessage());
+        }
+        List<T> saved = new ArrayList<>(items.size());
+        for (T item : items) {
+            try {
+                saved.add(save.apply(item));
+            } catch (DataIntegrityViolationException e) {
+                saved.add(null);
+            }
+        }
+        return saved;
+    }
+
+    private static <T> String validate(T item, Function<T, Long> getId, Validator validator, String entityName) {
+        if (item == null) {
+            return "Missing item";
+        }
+        if (getId.apply(item) != null) {
+            return "A new " + entityName + " cannot already have an ID";
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations
+            .stream()
+            .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .collect(Collectors.joining(", "));
+    }
+}
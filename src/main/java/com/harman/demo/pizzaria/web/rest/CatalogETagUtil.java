@@ -0,0 +1,45 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Utility class for the conditional requests of the catalog, whose responses are tagged with the catalog version of
+ * {@link com.harman.demo.pizzaria.service.catalog.CatalogSnapshotService#getVersion()}.
+ */
+final class CatalogETagUtil {
+
+    private CatalogETagUtil() {}
+
+    /**
+     * Tag the response with the catalog version and check it against the client's {@code If-None-Match}.
+     * <p>
+     * The version must be read before the catalog, so a response can only be tagged with a version older than its
+     * content.
+     *
+     * @param request the current request.
+     * @param catalogVersion the catalog version.
+     * @return {@code true} if the response was set to {@code 304 (Not Modified)} and no further processing is needed.
+     */
+    static boolean checkNotModified(ServletWebRequest request, long catalogVersion) {
+        return checkNotModified(request, catalogVersion, false);
+    }
+
+    /**
+     * Tag the response with the catalog version and its encoding, and check it against the client's
+     * {@code If-None-Match}. A gzip-compressed body differs from the identity one, so its tag must too.
+     *
+     * @param request the current request.
+     * @param catalogVersion the catalog version.
+     * @param gzip whether the response body is gzip-compressed.
+     * @return {@code true} if the response was set to {@code 304 (Not Modified)} and no further processing is needed.
+     */
+    static boolean checkNotModified(ServletWebRequest request, long catalogVersion, boolean gzip) {
+        if (request.getResponse() != null) {
+            // Let browsers keep the response, but revalidate it on every use
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return request.checkNotModified(gzip ? catalogVersion + "-gzip" : Long.toString(catalogVersion));
+    }
+}
@@ -0,0 +1,52 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Utility class resolving the address of the client of a request, through the {@code X-Forwarded-For} header of the
+ * trusted proxies relaying it.
+ */
+final class ClientAddressUtil {
+
+    static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private ClientAddressUtil() {}
+
+    /**
+     * Resolve the address of the client of a request.
+     * <p>
+     * The addresses of the {@code X-Forwarded-For} header are read from the last one, added by the proxy closest to
+     * the server, skipping the trusted proxies: the first other address is the client, since any address before it
+     * may have been made up by the client itself.
+     *
+     * @param request the request.
+     * @param trustedProxies the addresses of the trusted proxies.
+     * @return the address of the client, or {@code null} if the request was relayed by a trusted proxy which did not
+     * give it.
+     */
+    static String resolve(HttpServletRequest request, Pattern trustedProxies) {
+        String remoteAddr = request.getRemoteAddr();
+        if (remoteAddr == null || !trustedProxies.matcher(remoteAddr).matches()) {
+            return remoteAddr;
+        }
+        List<String> forwardedFor = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders(FORWARDED_FOR_HEADER))) {
+            for (String address : header.split(",")) {
+                if (!address.isBlank()) {
+                    forwardedFor.add(address.trim());
+                }
+            }
+        }
+        for (int i = forwardedFor.size() - 1; i >= 0; i--) {
+            if (!trustedProxies.matcher(forwardedFor.get(i)).matches()) {
+                return forwardedFor.get(i);
+            }
+        }
+        // Only trusted proxies relayed the request, the first of which is the client
+        return forwardedFor.isEmpty() ? null : forwardedFor.get(0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.harman.demo.pizzaria.service.delivery.DeliveryPlanner;
+import com.harman.demo.pizzaria.service.dto.DeliveryPlanDTO;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the delivery runs, see {@link DeliveryPlanner}.
+ */
+@RestController
+@RequestMapping("/api/delivery")
+public class DeliveryResource {
+
+    private final Logger log = LoggerFactory.getLogger(DeliveryResource.class);
+
+    private final DeliveryPlanner deliveryPlanner;
+
+    public DeliveryResource(DeliveryPlanner deliveryPlanner) {
+        this.deliveryPlanner = deliveryPlanner;
+    }
+
+    /**
+     * {@code GET  /delivery/plans} : get the runs proposed to the drivers.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of runs in body.
+     */
+    @GetMapping("/plans")
+    public List<DeliveryPlanDTO> getPlans() {
+        log.debug("REST request to get the delivery plans");
+        return deliveryPlanner.getPlans();
+    }
+
+    /**
+     * {@code POST  /delivery/plans/:id/dispatch} : give a run to a driver.
+     *
+     * @param id the id of the run.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the run, or with status
+     * {@code 404 (Not Found)} if it is unknown or was already dispatched.
+     */
+    @PostMapping("/plans/{id}/dispatch")
+    public ResponseEntity<DeliveryPlanDTO> dispatch(@PathVariable long id) {
+        log.debug("REST request to dispatch delivery plan : {}", id);
+        return ResponseUtil.wrapOrNotFound(deliveryPlanner.dispatch(id));
+    }
+}
@@ -0,0 +1,66 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.harman.demo.pizzaria.security.AuthoritiesConstants;
+import com.harman.demo.pizzaria.service.dto.ToppingStockDTO;
+import com.harman.demo.pizzaria.service.inventory.ToppingInventory;
+import com.harman.demo.pizzaria.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the stock of the toppings, see {@link ToppingInventory}.
+ */
+@RestController
+@RequestMapping("/api/inventory")
+public class InventoryResource {
+
+    private final Logger log = LoggerFactory.getLogger(InventoryResource.class);
+
+    private static final String ENTITY_NAME = "toppingStock";
+
+    private final ToppingInventory toppingInventory;
+
+    public InventoryResource(ToppingInventory toppingInventory) {
+        this.toppingInventory = toppingInventory;
+    }
+
+    /**
+     * {@code GET  /inventory/toppings} : get the units left of every topping whose stock is tracked.
+     *
+     * @return the list of stocks.
+     */
+    @GetMapping("/toppings")
+    public List<ToppingStockDTO> getStock() {
+        log.debug("REST request to get the stock of the toppings");
+        return toppingInventory.getStock();
+    }
+
+    /**
+     * {@code PUT  /inventory/toppings/:id} : set the units left of a topping, after a delivery or a count.
+     *
+     * @param id the id of the topping.
+     * @param toppingStockDTO the units left, {@code null} to stop tracking the stock of the topping.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the stock, or with status
+     * {@code 400 (Bad Request)} if the units are out of range, or with status {@code 404 (Not Found)} if the topping is
+     * unknown.
+     */
+    @PutMapping("/toppings/{id}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ToppingStockDTO> setStock(@PathVariable Long id, @RequestBody ToppingStockDTO toppingStockDTO) {
+        log.debug("REST request to set the stock of Topping : {}, {}", id, toppingStockDTO);
+        Long available = toppingStockDTO.getAvailable();
+        if (available != null && (available < 0 || available > Integer.MAX_VALUE)) {
+            throw new BadRequestAlertException("Invalid stock", ENTITY_NAME, "stockinvalid");
+        }
+        if (!toppingInventory.setAvailable(id, available)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseUtil.wrapOrNotFound(Optional.of(new ToppingStockDTO(id, toppingInventory.getAvailable(id).orElse(null))));
+    }
+}
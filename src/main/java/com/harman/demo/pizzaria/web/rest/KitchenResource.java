@@ -0,0 +1,52 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.harman.demo.pizzaria.service.dto.OrderEtaDTO;
+import com.harman.demo.pizzaria.service.dto.OvenDTO;
+import com.harman.demo.pizzaria.service.kitchen.KitchenScheduler;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the kitchen plan, see {@link KitchenScheduler}.
+ */
+@RestController
+@RequestMapping("/api/kitchen")
+public class KitchenResource {
+
+    private final Logger log = LoggerFactory.getLogger(KitchenResource.class);
+
+    private final KitchenScheduler kitchenScheduler;
+
+    public KitchenResource(KitchenScheduler kitchenScheduler) {
+        this.kitchenScheduler = kitchenScheduler;
+    }
+
+    /**
+     * {@code GET  /kitchen/queue} : get the pizzas baking or waiting in each oven.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of ovens in body.
+     */
+    @GetMapping("/queue")
+    public List<OvenDTO> getQueue() {
+        log.debug("REST request to get the kitchen queue");
+        return kitchenScheduler.getQueue();
+    }
+
+    /**
+     * {@code GET  /kitchen/orders/:reference} : get when an order is ready.
+     *
+     * @param reference the reference of the order.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ready time, or with status
+     * {@code 404 (Not Found)} if the order is unknown or was ready more than an hour ago.
+     */
+    @GetMapping("/orders/{reference}")
+    public ResponseEntity<OrderEtaDTO> getEta(@PathVariable UUID reference) {
+        log.debug("REST request to get the ready time of order : {}", reference);
+        return ResponseUtil.wrapOrNotFound(kitchenScheduler.getEta(reference));
+    }
+}
@@ -0,0 +1,62 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.harman.demo.pizzaria.web.rest.errors.BadRequestAlertException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Utility class for multi-get listings, requested with an {@code ids} parameter such as {@code ?ids=1,2,3}.
+ * <p>
+ * The entities found are returned in the order of the requested ids, and the ids of the entities not found in the
+ * {@code X-Missing-Ids} header.
+ */
+final class MultiGetUtil {
+
+    static final String MISSING_IDS_HEADER = "X-Missing-Ids";
+
+    static final int MAX_IDS = 100;
+
+    private MultiGetUtil() {}
+
+    /**
+     * Check the ids of a request.
+     *
+     * @param ids the {@code ids} parameter of the request.
+     * @param entityName the entity name, for errors.
+     * @throws BadRequestAlertException if there are too many ids.
+     */
+    static void checkIds(Collection<Long> ids, String entityName) {
+        if (ids.size() > MAX_IDS) {
+            throw new BadRequestAlertException("At most " + MAX_IDS + " ids can be requested at once", entityName, "toomanyids");
+        }
+    }
+
+    /**
+     * Generate the header reporting the requested ids which were not found.
+     *
+     * @param ids the requested ids.
+     * @param entities the entities found.
+     * @param getId the id of an entity.
+     * @param <T> the entity type.
+     * @return the headers, empty if every entity was found.
+     */
+    static <T> HttpHeaders generateMissingIdsHttpHeaders(Collection<Long> ids, Collection<T> entities, Function<T, Long> getId) {
+        Set<Long> found = entities.stream().map(getId).collect(Collectors.toSet());
+        String missing = ids
+            .stream()
+            .filter(Objects::nonNull)
+            .filter(id -> !found.contains(id))
+            .distinct()
+            .map(String::valueOf)
+            .collect(Collectors.joining(","));
+        HttpHeaders headers = new HttpHeaders();
+        if (!missing.isEmpty()) {
+            headers.add(MISSING_IDS_HEADER, missing);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,49 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Utility class for exports streamed as newline delimited JSON ({@code application/x-ndjson}), one entity per line.
+ * <p>
+ * Entities are serialized as they are read, into the buffer of a single {@link JsonGenerator} which is flushed to the
+ * response when full, so memory use does not depend on the number of entities.
+ */
+final class NdjsonExportUtil {
+
+    private NdjsonExportUtil() {}
+
+    /**
+     * Build the body of an export.
+     *
+     * @param objectMapper the mapper serializing the entities.
+     * @param export feeds the entities to its argument, one by one.
+     * @param <T> the type of the entities.
+     * @return the body, written when the response is sent.
+     */
+    static <T> StreamingResponseBody ndjson(ObjectMapper objectMapper, Consumer<Consumer<T>> export) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // lines are separated by the newlines, not by the default space
+                generator.setRootValueSeparator(null);
+                export.accept(entity -> {
+                    try {
+                        writer.writeValue(generator, entity);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
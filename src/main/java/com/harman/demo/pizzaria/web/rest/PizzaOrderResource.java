@@ -0,0 +1,77 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.harman.demo.pizzaria.service.dto.OrderReceiptDTO;
+import com.harman.demo.pizzaria.service.dto.PizzaOrderDTO;
+import com.harman.demo.pizzaria.service.journal.OrderJournal;
+import com.harman.demo.pizzaria.service.order.InvalidOrderException;
+import com.harman.demo.pizzaria.service.order.OrderIntakeService;
+import com.harman.demo.pizzaria.service.order.OrderStatusEvent;
+import com.harman.demo.pizzaria.web.rest.errors.BadRequestAlertException;
+import com.harman.demo.pizzaria.web.rest.idempotency.Idempotent;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import javax.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for taking {@link com.harman.demo.pizzaria.domain.PizzaOrder}s.
+ */
+@RestController
+@RequestMapping("/api")
+public class PizzaOrderResource {
+
+    private final Logger log = LoggerFactory.getLogger(PizzaOrderResource.class);
+
+    private static final String ENTITY_NAME = "pizzaOrder";
+
+    private final OrderIntakeService orderIntakeService;
+
+    private final OrderJournal orderJournal;
+
+    public PizzaOrderResource(OrderIntakeService orderIntakeService, OrderJournal orderJournal) {
+        this.orderIntakeService = orderIntakeService;
+        this.orderJournal = orderJournal;
+    }
+
+    /**
+     * {@code POST  /orders} : Place a new order.
+     * <p>
+     * The order is priced and queued, then written asynchronously, see {@link OrderIntakeService}. The receipt tells
+     * whether it was already persisted.
+     *
+     * @param pizzaOrderDTO the order to place.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the receipt, or with status
+     * {@code 400 (Bad Request)} if the order references an unknown pizza or topping, or with status
+     * {@code 429 (Too Many Requests)} if too many orders are waiting to be written.
+     */
+    @PostMapping("/orders")
+    @Idempotent
+    public CompletableFuture<ResponseEntity<OrderReceiptDTO>> createOrder(@Valid @RequestBody PizzaOrderDTO pizzaOrderDTO) {
+        log.debug("REST request to place PizzaOrder : {}", pizzaOrderDTO);
+        CompletableFuture<OrderReceiptDTO> receipt;
+        try {
+            receipt = orderIntakeService.submit(pizzaOrderDTO);
+        } catch (InvalidOrderException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "orderinvalid");
+        }
+        return receipt.thenApply(body -> ResponseEntity.status(HttpStatus.ACCEPTED).body(body));
+    }
+
+    /**
+     * {@code GET  /orders/:reference/status} : get the latest status of an order, see {@link OrderJournal}.
+     *
+     * @param reference the reference of the order.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the status, or with status
+     * {@code 404 (Not Found)} if the order is unknown or its status was last changed beyond the retention.
+     */
+    @GetMapping("/orders/{reference}/status")
+    public ResponseEntity<OrderStatusEvent> getOrderStatus(@PathVariable UUID reference) {
+        log.debug("REST request to get the status of PizzaOrder : {}", reference);
+        return ResponseUtil.wrapOrNotFound(orderJournal.getStatus(reference));
+    }
+}
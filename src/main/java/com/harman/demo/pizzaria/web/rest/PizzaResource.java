@@ -1,25 +1,38 @@
 package com.harman.demo.pizzaria.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harman.demo.pizzaria.repository.Keyset;
 import com.harman.demo.pizzaria.repository.PizzaRepository;
+import com.harman.demo.pizzaria.service.PizzaQueryService;
 import com.harman.demo.pizzaria.service.PizzaService;
+import com.harman.demo.pizzaria.service.catalog.CatalogSnapshotService;
+import com.harman.demo.pizzaria.service.criteria.PizzaCriteria;
 import com.harman.demo.pizzaria.service.dto.PizzaDTO;
 import com.harman.demo.pizzaria.web.rest.errors.BadRequestAlertException;
+import com.harman.demo.pizzaria.web.rest.idempotency.Idempotent;
+import com.harman.demo.pizzaria.web.rest.vm.BulkItemResultVM;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -36,6 +49,8 @@ public class PizzaResource {
 
     private static final String ENTITY_NAME = "pizza";
 
+    private static final List<String> KEYSET_SORT_PROPERTIES = List.of("id", "pizzaSize");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -43,9 +58,28 @@ public class PizzaResource {
 
     private final PizzaRepository pizzaRepository;
 
-    public PizzaResource(PizzaService pizzaService, PizzaRepository pizzaRepository) {
+    private final PizzaQueryService pizzaQueryService;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    public PizzaResource(
+        PizzaService pizzaService,
+        PizzaRepository pizzaRepository,
+        PizzaQueryService pizzaQueryService,
+        CatalogSnapshotService catalogSnapshotService,
+        Validator validator,
+        ObjectMapper objectMapper
+    ) {
         this.pizzaService = pizzaService;
         this.pizzaRepository = pizzaRepository;
+        this.pizzaQueryService = pizzaQueryService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -56,6 +90,7 @@ public class PizzaResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/pizzas")
+    @Idempotent
     public ResponseEntity<PizzaDTO> createPizza(@Valid @RequestBody PizzaDTO pizzaDTO) throws URISyntaxException {
         log.debug("REST request to save Pizza : {}", pizzaDTO);
         if (pizzaDTO.getId() != null) {
@@ -68,6 +103,32 @@ public class PizzaResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /pizzas/_bulk} : Create new pizzas.
+     * <p>
+     * Valid items are saved in a single transaction, their inserts being sent in JDBC batches. See {@link BulkWriteUtil}.
+     *
+     * @param pizzaDTOs the pizzaDTOs to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each item, with status
+     * {@code 201 (Created)} and the new pizzaDTO, or with status {@code 400 (Bad Request)} and the reason it was rejected,
+     * or with status {@code 409 (Conflict)} if it conflicts with a concurrent write,
+     * or with status {@code 400 (Bad Request)} if there are too many items.
+     */
+    @PostMapping("/pizzas/_bulk")
+    @Idempotent
+    public ResponseEntity<List<BulkItemResultVM<PizzaDTO>>> createPizzas(@RequestBody List<PizzaDTO> pizzaDTOs) {
+        log.debug("REST request to save {} Pizzas", pizzaDTOs.size());
+        List<BulkItemResultVM<PizzaDTO>> results = BulkWriteUtil.createAll(
+            pizzaDTOs,
+            PizzaDTO::getId,
+            validator,
+            pizzaService::saveAll,
+            pizzaService::save,
+            ENTITY_NAME
+        );
+        return ResponseEntity.ok().body(results);
+    }
+
     /**
      * {@code PUT  /pizzas/:id} : Updates an existing pizza.
      *
@@ -140,28 +201,108 @@ public class PizzaResource {
 
     /**
      * {@code GET  /pizzas} : get all the pizzas.
+     * <p>
+     * Unfiltered listings are served from the catalog snapshot when it is available, without touching the database.
+     * With a {@code cursor} parameter, the pizzas are read from the database with keyset pagination instead, see
+     * {@link SlicePaginationUtil}. With an {@code ids} parameter, the given pizzas are returned instead, resolved from the
+     * snapshot or from the second-level cache before the database.
      *
+     * @param criteria the criteria which the requested entities should match.
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pizzas in body.
+     * @param cursor the keyset pagination cursor, empty for the first page.
+     * @param ids the ids of the pizzas to get, see {@link MultiGetUtil}.
+     * @param request the current request, checked against the catalog version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pizzas in body,
+     * or with status {@code 304 (Not Modified)} if the catalog did not change since the client's copy.
      */
     @GetMapping("/pizzas")
-    public ResponseEntity<List<PizzaDTO>> getAllPizzas(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
-        log.debug("REST request to get a page of Pizzas");
-        Page<PizzaDTO> page = pizzaService.findAll(pageable);
+    public ResponseEntity<List<PizzaDTO>> getAllPizzas(
+        PizzaCriteria criteria,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) List<Long> ids,
+        ServletWebRequest request
+    ) {
+        log.debug("REST request to get Pizzas by criteria: {}", criteria);
+        if (CatalogETagUtil.checkNotModified(request, catalogSnapshotService.getVersion())) {
+            return null;
+        }
+        if (ids != null) {
+            return getAllPizzasById(ids);
+        }
+        if (cursor != null) {
+            Keyset keyset = SlicePaginationUtil.keyset(cursor, pageable, KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+            Slice<PizzaDTO> slice = pizzaQueryService.findByCriteria(criteria, keyset);
+            HttpHeaders headers = SlicePaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                keyset,
+                slice
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        Page<PizzaDTO> page = catalogSnapshotService
+            .findPizzas(criteria, pageable)
+            .orElseGet(() -> pizzaQueryService.findByCriteria(criteria, pageable));
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    private ResponseEntity<List<PizzaDTO>> getAllPizzasById(List<Long> ids) {
+        MultiGetUtil.checkIds(ids, ENTITY_NAME);
+        List<PizzaDTO> pizzas = catalogSnapshotService
+            .getSnapshot()
+            .map(snapshot -> ids.stream().distinct().map(snapshot::findPizza).flatMap(Optional::stream).collect(Collectors.toList()))
+            .orElseGet(() -> pizzaService.findAllById(ids));
+        HttpHeaders headers = MultiGetUtil.generateMissingIdsHttpHeaders(ids, pizzas, PizzaDTO::getId);
+        return ResponseEntity.ok().headers(headers).body(pizzas);
+    }
+
+    /**
+     * {@code GET  /pizzas/count} : count all the pizzas.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/pizzas/count")
+    public ResponseEntity<Long> countPizzas(PizzaCriteria criteria) {
+        log.debug("REST request to count Pizzas by criteria: {}", criteria);
+        long count = catalogSnapshotService.countPizzas(criteria).orElseGet(() -> pizzaQueryService.countByCriteria(criteria));
+        return ResponseEntity.ok().body(count);
+    }
+
+    /**
+     * {@code GET  /pizzas/_export} : export all the pizzas, ordered by id.
+     * <p>
+     * The pizzas are streamed from the database to the response as newline delimited JSON, without paging nor counting,
+     * see {@link NdjsonExportUtil}.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the pizzas in body, one per line.
+     */
+    @GetMapping(value = "/pizzas/_export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPizzas() {
+        log.debug("REST request to export all Pizzas");
+        StreamingResponseBody body = NdjsonExportUtil.ndjson(objectMapper, pizzaService::exportAll);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * {@code GET  /pizzas/:id} : get the "id" pizza.
      *
      * @param id the id of the pizzaDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the pizzaDTO, or with status {@code 404 (Not Found)}.
+     * @param request the current request, checked against the catalog version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the pizzaDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if the catalog did not change since the client's copy.
      */
     @GetMapping("/pizzas/{id}")
-    public ResponseEntity<PizzaDTO> getPizza(@PathVariable Long id) {
+    public ResponseEntity<PizzaDTO> getPizza(@PathVariable Long id, ServletWebRequest request) {
         log.debug("REST request to get Pizza : {}", id);
-        Optional<PizzaDTO> pizzaDTO = pizzaService.findOne(id);
+        if (CatalogETagUtil.checkNotModified(request, catalogSnapshotService.getVersion())) {
+            return null;
+        }
+        Optional<PizzaDTO> pizzaDTO = catalogSnapshotService
+            .getSnapshot()
+            .map(snapshot -> snapshot.findPizza(id))
+            .orElseGet(() -> pizzaService.findOne(id));
         return ResponseUtil.wrapOrNotFound(pizzaDTO);
     }
 
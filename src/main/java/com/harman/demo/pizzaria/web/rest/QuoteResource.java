@@ -0,0 +1,47 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.harman.demo.pizzaria.service.dto.OrderLineDTO;
+import com.harman.demo.pizzaria.service.dto.QuoteDTO;
+import com.harman.demo.pizzaria.service.pricing.InvalidQuoteException;
+import com.harman.demo.pizzaria.service.pricing.PricingEngine;
+import com.harman.demo.pizzaria.web.rest.errors.BadRequestAlertException;
+import javax.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for pricing pizzas, see {@link PricingEngine}.
+ */
+@RestController
+@RequestMapping("/api")
+public class QuoteResource {
+
+    private final Logger log = LoggerFactory.getLogger(QuoteResource.class);
+
+    private static final String ENTITY_NAME = "quote";
+
+    private final PricingEngine pricingEngine;
+
+    public QuoteResource(PricingEngine pricingEngine) {
+        this.pricingEngine = pricingEngine;
+    }
+
+    /**
+     * {@code POST  /quote} : Price a pizza with toppings.
+     *
+     * @param orderLineDTO the pizza, its toppings and the quantity.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the quote, or with status
+     * {@code 400 (Bad Request)} if the pizza or a topping is unknown.
+     */
+    @PostMapping("/quote")
+    public ResponseEntity<QuoteDTO> quote(@Valid @RequestBody OrderLineDTO orderLineDTO) {
+        log.debug("REST request to quote : {}", orderLineDTO);
+        try {
+            return ResponseEntity.ok(pricingEngine.quote(orderLineDTO));
+        } catch (InvalidQuoteException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "quoteinvalid");
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.harman.demo.pizzaria.repository.Keyset;
+import com.harman.demo.pizzaria.web.rest.errors.BadRequestAlertException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for listings read as a {@link Slice}, without a total count, the alternative to
+ * {@link tech.jhipster.web.util.PaginationUtil} for pages.
+ * <p>
+ * Offset slices get {@code next}, {@code prev} and {@code first} links, without the {@code last} one nor the
+ * {@code X-Total-Count} header.
+ * <p>
+ * A listing is read in keyset mode when the request has a {@code cursor} parameter: empty for the first page, sorted
+ * by the {@code sort} parameter, then the value of the {@code rel="next"} link of the previous page. The cursor is an
+ * opaque encoding of the {@link Keyset}, so it carries the sort. There is no total count.
+ */
+final class SlicePaginationUtil {
+
+    private static final String CURSOR_PARAMETER = "cursor";
+
+    private static final String SEPARATOR = ":";
+
+    private SlicePaginationUtil() {}
+
+    /**
+     * Get the keyset of a request.
+     *
+     * @param cursor the {@code cursor} parameter of the request, empty for the first page.
+     * @param pageable the pagination information of the request, for the size and the sort of the first page.
+     * @param sortProperties the properties rows can be sorted by, which must be mandatory columns.
+     * @param entityName the entity name, for errors.
+     * @return the keyset.
+     * @throws BadRequestAlertException if the cursor or the sort is not valid.
+     */
+    static Keyset keyset(String cursor, Pageable pageable, Collection<String> sortProperties, String entityName) {
+        Keyset keyset = cursor.isEmpty() ? first(pageable, entityName) : decode(cursor, pageable.getPageSize(), entityName);
+        if (!sortProperties.contains(keyset.getProperty())) {
+            throw new BadRequestAlertException("Keyset pagination cannot sort by " + keyset.getProperty(), entityName, "keysetsort");
+        }
+        return keyset;
+    }
+
+    private static Keyset first(Pageable pageable, String entityName) {
+        List<Sort.Order> orders = pageable.getSort().stream().collect(Collectors.toList());
+        // a trailing id order is implied
+        if (orders.size() == 2 && "id".equals(orders.get(1).getProperty())) {
+            orders = orders.subList(0, 1);
+        }
+        if (orders.size() > 1) {
+            throw new BadRequestAlertException("Keyset pagination sorts by a single property", entityName, "keysetsort");
+        }
+        return Keyset.first(orders.isEmpty() ? Sort.Order.asc("id") : orders.get(0), pageable.getPageSize());
+    }
+
+    private static Keyset decode(String cursor, int size, String entityName) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+            return Keyset.after(parts[1], Sort.Direction.fromString(parts[0]), parts[3], Long.valueOf(parts[2]), size);
+        } catch (RuntimeException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    private static String encode(Keyset keyset) {
+        String value = String.join(
+            SEPARATOR,
+            keyset.getDirection().name(),
+            keyset.getProperty(),
+            keyset.getLastId().toString(),
+            keyset.getLastValue()
+        );
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Generate the pagination headers of an offset slice.
+     *
+     * @param uriBuilder the builder of the request URI.
+     * @param slice the slice.
+     * @return the headers.
+     */
+    static HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.getPageable().isUnpaged()) {
+            return headers;
+        }
+        StringBuilder link = new StringBuilder();
+        if (slice.hasNext()) {
+            link.append(prepareLink(uriBuilder, slice.getNumber() + 1, slice.getSize(), "next")).append(",");
+        }
+        if (slice.hasPrevious()) {
+            link.append(prepareLink(uriBuilder, slice.getNumber() - 1, slice.getSize(), "prev")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, 0, slice.getSize(), "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        return link(uriBuilder.replaceQueryParam("page", pageNumber).replaceQueryParam("size", pageSize), relType);
+    }
+
+    /**
+     * Commas and semicolons separate links and their parameters, so they are escaped like in {@code PaginationUtil}.
+     */
+    private static String link(UriComponentsBuilder uriBuilder, String relType) {
+        String uri = uriBuilder.toUriString().replace(",", "%2C").replace(";", "%3B");
+        return "<" + uri + ">; rel=\"" + relType + "\"";
+    }
+
+    /**
+     * Generate the pagination headers of a keyset page: a {@code rel="next"} link if there are more rows.
+     *
+     * @param uriBuilder the builder of the request URI.
+     * @param keyset the keyset the page was read from.
+     * @param slice the page, whose rows have a readable {@code id} and sort property.
+     * @return the headers.
+     */
+    static HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Keyset keyset, Slice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(slice.getContent().get(slice.getNumberOfElements() - 1));
+            Keyset next = keyset.next(last.getPropertyValue(keyset.getProperty()), (Long) last.getPropertyValue("id"));
+            uriBuilder
+                .replaceQueryParam(CURSOR_PARAMETER, encode(next))
+                .replaceQueryParam("size", next.getSize())
+                .replaceQueryParam("page")
+                .replaceQueryParam("sort");
+            headers.add(HttpHeaders.LINK, link(uriBuilder, "next"));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,65 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.harman.demo.pizzaria.security.AuthoritiesConstants;
+import com.harman.demo.pizzaria.security.SecurityUtils;
+import com.harman.demo.pizzaria.web.rest.stream.EventStreams;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller for the Server-Sent Events streams, see {@link EventStreams}.
+ */
+@RestController
+@RequestMapping("/api/stream")
+public class StreamResource {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final Logger log = LoggerFactory.getLogger(StreamResource.class);
+
+    private final EventStreams eventStreams;
+
+    public StreamResource(EventStreams eventStreams) {
+        this.eventStreams = eventStreams;
+    }
+
+    /**
+     * {@code GET  /stream/menu} : stream the changes of the pizzas and toppings, once committed.
+     *
+     * @param lastEventId the id of the last event received before reconnecting.
+     * @return the stream of {@code catalog-changed} events.
+     */
+    @GetMapping(value = "/menu", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMenu(@RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        log.debug("REST request to stream the menu changes after : {}", lastEventId);
+        return eventStreams.subscribeToMenu(lastEventId);
+    }
+
+    /**
+     * {@code GET  /stream/orders} : stream the status of the orders, as they are queued then persisted.
+     * <p>
+     * Orders have no owner: their reference, only returned to whoever placed the order, is what grants access to their
+     * status. Following every order is left to administrators.
+     *
+     * @param reference the reference of the order to follow, every order if omitted.
+     * @param lastEventId the id of the last event received before reconnecting.
+     * @return the stream of {@code order-status} events.
+     * @throws AccessDeniedException {@code 403 (Forbidden)} if the reference is omitted by a user who is not an administrator.
+     */
+    @GetMapping(value = "/orders", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(
+        @RequestParam(required = false) UUID reference,
+        @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId
+    ) {
+        log.debug("REST request to stream the status of orders : {}", reference);
+        if (reference == null && !SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ADMIN)) {
+            throw new AccessDeniedException("Only administrators may follow every order");
+        }
+        return eventStreams.subscribeToOrders(reference, lastEventId);
+    }
+}
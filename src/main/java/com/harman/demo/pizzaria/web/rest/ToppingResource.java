@@ -1,27 +1,40 @@
 package com.harman.demo.pizzaria.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harman.demo.pizzaria.repository.Keyset;
 import com.harman.demo.pizzaria.repository.ToppingRepository;
 import com.harman.demo.pizzaria.service.ToppingQueryService;
 import com.harman.demo.pizzaria.service.ToppingService;
+import com.harman.demo.pizzaria.service.catalog.CatalogSnapshotService;
 import com.harman.demo.pizzaria.service.criteria.ToppingCriteria;
 import com.harman.demo.pizzaria.service.dto.ToppingDTO;
 import com.harman.demo.pizzaria.web.rest.errors.BadRequestAlertException;
+import com.harman.demo.pizzaria.web.rest.idempotency.Idempotent;
+import com.harman.demo.pizzaria.web.rest.vm.BulkItemResultVM;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -37,6 +50,8 @@ public class ToppingResource {
 
     private static final String ENTITY_NAME = "topping";
 
+    private static final List<String> KEYSET_SORT_PROPERTIES = List.of("id", "name");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -46,10 +61,30 @@ public class ToppingResource {
 
     private final ToppingQueryService toppingQueryService;
 
-    public ToppingResource(ToppingService toppingService, ToppingRepository toppingRepository, ToppingQueryService toppingQueryService) {
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final ToppingResponseCache toppingResponseCache;
+
+    public ToppingResource(
+        ToppingService toppingService,
+        ToppingRepository toppingRepository,
+        ToppingQueryService toppingQueryService,
+        CatalogSnapshotService catalogSnapshotService,
+        ToppingResponseCache toppingResponseCache,
+        Validator validator,
+        ObjectMapper objectMapper
+    ) {
         this.toppingService = toppingService;
         this.toppingRepository = toppingRepository;
         this.toppingQueryService = toppingQueryService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.toppingResponseCache = toppingResponseCache;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -60,6 +95,7 @@ public class ToppingResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/toppings")
+    @Idempotent
     public ResponseEntity<ToppingDTO> createTopping(@Valid @RequestBody ToppingDTO toppingDTO) throws URISyntaxException {
         log.debug("REST request to save Topping : {}", toppingDTO);
         if (toppingDTO.getId() != null) {
@@ -72,6 +108,34 @@ public class ToppingResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /toppings/_bulk} : Create new toppings.
+     * <p>
+     * Valid items are saved in a single transaction, their inserts being sent in JDBC batches. Items named like an existing
+     * topping, or like an earlier item, are rejected. See {@link BulkWriteUtil}.
+     *
+     * @param toppingDTOs the toppingDTOs to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each item, with status
+     * {@code 201 (Created)} and the new toppingDTO, or with status {@code 400 (Bad Request)} and the reason it was rejected,
+     * or with status {@code 409 (Conflict)} if it conflicts with a concurrent write,
+     * or with status {@code 400 (Bad Request)} if there are too many items.
+     */
+    @PostMapping("/toppings/_bulk")
+    @Idempotent
+    public ResponseEntity<List<BulkItemResultVM<ToppingDTO>>> createToppings(@RequestBody List<ToppingDTO> toppingDTOs) {
+        log.debug("REST request to save {} Toppings", toppingDTOs.size());
+        List<BulkItemResultVM<ToppingDTO>> results = BulkWriteUtil.createAll(
+            toppingDTOs,
+            ToppingDTO::getId,
+            validator,
+            toppingService::checkAll,
+            toppingService::saveAll,
+            toppingService::save,
+            ENTITY_NAME
+        );
+        return ResponseEntity.ok().body(results);
+    }
+
     /**
      * {@code PUT  /toppings/:id} : Updates an existing topping.
      *
@@ -144,20 +208,87 @@ public class ToppingResource {
 
     /**
      * {@code GET  /toppings} : get all the toppings.
+     * <p>
+     * Served from the catalog snapshot when it is available and can evaluate the criteria, without touching the database.
+     * The serialized response is cached, so repeated queries are written out directly. With a {@code cursor} parameter,
+     * the toppings are read from the database with keyset pagination instead, see {@link SlicePaginationUtil}.
+     * With {@code count=false}, the total is not counted and the {@code X-Total-Count} header is omitted. With an
+     * {@code ids} parameter, the given toppings are returned instead, resolved from the snapshot or from the second-level
+     * cache before the database.
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of toppings in body.
+     * @param cursor the keyset pagination cursor, empty for the first page.
+     * @param ids the ids of the toppings to get, see {@link MultiGetUtil}.
+     * @param count whether to count the matching toppings.
+     * @param request the current request, checked against the catalog version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of toppings in body,
+     * or with status {@code 304 (Not Modified)} if the catalog did not change since the client's copy.
+     * @throws IOException if a cached response cannot be written.
      */
     @GetMapping("/toppings")
     public ResponseEntity<List<ToppingDTO>> getAllToppings(
         ToppingCriteria criteria,
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
-    ) {
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) List<Long> ids,
+        @RequestParam(defaultValue = "true") boolean count,
+        ServletWebRequest request
+    ) throws IOException {
         log.debug("REST request to get Toppings by criteria: {}", criteria);
-        Page<ToppingDTO> page = toppingQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        long catalogVersion = catalogSnapshotService.getVersion();
+        boolean gzip = ids == null && cursor == null && toppingResponseCache.isEnabled() && toppingResponseCache.isGzip(request);
+        if (CatalogETagUtil.checkNotModified(request, catalogVersion, gzip)) {
+            return null;
+        }
+        if (ids != null) {
+            return getAllToppingsById(ids);
+        }
+        if (cursor != null) {
+            Keyset keyset = SlicePaginationUtil.keyset(cursor, pageable, KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+            Slice<ToppingDTO> slice = toppingQueryService.findByCriteria(criteria, keyset);
+            HttpHeaders headers = SlicePaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                keyset,
+                slice
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        if (toppingResponseCache.isEnabled()) {
+            ToppingResponseCache.Key key = toppingResponseCache.key(criteria, pageable, count, catalogVersion, gzip);
+            ToppingResponseCache.CachedResponse cached = toppingResponseCache
+                .get(key)
+                .orElseGet(() -> toppingResponseCache.put(key, findToppings(criteria, pageable, count)));
+            toppingResponseCache.write(cached, pageable, request);
+            return null;
+        }
+        Slice<ToppingDTO> slice = findToppings(criteria, pageable, count);
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        HttpHeaders headers = count
+            ? PaginationUtil.generatePaginationHttpHeaders(uriBuilder, (Page<ToppingDTO>) slice)
+            : SlicePaginationUtil.generateSliceHttpHeaders(uriBuilder, slice);
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * @return a {@link Page} if {@code count} is set.
+     */
+    private Slice<ToppingDTO> findToppings(ToppingCriteria criteria, Pageable pageable, boolean count) {
+        Optional<Page<ToppingDTO>> page = catalogSnapshotService.findToppings(criteria, pageable);
+        if (page.isPresent()) {
+            return page.get();
+        }
+        return count ? toppingQueryService.findByCriteria(criteria, pageable) : toppingQueryService.findSliceByCriteria(criteria, pageable);
+    }
+
+    private ResponseEntity<List<ToppingDTO>> getAllToppingsById(List<Long> ids) {
+        MultiGetUtil.checkIds(ids, ENTITY_NAME);
+        List<ToppingDTO> toppings = catalogSnapshotService
+            .getSnapshot()
+            .map(snapshot -> ids.stream().distinct().map(snapshot::findTopping).flatMap(Optional::stream).collect(Collectors.toList()))
+            .orElseGet(() -> toppingService.findAllById(ids));
+        HttpHeaders headers = MultiGetUtil.generateMissingIdsHttpHeaders(ids, toppings, ToppingDTO::getId);
+        return ResponseEntity.ok().headers(headers).body(toppings);
     }
 
     /**
@@ -169,19 +300,43 @@ public class ToppingResource {
     @GetMapping("/toppings/count")
     public ResponseEntity<Long> countToppings(ToppingCriteria criteria) {
         log.debug("REST request to count Toppings by criteria: {}", criteria);
-        return ResponseEntity.ok().body(toppingQueryService.countByCriteria(criteria));
+        long count = catalogSnapshotService.countToppings(criteria).orElseGet(() -> toppingQueryService.countByCriteria(criteria));
+        return ResponseEntity.ok().body(count);
+    }
+
+    /**
+     * {@code GET  /toppings/_export} : export all the toppings, ordered by id.
+     * <p>
+     * The toppings are streamed from the database to the response as newline delimited JSON, without paging nor counting,
+     * see {@link NdjsonExportUtil}.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the toppings in body, one per line.
+     */
+    @GetMapping(value = "/toppings/_export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportToppings() {
+        log.debug("REST request to export all Toppings");
+        StreamingResponseBody body = NdjsonExportUtil.ndjson(objectMapper, toppingService::exportAll);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
      * {@code GET  /toppings/:id} : get the "id" topping.
      *
      * @param id the id of the toppingDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the toppingDTO, or with status {@code 404 (Not Found)}.
+     * @param request the current request, checked against the catalog version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the toppingDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if the catalog did not change since the client's copy.
      */
     @GetMapping("/toppings/{id}")
-    public ResponseEntity<ToppingDTO> getTopping(@PathVariable Long id) {
+    public ResponseEntity<ToppingDTO> getTopping(@PathVariable Long id, ServletWebRequest request) {
         log.debug("REST request to get Topping : {}", id);
-        Optional<ToppingDTO> toppingDTO = toppingService.findOne(id);
+        if (CatalogETagUtil.checkNotModified(request, catalogSnapshotService.getVersion())) {
+            return null;
+        }
+        Optional<ToppingDTO> toppingDTO = catalogSnapshotService
+            .getSnapshot()
+            .map(snapshot -> snapshot.findTopping(id))
+            .orElseGet(() -> toppingService.findOne(id));
         return ResponseUtil.wrapOrNotFound(toppingDTO);
     }
 
@@ -0,0 +1,296 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.service.catalog.CatalogChangedEvent;
+import com.harman.demo.pizzaria.service.criteria.ToppingCriteria;
+import com.harman.demo.pizzaria.service.dto.ToppingDTO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Cache of the serialized responses of {@code GET /api/toppings}, so frequent criteria queries skip the query and the
+ * JSON serialization altogether.
+ * <p>
+ * Entries are keyed by the normalized criteria, the page, the sort, whether the total is counted, the catalog version
+ * and whether the body is gzip-compressed. Having the version in the key means a response computed concurrently with a write can never be
+ * served after it; the cache is still cleared on topping writes so outdated entries do not hold memory.
+ */
+@Component
+public class ToppingResponseCache {
+
+    public static final String CACHE_NAME = "toppingResponses";
+
+    private final Logger log = LoggerFactory.getLogger(ToppingResponseCache.class);
+
+    private final ApplicationProperties.Catalog.ResponseCache properties;
+
+    private final CacheManager cacheManager;
+
+    private final ObjectMapper objectMapper;
+
+    public ToppingResponseCache(ApplicationProperties applicationProperties, CacheManager cacheManager, ObjectMapper objectMapper) {
+        this.properties = applicationProperties.getCatalog().getResponseCache();
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Whether the response to a request is gzip-compressed: if compression is enabled, and the client accepts gzip with
+     * a quality above {@code 0}, by name or through {@code *}.
+     *
+     * @param request the request, for its {@code Accept-Encoding}.
+     * @return whether the response is compressed.
+     */
+    public boolean isGzip(ServletWebRequest request) {
+        return properties.isGzip() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * Build the cache key of a request.
+     *
+     * @param criteria the criteria of the request.
+     * @param pageable the pagination information of the request.
+     * @param count whether the request asks for the total.
+     * @param catalogVersion the catalog version, read before the catalog.
+     * @param gzip whether the response is compressed, see {@link #isGzip(ServletWebRequest)}.
+     * @return the key.
+     */
+    public Key key(ToppingCriteria criteria, Pageable pageable, boolean count, long catalogVersion, boolean gzip) {
+        return new Key(criteria, pageable, count, catalogVersion, gzip);
+    }
+
+    public Optional<CachedResponse> get(Key key) {
+        return Optional.ofNullable(cache().get(key, CachedResponse.class));
+    }
+
+    /**
+     * Serialize a page and store it.
+     *
+     * @param key the key of the request the page answers.
+     * @param page the page, a {@link Page} if the key asks for the total.
+     * @return the stored response.
+     */
+    public CachedResponse put(Key key, Slice<ToppingDTO> page) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(page.getContent());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        long totalElements = key.count ? ((Page<ToppingDTO>) page).getTotalElements() : -1;
+        CachedResponse response = new CachedResponse(key.gzip ? gzip(body) : body, key.gzip, totalElements, page.hasNext());
+        cache().put(key, response);
+        return response;
+    }
+
+    /**
+     * Write a stored response, with the pagination headers of the current request.
+     *
+     * @param cached the stored response.
+     * @param pageable the pagination information of the request.
+     * @param request the request to answer.
+     * @throws IOException if the body cannot be written.
+     */
+    public void write(CachedResponse cached, Pageable pageable, ServletWebRequest request) throws IOException {
+        HttpServletResponse response = Objects.requireNonNull(request.getResponse());
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        List<ToppingDTO> noContent = Collections.emptyList();
+        HttpHeaders headers = cached.totalElements < 0
+            ? SlicePaginationUtil.generateSliceHttpHeaders(uriBuilder, new SliceImpl<>(noContent, pageable, cached.hasNext))
+            : PaginationUtil.generatePaginationHttpHeaders(uriBuilder, new PageImpl<>(noContent, pageable, cached.totalElements));
+        headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (properties.isGzip()) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (cached.gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(cached.body.length);
+        response.getOutputStream().write(cached.body);
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getEntityType() == CatalogChangedEvent.EntityType.TOPPING) {
+            log.debug("Clearing topping response cache after {}", event);
+            cache().clear();
+        }
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Key of a cached response.
+     */
+    public static final class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ToppingCriteria criteria;
+
+        private final int page;
+
+        private final int size;
+
+        private final Sort sort;
+
+        private final boolean count;
+
+        private final long catalogVersion;
+
+        private final boolean gzip;
+
+        Key(ToppingCriteria criteria, Pageable pageable, boolean count, long catalogVersion, boolean gzip) {
+            // "distinct" does not change the result of a single table query
+            this.criteria = criteria == null ? new ToppingCriteria() : criteria.copy();
+            this.criteria.setDistinct(null);
+            this.page = pageable.isPaged() ? pageable.getPageNumber() : -1;
+            this.size = pageable.isPaged() ? pageable.getPageSize() : -1;
+            this.sort = pageable.getSort();
+            this.count = count;
+            this.catalogVersion = catalogVersion;
+            this.gzip = gzip;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return (
+                page == that.page &&
+                size == that.size &&
+                count == that.count &&
+                catalogVersion == that.catalogVersion &&
+                gzip == that.gzip &&
+                criteria.equals(that.criteria) &&
+                sort.equals(that.sort)
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(criteria, page, size, sort, count, catalogVersion, gzip);
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Key{" +
+                "criteria=" + criteria +
+                ", page=" + page +
+                ", size=" + size +
+                ", sort=" + sort +
+                ", count=" + count +
+                ", catalogVersion=" + catalogVersion +
+                ", gzip=" + gzip +
+                "}";
+        }
+    }
+
+    /**
+     * A serialized response body, with what is needed to rebuild its pagination headers.
+     */
+    public static final class CachedResponse implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] body;
+
+        private final boolean gzip;
+
+        /**
+         * The total, or {@code -1} if it was not counted.
+         */
+        private final long totalElements;
+
+        private final boolean hasNext;
+
+        CachedResponse(byte[] body, boolean gzip, long totalElements, boolean hasNext) {
+            this.body = body;
+            this.gzip = gzip;
+            this.totalElements = totalElements;
+            this.hasNext = hasNext;
+        }
+    }
+}
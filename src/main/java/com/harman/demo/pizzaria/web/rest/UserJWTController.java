@@ -1,17 +1,21 @@
 package com.harman.demo.pizzaria.web.rest;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.security.LoginExecutor;
+import com.harman.demo.pizzaria.security.LoginThrottle;
+import com.harman.demo.pizzaria.security.SecurityUtils;
 import com.harman.demo.pizzaria.security.jwt.JWTFilter;
 import com.harman.demo.pizzaria.security.jwt.TokenProvider;
 import com.harman.demo.pizzaria.web.rest.vm.LoginVM;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -23,26 +27,65 @@ public class UserJWTController {
 
     private final TokenProvider tokenProvider;
 
-    private final AuthenticationManagerBuilder authenticationManagerBuilder;
+    private final LoginExecutor loginExecutor;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final LoginThrottle loginThrottle;
+
+    private final Pattern trustedProxies;
+
+    public UserJWTController(
+        TokenProvider tokenProvider,
+        LoginExecutor loginExecutor,
+        LoginThrottle loginThrottle,
+        ApplicationProperties applicationProperties
+    ) {
         this.tokenProvider = tokenProvider;
-        this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.loginExecutor = loginExecutor;
+        this.loginThrottle = loginThrottle;
+        this.trustedProxies = Pattern.compile(applicationProperties.getSecurity().getLoginThrottle().getTrustedProxies());
     }
 
+    /**
+     * {@code POST  /authenticate} : Log a user in.
+     * <p>
+     * Attempts beyond the {@link LoginThrottle} are refused first. The password is then verified by the
+     * {@link LoginExecutor}, so the request holds no worker thread meanwhile. Behind the proxies of
+     * {@code application.security.login-throttle.trusted-proxies}, the client is the one they forwarded the request for.
+     *
+     * @param loginVM the credentials.
+     * @param request the request, for the address of the client.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the JWT token, or with status
+     * {@code 401 (Unauthorized)} if the credentials are wrong, or with status {@code 429 (Too Many Requests)} if the login
+     * or the client made too many attempts, or with status {@code 503 (Service Unavailable)} if too many logins are in
+     * progress.
+     */
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public CompletableFuture<ResponseEntity<JWTToken>> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        loginThrottle.acquire(loginVM.getUsername(), ClientAddressUtil.resolve(request, trustedProxies));
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
             loginVM.getUsername(),
             loginVM.getPassword()
         );
 
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.createToken(authentication, loginVM.isRememberMe());
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return loginExecutor
+            .authenticate(authenticationToken)
+            .thenApply(authentication -> {
+                String jwt = tokenProvider.createToken(authentication, loginVM.isRememberMe());
+                HttpHeaders httpHeaders = new HttpHeaders();
+                httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+                return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+            });
+    }
+
+    /**
+     * {@code DELETE  /authenticate} : Log the current user out, revoking the token of the request.
+     *
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @DeleteMapping("/authenticate")
+    public ResponseEntity<Void> logout() {
+        SecurityUtils.getCurrentUserJWT().ifPresent(tokenProvider::revokeToken);
+        return ResponseEntity.noContent().build();
     }
 
     /**
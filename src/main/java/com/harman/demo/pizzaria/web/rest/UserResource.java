@@ -2,6 +2,7 @@ package com.harman.demo.pizzaria.web.rest;
 
 import com.harman.demo.pizzaria.config.Constants;
 import com.harman.demo.pizzaria.domain.User;
+import com.harman.demo.pizzaria.repository.Keyset;
 import com.harman.demo.pizzaria.repository.UserRepository;
 import com.harman.demo.pizzaria.security.AuthoritiesConstants;
 import com.harman.demo.pizzaria.service.MailService;
@@ -21,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -76,6 +78,8 @@ public class UserResource {
         )
     );
 
+    private static final List<String> KEYSET_SORT_PROPERTIES = List.of("id", "login");
+
     private final Logger log = LoggerFactory.getLogger(UserResource.class);
 
     @Value("${jhipster.clientApp.name}")
@@ -159,17 +163,33 @@ public class UserResource {
 
     /**
      * {@code GET /admin/users} : get all users with all the details - calling this are only allowed for the administrators.
+     * <p>
+     * With a {@code cursor} parameter, the users are read with keyset pagination, see {@link SlicePaginationUtil}.
      *
      * @param pageable the pagination information.
+     * @param cursor the keyset pagination cursor, empty for the first page.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
      */
     @GetMapping("/users")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<List<AdminUserDTO>> getAllUsers(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<AdminUserDTO>> getAllUsers(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false) String cursor
+    ) {
         log.debug("REST request to get all User for an admin");
         if (!onlyContainsAllowedProperties(pageable)) {
             return ResponseEntity.badRequest().build();
         }
+        if (cursor != null) {
+            Keyset keyset = SlicePaginationUtil.keyset(cursor, pageable, KEYSET_SORT_PROPERTIES, "userManagement");
+            Slice<AdminUserDTO> slice = userService.getAllManagedUsers(keyset);
+            HttpHeaders headers = SlicePaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                keyset,
+                slice
+            );
+            return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+        }
 
         final Page<AdminUserDTO> page = userService.getAllManagedUsers(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
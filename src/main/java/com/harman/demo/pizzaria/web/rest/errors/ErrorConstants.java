@@ -6,6 +6,13 @@ public final class ErrorConstants {
 
     public static final String ERR_CONCURRENCY_FAILURE = "error.concurrencyFailure";
     public static final String ERR_VALIDATION = "error.validation";
+    public static final String ERR_ORDER_QUEUE_FULL = "error.orderQueueFull";
+    public static final String ERR_ORDER_INTAKE_STOPPED = "error.orderIntakeStopped";
+    public static final String ERR_IDEMPOTENCY_KEY_REUSED = "error.idempotencyKeyReused";
+    public static final String ERR_IDEMPOTENT_REQUEST_IN_PROGRESS = "error.idempotentRequestInProgress";
+    public static final String ERR_OUT_OF_STOCK = "error.outOfStock";
+    public static final String ERR_LOGIN_CAPACITY_EXCEEDED = "error.loginCapacityExceeded";
+    public static final String ERR_LOGIN_THROTTLED = "error.loginThrottled";
     public static final String PROBLEM_BASE_URL = "https://www.jhipster.tech/problem";
     public static final URI DEFAULT_TYPE = URI.create(PROBLEM_BASE_URL + "/problem-with-message");
     public static final URI CONSTRAINT_VIOLATION_TYPE = URI.create(PROBLEM_BASE_URL + "/constraint-violation");
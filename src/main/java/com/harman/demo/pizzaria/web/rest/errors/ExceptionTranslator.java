@@ -1,5 +1,12 @@
 package com.harman.demo.pizzaria.web.rest.errors;
 
+import com.harman.demo.pizzaria.security.LoginCapacityExceededException;
+import com.harman.demo.pizzaria.security.LoginThrottledException;
+import com.harman.demo.pizzaria.service.inventory.OutOfStockException;
+import com.harman.demo.pizzaria.service.order.OrderIntakeStoppedException;
+import com.harman.demo.pizzaria.service.order.OrderQueueFullException;
+import com.harman.demo.pizzaria.web.rest.idempotency.IdempotencyKeyReusedException;
+import com.harman.demo.pizzaria.web.rest.idempotency.IdempotentRequestInProgressException;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
@@ -14,6 +21,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
@@ -149,6 +157,97 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(new InvalidPasswordException(), request);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleOrderQueueFullException(OrderQueueFullException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.TOO_MANY_REQUESTS)
+            .withTitle(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_ORDER_QUEUE_FULL)
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleOrderIntakeStoppedException(OrderIntakeStoppedException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .withTitle(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_ORDER_INTAKE_STOPPED)
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleLoginCapacityExceededException(LoginCapacityExceededException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .withTitle(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_LOGIN_CAPACITY_EXCEEDED)
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleLoginThrottledException(LoginThrottledException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.TOO_MANY_REQUESTS)
+            .withTitle(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_LOGIN_THROTTLED)
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleOutOfStockException(OutOfStockException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.CONFLICT)
+            .withTitle(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_OUT_OF_STOCK)
+            .with("toppingId", ex.getToppingId())
+            .build();
+        return create(ex, problem, request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.UNPROCESSABLE_ENTITY)
+            .withTitle(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_IDEMPOTENCY_KEY_REUSED)
+            .build();
+        return create(ex, problem, request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleIdempotentRequestInProgressException(
+        IdempotentRequestInProgressException ex,
+        NativeWebRequest request
+    ) {
+        Problem problem = Problem
+            .builder()
+            .withStatus(Status.CONFLICT)
+            .withTitle(ex.getMessage())
+            .with(MESSAGE_KEY, ErrorConstants.ERR_IDEMPOTENT_REQUEST_IN_PROGRESS)
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return create(ex, problem, request, headers);
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleBadRequestAlertException(BadRequestAlertException ex, NativeWebRequest request) {
         return create(
@@ -0,0 +1,192 @@
+package com.harman.demo.pizzaria.web.rest.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.security.SecurityUtils;
+import com.harman.demo.pizzaria.web.rest.errors.BadRequestAlertException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.servlet.http.HttpServletRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Aspect making the {@link Idempotent} endpoints safe to retry.
+ * <p>
+ * A request with an {@code Idempotency-Key} header is executed once per user, endpoint and key: retries get the
+ * stored response, with an {@code Idempotent-Replayed: true} header, and retries arriving while the first request is
+ * still running wait for its response rather than executing it again. Reusing a key with another body is refused, as
+ * is waiting longer than {@code application.idempotency.wait-timeout-ms}. Requests which fail are forgotten, so they
+ * can be retried with the same key. Requests without the header are not affected.
+ */
+@Aspect
+@Component
+public class IdempotencyAspect {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyAspect.class);
+
+    private final ApplicationProperties.Idempotency properties;
+
+    private final IdempotencyStore idempotencyStore;
+
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyAspect(ApplicationProperties applicationProperties, IdempotencyStore idempotencyStore, ObjectMapper objectMapper) {
+        this.properties = applicationProperties.getIdempotency();
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+    }
+
+    @Around("@annotation(com.harman.demo.pizzaria.web.rest.idempotency.Idempotent)")
+    public Object executeOnce(ProceedingJoinPoint joinPoint) throws Throwable {
+        HttpServletRequest request = currentRequest();
+        String idempotencyKey = request == null ? null : request.getHeader(IDEMPOTENCY_KEY);
+        if (idempotencyKey == null) {
+            return joinPoint.proceed();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestAlertException("Invalid Idempotency-Key header", "idempotency", "idempotencykeyinvalid");
+        }
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        boolean async = CompletableFuture.class.isAssignableFrom(signature.getReturnType());
+        // Keys are chosen by clients, so they are scoped to the user and the endpoint
+        String scope = SecurityUtils.getCurrentUserLogin().orElse("") + '\n' + request.getMethod() + ' ' + request.getRequestURI();
+        String key = sha256((scope + '\n' + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+        IdempotencyStore.Claim claim = idempotencyStore.begin(key, sha256(requestBody(signature.getMethod(), joinPoint.getArgs())));
+
+        if (!claim.isOwner()) {
+            log.debug("Replaying the response to {} with Idempotency-Key {}", request.getRequestURI(), idempotencyKey);
+            CompletableFuture<ResponseEntity<byte[]>> replay = claim.getResponse().thenApply(IdempotencyAspect::replay);
+            return async ? awaitAsync(replay) : await(replay);
+        }
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            idempotencyStore.fail(claim, e);
+            throw e;
+        }
+        if (async) {
+            return ((CompletableFuture<?>) result).whenComplete((response, error) -> {
+                if (error != null) {
+                    idempotencyStore.fail(claim, error);
+                } else {
+                    complete(claim, (ResponseEntity<?>) response);
+                }
+            });
+        }
+        complete(claim, (ResponseEntity<?>) result);
+        return result;
+    }
+
+    private void complete(IdempotencyStore.Claim claim, ResponseEntity<?> response) {
+        StoredResponse stored;
+        try {
+            byte[] body = response.getBody() == null ? null : objectMapper.writeValueAsBytes(response.getBody());
+            stored = new StoredResponse(response.getStatusCodeValue(), response.getHeaders(), body);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The response is sent anyway, retries execute the request again
+            log.warn("Could not store an idempotent response: {}", e.getMessage());
+            idempotencyStore.fail(claim, e);
+            return;
+        }
+        idempotencyStore.complete(claim, stored);
+    }
+
+    private static ResponseEntity<byte[]> replay(StoredResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.set(IDEMPOTENT_REPLAYED, "true");
+        if (response.getBody() != null) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatus());
+    }
+
+    private ResponseEntity<byte[]> await(CompletableFuture<ResponseEntity<byte[]>> replay) throws Throwable {
+        try {
+            return replay.get(properties.getWaitTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotentRequestInProgressException();
+        } catch (ExecutionException e) {
+            // The first request failed: so does its retry
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException();
+        }
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> awaitAsync(CompletableFuture<ResponseEntity<byte[]>> replay) {
+        return replay
+            .orTimeout(properties.getWaitTimeoutMs(), TimeUnit.MILLISECONDS)
+            .handle((response, error) -> {
+                if (error == null) {
+                    return response;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof TimeoutException) {
+                    throw new IdempotentRequestInProgressException();
+                }
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+            });
+    }
+
+    private byte[] requestBody(Method method, Object[] args) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof RequestBody) {
+                    try {
+                        return objectMapper.writeValueAsBytes(args[i]);
+                    } catch (JsonProcessingException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+        }
+        return new byte[0];
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) attributes).getRequest() : null;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return String.format("%064x", new BigInteger(1, MessageDigest.getInstance("SHA-256").digest(bytes)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
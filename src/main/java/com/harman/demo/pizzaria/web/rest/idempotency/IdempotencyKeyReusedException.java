@@ -0,0 +1,13 @@
+package com.harman.demo.pizzaria.web.rest.idempotency;
+
+/**
+ * Thrown when an {@code Idempotency-Key} already used is sent with a different request body.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyKeyReusedException() {
+        super("This Idempotency-Key was already used for a different request");
+    }
+}
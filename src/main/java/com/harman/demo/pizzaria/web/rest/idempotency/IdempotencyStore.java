@@ -0,0 +1,488 @@
+package com.harman.demo.pizzaria.web.rest.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.IdempotentRequest;
+import com.harman.demo.pizzaria.repository.IdempotentRequestRepository;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Store of the responses to requests made with an {@code Idempotency-Key}, and of the requests still in progress.
+ * <p>
+ * Entries live in memory, split into {@code application.idempotency.stripes} parts locked independently, so
+ * concurrent requests with different keys seldom contend. Each part holds at most its share of
+ * {@code max-bytes}, evicting its oldest responses first, and responses are dropped after {@code ttl}. Since every
+ * entry lives for the same time, the insertion order of a part is also its expiry order, so both eviction and expiry
+ * only look at the oldest entries. Requests in progress are never evicted: retries wait on them instead.
+ * <p>
+ * With {@code database: true}, requests are also claimed in the {@code idempotent_request} table and their responses
+ * written there, so a retry reaching another instance waits for the first one and replays its response. A claim only
+ * holds for {@code lease-ms} until its response is written, after which it is kept for {@code ttl}: the requests of an
+ * instance which crashed, or could not write their response, can be executed again once their lease ran out. Retries
+ * waiting for another instance poll the table from a thread of the store, not from the request thread.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final long DATABASE_POLL_MILLIS = 50;
+
+    private static final TypeReference<LinkedHashMap<String, List<String>>> HEADERS_TYPE = new TypeReference<>() {};
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final ApplicationProperties.Idempotency properties;
+
+    private final IdempotentRequestRepository idempotentRequestRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Clock clock;
+
+    private final Stripe[] stripes;
+
+    private final long stripeMaxBytes;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public IdempotencyStore(
+        ApplicationProperties applicationProperties,
+        IdempotentRequestRepository idempotentRequestRepository,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager
+    ) {
+        this(applicationProperties.getIdempotency(), idempotentRequestRepository, objectMapper, transactionManager, Clock.systemUTC());
+    }
+
+    IdempotencyStore(
+        ApplicationProperties.Idempotency properties,
+        IdempotentRequestRepository idempotentRequestRepository,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        Clock clock
+    ) {
+        this.properties = properties;
+        this.idempotentRequestRepository = idempotentRequestRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Claims must be visible to other instances at once, whatever the caller's transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+        int requested = Math.max(1, properties.getStripes());
+        this.stripes = new Stripe[Integer.highestOneBit(requested) == requested ? requested : Integer.highestOneBit(requested) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMaxBytes = Math.max(1, properties.getMaxBytes() / stripes.length);
+    }
+
+    /**
+     * Claim a request, or find the request already made with its key.
+     *
+     * @param key the hash of the key, the user and the endpoint.
+     * @param fingerprint the hash of the request body.
+     * @return the claim; if it is not owned, its response is the one of the first request, possibly still in progress.
+     * @throws IdempotencyKeyReusedException if the key was used with another body.
+     */
+    Claim begin(String key, String fingerprint) {
+        long now = clock.millis();
+        Stripe stripe = stripe(key);
+        Entry entry;
+        stripe.lock.lock();
+        try {
+            entry = stripe.entries.get(key);
+            if (entry != null && entry.expiresAt <= now && entry.response.isDone()) {
+                stripe.remove(key);
+                entry = null;
+            }
+            if (entry != null) {
+                if (!entry.fingerprint.equals(fingerprint)) {
+                    throw new IdempotencyKeyReusedException();
+                }
+                return new Claim(key, entry, false);
+            }
+            entry = new Entry(fingerprint, now + properties.getTtl().toMillis());
+            stripe.add(key, entry);
+            stripe.evict(stripeMaxBytes);
+        } finally {
+            stripe.lock.unlock();
+        }
+        Claim claim = new Claim(key, entry, true);
+        if (properties.isDatabase()) {
+            IdempotentRequest first;
+            StoredResponse stored;
+            try {
+                first = claimInDatabase(key, entry);
+                stored = first == null || first.getResponseStatus() == null ? null : fromEntity(first);
+            } catch (RuntimeException e) {
+                drop(claim, e);
+                throw e;
+            }
+            if (first != null) {
+                Claim replay = new Claim(key, entry, false);
+                if (stored != null) {
+                    store(replay, stored);
+                } else {
+                    schedulePoll(replay, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getWaitTimeoutMs()));
+                }
+                return replay;
+            }
+        }
+        return claim;
+    }
+
+    /**
+     * Keep the response of a claimed request, and hand it to the retries waiting for it.
+     *
+     * @param claim the owned claim.
+     * @param response the response.
+     */
+    void complete(Claim claim, StoredResponse response) {
+        if (properties.isDatabase()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    idempotentRequestRepository
+                        .findById(claim.key)
+                        // Unless the lease ran out and another instance completed the request meanwhile
+                        .filter(request -> request.getResponseStatus() == null)
+                        .ifPresent(request ->
+                            request
+                                .responseStatus(response.getStatus())
+                                .responseHeaders(toJson(response.getHeaders()))
+                                .responseBody(response.getBody() == null ? null : new String(response.getBody(), StandardCharsets.UTF_8))
+                                .expiresAt(Instant.ofEpochMilli(claim.entry.expiresAt))
+                        )
+                );
+            } catch (RuntimeException e) {
+                log.warn("Could not write the response to idempotent request {}: {}", claim.key, e.getMessage());
+            }
+        }
+        store(claim, response);
+    }
+
+    /**
+     * Forget a claimed request which failed, so it can be retried, and fail the retries waiting for it.
+     *
+     * @param claim the owned claim.
+     * @param error the failure.
+     */
+    void fail(Claim claim, Throwable error) {
+        if (properties.isDatabase()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> idempotentRequestRepository.deleteById(claim.key));
+            } catch (RuntimeException e) {
+                log.warn("Could not release idempotent request {}: {}", claim.key, e.getMessage());
+            }
+        }
+        drop(claim, error);
+    }
+
+    /**
+     * Drop the expired responses.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void purge() {
+        long now = clock.millis();
+        int purged = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Iterator<Entry> entries = stripe.entries.values().iterator();
+                while (entries.hasNext()) {
+                    Entry entry = entries.next();
+                    if (entry.expiresAt > now) {
+                        break;
+                    }
+                    if (entry.response.isDone()) {
+                        entries.remove();
+                        stripe.bytes -= entry.size;
+                        purged++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (properties.isDatabase()) {
+            Integer deleted = transactionTemplate.execute(status -> idempotentRequestRepository.deleteExpired(Instant.ofEpochMilli(now)));
+            log.debug("Purged {} idempotent responses from memory and {} from the database", purged, deleted);
+        } else {
+            log.debug("Purged {} idempotent responses", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * @return the number of requests kept in memory, completed or not.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the approximate memory held by the requests kept in memory.
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                bytes += stripe.bytes;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return bytes;
+    }
+
+    private Stripe stripe(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private void store(Claim claim, StoredResponse response) {
+        Stripe stripe = stripe(claim.key);
+        stripe.lock.lock();
+        try {
+            if (stripe.entries.get(claim.key) == claim.entry) {
+                long size = response.size();
+                stripe.bytes += size - claim.entry.size;
+                claim.entry.size = size;
+                stripe.evict(stripeMaxBytes);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        // Outside of the lock, as completing runs the retries waiting for the response
+        claim.entry.response.complete(response);
+    }
+
+    private void drop(Claim claim, Throwable error) {
+        Stripe stripe = stripe(claim.key);
+        stripe.lock.lock();
+        try {
+            if (stripe.entries.get(claim.key) == claim.entry) {
+                stripe.remove(claim.key);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        claim.entry.response.completeExceptionally(error);
+    }
+
+    /**
+     * Insert the claim of a request, leased for {@code lease-ms}, taking over the claims whose lease ran out.
+     *
+     * @return the first request, possibly still in progress on another instance, or {@code null} if this instance owns
+     * the request.
+     */
+    private IdempotentRequest claimInDatabase(String key, Entry entry) {
+        while (true) {
+            Instant now = clock.instant();
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    idempotentRequestRepository.saveAndFlush(
+                        new IdempotentRequest().id(key).fingerprint(entry.fingerprint).expiresAt(now.plusMillis(properties.getLeaseMs()))
+                    )
+                );
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Idempotent request {} was already claimed", key);
+            }
+            Optional<IdempotentRequest> existing = transactionTemplate.execute(status -> idempotentRequestRepository.findById(key));
+            if (existing.isEmpty()) {
+                // Released after a failure meanwhile
+                continue;
+            }
+            IdempotentRequest request = existing.get();
+            if (!request.getExpiresAt().isAfter(now)) {
+                // An expired response not purged yet, or a claim whose lease ran out: claim it again
+                log.debug("Taking over idempotent request {}", key);
+                transactionTemplate.executeWithoutResult(status -> idempotentRequestRepository.deleteExpiredById(key, now));
+                continue;
+            }
+            if (!request.getFingerprint().equals(entry.fingerprint)) {
+                throw new IdempotencyKeyReusedException();
+            }
+            return request;
+        }
+    }
+
+    private void schedulePoll(Claim claim, long deadline) {
+        try {
+            poller.schedule(() -> poll(claim, deadline), DATABASE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            drop(claim, new IdempotentRequestInProgressException());
+        }
+    }
+
+    /**
+     * Look for the response of a request in progress on another instance, until it is written or the retry gave up.
+     */
+    private void poll(Claim claim, long deadline) {
+        try {
+            Optional<IdempotentRequest> existing = transactionTemplate.execute(status -> idempotentRequestRepository.findById(claim.key));
+            if (existing.isPresent() && existing.get().getResponseStatus() != null) {
+                store(claim, fromEntity(existing.get()));
+            } else if (existing.isEmpty() || !existing.get().getExpiresAt().isAfter(clock.instant()) || System.nanoTime() > deadline) {
+                // Released after a failure, abandoned, or too slow: the next retry claims it again or waits anew
+                drop(claim, new IdempotentRequestInProgressException());
+            } else {
+                schedulePoll(claim, deadline);
+            }
+        } catch (RuntimeException e) {
+            drop(claim, e);
+        }
+    }
+
+    private StoredResponse fromEntity(IdempotentRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        try {
+            if (request.getResponseHeaders() != null) {
+                headers.putAll(objectMapper.readValue(request.getResponseHeaders(), HEADERS_TYPE));
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] body = request.getResponseBody() == null ? null : request.getResponseBody().getBytes(StandardCharsets.UTF_8);
+        return new StoredResponse(request.getResponseStatus(), headers, body);
+    }
+
+    private String toJson(HttpHeaders headers) {
+        try {
+            return objectMapper.writeValueAsString(new LinkedHashMap<>(headers));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A request seen by the store. The owner of the claim executes the request, other claims replay its response.
+     */
+    static final class Claim {
+
+        private final String key;
+
+        private final Entry entry;
+
+        private final boolean owner;
+
+        private Claim(String key, Entry entry, boolean owner) {
+            this.key = key;
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        boolean isOwner() {
+            return owner;
+        }
+
+        /**
+         * @return the response of the first request, completed once it is known.
+         */
+        CompletableFuture<StoredResponse> getResponse() {
+            return entry.response;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+
+        private final long expiresAt;
+
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        /**
+         * Memory held by the entry, only counting the overhead while the request is in progress.
+         */
+        private long size = StoredResponse.OVERHEAD_BYTES;
+
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * A part of the store, its entries in insertion order.
+     */
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+        private long bytes;
+
+        void add(String key, Entry entry) {
+            entries.put(key, entry);
+            bytes += entry.size;
+        }
+
+        void remove(String key) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                bytes -= entry.size;
+            }
+        }
+
+        void evict(long maxBytes) {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                Entry entry = iterator.next().getValue();
+                if (entry.response.isDone()) {
+                    iterator.remove();
+                    bytes -= entry.size;
+                }
+            }
+        }
+    }
+}
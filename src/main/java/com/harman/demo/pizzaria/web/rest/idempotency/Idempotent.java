@@ -0,0 +1,20 @@
+package com.harman.demo.pizzaria.web.rest.idempotency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a REST endpoint whose requests may carry an {@code Idempotency-Key} header: retries with the same key get the
+ * response of the first request, which is executed only once. See {@link IdempotencyAspect}.
+ * <p>
+ * The endpoint must return a {@link org.springframework.http.ResponseEntity}, or a
+ * {@link java.util.concurrent.CompletableFuture} of one.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Idempotent {
+}
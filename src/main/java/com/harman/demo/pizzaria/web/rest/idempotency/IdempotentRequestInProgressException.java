@@ -0,0 +1,13 @@
+package com.harman.demo.pizzaria.web.rest.idempotency;
+
+/**
+ * Thrown when a retry waited too long for the request with the same {@code Idempotency-Key} to complete.
+ */
+public class IdempotentRequestInProgressException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotentRequestInProgressException() {
+        super("A request with this Idempotency-Key is still in progress, please retry later");
+    }
+}
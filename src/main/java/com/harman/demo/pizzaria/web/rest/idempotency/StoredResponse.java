@@ -0,0 +1,57 @@
+package com.harman.demo.pizzaria.web.rest.idempotency;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A response kept to be replayed, with its body already serialized to JSON.
+ */
+final class StoredResponse {
+
+    /**
+     * Rough size of the objects holding a response, beyond its headers and body.
+     */
+    static final int OVERHEAD_BYTES = 256;
+
+    private final int status;
+
+    private final HttpHeaders headers;
+
+    private final byte[] body;
+
+    StoredResponse(int status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return the JSON body, or {@code null} if the response has none.
+     */
+    byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return the approximate number of bytes the response holds in memory.
+     */
+    long size() {
+        long size = OVERHEAD_BYTES + (body == null ? 0 : body.length);
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            size += 2L * header.getKey().length();
+            for (String value : header.getValue()) {
+                size += 2L * value.length();
+            }
+        }
+        return size;
+    }
+}
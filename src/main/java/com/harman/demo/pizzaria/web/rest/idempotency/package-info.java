@@ -0,0 +1,4 @@
+/**
+ * Replay of the responses to requests made with an {@code Idempotency-Key} header.
+ */
+package com.harman.demo.pizzaria.web.rest.idempotency;
@@ -0,0 +1,83 @@
+package com.harman.demo.pizzaria.web.rest.stream;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed-size ring of the latest events of a stream, written by a single producer and read by any number of
+ * subscribers, each at its own position.
+ * <p>
+ * Events are numbered from 0 and never removed: publishing overwrites the oldest one. Every slot holds its sequence
+ * number along with the event, so a reader which fell more than a whole ring behind sees that its event was
+ * overwritten rather than reading a newer one.
+ *
+ * @param <T> the type of the events.
+ */
+final class BroadcastRing<T> {
+
+    private final AtomicReferenceArray<Entry<T>> slots;
+
+    private final int mask;
+
+    /**
+     * Sequence number of the next event, published after its slot is written.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    BroadcastRing(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Append an event. Only one thread at a time may publish.
+     *
+     * @param event the event.
+     * @return its sequence number.
+     */
+    long publish(T event) {
+        long sequence = head.get();
+        slots.set((int) sequence & mask, new Entry<>(sequence, event));
+        head.set(sequence + 1);
+        return sequence;
+    }
+
+    /**
+     * @return the sequence number the next event will have.
+     */
+    long head() {
+        return head.get();
+    }
+
+    /**
+     * @param sequence the sequence number of a published event.
+     * @return the event, or {@code null} if it has been overwritten.
+     */
+    T get(long sequence) {
+        Entry<T> entry = slots.get((int) sequence & mask);
+        return entry != null && entry.sequence == sequence ? entry.event : null;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    private static final class Entry<T> {
+
+        private final long sequence;
+
+        private final T event;
+
+        Entry(long sequence, T event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.harman.demo.pizzaria.web.rest.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.service.catalog.CatalogChangedEvent;
+import com.harman.demo.pizzaria.service.order.OrderStatusEvent;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * The Server-Sent Events streams of the menu and of the orders.
+ * <p>
+ * Subscriptions are asynchronous requests: once subscribed, a client holds a connection but no thread. Both streams
+ * share one dispatcher thread and {@code application.stream.sender-threads} threads writing to subscribers, whatever
+ * their number. A subscription whose write blocks for longer than {@code application.stream.send-timeout} is closed.
+ * Events are numbered, so a client reconnecting with a {@code Last-Event-ID} header gets the events it
+ * missed, as long as the stream still holds them.
+ */
+@Component
+public class EventStreams {
+
+    static final String MENU_EVENT = "catalog-changed";
+
+    static final String ORDER_EVENT = "order-status";
+
+    private static final long HEARTBEAT_MILLIS = 30_000;
+
+    private static final long STALLED_SEND_CHECK_MILLIS = 1_000;
+
+    private final ApplicationProperties.Stream properties;
+
+    private final ExecutorService dispatcher;
+
+    private final ExecutorService sender;
+
+    private final SseBroadcaster<CatalogChangedEvent> menu;
+
+    private final SseBroadcaster<OrderStatusEvent> orders;
+
+    public EventStreams(ApplicationProperties applicationProperties, ObjectMapper objectMapper) {
+        this.properties = applicationProperties.getStream();
+        if (properties.getSenderThreads() < 1) {
+            throw new IllegalArgumentException("application.stream.sender-threads must be positive");
+        }
+        if (properties.getSendTimeout().isNegative() || properties.getSendTimeout().isZero()) {
+            throw new IllegalArgumentException("application.stream.send-timeout must be positive");
+        }
+        this.dispatcher = Executors.newSingleThreadExecutor(threadFactory("stream-dispatcher"));
+        this.sender = Executors.newFixedThreadPool(properties.getSenderThreads(), threadFactory("stream-sender-"));
+        this.menu =
+            new SseBroadcaster<>(MENU_EVENT, properties.getBufferSize(), objectMapper, dispatcher, sender, properties.getSendTimeout());
+        this.orders =
+            new SseBroadcaster<>(ORDER_EVENT, properties.getBufferSize(), objectMapper, dispatcher, sender, properties.getSendTimeout());
+    }
+
+    /**
+     * Subscribe to the changes of the menu.
+     *
+     * @param lastEventId the id of the last event the client got, or {@code null}.
+     * @return the emitter of the subscription.
+     */
+    public SseEmitter subscribeToMenu(String lastEventId) {
+        SseEmitter emitter = newEmitter();
+        menu.subscribe(emitter, event -> true, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Subscribe to the status of the orders.
+     *
+     * @param reference the reference of the order to follow, or {@code null} to follow every order, which callers only
+     * allow administrators.
+     * @param lastEventId the id of the last event the client got, or {@code null}.
+     * @return the emitter of the subscription.
+     */
+    public SseEmitter subscribeToOrders(UUID reference, String lastEventId) {
+        SseEmitter emitter = newEmitter();
+        orders.subscribe(emitter, event -> reference == null || reference.equals(event.getReference()), lastEventId);
+        return emitter;
+    }
+
+    /**
+     * @return the number of open subscriptions.
+     */
+    public int getSubscriberCount() {
+        return menu.getSubscriberCount() + orders.getSubscriberCount();
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        menu.publish(event);
+    }
+
+    /**
+     * Order events are published by the order writer after its commit, outside of any transaction.
+     */
+    @EventListener
+    public void onOrderStatus(OrderStatusEvent event) {
+        orders.publish(event);
+    }
+
+    @Scheduled(fixedDelay = HEARTBEAT_MILLIS, initialDelay = HEARTBEAT_MILLIS)
+    public void heartbeat() {
+        menu.heartbeat();
+        orders.heartbeat();
+    }
+
+    @Scheduled(fixedDelay = STALLED_SEND_CHECK_MILLIS, initialDelay = STALLED_SEND_CHECK_MILLIS)
+    public void abortStalledSends() {
+        menu.abortStalledSends();
+        orders.abortStalledSends();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    private SseEmitter newEmitter() {
+        return new SseEmitter(properties.getTimeout().toMillis());
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix.endsWith("-") ? prefix + count.incrementAndGet() : prefix);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,327 @@
+package com.harman.demo.pizzaria.web.rest.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fan-out of a stream of events to Server-Sent Events subscribers.
+ * <p>
+ * Events are serialized once, then appended to a {@link BroadcastRing} by the dispatcher thread, its only producer,
+ * which then hands the subscribers with unread events to the sender threads. Each subscriber reads the ring from its
+ * own position, one sender at a time, so idle subscribers hold no thread and a slow one only delays itself. A
+ * subscriber falling more than a ring behind skips the events it missed: it gets a single {@value #RESYNC} event, after
+ * which the client should reload the state rather than replay the changes.
+ * <p>
+ * Writes block until the client reads them, so a client no longer reading would hold a sender thread, and with all of
+ * them stalled every subscriber would wait. {@link #abortStalledSends()} closes the subscriptions whose write has been
+ * blocked for longer than the send timeout, interrupting the write to release its thread.
+ *
+ * @param <T> the type of the events.
+ */
+final class SseBroadcaster<T> {
+
+    /**
+     * Name of the event replacing the events a slow subscriber missed.
+     */
+    static final String RESYNC = "resync";
+
+    private final Logger log = LoggerFactory.getLogger(SseBroadcaster.class);
+
+    private final String eventName;
+
+    private final BroadcastRing<Message<T>> ring;
+
+    private final ObjectMapper objectMapper;
+
+    private final Executor dispatcher;
+
+    private final Executor sender;
+
+    private final long sendTimeoutNanos;
+
+    private final Queue<Message<T>> inbox = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong resyncs = new AtomicLong();
+
+    /**
+     * @param eventName the name of the events sent to subscribers.
+     * @param bufferSize the number of events kept for subscribers catching up.
+     * @param dispatcher a single thread, appending the events to the ring.
+     * @param sender the threads writing to subscribers.
+     * @param sendTimeout how long a write may block before the subscription is closed.
+     */
+    SseBroadcaster(
+        String eventName,
+        int bufferSize,
+        ObjectMapper objectMapper,
+        Executor dispatcher,
+        Executor sender,
+        Duration sendTimeout
+    ) {
+        this.eventName = eventName;
+        this.ring = new BroadcastRing<>(bufferSize);
+        this.objectMapper = objectMapper;
+        this.dispatcher = dispatcher;
+        this.sender = sender;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+    }
+
+    /**
+     * Send the events published from now on to an emitter.
+     *
+     * @param emitter the emitter of the subscriber.
+     * @param filter the events to send.
+     * @param lastEventId the {@code Last-Event-ID} of a reconnecting client, to resume after, or {@code null}.
+     */
+    void subscribe(SseEmitter emitter, Predicate<? super T> filter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, filter, start(lastEventId));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        // An event published since the subscriber was created may have been dispatched before it was added
+        if (subscriber.cursor < ring.head()) {
+            subscriber.schedule();
+        }
+    }
+
+    /**
+     * Send an event to the subscribers. Does not wait for it to be sent.
+     *
+     * @param event the event.
+     */
+    void publish(T event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {}: {}", event, e.getMessage());
+            return;
+        }
+        inbox.offer(new Message<>(event, data));
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    /**
+     * Write a comment to the subscribers without pending events, so idle connections are not closed by proxies and
+     * those of departed clients are noticed.
+     */
+    void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.schedule();
+        }
+    }
+
+    /**
+     * Close the subscriptions whose write has been blocked for longer than the send timeout, interrupting the sender
+     * thread writing to it.
+     */
+    void abortStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.abortIfStalled(now);
+        }
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * @return the number of times a subscriber fell too far behind and skipped events.
+     */
+    long getResyncCount() {
+        return resyncs.get();
+    }
+
+    private long start(String lastEventId) {
+        long head = ring.head();
+        if (lastEventId == null) {
+            return head;
+        }
+        try {
+            // Ids from before a restart may be ahead of the ring: these clients only get new events
+            return Math.min(Math.max(Long.parseLong(lastEventId.trim()) + 1, 0), head);
+        } catch (NumberFormatException e) {
+            return head;
+        }
+    }
+
+    private void dispatch() {
+        // Cleared first, so an event offered while the inbox is drained schedules another dispatch
+        dispatchScheduled.set(false);
+        Message<T> message;
+        while ((message = inbox.poll()) != null) {
+            ring.publish(message);
+        }
+        long head = ring.head();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.cursor < head) {
+                subscriber.schedule();
+            }
+        }
+    }
+
+    private static final class Message<T> {
+
+        private final T event;
+
+        private final String data;
+
+        Message(T event, String data) {
+            this.event = event;
+            this.data = data;
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+
+        private final Predicate<? super T> filter;
+
+        /**
+         * Sequence number of the next event to send, only written by the sender holding {@link #scheduled}.
+         */
+        private volatile long cursor;
+
+        private volatile boolean heartbeatDue;
+
+        private volatile boolean closed;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * The sender thread blocked in a write, and since when, guarded by {@code this}.
+         */
+        private Thread writer;
+
+        private long writingSince;
+
+        private boolean aborted;
+
+        Subscriber(SseEmitter emitter, Predicate<? super T> filter, long cursor) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.cursor = cursor;
+        }
+
+        void schedule() {
+            if (closed || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                scheduled.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                send();
+            } catch (IOException | RuntimeException e) {
+                log.debug("Closing an event stream subscription: {}", e.getMessage());
+                close();
+                if (isAborted()) {
+                    emitter.completeWithError(e);
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // Events published while sending were not handed to this subscriber, since it was already scheduled
+            if (cursor < ring.head() || heartbeatDue) {
+                schedule();
+            }
+        }
+
+        private void send() throws IOException {
+            long head = ring.head();
+            boolean sent = false;
+            while (cursor < head) {
+                Message<T> message = ring.get(cursor);
+                if (message == null) {
+                    write(SseEmitter.event().id(Long.toString(head - 1)).name(RESYNC).data("{}", MediaType.APPLICATION_JSON));
+                    resyncs.incrementAndGet();
+                    cursor = head;
+                    sent = true;
+                    break;
+                }
+                if (filter.test(message.event)) {
+                    write(SseEmitter.event().id(Long.toString(cursor)).name(eventName).data(message.data, MediaType.APPLICATION_JSON));
+                    sent = true;
+                }
+                cursor++;
+            }
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                if (!sent) {
+                    write(SseEmitter.event().comment(""));
+                }
+            }
+        }
+
+        private void write(SseEmitter.SseEventBuilder event) throws IOException {
+            synchronized (this) {
+                if (aborted) {
+                    throw new IOException("Send timed out");
+                }
+                writer = Thread.currentThread();
+                writingSince = System.nanoTime();
+            }
+            try {
+                emitter.send(event);
+            } finally {
+                synchronized (this) {
+                    writer = null;
+                    // Clear an interrupt aimed at this write, so it does not hit the next task of the sender thread
+                    if (aborted) {
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        synchronized void abortIfStalled(long now) {
+            if (writer != null && !aborted && now - writingSince > sendTimeoutNanos) {
+                log.debug("Closing an event stream subscription blocked for {} ms", (now - writingSince) / 1_000_000);
+                aborted = true;
+                close();
+                writer.interrupt();
+            }
+        }
+
+        private synchronized boolean isAborted() {
+            return aborted;
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
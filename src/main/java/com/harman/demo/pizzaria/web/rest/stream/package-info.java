@@ -0,0 +1,4 @@
+/**
+ * Server-Sent Events streams of the menu and order changes.
+ */
+package com.harman.demo.pizzaria.web.rest.stream;
@@ -0,0 +1,83 @@
+package com.harman.demo.pizzaria.web.rest.vm;
+
+/**
+ * View Model object for the result of one item of a bulk write.
+ *
+ * @param <T> the type of the item.
+ */
+public class BulkItemResultVM<T> {
+
+    private int index;
+
+    private int status;
+
+    private T entity;
+
+    private String error;
+
+    public BulkItemResultVM() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BulkItemResultVM(int index, int status, T entity, String error) {
+        this.index = index;
+        this.status = status;
+        this.entity = entity;
+        this.error = error;
+    }
+
+    /**
+     * @return the position of the item in the request.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * @return the HTTP status the item would have got from the single-item endpoint.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the persisted entity, or {@code null} if the item was rejected.
+     */
+    public T getEntity() {
+        return entity;
+    }
+
+    public void setEntity(T entity) {
+        this.entity = entity;
+    }
+
+    /**
+     * @return why the item was rejected, or {@code null}.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkItemResultVM{" +
+            "index=" + index +
+            ", status=" + status +
+            ", entity=" + entity +
+            ", error='" + error + "'" +
+            "}";
+    }
+}
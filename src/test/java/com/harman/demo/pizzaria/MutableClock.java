@@ -0,0 +1,60 @@
+package com.harman.demo.pizzaria;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A clock which only moves when told to, for tests of time-dependent code. It is safe to share between threads, and
+ * the clocks of other zones it gives move with it.
+ */
+public final class MutableClock extends Clock {
+
+    private final AtomicLong millis;
+
+    private final ZoneId zone;
+
+    /**
+     * @param instant the initial instant, in UTC.
+     */
+    public MutableClock(Instant instant) {
+        this(new AtomicLong(instant.toEpochMilli()), ZoneOffset.UTC);
+    }
+
+    private MutableClock(AtomicLong millis, ZoneId zone) {
+        this.millis = millis;
+        this.zone = zone;
+    }
+
+    /**
+     * Move the clock forward.
+     *
+     * @param duration how far.
+     */
+    public void advance(Duration duration) {
+        millis.addAndGet(duration.toMillis());
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public MutableClock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new MutableClock(millis, zone);
+    }
+}
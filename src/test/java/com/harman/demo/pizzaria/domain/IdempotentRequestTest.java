@@ -0,0 +1,23 @@
+package com.harman.demo.pizzaria.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class IdempotentRequestTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(IdempotentRequest.class);
+        IdempotentRequest idempotentRequest1 = new IdempotentRequest();
+        idempotentRequest1.setId("id1");
+        IdempotentRequest idempotentRequest2 = new IdempotentRequest();
+        idempotentRequest2.setId(idempotentRequest1.getId());
+        assertThat(idempotentRequest1).isEqualTo(idempotentRequest2);
+        idempotentRequest2.setId("id2");
+        assertThat(idempotentRequest1).isNotEqualTo(idempotentRequest2);
+        idempotentRequest1.setId(null);
+        assertThat(idempotentRequest1).isNotEqualTo(idempotentRequest2);
+    }
+}
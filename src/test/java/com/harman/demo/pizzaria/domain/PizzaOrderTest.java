@@ -0,0 +1,23 @@
+package com.harman.demo.pizzaria.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class PizzaOrderTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(PizzaOrder.class);
+        PizzaOrder pizzaOrder1 = new PizzaOrder();
+        pizzaOrder1.setId(1L);
+        PizzaOrder pizzaOrder2 = new PizzaOrder();
+        pizzaOrder2.setId(pizzaOrder1.getId());
+        assertThat(pizzaOrder1).isEqualTo(pizzaOrder2);
+        pizzaOrder2.setId(2L);
+        assertThat(pizzaOrder1).isNotEqualTo(pizzaOrder2);
+        pizzaOrder1.setId(null);
+        assertThat(pizzaOrder1).isNotEqualTo(pizzaOrder2);
+    }
+}
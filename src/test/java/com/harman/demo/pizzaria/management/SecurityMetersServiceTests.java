@@ -6,6 +6,7 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -13,6 +14,16 @@ class SecurityMetersServiceTests {
 
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
 
+    private static final String TOKEN_CACHE_METER_EXPECTED_NAME = "security.authentication.token-cache";
+
+    private static final String USER_DETAILS_CACHE_METER_EXPECTED_NAME = "security.authentication.user-details-cache";
+
+    private static final String LOGINS_METER_EXPECTED_NAME = "security.authentication.logins";
+
+    private static final String REJECTED_LOGINS_METER_EXPECTED_NAME = "security.authentication.logins.rejected";
+
+    private static final String THROTTLED_LOGINS_METER_EXPECTED_NAME = "security.authentication.logins.throttled";
+
     private MeterRegistry meterRegistry;
 
     private SecurityMetersService securityMetersService;
@@ -36,9 +47,11 @@ class SecurityMetersServiceTests {
 
         meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter();
 
+        meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "revoked").counter();
+
         Collection<Counter> counters = meterRegistry.find(INVALID_TOKENS_METER_EXPECTED_NAME).counters();
 
-        assertThat(counters).hasSize(4);
+        assertThat(counters).hasSize(5);
     }
 
     @Test
@@ -67,4 +80,60 @@ class SecurityMetersServiceTests {
 
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
+
+    @Test
+    void testTokenCacheCountersAreBoundToCorrectResults() {
+        assertThat(meterRegistry.find(TOKEN_CACHE_METER_EXPECTED_NAME).counters()).hasSize(2);
+
+        securityMetersService.trackTokenCacheHit();
+        securityMetersService.trackTokenCacheHit();
+        securityMetersService.trackTokenCacheMiss();
+
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(TOKEN_CACHE_METER_EXPECTED_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testUserDetailsCacheCountersAreBoundToCorrectResults() {
+        assertThat(meterRegistry.find(USER_DETAILS_CACHE_METER_EXPECTED_NAME).counters()).hasSize(3);
+
+        securityMetersService.trackUserDetailsCacheHit();
+        securityMetersService.trackUserDetailsCacheHit();
+        securityMetersService.trackUserDetailsCacheUnknown();
+        securityMetersService.trackUserDetailsCacheMiss();
+        securityMetersService.trackUserDetailsCacheMiss();
+        securityMetersService.trackUserDetailsCacheMiss();
+
+        assertThat(meterRegistry.get(USER_DETAILS_CACHE_METER_EXPECTED_NAME).tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(USER_DETAILS_CACHE_METER_EXPECTED_NAME).tag("result", "unknown").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(USER_DETAILS_CACHE_METER_EXPECTED_NAME).tag("result", "miss").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testLoginMetersAreBoundToCorrectOutcomes() {
+        assertThat(meterRegistry.find(LOGINS_METER_EXPECTED_NAME).timers()).hasSize(2);
+
+        securityMetersService.trackLogin(TimeUnit.MILLISECONDS.toNanos(80), true);
+        securityMetersService.trackLogin(TimeUnit.MILLISECONDS.toNanos(90), false);
+        securityMetersService.trackLogin(TimeUnit.MILLISECONDS.toNanos(70), false);
+        securityMetersService.trackLoginRejected();
+
+        assertThat(meterRegistry.get(LOGINS_METER_EXPECTED_NAME).tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(LOGINS_METER_EXPECTED_NAME).tag("outcome", "failure").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(LOGINS_METER_EXPECTED_NAME).tag("outcome", "failure").timer().max(TimeUnit.MILLISECONDS))
+            .isEqualTo(90);
+        assertThat(meterRegistry.get(REJECTED_LOGINS_METER_EXPECTED_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testThrottledLoginsCountersAreBoundToCorrectKeys() {
+        assertThat(meterRegistry.find(THROTTLED_LOGINS_METER_EXPECTED_NAME).counters()).hasSize(2);
+
+        securityMetersService.trackLoginThrottledByLogin();
+        securityMetersService.trackLoginThrottledByClientIp();
+        securityMetersService.trackLoginThrottledByClientIp();
+
+        assertThat(meterRegistry.get(THROTTLED_LOGINS_METER_EXPECTED_NAME).tag("key", "login").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(THROTTLED_LOGINS_METER_EXPECTED_NAME).tag("key", "client-ip").counter().count()).isEqualTo(2);
+    }
 }
@@ -0,0 +1,93 @@
+package com.harman.demo.pizzaria.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+/**
+ * Benchmark of {@link DomainUserDetailsService#loadUserByUsername(String)}, in lookups per second, for users and
+ * unknown logins in the {@link UserDetailsCache} and not.
+ * <p>
+ * Users missing from the cache are still found in the {@code usersByLogin} cache of the repository, while unknown logins
+ * missing from it are looked up in the database every time.
+ * <p>
+ * Only run on demand: {@code ./mvnw verify -Dit.test=DomainUserDetailsServiceBenchmarkIT -Dbenchmark=true}.
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DomainUserDetailsServiceBenchmarkIT {
+
+    private static final int LOOKUPS = 20_000;
+
+    private static final int WARM_UP_LOOKUPS = 2_000;
+
+    private static final int UNKNOWN_LOGINS = 100;
+
+    private final Logger log = LoggerFactory.getLogger(DomainUserDetailsServiceBenchmarkIT.class);
+
+    @Autowired
+    private DomainUserDetailsService domainUserDetailsService;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void cachedLookupsAreFaster() {
+        IntConsumer hit = i -> domainUserDetailsService.loadUserByUsername("admin");
+        IntConsumer miss = i -> {
+            userDetailsCache.evict("admin", null);
+            domainUserDetailsService.loadUserByUsername("admin");
+        };
+        IntConsumer unknown = i -> loadUnknown("benchmark-unknown-" + i % UNKNOWN_LOGINS);
+        IntConsumer unknownMiss = i -> loadUnknown("benchmark-unknown-miss-" + i);
+
+        double hitRate = lookupsPerSecond(hit);
+        double missRate = lookupsPerSecond(miss);
+        double unknownRate = lookupsPerSecond(unknown);
+        double unknownMissRate = lookupsPerSecond(unknownMiss);
+
+        log.info(
+            "Looked users up {} times: {} lookups/s cached, {} lookups/s not cached ({}x), " +
+            "{} lookups/s for unknown logins cached, {} lookups/s not cached ({}x)",
+            LOOKUPS,
+            Math.round(hitRate),
+            Math.round(missRate),
+            Math.round(hitRate / missRate * 10) / 10.0,
+            Math.round(unknownRate),
+            Math.round(unknownMissRate),
+            Math.round(unknownRate / unknownMissRate * 10) / 10.0
+        );
+        assertThat(hitRate).isGreaterThan(missRate);
+        assertThat(unknownRate).isGreaterThan(unknownMissRate);
+    }
+
+    private void loadUnknown(String login) {
+        try {
+            domainUserDetailsService.loadUserByUsername(login);
+            throw new IllegalStateException("User " + login + " should not exist");
+        } catch (UsernameNotFoundException e) {
+            // Expected
+        }
+    }
+
+    private static double lookupsPerSecond(IntConsumer lookup) {
+        for (int i = 0; i < WARM_UP_LOOKUPS; i++) {
+            lookup.accept(LOOKUPS + i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookup.accept(i);
+        }
+        return LOOKUPS * 1e9 / (System.nanoTime() - start);
+    }
+}
@@ -6,6 +6,8 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import com.harman.demo.pizzaria.IntegrationTest;
 import com.harman.demo.pizzaria.domain.User;
 import com.harman.demo.pizzaria.repository.UserRepository;
+import com.harman.demo.pizzaria.service.UserService;
+import com.harman.demo.pizzaria.service.dto.AdminUserDTO;
 import java.util.Locale;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +15,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -28,6 +32,10 @@ class DomainUserDetailsServiceIT {
     private static final String USER_TWO_EMAIL = "test-user-two@localhost";
     private static final String USER_THREE_LOGIN = "test-user-three";
     private static final String USER_THREE_EMAIL = "test-user-three@localhost";
+    private static final String USER_FOUR_LOGIN = "test-user-four";
+    private static final String USER_FOUR_EMAIL = "test-user-four@localhost";
+    private static final String USER_FIVE_LOGIN = "test-user-five";
+    private static final String USER_FIVE_EMAIL = "test-user-five@localhost";
 
     @Autowired
     private UserRepository userRepository;
@@ -35,6 +43,9 @@ class DomainUserDetailsServiceIT {
     @Autowired
     private UserDetailsService domainUserDetailsService;
 
+    @Autowired
+    private UserService userService;
+
     @BeforeEach
     public void init() {
         User userOne = new User();
@@ -108,4 +119,59 @@ class DomainUserDetailsServiceIT {
         assertThatExceptionOfType(UserNotActivatedException.class)
             .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_THREE_LOGIN));
     }
+
+    @Test
+    void assertThatUnknownUsersAreFoundOnceCreated() {
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+            .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_FOUR_LOGIN));
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+            .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_FOUR_EMAIL));
+
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(USER_FOUR_LOGIN);
+        userDTO.setEmail(USER_FOUR_EMAIL);
+        userDTO.setLangKey("en");
+        userService.createUser(userDTO);
+
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_FOUR_LOGIN).getUsername()).isEqualTo(USER_FOUR_LOGIN);
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_FOUR_EMAIL).getUsername()).isEqualTo(USER_FOUR_LOGIN);
+    }
+
+    @Test
+    void assertThatUpdatedUsersAreNotServedFromTheCache() {
+        User userFive = new User();
+        userFive.setLogin(USER_FIVE_LOGIN);
+        userFive.setPassword(RandomStringUtils.random(60));
+        userFive.setActivated(true);
+        userFive.setEmail(USER_FIVE_EMAIL);
+        userFive.setLangKey("en");
+        userRepository.save(userFive);
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_FIVE_LOGIN).getUsername()).isEqualTo(USER_FIVE_LOGIN);
+
+        AdminUserDTO userDTO = new AdminUserDTO(userFive);
+        userDTO.setActivated(false);
+        userService.updateUser(userDTO);
+
+        assertThatExceptionOfType(UserNotActivatedException.class)
+            .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_FIVE_LOGIN));
+    }
+
+    @Test
+    @WithMockUser(USER_FIVE_LOGIN)
+    void assertThatPreviousEmailsAreNotServedFromTheCache() {
+        User userFive = new User();
+        userFive.setLogin(USER_FIVE_LOGIN);
+        userFive.setPassword(RandomStringUtils.random(60));
+        userFive.setActivated(true);
+        userFive.setEmail(USER_FIVE_EMAIL);
+        userFive.setLangKey("en");
+        userRepository.save(userFive);
+        assertThat(domainUserDetailsService.loadUserByUsername(USER_FIVE_EMAIL).getUsername()).isEqualTo(USER_FIVE_LOGIN);
+
+        userService.updateUser("five", "five", "renamed-" + USER_FIVE_EMAIL, "en", null);
+
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+            .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_FIVE_EMAIL));
+        assertThat(domainUserDetailsService.loadUserByUsername("renamed-" + USER_FIVE_EMAIL).getUsername()).isEqualTo(USER_FIVE_LOGIN);
+    }
 }
@@ -0,0 +1,134 @@
+package com.harman.demo.pizzaria.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.ObjectPostProcessor;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class LoginExecutorTest {
+
+    private final CountDownLatch verifying = new CountDownLatch(1);
+
+    private final CountDownLatch verified = new CountDownLatch(1);
+
+    private MeterRegistry meterRegistry;
+
+    private LoginExecutor loginExecutor;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getLogin().setThreads(1);
+        applicationProperties.getSecurity().getLogin().setQueueCapacity(1);
+        applicationProperties.getSecurity().getLogin().setMaxWaitMs(1_000);
+        AuthenticationManager authenticationManager = authentication -> {
+            verifying.countDown();
+            try {
+                verified.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!"password".equals(authentication.getCredentials())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            return new UsernamePasswordAuthenticationToken(
+                authentication.getName(),
+                null,
+                List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+            );
+        };
+        AuthenticationManagerBuilder authenticationManagerBuilder = new AuthenticationManagerBuilder(
+            new ObjectPostProcessor<>() {
+                @Override
+                public <O> O postProcess(O object) {
+                    return object;
+                }
+            }
+        );
+        authenticationManagerBuilder.parentAuthenticationManager(authenticationManager).build();
+        meterRegistry = new SimpleMeterRegistry();
+        loginExecutor = new LoginExecutor(applicationProperties, authenticationManagerBuilder, new SecurityMetersService(meterRegistry));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verified.countDown();
+        loginExecutor.shutdown();
+    }
+
+    @Test
+    void loginsAreVerifiedOffTheCallingThread() throws Exception {
+        CompletableFuture<Authentication> authentication = loginExecutor.authenticate(credentials("password"));
+        // The caller does not wait for the verification
+        assertThat(verifying.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(authentication).isNotDone();
+
+        verified.countDown();
+        assertThat(authentication.get(10, TimeUnit.SECONDS).getName()).isEqualTo("user");
+        assertThat(meterRegistry.get(SecurityMetersService.LOGINS_METER_NAME).tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void wrongCredentialsFailTheLogin() {
+        verified.countDown();
+
+        CompletableFuture<Authentication> authentication = loginExecutor.authenticate(credentials("wrong"));
+
+        assertThatThrownBy(() -> authentication.get(10, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(BadCredentialsException.class);
+        assertThat(meterRegistry.get(SecurityMetersService.LOGINS_METER_NAME).tag("outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void loginsBeyondTheQueueAreRejected() throws Exception {
+        CompletableFuture<Authentication> running = loginExecutor.authenticate(credentials("password"));
+        assertThat(verifying.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Authentication> queued = loginExecutor.authenticate(credentials("password"));
+
+        assertThatThrownBy(() -> loginExecutor.authenticate(credentials("password"))).isInstanceOf(LoginCapacityExceededException.class);
+        assertThat(meterRegistry.get(SecurityMetersService.REJECTED_LOGINS_METER_NAME).counter().count()).isEqualTo(1);
+
+        verified.countDown();
+        assertThat(running.get(10, TimeUnit.SECONDS)).isNotNull();
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void loginsWaitingTooLongAreRejected() throws Exception {
+        CompletableFuture<Authentication> running = loginExecutor.authenticate(credentials("password"));
+        assertThat(verifying.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Authentication> queued = loginExecutor.authenticate(credentials("password"));
+
+        Thread.sleep(1_500);
+        verified.countDown();
+
+        assertThat(running.get(10, TimeUnit.SECONDS)).isNotNull();
+        assertThatThrownBy(() -> queued.get(10, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(LoginCapacityExceededException.class);
+        assertThat(meterRegistry.get(SecurityMetersService.REJECTED_LOGINS_METER_NAME).counter().count()).isEqualTo(1);
+    }
+
+    private static Authentication credentials(String password) {
+        return new UsernamePasswordAuthenticationToken("user", password);
+    }
+}
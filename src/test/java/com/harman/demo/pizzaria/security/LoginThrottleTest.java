@@ -0,0 +1,90 @@
+package com.harman.demo.pizzaria.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.harman.demo.pizzaria.MutableClock;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoginThrottleTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private MutableClock clock;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Security.LoginThrottle properties = applicationProperties.getSecurity().getLoginThrottle();
+        properties.getLogin().setCapacity(2);
+        properties.getLogin().setRefillPerMinute(2);
+        properties.getClientIp().setCapacity(3);
+        properties.getClientIp().setRefillPerMinute(3);
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2022-01-01T12:00:00Z"));
+    }
+
+    @Test
+    void attemptsAreThrottledPerLoginWhateverTheCase() {
+        LoginThrottle loginThrottle = loginThrottle();
+        loginThrottle.acquire("admin", "10.0.0.1");
+        loginThrottle.acquire("Admin", "10.0.0.2");
+
+        assertThatThrownBy(() -> loginThrottle.acquire("ADMIN", "10.0.0.3"))
+            .isInstanceOf(LoginThrottledException.class)
+            .extracting(e -> ((LoginThrottledException) e).getRetryAfterSeconds())
+            .isEqualTo(30L);
+        assertThat(meterRegistry.get(SecurityMetersService.THROTTLED_LOGINS_METER_NAME).tag("key", "login").counter().count())
+            .isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(30));
+        assertThatCode(() -> loginThrottle.acquire("admin", "10.0.0.3")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void attemptsAreThrottledPerClientIp() {
+        LoginThrottle loginThrottle = loginThrottle();
+        loginThrottle.acquire("first", "10.0.0.1");
+        loginThrottle.acquire("second", "10.0.0.1");
+        loginThrottle.acquire("third", "10.0.0.1");
+
+        assertThatThrownBy(() -> loginThrottle.acquire("fourth", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+        assertThat(meterRegistry.get(SecurityMetersService.THROTTLED_LOGINS_METER_NAME).tag("key", "client-ip").counter().count())
+            .isEqualTo(1);
+        assertThatCode(() -> loginThrottle.acquire("fourth", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void attemptsOfUnknownClientsOnlyCountAgainstTheirLogin() {
+        LoginThrottle loginThrottle = loginThrottle();
+        loginThrottle.acquire("first", null);
+        loginThrottle.acquire("second", null);
+        loginThrottle.acquire("third", null);
+
+        assertThatCode(() -> loginThrottle.acquire("fourth", null)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void nothingIsThrottledWhenDisabled() {
+        applicationProperties.getSecurity().getLoginThrottle().setEnabled(false);
+        LoginThrottle loginThrottle = loginThrottle();
+
+        for (int i = 0; i < 10; i++) {
+            loginThrottle.acquire("admin", "10.0.0.1");
+        }
+    }
+
+    private LoginThrottle loginThrottle() {
+        return new LoginThrottle(applicationProperties, new SecurityMetersService(meterRegistry), clock);
+    }
+}
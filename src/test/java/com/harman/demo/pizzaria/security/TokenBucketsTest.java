@@ -0,0 +1,106 @@
+package com.harman.demo.pizzaria.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketsTest {
+
+    @Test
+    void burstIsAllowedThenRefilledOverTime() {
+        TokenBuckets buckets = new TokenBuckets(64, 3, 6);
+
+        assertThat(buckets.tryAcquire("key", 0)).isZero();
+        assertThat(buckets.tryAcquire("key", 0)).isZero();
+        assertThat(buckets.tryAcquire("key", 0)).isZero();
+        // 6 tokens per minute is one every 10 seconds
+        assertThat(buckets.tryAcquire("key", 0)).isEqualTo(10_000);
+        assertThat(buckets.tryAcquire("key", 4_000)).isEqualTo(6_000);
+
+        assertThat(buckets.tryAcquire("key", 10_000)).isZero();
+        assertThat(buckets.tryAcquire("key", 10_000)).isPositive();
+    }
+
+    @Test
+    void bucketsNeverHoldMoreThanTheirCapacity() {
+        TokenBuckets buckets = new TokenBuckets(64, 2, 60);
+        buckets.tryAcquire("key", 0);
+
+        long hourLater = TimeUnit.HOURS.toMillis(1);
+        assertThat(buckets.tryAcquire("key", hourLater)).isZero();
+        assertThat(buckets.tryAcquire("key", hourLater)).isZero();
+        assertThat(buckets.tryAcquire("key", hourLater)).isPositive();
+    }
+
+    @Test
+    void keysHaveBucketsOfTheirOwn() {
+        TokenBuckets buckets = new TokenBuckets(64, 1, 1);
+
+        assertThat(buckets.tryAcquire("first", 0)).isZero();
+        assertThat(buckets.tryAcquire("first", 0)).isPositive();
+        assertThat(buckets.tryAcquire("second", 0)).isZero();
+    }
+
+    @Test
+    void sizeIsBoundedWhateverTheNumberOfKeys() {
+        TokenBuckets buckets = new TokenBuckets(64, 1, 1);
+
+        for (int i = 0; i < 10_000; i++) {
+            buckets.tryAcquire("key-" + i, 0);
+        }
+
+        assertThat(buckets.size()).isEqualTo(64);
+    }
+
+    @Test
+    void fullBucketsAreEvictedBeforeExhaustedOnes() {
+        // A single set, so every key competes for the same slots
+        TokenBuckets buckets = new TokenBuckets(TokenBuckets.WAYS, 2, 1);
+        buckets.tryAcquire("exhausted", 0);
+        buckets.tryAcquire("exhausted", 0);
+        for (int i = 0; i < 100; i++) {
+            // Each of them has a token left, more than the exhausted bucket
+            buckets.tryAcquire("key-" + i, 0);
+        }
+
+        assertThat(buckets.tryAcquire("exhausted", 0)).isPositive();
+    }
+
+    @Test
+    void concurrentAttemptsNeverTakeMoreTokensThanTheBucketHolds() throws Exception {
+        TokenBuckets buckets = new TokenBuckets(64, 1_000, 1);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> acquired = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            acquired.add(
+                executor.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (buckets.tryAcquire("key", 0) == 0) {
+                            count++;
+                        }
+                    }
+                    return count;
+                })
+            );
+        }
+        start.countDown();
+
+        int total = 0;
+        for (Future<Integer> future : acquired) {
+            total += future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertThat(total).isEqualTo(1_000);
+    }
+}
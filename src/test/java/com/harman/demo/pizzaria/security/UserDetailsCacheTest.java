@@ -0,0 +1,127 @@
+package com.harman.demo.pizzaria.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.MutableClock;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+class UserDetailsCacheTest {
+
+    private ApplicationProperties.Security.UserDetailsCache properties;
+
+    private MeterRegistry meterRegistry;
+
+    private MutableClock clock;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties.Security.UserDetailsCache();
+        properties.setTimeToLiveMs(60_000);
+        properties.setUnknownTimeToLiveMs(5_000);
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2022-01-01T12:00:00Z"));
+    }
+
+    @Test
+    void usersAreKeptUntilTheyExpire() {
+        UserDetailsCache cache = userDetailsCache();
+        cache.put("admin", user("admin"), cache.generation("admin"));
+
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(cache.get("admin")).isNotNull();
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.get("admin")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(lookups("hit")).isEqualTo(1);
+        assertThat(lookups("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void unknownLoginsExpireSooner() {
+        UserDetailsCache cache = userDetailsCache();
+        cache.put("nobody", UserDetailsCache.UNKNOWN, cache.generation("nobody"));
+
+        clock.advance(Duration.ofSeconds(4));
+        assertThat(cache.get("nobody")).isSameAs(UserDetailsCache.UNKNOWN);
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.get("nobody")).isNull();
+        assertThat(lookups("unknown")).isEqualTo(1);
+        assertThat(lookups("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void evictionDropsTheLoginAndEmailOfAUser() {
+        UserDetailsCache cache = userDetailsCache();
+        cache.put("admin", user("admin"), cache.generation("admin"));
+        cache.put("admin@localhost", user("admin"), cache.generation("admin@localhost"));
+        cache.put("user", user("user"), cache.generation("user"));
+
+        cache.evict("admin", "Admin@Localhost");
+
+        assertThat(cache.get("admin")).isNull();
+        assertThat(cache.get("admin@localhost")).isNull();
+        assertThat(cache.get("user")).isNotNull();
+    }
+
+    @Test
+    void usersLoadedAcrossAnEvictionAreNotKept() {
+        UserDetailsCache cache = userDetailsCache();
+        long generation = cache.generation("admin");
+
+        // The user was read before the change evicting it committed
+        cache.evict("admin", "admin@localhost");
+        cache.put("admin", user("admin"), generation);
+
+        assertThat(cache.get("admin")).isNull();
+        cache.put("admin", user("admin"), cache.generation("admin"));
+        assertThat(cache.get("admin")).isNotNull();
+    }
+
+    @Test
+    void eachHitReturnsNewUserDetails() {
+        UserDetailsCache cache = userDetailsCache();
+        cache.put("admin", user("admin"), cache.generation("admin"));
+
+        UserDetails first = cache.get("admin").toUserDetails();
+        ((org.springframework.security.core.userdetails.User) first).eraseCredentials();
+        UserDetails second = cache.get("admin").toUserDetails();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPassword()).isEqualTo("hash");
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly(AuthoritiesConstants.USER);
+    }
+
+    @Test
+    void nothingIsCachedWhenDisabled() {
+        properties.setMaxEntries(0);
+        UserDetailsCache cache = userDetailsCache();
+        cache.put("admin", user("admin"), cache.generation("admin"));
+
+        assertThat(cache.get("admin")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    private UserDetailsCache userDetailsCache() {
+        return new UserDetailsCache(properties, new SecurityMetersService(meterRegistry), clock);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get(SecurityMetersService.USER_DETAILS_CACHE_METER_NAME).tag("result", result).counter().count();
+    }
+
+    private static UserDetailsCache.CachedUser user(String login) {
+        return new UserDetailsCache.CachedUser(login, "hash", List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER)), true);
+    }
+}
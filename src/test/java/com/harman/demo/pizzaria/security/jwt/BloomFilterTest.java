@@ -0,0 +1,49 @@
+package com.harman.demo.pizzaria.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void addedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        for (int i = 0; i < 2_000; i++) {
+            filter.add("token-" + i);
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            assertThat(filter.mightContain("token-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(filter.hashCount()).isEqualTo(7);
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(0, 0);
+
+        assertThat(filter.bitCount()).isPositive();
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("admin")).isFalse();
+    }
+}
@@ -0,0 +1,147 @@
+package com.harman.demo.pizzaria.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.management.SecurityMetersService;
+import com.harman.demo.pizzaria.repository.TokenRevocationRepository;
+import com.harman.demo.pizzaria.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * JMH benchmark of {@link JWTFilter#doFilter}: CPU time per authenticated request, with the tokens verified every time
+ * and with the cache of verified tokens.
+ * <p>
+ * Only run on demand: {@code ./mvnw verify -Dit.test=JWTFilterBenchmarkIT -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JWTFilterBenchmarkIT {
+
+    private static final FilterChain CHAIN = (request, response) -> {};
+
+    private JWTFilter uncachedFilter;
+
+    private JWTFilter cachedFilter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setTokenValidityInSeconds(3600);
+
+        ApplicationProperties.Security.TokenCache disabled = new ApplicationProperties.Security.TokenCache();
+        disabled.setMaxEntries(0);
+        TokenProvider uncached = tokenProvider(jHipsterProperties, disabled);
+        uncachedFilter = new JWTFilter(uncached);
+        cachedFilter = new JWTFilter(tokenProvider(jHipsterProperties, new ApplicationProperties.Security.TokenCache()));
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "user",
+            "user",
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))
+        );
+        request = new MockHttpServletRequest();
+        request.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + uncached.createToken(authentication, false));
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Authentication uncached() throws Exception {
+        uncachedFilter.doFilter(request, response, CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication cached() throws Exception {
+        cachedFilter.doFilter(request, response, CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void run() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder().include(JWTFilterBenchmarkIT.class.getName() + ".*").build()).run();
+
+        Map<String, Double> microsPerRequest = results
+            .stream()
+            .collect(Collectors.toMap(result -> result.getParams().getBenchmark(), result -> result.getPrimaryResult().getScore()));
+        double uncachedMicros = microsPerRequest.get(JWTFilterBenchmarkIT.class.getName() + ".uncached");
+        double cachedMicros = microsPerRequest.get(JWTFilterBenchmarkIT.class.getName() + ".cached");
+        assertThat(cachedMicros).isLessThan(uncachedMicros / 2);
+    }
+
+    private static TokenProvider tokenProvider(JHipsterProperties properties, ApplicationProperties.Security.TokenCache tokenCache) {
+        TokenRevocations tokenRevocations = new TokenRevocations(
+            new ApplicationProperties.Security.TokenRevocation(),
+            properties,
+            mock(TokenRevocationRepository.class),
+            mock(PlatformTransactionManager.class),
+            Clock.systemUTC()
+        );
+        // Other users are revoked, so each request looks up the filters
+        for (int i = 0; i < 1_000; i++) {
+            tokenRevocations.revokeUser("revoked-" + i);
+        }
+        return new TokenProvider(
+            properties,
+            new SecurityMetersService(new SimpleMeterRegistry()),
+            tokenCache,
+            tokenRevocations,
+            Clock.systemUTC()
+        );
+    }
+}
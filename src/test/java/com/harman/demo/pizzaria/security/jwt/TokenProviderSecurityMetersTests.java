@@ -1,7 +1,9 @@
 package com.harman.demo.pizzaria.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
+import com.harman.demo.pizzaria.config.ApplicationProperties;
 import com.harman.demo.pizzaria.management.SecurityMetersService;
 import com.harman.demo.pizzaria.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
@@ -43,7 +45,12 @@ class TokenProviderSecurityMetersTests {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(
+                jHipsterProperties,
+                securityMetersService,
+                new ApplicationProperties(),
+                mock(TokenRevocations.class)
+            );
         Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -1,16 +1,25 @@
 package com.harman.demo.pizzaria.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
+import com.harman.demo.pizzaria.MutableClock;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
 import com.harman.demo.pizzaria.management.SecurityMetersService;
+import com.harman.demo.pizzaria.repository.TokenRevocationRepository;
 import com.harman.demo.pizzaria.security.AuthoritiesConstants;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +28,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import tech.jhipster.config.JHipsterProperties;
 
 class TokenProviderTest {
@@ -27,6 +37,9 @@ class TokenProviderTest {
 
     private Key key;
     private TokenProvider tokenProvider;
+    private MeterRegistry meterRegistry;
+    private MutableClock clock;
+    private TokenRevocations tokenRevocations;
 
     @BeforeEach
     public void setup() {
@@ -34,9 +47,13 @@ class TokenProviderTest {
         String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
 
-        SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
+        meterRegistry = new SimpleMeterRegistry();
+        SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        clock = new MutableClock(Instant.now());
+        ApplicationProperties.Security.TokenCache tokenCache = new ApplicationProperties.Security.TokenCache();
+        tokenRevocations = tokenRevocations(jHipsterProperties, clock);
+        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService, tokenCache, tokenRevocations, clock);
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -88,6 +105,92 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testAuthenticateVerifiesEachTokenOnce() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication first = tokenProvider.authenticate(token).orElseThrow();
+        Authentication second = tokenProvider.authenticate(token).orElseThrow();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("anonymous");
+        assertThat(second.getCredentials()).isEqualTo(token);
+        assertThat(second.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly(AuthoritiesConstants.ANONYMOUS);
+        assertThat(tokenCacheLookups("miss")).isEqualTo(1);
+        assertThat(tokenCacheLookups("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void testAuthenticateSharesAuthoritiesBetweenTokens() {
+        Authentication first = tokenProvider.authenticate(tokenProvider.createToken(createAuthentication(), false)).orElseThrow();
+        Authentication second = tokenProvider.authenticate(tokenProvider.createToken(createAuthentication(), true)).orElseThrow();
+
+        assertThat(second.getCredentials()).isNotEqualTo(first.getCredentials());
+        assertThat(second.getAuthorities().iterator().next()).isSameAs(first.getAuthorities().iterator().next());
+    }
+
+    @Test
+    void testAuthenticateRejectsCachedTokensOnceExpired() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.authenticate(token)).isPresent();
+
+        // Expirations are in seconds
+        clock.advance(Duration.ofMillis(ONE_MINUTE + 1000));
+
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+        assertThat(tokenCacheLookups("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void testAuthenticateDoesNotCacheInvalidTokens() {
+        String token = createTokenWithDifferentSignature();
+
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+
+        assertThat(meterRegistry.get(SecurityMetersService.INVALID_TOKENS_METER_NAME).tag("cause", "invalid-signature").counter().count())
+            .isEqualTo(2);
+        assertThat(tokenCacheLookups("hit")).isZero();
+    }
+
+    @Test
+    void testTokensHaveAnIdAndAnIssueTime() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Claims claims = tokenClaims(token);
+        assertThat(claims.getId()).isNotEmpty().isNotEqualTo(tokenClaims(tokenProvider.createToken(createAuthentication(), false)).getId());
+        assertThat(claims.getIssuedAt()).isNotNull();
+    }
+
+    @Test
+    void testAuthenticateRejectsRevokedTokensEvenCached() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        String otherToken = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.authenticate(token)).isPresent();
+
+        assertThat(tokenProvider.revokeToken(token)).isTrue();
+
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+        assertThat(tokenProvider.authenticate(otherToken)).isPresent();
+        assertThat(meterRegistry.get(SecurityMetersService.INVALID_TOKENS_METER_NAME).tag("cause", "revoked").counter().count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void testAuthenticateRejectsTokensIssuedBeforeTheirUserWasRevoked() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.authenticate(token)).isPresent();
+
+        tokenRevocations.revokeUser("anonymous");
+        // Issue times are in seconds
+        clock.advance(Duration.ofSeconds(1));
+        String newToken = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.authenticate(token)).isEmpty();
+        assertThat(tokenProvider.authenticate(newToken)).isPresent();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -96,7 +199,12 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            securityMetersService,
+            new ApplicationProperties(),
+            tokenRevocations(jHipsterProperties, Clock.systemUTC())
+        );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -110,12 +218,35 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            securityMetersService,
+            new ApplicationProperties(),
+            tokenRevocations(jHipsterProperties, Clock.systemUTC())
+        );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    private Claims tokenClaims(String token) {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    private static TokenRevocations tokenRevocations(JHipsterProperties jHipsterProperties, Clock clock) {
+        return new TokenRevocations(
+            new ApplicationProperties.Security.TokenRevocation(),
+            jHipsterProperties,
+            mock(TokenRevocationRepository.class),
+            mock(PlatformTransactionManager.class),
+            clock
+        );
+    }
+
+    private double tokenCacheLookups(String result) {
+        return meterRegistry.get(SecurityMetersService.TOKEN_CACHE_METER_NAME).tag("result", result).counter().count();
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -0,0 +1,90 @@
+package com.harman.demo.pizzaria.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.domain.TokenRevocation;
+import com.harman.demo.pizzaria.repository.TokenRevocationRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link TokenRevocations}.
+ * <p>
+ * {@link TokenRevocations#refresh()} reads committed revocations, so they are committed rather than rolled back.
+ */
+@IntegrationTest
+class TokenRevocationsIT {
+
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @AfterEach
+    public void tearDown() {
+        tokenRevocationRepository.deleteAll();
+    }
+
+    @Test
+    void revocationsAreStored() {
+        String tokenId = UUID.randomUUID().toString();
+
+        tokenRevocations.revokeToken(tokenId, "token-revocations-user", Instant.now().plus(1, ChronoUnit.HOURS));
+
+        assertThat(tokenRevocations.isRevoked(tokenId, "token-revocations-user", Instant.now().toEpochMilli())).isTrue();
+        assertThat(tokenRevocationRepository.findAll()).extracting(TokenRevocation::getTokenId).containsExactly(tokenId);
+    }
+
+    @Test
+    void refreshLoadsTheRevocationsOfOtherInstances() {
+        String tokenId = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        tokenRevocationRepository.save(
+            new TokenRevocation()
+                .id(UUID.randomUUID().toString())
+                .tokenId(tokenId)
+                .login("token-revocations-user")
+                .revokedAt(now)
+                .expiresAt(now.plus(1, ChronoUnit.HOURS))
+        );
+        tokenRevocationRepository.save(
+            new TokenRevocation()
+                .id(UUID.randomUUID().toString())
+                .login("token-revocations-other-user")
+                .revokedAt(now)
+                .expiresAt(now.plus(1, ChronoUnit.HOURS))
+        );
+        assertThat(tokenRevocations.isRevoked(tokenId, "token-revocations-user", now.toEpochMilli())).isFalse();
+
+        tokenRevocations.refresh();
+
+        assertThat(tokenRevocations.isRevoked(tokenId, "token-revocations-user", now.toEpochMilli())).isTrue();
+        assertThat(tokenRevocations.isRevoked(null, "token-revocations-other-user", now.minusSeconds(1).toEpochMilli())).isTrue();
+        assertThat(tokenRevocations.isRevoked(null, "token-revocations-other-user", now.plusSeconds(1).toEpochMilli())).isFalse();
+    }
+
+    @Test
+    void refreshDeletesExpiredRevocations() {
+        String tokenId = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        tokenRevocationRepository.save(
+            new TokenRevocation()
+                .id(UUID.randomUUID().toString())
+                .tokenId(tokenId)
+                .login("token-revocations-user")
+                .revokedAt(now.minus(2, ChronoUnit.HOURS))
+                .expiresAt(now.minus(1, ChronoUnit.HOURS))
+        );
+
+        tokenRevocations.refresh();
+
+        assertThat(tokenRevocationRepository.count()).isZero();
+        assertThat(tokenRevocations.isRevoked(tokenId, "token-revocations-user", now.toEpochMilli())).isFalse();
+    }
+}
@@ -0,0 +1,122 @@
+package com.harman.demo.pizzaria.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.service.dto.ToppingDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Benchmark of {@link ToppingService#saveAll(List)} against one {@link ToppingService#save(ToppingDTO)} per topping,
+ * which is what clients calling {@code POST /api/toppings} for each topping amount to.
+ * <p>
+ * Only run on demand: {@code ./mvnw verify -Dit.test=ToppingBulkInsertBenchmarkIT -Dbenchmark=true}.
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ToppingBulkInsertBenchmarkIT {
+
+    private static final int ROWS = 5000;
+
+    private static final int WARM_UP_ROWS = 500;
+
+    private static final int BULK_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(ToppingBulkInsertBenchmarkIT.class);
+
+    @Autowired
+    private ToppingService toppingService;
+
+    @Autowired
+    private ToppingRepository toppingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        toppingRepository.deleteAllByIdInBatch(ids);
+    }
+
+    @Test
+    void bulkInsertsAreFasterThanSingleInserts() {
+        insertOneByOne(toppings("warm-up single", WARM_UP_ROWS));
+        insertInBulk(toppings("warm-up bulk", WARM_UP_ROWS));
+
+        statistics.clear();
+        long single = insertOneByOne(toppings("single", ROWS));
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long bulk = insertInBulk(toppings("bulk", ROWS));
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        double singleRate = ROWS * 1e9 / single;
+        double bulkRate = ROWS * 1e9 / bulk;
+        log.info(
+            "Inserted {} toppings: {} rows/s and {} statements one by one, {} rows/s and {} statements in bulk ({}x)",
+            ROWS,
+            Math.round(singleRate),
+            singleStatements,
+            Math.round(bulkRate),
+            bulkStatements,
+            Math.round(bulkRate / singleRate * 10) / 10.0
+        );
+        assertThat(bulkStatements).isLessThan(singleStatements / 10);
+        assertThat(bulkRate).isGreaterThan(singleRate);
+    }
+
+    private long insertOneByOne(List<ToppingDTO> toppingDTOs) {
+        long start = System.nanoTime();
+        for (ToppingDTO toppingDTO : toppingDTOs) {
+            ids.add(toppingService.save(toppingDTO).getId());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long insertInBulk(List<ToppingDTO> toppingDTOs) {
+        long start = System.nanoTime();
+        for (int from = 0; from < toppingDTOs.size(); from += BULK_SIZE) {
+            List<ToppingDTO> bulk = toppingDTOs.subList(from, Math.min(from + BULK_SIZE, toppingDTOs.size()));
+            toppingService.saveAll(bulk).forEach(toppingDTO -> ids.add(toppingDTO.getId()));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static List<ToppingDTO> toppings(String prefix, int count) {
+        return IntStream
+            .range(0, count)
+            .mapToObj(i -> {
+                ToppingDTO toppingDTO = new ToppingDTO();
+                toppingDTO.setName(prefix + " " + i);
+                toppingDTO.setPrice(1F + i % 10);
+                return toppingDTO;
+            })
+            .collect(Collectors.toList());
+    }
+}
@@ -7,6 +7,7 @@ import com.harman.demo.pizzaria.IntegrationTest;
 import com.harman.demo.pizzaria.config.Constants;
 import com.harman.demo.pizzaria.domain.User;
 import com.harman.demo.pizzaria.repository.UserRepository;
+import com.harman.demo.pizzaria.security.jwt.TokenRevocations;
 import com.harman.demo.pizzaria.service.dto.AdminUserDTO;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -53,6 +54,9 @@ class UserServiceIT {
     @Autowired
     private AuditingHandler auditingHandler;
 
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
     @MockBean
     private DateTimeProvider dateTimeProvider;
 
@@ -182,4 +186,43 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    @Transactional
+    void assertThatDeactivatingAUserRevokesItsTokens() {
+        user.setLogin("token-deactivated-user");
+        userRepository.saveAndFlush(user);
+        long issuedAt = Instant.now().minusSeconds(60).toEpochMilli();
+        assertThat(tokenRevocations.isRevoked(null, user.getLogin(), issuedAt)).isFalse();
+
+        AdminUserDTO userDTO = new AdminUserDTO(user);
+        userDTO.setActivated(false);
+        userService.updateUser(userDTO);
+
+        assertThat(tokenRevocations.isRevoked(null, user.getLogin(), issuedAt)).isTrue();
+    }
+
+    @Test
+    @Transactional
+    void assertThatUpdatingAUserProfileKeepsItsTokens() {
+        user.setLogin("token-updated-user");
+        userRepository.saveAndFlush(user);
+
+        AdminUserDTO userDTO = new AdminUserDTO(user);
+        userDTO.setFirstName("jane");
+        userService.updateUser(userDTO);
+
+        assertThat(tokenRevocations.isRevoked(null, user.getLogin(), Instant.now().minusSeconds(60).toEpochMilli())).isFalse();
+    }
+
+    @Test
+    @Transactional
+    void assertThatDeletingAUserRevokesItsTokens() {
+        user.setLogin("token-deleted-user");
+        userRepository.saveAndFlush(user);
+
+        userService.deleteUser(user.getLogin());
+
+        assertThat(tokenRevocations.isRevoked(null, user.getLogin(), Instant.now().minusSeconds(60).toEpochMilli())).isTrue();
+    }
 }
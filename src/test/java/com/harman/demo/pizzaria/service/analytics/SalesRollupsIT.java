@@ -0,0 +1,167 @@
+package com.harman.demo.pizzaria.service.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.MutableClock;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.OrderLine;
+import com.harman.demo.pizzaria.domain.Pizza;
+import com.harman.demo.pizzaria.domain.PizzaOrder;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.service.dto.SalesPeriodDTO;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link SalesRollups}, on a clock of their own.
+ * <p>
+ * The rollups are written outside of any test transaction, so they are deleted afterwards.
+ */
+@IntegrationTest
+class SalesRollupsIT {
+
+    private static final Instant START = Instant.parse("2022-05-01T18:00:00Z");
+
+    private static final long MARGHERITA = 1_001L;
+
+    private static final long MUSHROOMS = 2_001L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MutableClock clock;
+
+    private SalesRollups salesRollups;
+
+    @BeforeEach
+    public void initTest() {
+        clock = new MutableClock(START);
+        ApplicationProperties.Analytics properties = new ApplicationProperties.Analytics();
+        properties.setMinutes(5);
+        properties.setHours(3);
+        salesRollups = new SalesRollups(properties, jdbcTemplate, transactionManager, clock);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Timestamp until = Timestamp.from(START.plus(Duration.ofDays(1)));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from pizza_sales_rollup where period_start < ?", until);
+            jdbcTemplate.update("delete from topping_sales_rollup where period_start < ?", until);
+        });
+    }
+
+    @Test
+    void salesAreCountedPerMinuteAndPerHour() {
+        salesRollups.record(List.of(order(PizzaSize.LARGE, 2, MARGHERITA, MUSHROOMS), order(PizzaSize.SMALL, 1, MUSHROOMS)));
+        clock.advance(Duration.ofSeconds(90));
+        salesRollups.record(List.of(order(PizzaSize.LARGE, 1)));
+
+        List<SalesPeriodDTO> minutes = salesRollups.getSalesPerMinute(3);
+        assertThat(minutes)
+            .extracting(SalesPeriodDTO::getStart)
+            .containsExactly(START.plus(Duration.ofMinutes(1)), START, START.minus(Duration.ofMinutes(1)));
+        assertThat(minutes.get(0).getPizzas()).containsExactly(Map.entry(PizzaSize.LARGE, 1L));
+        assertThat(minutes.get(0).getToppings()).isEmpty();
+        assertThat(minutes.get(1).getPizzas()).containsExactly(Map.entry(PizzaSize.SMALL, 1L), Map.entry(PizzaSize.LARGE, 2L));
+        assertThat(minutes.get(1).getToppings()).containsExactly(Map.entry(MARGHERITA, 2L), Map.entry(MUSHROOMS, 3L));
+        assertThat(minutes.get(2).getPizzas()).isEmpty();
+
+        List<SalesPeriodDTO> hours = salesRollups.getSalesPerHour(100);
+        assertThat(hours).hasSize(3);
+        assertThat(hours.get(0).getStart()).isEqualTo(START);
+        assertThat(hours.get(0).getPizzas()).containsExactly(Map.entry(PizzaSize.SMALL, 1L), Map.entry(PizzaSize.LARGE, 3L));
+        assertThat(hours.get(0).getToppings()).containsExactly(Map.entry(MARGHERITA, 2L), Map.entry(MUSHROOMS, 3L));
+    }
+
+    @Test
+    void bucketsAreReusedOnceOutOfRetention() {
+        salesRollups.record(List.of(order(PizzaSize.MEDIUM, 4, MARGHERITA)));
+        clock.advance(Duration.ofMinutes(5));
+        salesRollups.record(List.of(order(PizzaSize.SMALL, 1)));
+
+        List<SalesPeriodDTO> minutes = salesRollups.getSalesPerMinute(5);
+        assertThat(minutes.get(0).getPizzas()).containsExactly(Map.entry(PizzaSize.SMALL, 1L));
+        assertThat(minutes.get(0).getToppings()).isEmpty();
+        assertThat(minutes).extracting(SalesPeriodDTO::getStart).doesNotContain(START);
+        assertThat(salesRollups.getSalesPerHour(1).get(0).getPizzas()).containsEntry(PizzaSize.MEDIUM, 4L);
+    }
+
+    @Test
+    void periodsOverAreWrittenOnce() {
+        salesRollups.record(List.of(order(PizzaSize.LARGE, 2, MARGHERITA)));
+        salesRollups.flush();
+        assertThat(rollups("pizza_sales_rollup")).isZero();
+
+        clock.advance(Duration.ofMinutes(1));
+        salesRollups.record(List.of(order(PizzaSize.LARGE, 1, MARGHERITA)));
+        salesRollups.flush();
+        salesRollups.flush();
+        assertThat(rollups("pizza_sales_rollup")).isEqualTo(1);
+        assertThat(rollups("topping_sales_rollup")).isEqualTo(1);
+        assertThat(
+            jdbcTemplate.queryForObject(
+                "select quantity from topping_sales_rollup where granularity = ? and period_start = ? and topping_id = ?",
+                Long.class,
+                SalesRollups.MINUTE,
+                Timestamp.from(START),
+                MARGHERITA
+            )
+        )
+            .isEqualTo(2L);
+
+        clock.advance(Duration.ofHours(1));
+        salesRollups.flush();
+        assertThat(rollups("pizza_sales_rollup")).isEqualTo(3);
+        assertThat(
+            jdbcTemplate.queryForObject(
+                "select quantity from pizza_sales_rollup where granularity = ? and period_start = ?",
+                Long.class,
+                SalesRollups.HOUR,
+                Timestamp.from(START)
+            )
+        )
+            .isEqualTo(3L);
+    }
+
+    @Test
+    void flushIntervalMustBeShorterThanTheRetention() {
+        ApplicationProperties.Analytics properties = new ApplicationProperties.Analytics();
+        properties.setMinutes(2);
+        properties.setFlushIntervalMs(60_000);
+        assertThatThrownBy(() -> new SalesRollups(properties, jdbcTemplate, transactionManager, clock))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Integer rollups(String table) {
+        return jdbcTemplate.queryForObject(
+            "select count(*) from " + table + " where period_start < ?",
+            Integer.class,
+            Timestamp.from(START.plus(Duration.ofDays(1)))
+        );
+    }
+
+    private static PizzaOrder order(PizzaSize pizzaSize, int quantity, Long... toppingIds) {
+        OrderLine line = new OrderLine().quantity(quantity).pizza(new Pizza().id(1L).pizzaSize(pizzaSize));
+        for (Long toppingId : toppingIds) {
+            line.addTopping(new Topping().id(toppingId));
+        }
+        return new PizzaOrder().addLines(line);
+    }
+}
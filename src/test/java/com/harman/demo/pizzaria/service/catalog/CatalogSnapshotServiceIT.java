@@ -0,0 +1,104 @@
+package com.harman.demo.pizzaria.service.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.service.PizzaService;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CatalogSnapshotService}.
+ */
+@IntegrationTest
+class CatalogSnapshotServiceIT {
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private PizzaService pizzaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void enableSnapshot() {
+        applicationProperties.getCatalog().getSnapshot().setEnabled(true);
+        catalogSnapshotService.refresh();
+    }
+
+    @AfterEach
+    public void disableSnapshot() {
+        applicationProperties.getCatalog().getSnapshot().setEnabled(false);
+    }
+
+    @Test
+    void snapshotAndVersionFollowCommittedWrites() {
+        PizzaDTO pizza = new PizzaDTO();
+        pizza.setPizzaSize(PizzaSize.MEDIUM);
+        pizza.setPrice(9F);
+        long version = catalogSnapshotService.getVersion();
+        pizza = pizzaService.save(pizza);
+        Long id = pizza.getId();
+
+        assertThat(catalogSnapshotService.getVersion()).isGreaterThan(version);
+        assertThat(catalogSnapshotService.getSnapshot().orElseThrow().findPizza(id)).map(PizzaDTO::getPrice).contains(9F);
+
+        pizza.setPrice(11F);
+        pizzaService.update(pizza);
+        assertThat(catalogSnapshotService.getSnapshot().orElseThrow().findPizza(id)).map(PizzaDTO::getPrice).contains(11F);
+
+        version = catalogSnapshotService.getVersion();
+        pizzaService.delete(id);
+        assertThat(catalogSnapshotService.getVersion()).isGreaterThan(version);
+        assertThat(catalogSnapshotService.getSnapshot().orElseThrow().findPizza(id)).isEmpty();
+    }
+
+    @Test
+    void snapshotIsHiddenWhenDisabled() {
+        assertThat(catalogSnapshotService.getSnapshot()).isPresent();
+        applicationProperties.getCatalog().getSnapshot().setEnabled(false);
+        assertThat(catalogSnapshotService.getSnapshot()).isEmpty();
+    }
+
+    @Test
+    void versionChangedByAnotherInstanceIsPickedUp() {
+        long version = catalogSnapshotService.getVersion();
+        assertThat(jdbcTemplate.queryForObject("select version from catalog_version where id = 1", Long.class)).isEqualTo(version);
+
+        changeCatalogElsewhere();
+        assertThat(catalogSnapshotService.getVersion()).isEqualTo(version + 1);
+
+        applicationProperties.getCatalog().getSnapshot().setEnabled(false);
+        changeCatalogElsewhere();
+        assertThat(catalogSnapshotService.getVersion()).isEqualTo(version + 2);
+    }
+
+    /**
+     * Increment the catalog version as another instance would, in a committed transaction, and check it.
+     */
+    private void changeCatalogElsewhere() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("update catalog_version set version = version + 1 where id = 1")
+        );
+        catalogSnapshotService.scheduledVersionCheck();
+    }
+}
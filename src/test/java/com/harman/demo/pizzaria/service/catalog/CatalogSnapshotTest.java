@@ -0,0 +1,116 @@
+package com.harman.demo.pizzaria.service.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.service.criteria.ToppingCriteria;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.service.dto.ToppingDTO;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+class CatalogSnapshotTest {
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    public void setUp() {
+        snapshot =
+            new CatalogSnapshot(
+                List.of(pizza(3L, PizzaSize.SMALL, 8F), pizza(1L, PizzaSize.LARGE, 12F), pizza(2L, PizzaSize.EXTRA_LARGE, 12F)),
+                List.of(topping(20L, "olives", null), topping(10L, "basil", "fresh"), topping(30L, "Anchovies", "salty"))
+            );
+    }
+
+    @Test
+    void findByIdUsesTheSortedIds() {
+        assertThat(snapshot.findPizza(2L)).map(PizzaDTO::getPizzaSize).contains(PizzaSize.EXTRA_LARGE);
+        assertThat(snapshot.findPizza(4L)).isEmpty();
+        assertThat(snapshot.findPizza(null)).isEmpty();
+        assertThat(snapshot.findTopping(30L)).map(ToppingDTO::getName).contains("Anchovies");
+        assertThat(snapshot.findTopping(15L)).isEmpty();
+    }
+
+    @Test
+    void unsortedPagesAreInIdOrder() {
+        Page<PizzaDTO> page = snapshot.findPizzas(PageRequest.of(0, 2)).orElseThrow();
+        assertThat(page.getContent()).extracting(PizzaDTO::getId).containsExactly(1L, 2L);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+
+        page = snapshot.findPizzas(PageRequest.of(1, 2)).orElseThrow();
+        assertThat(page.getContent()).extracting(PizzaDTO::getId).containsExactly(3L);
+
+        page = snapshot.findPizzas(PageRequest.of(5, 2)).orElseThrow();
+        assertThat(page.getContent()).isEmpty();
+
+        page = snapshot.findPizzas(Pageable.unpaged()).orElseThrow();
+        assertThat(page.getContent()).hasSize(3);
+    }
+
+    @Test
+    void sortsFollowTheDatabaseSemantics() {
+        // enums are stored as strings, ties keep the id order
+        Page<PizzaDTO> pizzas = snapshot.findPizzas(PageRequest.of(0, 10, Sort.by("pizzaSize"))).orElseThrow();
+        assertThat(pizzas.getContent()).extracting(PizzaDTO::getId).containsExactly(2L, 1L, 3L);
+
+        pizzas = snapshot.findPizzas(PageRequest.of(0, 10, Sort.by(Sort.Order.desc("price"), Sort.Order.desc("id")))).orElseThrow();
+        assertThat(pizzas.getContent()).extracting(PizzaDTO::getId).containsExactly(2L, 1L, 3L);
+
+        // null sorts lowest
+        Page<ToppingDTO> toppings = snapshot.findToppings(null, PageRequest.of(0, 10, Sort.by("description"))).orElseThrow();
+        assertThat(toppings.getContent()).extracting(ToppingDTO::getId).containsExactly(20L, 10L, 30L);
+        toppings = snapshot.findToppings(null, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "description"))).orElseThrow();
+        assertThat(toppings.getContent()).extracting(ToppingDTO::getId).containsExactly(30L, 10L, 20L);
+
+        // text ignores case, as the database collation does
+        toppings = snapshot.findToppings(null, PageRequest.of(0, 10, Sort.by("name"))).orElseThrow();
+        assertThat(toppings.getContent()).extracting(ToppingDTO::getName).containsExactly("Anchovies", "basil", "olives");
+        toppings = snapshot.findToppings(null, PageRequest.of(0, 10, Sort.by(Sort.Order.by("name").ignoreCase()))).orElseThrow();
+        assertThat(toppings.getContent()).extracting(ToppingDTO::getName).containsExactly("Anchovies", "basil", "olives");
+
+        // ignoring case leaves numbers in their natural order
+        pizzas = snapshot.findPizzas(PageRequest.of(0, 10, Sort.by(Sort.Order.asc("price").ignoreCase()))).orElseThrow();
+        assertThat(pizzas.getContent())
+            .extracting(PizzaDTO::getId)
+            .containsExactlyElementsOf(
+                snapshot.findPizzas(PageRequest.of(0, 10, Sort.by("price"))).orElseThrow().map(PizzaDTO::getId).getContent()
+            );
+    }
+
+    @Test
+    void unsupportedRequestsFallBack() {
+        assertThat(snapshot.findPizzas(PageRequest.of(0, 10, Sort.by("unknown")))).isEmpty();
+
+        ToppingCriteria criteria = new ToppingCriteria();
+        assertThat(snapshot.findToppings(criteria, PageRequest.of(0, 10))).isPresent();
+        criteria.name().setContains("BAS");
+        assertThat(snapshot.findToppings(criteria, PageRequest.of(0, 10)).orElseThrow().getContent())
+            .extracting(ToppingDTO::getName)
+            .containsExactly("basil");
+        criteria.name().setContains("bas_l");
+        assertThat(snapshot.findToppings(criteria, PageRequest.of(0, 10))).isEmpty();
+        assertThat(snapshot.countToppings(criteria)).isEmpty();
+    }
+
+    private static PizzaDTO pizza(Long id, PizzaSize pizzaSize, Float price) {
+        PizzaDTO pizza = new PizzaDTO();
+        pizza.setId(id);
+        pizza.setPizzaSize(pizzaSize);
+        pizza.setPrice(price);
+        return pizza;
+    }
+
+    private static ToppingDTO topping(Long id, String name, String description) {
+        ToppingDTO topping = new ToppingDTO();
+        topping.setId(id);
+        topping.setName(name);
+        topping.setPrice(1F);
+        topping.setDescription(description);
+        return topping;
+    }
+}
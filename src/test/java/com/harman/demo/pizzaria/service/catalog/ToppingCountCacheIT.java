@@ -0,0 +1,107 @@
+package com.harman.demo.pizzaria.service.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.service.ToppingQueryService;
+import com.harman.demo.pizzaria.service.criteria.ToppingCriteria;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link ToppingCountCache} and the totals of {@link ToppingQueryService}.
+ */
+@IntegrationTest
+@Transactional
+class ToppingCountCacheIT {
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ToppingRepository toppingRepository;
+
+    @Autowired
+    private ToppingQueryService toppingQueryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ToppingCriteria criteria = new ToppingCriteria();
+
+    @BeforeEach
+    public void initTest() {
+        applicationProperties.getCatalog().getCountCache().setEnabled(true);
+        criteria.name().setContains("COUNTED");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        applicationProperties.getCatalog().getCountCache().setEnabled(false);
+        cacheManager.getCache(ToppingCountCache.CACHE_NAME).clear();
+    }
+
+    @Test
+    void countsAreCachedUntilTheCatalogChanges() {
+        Topping topping = toppingRepository.saveAndFlush(new Topping().name("COUNTED 1").price(1F));
+        toppingRepository.saveAndFlush(new Topping().name("COUNTED 2").price(1F));
+        toppingRepository.saveAndFlush(new Topping().name("COUNTED 3").price(1F));
+        assertThat(toppingQueryService.countByCriteria(criteria)).isEqualTo(3);
+
+        // Removed behind the service's back, the cached count is still used for full pages
+        toppingRepository.delete(topping);
+        toppingRepository.flush();
+        assertThat(toppingQueryService.countByCriteria(criteria)).isEqualTo(3);
+        assertThat(toppingQueryService.findByCriteria(criteria, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(3);
+
+        // The total of the last page follows from its content
+        assertThat(toppingQueryService.findByCriteria(criteria, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(2);
+        assertThat(toppingQueryService.findByCriteria(criteria, PageRequest.of(1, 1)).getTotalElements()).isEqualTo(2);
+
+        // A new catalog version makes the entry unreachable
+        changeCatalogElsewhere();
+        assertThat(toppingQueryService.countByCriteria(criteria)).isEqualTo(2);
+    }
+
+    @Test
+    void slicesAreNotCounted() {
+        toppingRepository.saveAndFlush(new Topping().name("COUNTED 1").price(1F));
+        toppingRepository.saveAndFlush(new Topping().name("COUNTED 2").price(1F));
+
+        assertThat(toppingQueryService.findSliceByCriteria(criteria, PageRequest.of(0, 1)).hasNext()).isTrue();
+        assertThat(toppingQueryService.findSliceByCriteria(criteria, PageRequest.of(1, 1)).hasNext()).isFalse();
+    }
+
+    /**
+     * Increment the catalog version as another instance would, in a committed transaction, and check it.
+     */
+    private void changeCatalogElsewhere() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("update catalog_version set version = version + 1 where id = 1")
+        );
+        catalogSnapshotService.scheduledVersionCheck();
+    }
+}
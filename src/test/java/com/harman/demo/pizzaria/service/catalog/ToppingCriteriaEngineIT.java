@@ -0,0 +1,244 @@
+package com.harman.demo.pizzaria.service.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.config.ApplicationProperties.Catalog.Snapshot.CriteriaEngine;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.service.ToppingQueryService;
+import com.harman.demo.pizzaria.service.criteria.ToppingCriteria;
+import com.harman.demo.pizzaria.service.dto.ToppingDTO;
+import com.harman.demo.pizzaria.service.mapper.ToppingMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.filter.FloatFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Differential tests of the in-memory topping criteria engine against {@link ToppingQueryService}.
+ */
+@IntegrationTest
+@Transactional
+class ToppingCriteriaEngineIT {
+
+    private static final String[] NAMES = { "Mozzarella", "mozzarella di bufala", "Basil", "BASIL leaf", "Olive", "Ham" };
+
+    private static final String[] DESCRIPTIONS = { "Fresh", "fresh from the garden", "SMOKED", "smoked ham", "Spicy", "" };
+
+    private static final float[] PRICES = { 1F, 1.5F, 2F, 2.5F, 3F };
+
+    private static final String[] FRAGMENTS = { "mozz", "BASIL", "il", "ham", "FRESH", "o", "zz", "x", "" };
+
+    private static final String[] SORTS = { "id", "name", "price", "description" };
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ToppingRepository toppingRepository;
+
+    @Autowired
+    private ToppingMapper toppingMapper;
+
+    @Autowired
+    private ToppingQueryService toppingQueryService;
+
+    private final Random random = new Random(42);
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        applicationProperties.getCatalog().getSnapshot().setEnabled(false);
+        applicationProperties.getCatalog().getSnapshot().setCriteriaEngine(CriteriaEngine.MEMORY);
+    }
+
+    @Test
+    void inMemoryResultsMatchTheDatabase() {
+        CatalogSnapshot snapshot = createToppings(60);
+
+        for (int i = 0; i < 500; i++) {
+            ToppingCriteria criteria = randomCriteria();
+            Pageable pageable = randomPageable();
+            Page<ToppingDTO> expected = toppingQueryService.findByCriteria(criteria, pageable);
+            Page<ToppingDTO> actual = snapshot.findToppings(criteria, pageable).orElseThrow();
+
+            if (pageable.isPaged()) {
+                assertThat(idsOf(actual)).as("%s %s", criteria, pageable).isEqualTo(idsOf(expected));
+            } else {
+                assertThat(idsOf(actual)).as("%s", criteria).containsExactlyInAnyOrderElementsOf(idsOf(expected));
+            }
+            assertThat(actual.getTotalElements()).as("%s", criteria).isEqualTo(expected.getTotalElements());
+            assertThat(snapshot.countToppings(criteria)).as("%s", criteria).hasValue(toppingQueryService.countByCriteria(criteria));
+        }
+    }
+
+    @Test
+    void likeWildcardsAreLeftToTheDatabase() {
+        CatalogSnapshot snapshot = createToppings(5);
+        ToppingCriteria criteria = new ToppingCriteria();
+        criteria.name().setContains("mozz%");
+
+        assertThat(snapshot.findToppings(criteria, Pageable.unpaged())).isEmpty();
+        assertThat(snapshot.countToppings(criteria)).isEmpty();
+    }
+
+    @Test
+    void jpaEngineOnlyServesUnfilteredQueriesFromTheSnapshot() {
+        createToppings(5);
+        applicationProperties.getCatalog().getSnapshot().setEnabled(true);
+        applicationProperties.getCatalog().getSnapshot().setCriteriaEngine(CriteriaEngine.JPA);
+        catalogSnapshotService.refresh();
+        ToppingCriteria criteria = new ToppingCriteria();
+        criteria.price().setGreaterThan(1F);
+
+        assertThat(catalogSnapshotService.findToppings(criteria, Pageable.unpaged())).isEmpty();
+        assertThat(catalogSnapshotService.countToppings(criteria)).isEmpty();
+        assertThat(catalogSnapshotService.findToppings(new ToppingCriteria(), Pageable.unpaged())).isPresent();
+
+        applicationProperties.getCatalog().getSnapshot().setCriteriaEngine(CriteriaEngine.MEMORY);
+        assertThat(catalogSnapshotService.countToppings(criteria)).isPresent();
+    }
+
+    private CatalogSnapshot createToppings(int count) {
+        for (int i = 0; i < count; i++) {
+            Topping topping = new Topping()
+                .name(NAMES[i % NAMES.length] + " " + i)
+                .price(PRICES[random.nextInt(PRICES.length)])
+                .description(i % 4 == 0 ? null : DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)]);
+            ids.add(toppingRepository.saveAndFlush(topping).getId());
+        }
+        return new CatalogSnapshot(List.of(), toppingMapper.toDto(toppingRepository.findAll()));
+    }
+
+    private ToppingCriteria randomCriteria() {
+        ToppingCriteria criteria = new ToppingCriteria();
+        if (random.nextBoolean()) {
+            criteria.setId(randomIdFilter());
+        }
+        if (random.nextBoolean()) {
+            criteria.setPrice(randomPriceFilter());
+        }
+        if (random.nextBoolean()) {
+            criteria.setName(randomStringFilter(NAMES));
+        }
+        if (random.nextBoolean()) {
+            criteria.setDescription(randomStringFilter(DESCRIPTIONS));
+        }
+        return criteria;
+    }
+
+    private LongFilter randomIdFilter() {
+        LongFilter filter = new LongFilter();
+        switch (random.nextInt(4)) {
+            case 0:
+                filter.setEquals(randomId());
+                break;
+            case 1:
+                filter.setIn(List.of(randomId(), randomId(), randomId()));
+                break;
+            case 2:
+                filter.setNotIn(List.of(randomId(), randomId()));
+                filter.setGreaterThanOrEqual(randomId());
+                break;
+            default:
+                filter.setNotEquals(randomId());
+                filter.setGreaterThan(randomId());
+                filter.setLessThanOrEqual(randomId());
+                break;
+        }
+        return filter;
+    }
+
+    private Long randomId() {
+        return ids.get(random.nextInt(ids.size())) + random.nextInt(3) - 1;
+    }
+
+    private FloatFilter randomPriceFilter() {
+        FloatFilter filter = new FloatFilter();
+        switch (random.nextInt(4)) {
+            case 0:
+                filter.setEquals(randomPrice());
+                break;
+            case 1:
+                filter.setIn(List.of(randomPrice(), randomPrice()));
+                break;
+            case 2:
+                filter.setNotEquals(randomPrice());
+                filter.setLessThan(randomPrice());
+                break;
+            default:
+                filter.setNotIn(List.of(randomPrice()));
+                filter.setGreaterThanOrEqual(randomPrice());
+                filter.setSpecified(true);
+                break;
+        }
+        return filter;
+    }
+
+    private Float randomPrice() {
+        return PRICES[random.nextInt(PRICES.length)] + (random.nextInt(4) == 0 ? 0.25F : 0F);
+    }
+
+    private StringFilter randomStringFilter(String[] values) {
+        StringFilter filter = new StringFilter();
+        switch (random.nextInt(6)) {
+            case 0:
+                filter.setEquals(values[random.nextInt(values.length)]);
+                break;
+            case 1:
+                filter.setIn(List.of(values[random.nextInt(values.length)], values[random.nextInt(values.length)]));
+                break;
+            case 2:
+                filter.setNotIn(List.of(values[random.nextInt(values.length)]));
+                break;
+            case 3:
+                filter.setContains(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                // ignored by the database, the first set condition wins
+                filter.setSpecified(random.nextBoolean());
+                break;
+            case 4:
+                filter.setDoesNotContain(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                break;
+            default:
+                filter.setSpecified(random.nextBoolean());
+                break;
+        }
+        return filter;
+    }
+
+    private Pageable randomPageable() {
+        String property = SORTS[random.nextInt(SORTS.length)];
+        Sort.Order order = random.nextBoolean() ? Sort.Order.asc(property) : Sort.Order.desc(property);
+        if (property.equals("name") || property.equals("description")) {
+            // H2 sorts text by its case, unlike the MySQL collations the snapshot follows
+            order = order.ignoreCase();
+        }
+        // the database does not guarantee the order of ties, so they are broken by id
+        Sort sort = property.equals("id") ? Sort.by(order) : Sort.by(order, Sort.Order.asc("id"));
+        if (random.nextInt(5) == 0) {
+            return Pageable.unpaged();
+        }
+        return PageRequest.of(random.nextInt(3), 5 + random.nextInt(20), sort);
+    }
+
+    private static List<Long> idsOf(Page<ToppingDTO> page) {
+        return page.getContent().stream().map(ToppingDTO::getId).collect(Collectors.toList());
+    }
+}
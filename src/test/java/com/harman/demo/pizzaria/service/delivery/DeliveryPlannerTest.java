@@ -0,0 +1,177 @@
+package com.harman.demo.pizzaria.service.delivery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.MutableClock;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.service.dto.DeliveryPlanDTO;
+import com.harman.demo.pizzaria.service.dto.DeliveryStopDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DeliveryPlannerTest {
+
+    private static final Instant START = Instant.parse("2022-05-01T18:00:00Z");
+
+    private static final double SHOP_LATITUDE = 41.0534;
+
+    private static final double SHOP_LONGITUDE = -73.5387;
+
+    private static final int OPEN_ORDERS = 5_000;
+
+    private ApplicationProperties.Delivery properties;
+
+    private MutableClock clock;
+
+    private DeliveryPlanner deliveryPlanner;
+
+    @BeforeEach
+    public void initTest() {
+        properties = new ApplicationProperties.Delivery();
+        properties.setShopLatitude(SHOP_LATITUDE);
+        properties.setShopLongitude(SHOP_LONGITUDE);
+        properties.setCellMeters(500);
+        properties.setMaxDetourMeters(1000);
+        properties.setCapacity(5);
+        clock = new MutableClock(START);
+        deliveryPlanner = new DeliveryPlanner(properties, clock);
+    }
+
+    @Test
+    void ordersOnTheWayAreDeliveredInOneRun() {
+        UUID first = add(0, 1000, 1, START);
+        UUID third = add(0, 1400, 1, START.plusSeconds(1));
+        UUID second = add(0, 1200, 2, START.plusSeconds(2));
+        UUID elsewhere = add(0, -1000, 1, START.plusSeconds(3));
+        clock.advance(Duration.ofMinutes(1));
+        deliveryPlanner.plan();
+
+        List<DeliveryPlanDTO> plans = deliveryPlanner.getPlans();
+        assertThat(plans).hasSize(2);
+        assertThat(references(plans.get(0))).containsExactly(first, second, third);
+        assertThat(plans.get(0).getPizzas()).isEqualTo(4);
+        assertThat(plans.get(0).getDistanceMeters()).isBetween(1399L, 1401L);
+        assertThat(plans.get(0).getReadyAt()).isEqualTo(START.plusSeconds(2));
+        assertThat(references(plans.get(1))).containsExactly(elsewhere);
+    }
+
+    @Test
+    void runsAreFilledUpToTheCapacity() {
+        for (int i = 0; i < 6; i++) {
+            add(300, 300, 1, START);
+        }
+        add(300, 300, 7, START);
+        deliveryPlanner.plan();
+
+        assertThat(deliveryPlanner.getPlans()).extracting(DeliveryPlanDTO::getPizzas).containsExactlyInAnyOrder(5, 1, 7);
+    }
+
+    @Test
+    void detoursAreBounded() {
+        add(2000, 0, 1, START);
+        // 1200 m further than delivering the first order alone
+        add(2000, 1200, 1, START);
+        // Close enough to join either run
+        add(1600, 400, 1, START);
+        deliveryPlanner.plan();
+
+        List<DeliveryPlanDTO> plans = deliveryPlanner.getPlans();
+        assertThat(plans).extracting(plan -> plan.getStops().size()).containsExactlyInAnyOrder(2, 1);
+    }
+
+    @Test
+    void ordersArePlannedOnceReady() {
+        UUID reference = add(100, 100, 1, START.plusSeconds(60));
+        deliveryPlanner.plan();
+        assertThat(deliveryPlanner.getPlans()).isEmpty();
+
+        clock.advance(Duration.ofSeconds(60));
+        deliveryPlanner.plan();
+        assertThat(deliveryPlanner.getPlans()).hasSize(1);
+        assertThat(references(deliveryPlanner.getPlans().get(0))).containsExactly(reference);
+    }
+
+    @Test
+    void dispatchedRunsAreNoLongerExtended() {
+        add(100, 100, 1, START);
+        deliveryPlanner.plan();
+        Long id = deliveryPlanner.getPlans().get(0).getId();
+
+        assertThat(deliveryPlanner.dispatch(id)).map(DeliveryPlanDTO::getPizzas).contains(1);
+        assertThat(deliveryPlanner.dispatch(id)).isEmpty();
+        assertThat(deliveryPlanner.getPlans()).isEmpty();
+
+        UUID next = add(100, 100, 1, START);
+        deliveryPlanner.plan();
+        assertThat(deliveryPlanner.getPlans()).hasSize(1);
+        assertThat(deliveryPlanner.getPlans().get(0).getId()).isNotEqualTo(id);
+        assertThat(references(deliveryPlanner.getPlans().get(0))).containsExactly(next);
+    }
+
+    @Test
+    void openOrdersArePlannedQuickly() {
+        // Warm up the JIT, then keep the best of a few rounds to leave out GC pauses
+        long bestNanos = Long.MAX_VALUE;
+        Set<UUID> references = Set.of();
+        for (int i = 0; i < 25; i++) {
+            deliveryPlanner = new DeliveryPlanner(properties, clock);
+            references = addOpenOrders(new Random(i));
+            long nanos = -System.nanoTime();
+            deliveryPlanner.plan();
+            nanos += System.nanoTime();
+            if (i >= 20) {
+                bestNanos = Math.min(bestNanos, nanos);
+            }
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(bestNanos)).isLessThan(50);
+        List<DeliveryPlanDTO> plans = deliveryPlanner.getPlans();
+        assertThat(plans).allSatisfy(plan -> assertThat(plan.getPizzas()).isLessThanOrEqualTo(properties.getCapacity()));
+        List<UUID> planned = plans.stream().flatMap(plan -> references(plan).stream()).collect(Collectors.toList());
+        assertThat(planned).hasSize(OPEN_ORDERS).containsExactlyInAnyOrderElementsOf(references);
+        // Batching must actually happen in a dense area
+        assertThat(plans.size()).isLessThan(OPEN_ORDERS / 2);
+    }
+
+    /**
+     * Add ready orders in a 12 km square around the shop.
+     *
+     * @return their references.
+     */
+    private Set<UUID> addOpenOrders(Random random) {
+        Set<UUID> references = new HashSet<>();
+        for (int i = 0; i < OPEN_ORDERS; i++) {
+            references.add(add(random.nextDouble() * 12_000 - 6_000, random.nextDouble() * 12_000 - 6_000, 1 + random.nextInt(3), START));
+        }
+        return references;
+    }
+
+    /**
+     * Add an order located in meters east and north of the shop.
+     */
+    private UUID add(double east, double north, int pizzas, Instant readyAt) {
+        UUID reference = UUID.randomUUID();
+        double latitude = SHOP_LATITUDE + north / DeliveryPlanner.METERS_PER_DEGREE;
+        double longitude = SHOP_LONGITUDE + east / (DeliveryPlanner.METERS_PER_DEGREE * Math.cos(Math.toRadians(SHOP_LATITUDE)));
+        deliveryPlanner.add(reference, latitude, longitude, pizzas, readyAt);
+        return reference;
+    }
+
+    private static List<UUID> references(DeliveryPlanDTO plan) {
+        List<UUID> references = new ArrayList<>();
+        for (DeliveryStopDTO stop : plan.getStops()) {
+            references.add(stop.getReference());
+        }
+        return references;
+    }
+}
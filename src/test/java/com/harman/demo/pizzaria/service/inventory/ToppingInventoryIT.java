@@ -0,0 +1,183 @@
+package com.harman.demo.pizzaria.service.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link ToppingInventory}.
+ * <p>
+ * The stock is written outside of the test transaction, so the toppings are committed and deleted afterwards.
+ */
+@IntegrationTest
+class ToppingInventoryIT {
+
+    private static final int THREADS = 64;
+
+    private static final int STOCK = 10_000;
+
+    @Autowired
+    private ToppingInventory toppingInventory;
+
+    @Autowired
+    private ToppingRepository toppingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Topping topping;
+
+    private Topping other;
+
+    @BeforeEach
+    public void initTest() {
+        topping = toppingRepository.saveAndFlush(new Topping().name("STOCKED").price(1F));
+        other = toppingRepository.saveAndFlush(new Topping().name("OTHER").price(1F));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        toppingInventory.setAvailable(topping.getId(), null);
+        toppingInventory.setAvailable(other.getId(), null);
+        toppingRepository.deleteById(topping.getId());
+        toppingRepository.deleteById(other.getId());
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        toppingInventory.setAvailable(topping.getId(), (long) STOCK);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Long> negative = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                int units = 1 + i % 3;
+                futures.add(
+                    executor.submit(() -> {
+                        start.await();
+                        // A third of the threads give their units back, so the counter goes up and down under contention
+                        boolean giveBack = units == 2;
+                        while (!stop.get()) {
+                            try {
+                                ToppingInventory.Reservation reservation = toppingInventory.reserve(Map.of(topping.getId(), units));
+                                if (giveBack) {
+                                    toppingInventory.release(reservation);
+                                } else {
+                                    reserved.addAndGet(units);
+                                }
+                            } catch (OutOfStockException e) {
+                                assertThat(e.getToppingId()).isEqualTo(topping.getId());
+                                rejected.incrementAndGet();
+                                if (toppingInventory.getAvailable(topping.getId()).orElseThrow() == 0) {
+                                    return null;
+                                }
+                            }
+                            long available = toppingInventory.getAvailable(topping.getId()).orElseThrow();
+                            if (available < 0) {
+                                negative.add(available);
+                            }
+                        }
+                        return null;
+                    })
+                );
+            }
+            start.countDown();
+            // Reconciling meanwhile must neither lose nor double count a reservation
+            while (toppingInventory.getAvailable(topping.getId()).orElseThrow() > 0) {
+                toppingInventory.reconcile();
+                Thread.sleep(5);
+            }
+            stop.set(true);
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Units reserved when the stock ran out may have been given back since
+        long available = toppingInventory.getAvailable(topping.getId()).orElseThrow();
+        assertThat(negative).isEmpty();
+        assertThat(rejected.get()).isPositive();
+        assertThat(available).isBetween(0L, 2L);
+        assertThat(reserved.get() + available).isEqualTo(STOCK);
+        toppingInventory.reconcile();
+        assertThat(storedStock(topping)).isEqualTo((int) available);
+    }
+
+    @Test
+    void reservationsAreAllOrNothing() {
+        toppingInventory.setAvailable(topping.getId(), 5L);
+        toppingInventory.setAvailable(other.getId(), 5L);
+
+        assertThatThrownBy(() -> toppingInventory.reserve(Map.of(other.getId(), 2, topping.getId(), 6)))
+            .isInstanceOf(OutOfStockException.class)
+            .hasMessage("Out of stock: topping " + topping.getId());
+        assertThat(toppingInventory.getAvailable(topping.getId())).contains(5L);
+        assertThat(toppingInventory.getAvailable(other.getId())).contains(5L);
+
+        ToppingInventory.Reservation reservation = toppingInventory.reserve(Map.of(topping.getId(), 5));
+        assertThat(toppingInventory.getAvailable(topping.getId())).contains(0L);
+        toppingInventory.reconcile();
+        assertThat(storedStock(topping)).isZero();
+
+        toppingInventory.release(reservation);
+        assertThat(toppingInventory.getAvailable(topping.getId())).contains(5L);
+        toppingInventory.reconcile();
+        assertThat(storedStock(topping)).isEqualTo(5);
+    }
+
+    @Test
+    void changesMadeInTheDatabaseArePickedUp() {
+        toppingInventory.setAvailable(topping.getId(), 10L);
+        toppingInventory.reserve(Map.of(topping.getId(), 3));
+
+        // Another instance reserving 4 units, and its write reaching the database first
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update("update topping set stock = stock - 4 where id = ?", topping.getId())
+        );
+        toppingInventory.reconcile();
+
+        assertThat(toppingInventory.getAvailable(topping.getId())).contains(3L);
+        assertThat(storedStock(topping)).isEqualTo(3);
+    }
+
+    @Test
+    void untrackedToppingsNeverRunOut() {
+        assertThat(toppingInventory.getAvailable(other.getId())).isEmpty();
+        toppingInventory.reserve(Map.of(other.getId(), Integer.MAX_VALUE));
+        assertThat(toppingInventory.getStock()).noneMatch(stock -> stock.getToppingId().equals(other.getId()));
+    }
+
+    private Integer storedStock(Topping topping) {
+        return jdbcTemplate.queryForObject("select stock from topping where id = ?", Integer.class, topping.getId());
+    }
+}
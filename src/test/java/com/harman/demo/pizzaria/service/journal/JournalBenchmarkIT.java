@@ -0,0 +1,66 @@
+package com.harman.demo.pizzaria.service.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Benchmark of the {@link Journal}: order status records appended per second, and time to replay them on startup.
+ * <p>
+ * Only run on demand: {@code ./mvnw verify -Dit.test=JournalBenchmarkIT -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JournalBenchmarkIT {
+
+    private static final int RECORDS = 10_000_000;
+
+    private static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private final Logger log = LoggerFactory.getLogger(JournalBenchmarkIT.class);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendAndReplay() throws IOException {
+        byte[] record = new byte[OrderJournal.RECORD_BYTES];
+        long started = System.nanoTime();
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < RECORDS; i++) {
+                record[0] = (byte) i;
+                journal.append(record);
+            }
+            journal.force();
+        }
+        long appendNanos = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        long[] replayed = new long[2];
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            journal.replay(
+                1,
+                (sequence, payload) -> {
+                    replayed[0]++;
+                    replayed[1] += payload.get(0);
+                }
+            );
+        }
+        long replayNanos = System.nanoTime() - started;
+
+        assertThat(replayed[0]).isEqualTo(RECORDS);
+        log.info(
+            "Appended {} records in {} ms, {} records/s; opened and replayed them in {} ms",
+            RECORDS,
+            Duration.ofNanos(appendNanos).toMillis(),
+            RECORDS * 1_000_000_000L / appendNanos,
+            Duration.ofNanos(replayNanos).toMillis()
+        );
+    }
+}
@@ -0,0 +1,139 @@
+package com.harman.demo.pizzaria.service.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournalTest {
+
+    private static final int SEGMENT_BYTES = 256;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsAreReplayedInOrderAcrossSegments() throws IOException {
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            for (int i = 1; i <= 20; i++) {
+                assertThat(journal.append(record(i))).isEqualTo(i);
+            }
+            // 20 records of 16 + 9 bytes, 10 per segment
+            assertThat(journal.getSegmentCount()).isEqualTo(2);
+            assertThat(replay(journal, 1)).hasSize(20).startsWith("record 01", "record 02").endsWith("record 20");
+            assertThat(replay(journal, 15)).containsExactly("record 15", "record 16", "record 17", "record 18", "record 19", "record 20");
+        }
+
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            assertThat(journal.getLastSequence()).isEqualTo(20);
+            assertThat(journal.append(record(21))).isEqualTo(21);
+            assertThat(replay(journal, 1)).hasSize(21).endsWith("record 21");
+        }
+    }
+
+    @Test
+    void segmentsCutMidRecordAreRecovered() throws IOException {
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            for (int i = 1; i <= 13; i++) {
+                journal.append(record(i));
+            }
+        }
+        // Record 13 is the 3rd of the second segment: keep the first 2, and half of it
+        Path last = lastSegment();
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.truncate(2 * (Journal.HEADER_BYTES + 9) + 12);
+        }
+
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            assertThat(journal.getLastSequence()).isEqualTo(12);
+            assertThat(replay(journal, 1)).hasSize(12).endsWith("record 12");
+            assertThat(journal.append(record(13))).isEqualTo(13);
+        }
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            assertThat(replay(journal, 11)).containsExactly("record 11", "record 12", "record 13");
+        }
+    }
+
+    @Test
+    void tornRecordsAreWiped() throws IOException {
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            for (int i = 1; i <= 4; i++) {
+                journal.append(record(i));
+            }
+        }
+        // The length of record 4 reached the disk, but not all of its payload
+        Path last = lastSegment();
+        int record4 = 3 * (Journal.HEADER_BYTES + 9);
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 0 }), record4 + Journal.HEADER_BYTES + 5);
+        }
+
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            assertThat(journal.getLastSequence()).isEqualTo(3);
+            journal.append("new 4".getBytes(StandardCharsets.UTF_8));
+        }
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            assertThat(replay(journal, 1)).containsExactly("record 01", "record 02", "record 03", "new 4");
+            assertThat(journal.append(record(5))).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void segmentsUpToASequenceAreDeleted() throws IOException {
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            for (int i = 1; i <= 25; i++) {
+                journal.append(record(i));
+            }
+            assertThat(journal.getSegmentCount()).isEqualTo(3);
+
+            assertThat(journal.deleteUpTo(9)).isZero();
+            assertThat(journal.deleteUpTo(10)).isEqualTo(1);
+            // The segment being appended to is kept
+            assertThat(journal.deleteUpTo(25)).isEqualTo(1);
+            assertThat(journal.getSegmentCount()).isEqualTo(1);
+            assertThat(replay(journal, 1)).hasSize(5).startsWith("record 21");
+        }
+        try (Journal journal = Journal.open(directory, SEGMENT_BYTES)) {
+            assertThat(journal.append(record(26))).isEqualTo(26);
+        }
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().reduce((first, second) -> second).orElseThrow();
+        }
+    }
+
+    private static List<String> replay(Journal journal, long fromSequence) {
+        List<String> records = new ArrayList<>();
+        List<Long> sequences = new ArrayList<>();
+        journal.replay(
+            fromSequence,
+            (sequence, payload) -> {
+                byte[] bytes = new byte[payload.remaining()];
+                payload.get(bytes);
+                records.add(new String(bytes, StandardCharsets.UTF_8));
+                sequences.add(sequence);
+            }
+        );
+        assertThat(sequences).hasSize(records.size()).isSorted().doesNotHaveDuplicates();
+        if (!sequences.isEmpty()) {
+            assertThat(sequences.get(sequences.size() - 1) - sequences.get(0)).isEqualTo(sequences.size() - 1);
+        }
+        return records;
+    }
+
+    private static byte[] record(int i) {
+        return String.format("record %02d", i).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,126 @@
+package com.harman.demo.pizzaria.service.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.MutableClock;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.service.dto.OrderReceiptDTO;
+import com.harman.demo.pizzaria.service.order.OrderStatusEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OrderJournalTest {
+
+    private static final Instant START = Instant.parse("2022-05-01T18:00:00Z");
+
+    private static final Instant READY_AT = START.plus(Duration.ofMinutes(20));
+
+    @TempDir
+    Path directory;
+
+    private ApplicationProperties.Journal properties;
+
+    private MutableClock clock;
+
+    private OrderJournal orderJournal;
+
+    @BeforeEach
+    public void initTest() throws IOException {
+        properties = new ApplicationProperties.Journal();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentBytes(Journal.HEADER_BYTES + OrderJournal.RECORD_BYTES);
+        properties.setRetention(Duration.ofHours(1));
+        clock = new MutableClock(START);
+        orderJournal = new OrderJournal(properties, clock);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        orderJournal.close();
+    }
+
+    @Test
+    void statusIsRecoveredFromTheJournal() throws IOException {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        orderJournal.onOrderStatus(new OrderStatusEvent(first, OrderReceiptDTO.Status.QUEUED, null));
+        orderJournal.onOrderStatus(new OrderStatusEvent(second, OrderReceiptDTO.Status.QUEUED, null));
+        orderJournal.onOrderStatus(new OrderStatusEvent(first, OrderReceiptDTO.Status.PERSISTED, READY_AT));
+
+        OrderJournal recovered = reopen();
+        assertThat(recovered.getOrderCount()).isEqualTo(2);
+        assertStatus(recovered, first, OrderReceiptDTO.Status.PERSISTED, READY_AT);
+        assertStatus(recovered, second, OrderReceiptDTO.Status.QUEUED, null);
+        assertThat(recovered.getStatus(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void statusOnlyMovesForward() throws IOException {
+        UUID reference = UUID.randomUUID();
+        orderJournal.onOrderStatus(new OrderStatusEvent(reference, OrderReceiptDTO.Status.PERSISTED, READY_AT));
+        orderJournal.onOrderStatus(new OrderStatusEvent(reference, OrderReceiptDTO.Status.QUEUED, null));
+
+        assertStatus(orderJournal, reference, OrderReceiptDTO.Status.PERSISTED, READY_AT);
+        assertStatus(reopen(), reference, OrderReceiptDTO.Status.PERSISTED, READY_AT);
+    }
+
+    @Test
+    void compactionWritesASnapshotAndDeletesTheSegmentsItCovers() throws IOException {
+        UUID old = UUID.randomUUID();
+        orderJournal.onOrderStatus(new OrderStatusEvent(old, OrderReceiptDTO.Status.PERSISTED, READY_AT));
+        clock.advance(Duration.ofMinutes(45));
+        UUID recent = UUID.randomUUID();
+        orderJournal.onOrderStatus(new OrderStatusEvent(recent, OrderReceiptDTO.Status.QUEUED, null));
+        orderJournal.onOrderStatus(new OrderStatusEvent(recent, OrderReceiptDTO.Status.PERSISTED, READY_AT));
+        clock.advance(Duration.ofMinutes(30));
+        assertThat(orderJournal.getJournal().getSegmentCount()).isEqualTo(3);
+
+        orderJournal.compact();
+        assertThat(orderJournal.getStatus(old)).isEmpty();
+        assertThat(orderJournal.getJournal().getSegmentCount()).isEqualTo(1);
+
+        UUID next = UUID.randomUUID();
+        orderJournal.onOrderStatus(new OrderStatusEvent(next, OrderReceiptDTO.Status.QUEUED, null));
+        OrderJournal recovered = reopen();
+        assertThat(recovered.getOrderCount()).isEqualTo(2);
+        assertStatus(recovered, recent, OrderReceiptDTO.Status.PERSISTED, READY_AT);
+        assertStatus(recovered, next, OrderReceiptDTO.Status.QUEUED, null);
+    }
+
+    @Test
+    void damagedSnapshotFallsBackToTheJournal() throws IOException {
+        UUID reference = UUID.randomUUID();
+        orderJournal.onOrderStatus(new OrderStatusEvent(reference, OrderReceiptDTO.Status.QUEUED, null));
+        orderJournal.compact();
+        try (FileChannel channel = FileChannel.open(directory.resolve(OrderJournal.SNAPSHOT), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 1 }), 20);
+        }
+
+        // The only segment is the one being appended to, which compaction keeps
+        assertStatus(reopen(), reference, OrderReceiptDTO.Status.QUEUED, null);
+    }
+
+    private OrderJournal reopen() throws IOException {
+        orderJournal.close();
+        orderJournal = new OrderJournal(properties, clock);
+        return orderJournal;
+    }
+
+    private static void assertStatus(OrderJournal orderJournal, UUID reference, OrderReceiptDTO.Status status, Instant readyAt) {
+        assertThat(orderJournal.getStatus(reference))
+            .hasValueSatisfying(event -> {
+                assertThat(event.getStatus()).isEqualTo(status);
+                assertThat(event.getReadyAt()).isEqualTo(readyAt);
+            });
+    }
+}
@@ -0,0 +1,235 @@
+package com.harman.demo.pizzaria.service.kitchen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.harman.demo.pizzaria.MutableClock;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.service.dto.BakeDTO;
+import com.harman.demo.pizzaria.service.dto.OrderEtaDTO;
+import com.harman.demo.pizzaria.service.dto.OvenDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+class KitchenSchedulerTest {
+
+    private static final Instant START = Instant.parse("2022-05-01T18:00:00Z");
+
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+    }
+
+    @Test
+    void pizzasGoToTheOvenFinishingThemFirst() {
+        KitchenScheduler scheduler = scheduler(2);
+        UUID reference = UUID.randomUUID();
+
+        Instant readyAt = scheduler.schedule(reference, List.of(PizzaSize.LARGE, PizzaSize.SMALL, PizzaSize.SMALL));
+
+        // The second small pizza waits 6 minutes for the first rather than 10 for the large one
+        assertThat(readyAt).isEqualTo(START.plus(Duration.ofMinutes(12)));
+        assertThat(scheduler.getEta(reference)).map(OrderEtaDTO::getReadyAt).contains(readyAt);
+        List<OvenDTO> queue = scheduler.getQueue();
+        assertThat(queue).extracting(OvenDTO::getOven).containsExactly(0, 1);
+        assertThat(queue)
+            .extracting(oven -> oven.getBakes().stream().map(BakeDTO::getPizzaSize).collect(Collectors.toList()))
+            .containsExactlyInAnyOrder(List.of(PizzaSize.LARGE), List.of(PizzaSize.SMALL, PizzaSize.SMALL));
+        assertThat(queue)
+            .extracting(OvenDTO::getReadyAt)
+            .containsExactlyInAnyOrder(START.plus(Duration.ofMinutes(10)), START.plus(Duration.ofMinutes(12)));
+    }
+
+    @Test
+    void idleOvensStartBakingRightAway() {
+        KitchenScheduler scheduler = scheduler(1);
+        scheduler.schedule(UUID.randomUUID(), List.of(PizzaSize.MEDIUM));
+
+        clock.advance(Duration.ofMinutes(30));
+        Instant readyAt = scheduler.schedule(UUID.randomUUID(), List.of(PizzaSize.SMALL));
+
+        assertThat(readyAt).isEqualTo(START.plus(Duration.ofMinutes(36)));
+        assertThat(scheduler.getQueue().get(0).getBakes())
+            .singleElement()
+            .satisfies(bake -> assertThat(bake.getStart()).isEqualTo(START.plus(Duration.ofMinutes(30))));
+    }
+
+    @Test
+    void pastBakesAndReadyTimesArePruned() {
+        KitchenScheduler scheduler = scheduler(1);
+        UUID reference = UUID.randomUUID();
+        scheduler.schedule(reference, List.of(PizzaSize.SMALL, PizzaSize.SMALL));
+
+        clock.advance(Duration.ofMinutes(7));
+        assertThat(scheduler.getQueue().get(0).getBakes()).hasSize(1);
+
+        clock.advance(Duration.ofMinutes(5));
+        scheduler.prune();
+        assertThat(scheduler.getQueue().get(0).getBakes()).isEmpty();
+        assertThat(scheduler.getEta(reference)).isPresent();
+
+        clock.advance(KitchenScheduler.ETA_RETENTION.plusMinutes(1));
+        scheduler.prune();
+        assertThat(scheduler.getEta(reference)).isEmpty();
+    }
+
+    @Test
+    void cancelledOrdersLeaveThePlan() {
+        KitchenScheduler scheduler = scheduler(1);
+        UUID kept = UUID.randomUUID();
+        UUID cancelled = UUID.randomUUID();
+        scheduler.schedule(kept, List.of(PizzaSize.SMALL));
+        scheduler.schedule(cancelled, List.of(PizzaSize.SMALL, PizzaSize.SMALL));
+
+        scheduler.cancel(cancelled);
+
+        assertThat(scheduler.getEta(cancelled)).isEmpty();
+        assertThat(scheduler.getEta(kept)).isPresent();
+        OvenDTO oven = scheduler.getQueue().get(0);
+        assertThat(oven.getBakes()).extracting(BakeDTO::getReference).containsExactly(kept);
+        assertThat(oven.getReadyAt()).isEqualTo(START.plus(Duration.ofMinutes(6)));
+        assertThat(scheduler.schedule(UUID.randomUUID(), List.of(PizzaSize.SMALL))).isEqualTo(START.plus(Duration.ofMinutes(12)));
+    }
+
+    @Test
+    void kitchenNeedsOvensAndBakeTimes() {
+        ApplicationProperties.Kitchen properties = new ApplicationProperties.Kitchen();
+        properties.setOvens(0);
+        assertThatThrownBy(() -> new KitchenScheduler(properties, clock)).isInstanceOf(IllegalArgumentException.class);
+
+        properties.setOvens(1);
+        properties.getBakeTimes().remove(PizzaSize.MEDIUM);
+        assertThatThrownBy(() -> new KitchenScheduler(properties, clock)).hasMessageContaining("MEDIUM");
+    }
+
+    @Test
+    void bakeTimesBindFromConfiguration() {
+        MapConfigurationPropertySource source = new MapConfigurationPropertySource(
+            Map.of("application.kitchen.ovens", "2", "application.kitchen.bake-times.extra-large", "15m")
+        );
+
+        ApplicationProperties properties = new Binder(source).bind("application", Bindable.ofInstance(new ApplicationProperties())).get();
+
+        assertThat(properties.getKitchen().getOvens()).isEqualTo(2);
+        assertThat(properties.getKitchen().getBakeTimes())
+            .containsEntry(PizzaSize.EXTRA_LARGE, Duration.ofMinutes(15))
+            .containsEntry(PizzaSize.SMALL, Duration.ofMinutes(6));
+    }
+
+    /**
+     * A rush of 10k orders a minute, placed by concurrent clients on a simulated clock: every pizza is queued, and no
+     * oven ever bakes two pizzas at once.
+     */
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void tenThousandOrdersAMinute() throws Exception {
+        KitchenScheduler scheduler = scheduler(4);
+        AtomicInteger pizzas = new AtomicInteger();
+        Map<UUID, Instant> readyTimes = new ConcurrentHashMap<>();
+        rush(scheduler, 10_000, pizzas, readyTimes);
+
+        List<OvenDTO> queue = scheduler.getQueue();
+        assertThat(queue.stream().mapToInt(oven -> oven.getBakes().size()).sum()).isEqualTo(pizzas.get());
+        for (OvenDTO oven : queue) {
+            List<BakeDTO> bakes = oven.getBakes();
+            for (int i = 1; i < bakes.size(); i++) {
+                assertThat(bakes.get(i).getStart()).isAfterOrEqualTo(bakes.get(i - 1).getEnd());
+            }
+        }
+        readyTimes.forEach((reference, readyAt) -> assertThat(scheduler.getEta(reference)).map(OrderEtaDTO::getReadyAt).contains(readyAt));
+    }
+
+    /**
+     * The same rush: planning stays under a millisecond at the 99th percentile. Only run with {@code -Dbenchmark=true},
+     * as it depends on the machine.
+     */
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void tenThousandOrdersAMinuteArePlannedQuickly() throws Exception {
+        int orders = 10_000;
+        long[] latencies = rush(scheduler(4), orders, new AtomicInteger(), new ConcurrentHashMap<>());
+
+        Arrays.sort(latencies);
+        long p99 = latencies[orders * 99 / 100 - 1];
+        assertThat(TimeUnit.NANOSECONDS.toMicros(p99)).as("p99 scheduling latency in µs").isLessThan(1000);
+    }
+
+    /**
+     * Place orders of one to three pizzas from 8 concurrent clients, spread over a minute of the simulated clock.
+     *
+     * @return the scheduling latency of each order, in nanoseconds.
+     */
+    private long[] rush(KitchenScheduler scheduler, int orders, AtomicInteger pizzas, Map<UUID, Instant> readyTimes) throws Exception {
+        int clients = 8;
+        long orderIntervalMillis = TimeUnit.MINUTES.toMillis(1) / orders;
+        AtomicInteger placed = new AtomicInteger();
+        long[] latencies = new long[orders];
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                long seed = c;
+                futures.add(
+                    executor.submit(() -> {
+                        Random random = new Random(seed);
+                        start.await();
+                        int i;
+                        while ((i = placed.getAndIncrement()) < orders) {
+                            List<PizzaSize> pizzaSizes = new ArrayList<>();
+                            for (int p = random.nextInt(3); p >= 0; p--) {
+                                pizzaSizes.add(PizzaSize.values()[random.nextInt(PizzaSize.values().length)]);
+                            }
+                            UUID reference = UUID.randomUUID();
+                            long begin = System.nanoTime();
+                            Instant readyAt = scheduler.schedule(reference, pizzaSizes);
+                            latencies[i] = System.nanoTime() - begin;
+                            readyTimes.put(reference, readyAt);
+                            pizzas.addAndGet(pizzaSizes.size());
+                            clock.advance(Duration.ofMillis(orderIntervalMillis));
+                        }
+                        return null;
+                    })
+                );
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return latencies;
+    }
+
+    private KitchenScheduler scheduler(int ovens) {
+        ApplicationProperties.Kitchen properties = new ApplicationProperties.Kitchen();
+        properties.setOvens(ovens);
+        return new KitchenScheduler(properties, clock);
+    }
+}
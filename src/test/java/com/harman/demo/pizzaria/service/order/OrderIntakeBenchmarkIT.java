@@ -0,0 +1,236 @@
+package com.harman.demo.pizzaria.service.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.OrderLine;
+import com.harman.demo.pizzaria.domain.Pizza;
+import com.harman.demo.pizzaria.domain.PizzaOrder;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.repository.PizzaOrderRepository;
+import com.harman.demo.pizzaria.repository.PizzaRepository;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.service.catalog.CatalogSnapshotService;
+import com.harman.demo.pizzaria.service.dto.OrderLineDTO;
+import com.harman.demo.pizzaria.service.dto.OrderReceiptDTO;
+import com.harman.demo.pizzaria.service.dto.PizzaOrderDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmark of the order intake: orders persisted per second through {@link OrderIntakeService}, with concurrent
+ * clients, against one transaction per order as a synchronous endpoint would do.
+ * <p>
+ * Only run on demand: {@code ./mvnw verify -Dit.test=OrderIntakeBenchmarkIT -Dbenchmark=true}.
+ */
+@IntegrationTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderIntakeBenchmarkIT {
+
+    private static final int ORDERS = 20_000;
+
+    private static final int WARM_UP_ORDERS = 2_000;
+
+    private static final int CLIENTS = 8;
+
+    private static final long RETRY_AFTER_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Logger log = LoggerFactory.getLogger(OrderIntakeBenchmarkIT.class);
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private PizzaOrderRepository pizzaOrderRepository;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private ToppingRepository toppingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    private Pizza pizza;
+
+    private Topping topping;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        applicationProperties.getOrders().setAck(ApplicationProperties.Orders.Ack.FLUSH);
+        applicationProperties.getOrders().setFlushTimeoutMs(60_000);
+        pizza = pizzaRepository.saveAndFlush(new Pizza().pizzaSize(PizzaSize.MEDIUM).price(9F));
+        topping = toppingRepository.saveAndFlush(new Topping().name("BENCHMARK").price(1F));
+        // Orders are priced from the in-memory catalog, as with the default configuration
+        applicationProperties.getCatalog().getSnapshot().setEnabled(true);
+        catalogSnapshotService.refresh();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        applicationProperties.getOrders().setAck(ApplicationProperties.Orders.Ack.ENQUEUE);
+        applicationProperties.getOrders().setFlushTimeoutMs(5_000);
+        applicationProperties.getCatalog().getSnapshot().setEnabled(false);
+        // Connections are not in auto-commit mode
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from rel_order_line__topping");
+            jdbcTemplate.update("delete from order_line");
+            jdbcTemplate.update("delete from pizza_order");
+        });
+        pizzaRepository.deleteById(pizza.getId());
+        toppingRepository.deleteById(topping.getId());
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void intakeBatchesOrdersFromConcurrentClients() throws Exception {
+        submitToIntake(WARM_UP_ORDERS);
+        saveOneByOne(WARM_UP_ORDERS);
+
+        statistics.clear();
+        long intake = submitToIntake(ORDERS);
+        long intakeTransactions = statistics.getTransactionCount();
+        long intakeStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long single = saveOneByOne(ORDERS);
+        long singleTransactions = statistics.getTransactionCount();
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        double intakeRate = ORDERS * 1e9 / intake;
+        double singleRate = ORDERS * 1e9 / single;
+        log.info(
+            "Persisted {} orders from {} clients: {} orders/s, {} transactions and {} statements through the intake, " +
+            "{} orders/s, {} transactions and {} statements with one transaction each ({}x)",
+            ORDERS,
+            CLIENTS,
+            Math.round(intakeRate),
+            intakeTransactions,
+            intakeStatements,
+            Math.round(singleRate),
+            singleTransactions,
+            singleStatements,
+            Math.round(intakeRate / singleRate * 10) / 10.0
+        );
+        assertThat(pizzaOrderRepository.count()).isEqualTo(2L * (ORDERS + WARM_UP_ORDERS));
+        assertThat(intakeTransactions).isLessThan(singleTransactions / 10);
+        assertThat(intakeStatements).isLessThan(singleStatements / 10);
+    }
+
+    /**
+     * @return the time until every order is committed.
+     */
+    private long submitToIntake(int orders) throws Exception {
+        long start = System.nanoTime();
+        List<CompletableFuture<OrderReceiptDTO>> receipts = concurrently(orders, () -> {
+            while (true) {
+                try {
+                    return orderIntakeService.submit(order());
+                } catch (OrderQueueFullException e) {
+                    // What a client does on 429
+                    LockSupport.parkNanos(RETRY_AFTER_NANOS);
+                }
+            }
+        });
+        for (CompletableFuture<OrderReceiptDTO> receipt : receipts) {
+            assertThat(receipt.get().getStatus()).isEqualTo(OrderReceiptDTO.Status.PERSISTED);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * @return the time to save every order in its own transaction, from the client threads.
+     */
+    private long saveOneByOne(int orders) throws Exception {
+        long start = System.nanoTime();
+        concurrently(orders, () -> transactionTemplate.execute(status -> pizzaOrderRepository.save(entity())));
+        return System.nanoTime() - start;
+    }
+
+    private <T> List<T> concurrently(int count, Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<List<T>>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int share = count / CLIENTS + (c < count % CLIENTS ? 1 : 0);
+                clients.add(
+                    executor.submit(() -> {
+                        List<T> results = new ArrayList<>(share);
+                        for (int i = 0; i < share; i++) {
+                            results.add(task.call());
+                        }
+                        return results;
+                    })
+                );
+            }
+            List<T> results = new ArrayList<>(count);
+            for (Future<List<T>> client : clients) {
+                results.addAll(client.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private PizzaOrder entity() {
+        OrderLine line = new OrderLine().quantity(1).unitPrice(10F).pizza(pizza).addTopping(topping);
+        return new PizzaOrder().reference(UUID.randomUUID()).total(10F).createdDate(Instant.now()).addLines(line);
+    }
+
+    private PizzaOrderDTO order() {
+        OrderLineDTO line = new OrderLineDTO();
+        line.setPizzaId(pizza.getId());
+        line.setQuantity(1);
+        line.setToppingIds(List.of(topping.getId()));
+        PizzaOrderDTO pizzaOrderDTO = new PizzaOrderDTO();
+        pizzaOrderDTO.setLines(List.of(line));
+        return pizzaOrderDTO;
+    }
+}
@@ -0,0 +1,92 @@
+package com.harman.demo.pizzaria.service.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class OrderRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new OrderRingBuffer<>(1).capacity()).isEqualTo(1);
+        assertThat(new OrderRingBuffer<>(8).capacity()).isEqualTo(8);
+        assertThat(new OrderRingBuffer<>(1000).capacity()).isEqualTo(1024);
+        assertThatThrownBy(() -> new OrderRingBuffer<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void offersFailWhenFullUntilElementsAreTaken() {
+        OrderRingBuffer<Integer> buffer = new OrderRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        assertThat(buffer.poll()).isZero();
+        assertThat(buffer.offer(4)).isTrue();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(drained).containsExactly(1, 2, 3);
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(1);
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(buffer.poll()).isNull();
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    void concurrentProducersLoseNothing() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        OrderRingBuffer<Long> buffer = new OrderRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producers; p++) {
+                long base = (long) p * perProducer;
+                executor.submit(() -> {
+                    start.await();
+                    for (long i = base; i < base + perProducer; i++) {
+                        while (!buffer.offer(i)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+
+            Set<Long> taken = new HashSet<>();
+            long[] lastByProducer = new long[producers];
+            Arrays.fill(lastByProducer, -1);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (taken.size() < producers * perProducer && System.nanoTime() < deadline) {
+                Long element = buffer.poll();
+                if (element == null) {
+                    Thread.yield();
+                    continue;
+                }
+                assertThat(taken.add(element)).as("duplicate %s", element).isTrue();
+                // Each producer's elements come out in the order it offered them
+                int producer = (int) (element / perProducer);
+                assertThat(element).isGreaterThan(lastByProducer[producer]);
+                lastByProducer[producer] = element;
+            }
+            assertThat(taken).hasSize(producers * perProducer);
+            assertThat(buffer.isEmpty()).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.harman.demo.pizzaria.service.pricing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.service.dto.ToppingDTO;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PriceTablesTest {
+
+    @Test
+    void pricesAreRoundedToTheCent() {
+        assertThat(PriceTables.toCents(0.1F)).isEqualTo(10);
+        assertThat(PriceTables.toCents(12.99F)).isEqualTo(1299);
+        assertThat(PriceTables.toCents(1.005F)).isEqualTo(101);
+        assertThat(PriceTables.toCents(null)).isEqualTo(PriceTables.UNKNOWN);
+        assertThat(PriceTables.toCents(Float.NaN)).isEqualTo(PriceTables.UNKNOWN);
+        assertThat(PriceTables.toCents(-1F)).isEqualTo(PriceTables.UNKNOWN);
+        assertThat(PriceTables.fromCents(1299)).isEqualTo(new BigDecimal("12.99"));
+    }
+
+    @Test
+    void quotesAreExactSumsOfCents() {
+        PriceTables tables = PriceTables.of(List.of(pizza(1L, 9.9F)), List.of(topping(10L, 0.1F), topping(11L, 0.2F)));
+
+        // 9.9 + 0.1 + 0.2 + 0.2 is not 10.4 in float arithmetic
+        assertThat(tables.unitCents(1L, new long[] { 10L, 11L, 11L }, 3)).isEqualTo(1040);
+        assertThat(tables.unitCents(1L, List.of(10L, 11L, 11L))).isEqualTo(1040);
+        assertThat(tables.quoteCents(1L, new long[] { 10L, 11L, 99L }, 2, 3)).isEqualTo(3060);
+        assertThat(tables.quoteCents(1L, new long[0], 0, 1)).isEqualTo(990);
+    }
+
+    @Test
+    void unknownItemsCannotBeQuoted() {
+        PriceTables tables = PriceTables.of(List.of(pizza(1L, 8F), pizza(2L, null)), List.of(topping(10L, 1F)));
+
+        assertThat(tables.getPizzaCount()).isEqualTo(1);
+        assertThat(tables.pizzaCents(2L)).isEqualTo(PriceTables.UNKNOWN);
+        assertThat(tables.quoteCents(3L, new long[0], 0, 1)).isEqualTo(PriceTables.UNKNOWN);
+        assertThat(tables.quoteCents(1L, new long[] { 10L, 12L }, 2, 1)).isEqualTo(PriceTables.UNKNOWN);
+        assertThat(tables.unitCents(1L, List.of(-5L))).isEqualTo(PriceTables.UNKNOWN);
+        assertThat(PriceTables.EMPTY.pizzaCents(1L)).isEqualTo(PriceTables.UNKNOWN);
+    }
+
+    @Test
+    void sparseIdsAreBinarySearched() {
+        long[] ids = { 5L, 3L, 1_000_000L, 7L };
+        long[] cents = { 500L, 300L, 100L, 700L };
+        PriceTables.IdTable sparse = PriceTables.IdTable.of(ids, cents);
+        PriceTables.IdTable dense = PriceTables.IdTable.of(new long[] { 5L, 3L, 7L }, new long[] { 500L, 300L, 700L });
+
+        assertThat(sparse.isDirect()).isFalse();
+        assertThat(dense.isDirect()).isTrue();
+        for (PriceTables.IdTable table : List.of(sparse, dense)) {
+            assertThat(table.get(3L)).isEqualTo(300L);
+            assertThat(table.get(5L)).isEqualTo(500L);
+            assertThat(table.get(7L)).isEqualTo(700L);
+            assertThat(table.get(4L)).isEqualTo(PriceTables.UNKNOWN);
+            assertThat(table.get(Long.MIN_VALUE)).isEqualTo(PriceTables.UNKNOWN);
+            assertThat(table.get(Long.MAX_VALUE)).isEqualTo(PriceTables.UNKNOWN);
+        }
+        assertThat(sparse.get(1_000_000L)).isEqualTo(100L);
+    }
+
+    @Test
+    void overflowingQuotesAreRejected() {
+        PriceTables tables = PriceTables.of(List.of(pizza(1L, 1e16F)), List.of());
+
+        assertThatThrownBy(() -> tables.quoteCents(1L, new long[0], 0, 100)).isInstanceOf(ArithmeticException.class);
+    }
+
+    private static PizzaDTO pizza(Long id, Float price) {
+        PizzaDTO pizza = new PizzaDTO();
+        pizza.setId(id);
+        pizza.setPizzaSize(PizzaSize.MEDIUM);
+        pizza.setPrice(price);
+        return pizza;
+    }
+
+    private static ToppingDTO topping(Long id, Float price) {
+        ToppingDTO topping = new ToppingDTO();
+        topping.setId(id);
+        topping.setName("topping " + id);
+        topping.setPrice(price);
+        return topping;
+    }
+}
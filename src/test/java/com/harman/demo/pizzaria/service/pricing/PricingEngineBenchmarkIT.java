@@ -0,0 +1,128 @@
+package com.harman.demo.pizzaria.service.pricing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.service.dto.ToppingDTO;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of {@link PriceTables}: quotes per second on a single thread, so per core, and bytes allocated per
+ * quote, which should be 0.
+ * <p>
+ * Only run on demand: {@code ./mvnw verify -Dit.test=PricingEngineBenchmarkIT -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PricingEngineBenchmarkIT {
+
+    private static final int QUOTES = 1024;
+
+    private static final int TOPPINGS = 100;
+
+    private static final int MAX_TOPPINGS = 5;
+
+    private PriceTables tables;
+
+    private long[] pizzaIds;
+
+    private long[][] toppingIds;
+
+    private int[] quantities;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<PizzaDTO> pizzas = new ArrayList<>();
+        PizzaSize[] sizes = PizzaSize.values();
+        for (int i = 0; i < sizes.length * 3; i++) {
+            PizzaDTO pizza = new PizzaDTO();
+            pizza.setId(1L + i);
+            pizza.setPizzaSize(sizes[i % sizes.length]);
+            pizza.setPrice(5F + random.nextInt(2000) / 100F);
+            pizzas.add(pizza);
+        }
+        List<ToppingDTO> toppings = new ArrayList<>();
+        for (int i = 0; i < TOPPINGS; i++) {
+            ToppingDTO topping = new ToppingDTO();
+            topping.setId(1000L + i);
+            topping.setName("topping " + i);
+            topping.setPrice(random.nextInt(400) / 100F);
+            toppings.add(topping);
+        }
+        tables = PriceTables.of(pizzas, toppings);
+
+        // Precomputed requests, so the benchmark only measures pricing
+        pizzaIds = new long[QUOTES];
+        toppingIds = new long[QUOTES][];
+        quantities = new int[QUOTES];
+        for (int i = 0; i < QUOTES; i++) {
+            pizzaIds[i] = pizzas.get(random.nextInt(pizzas.size())).getId();
+            toppingIds[i] = new long[random.nextInt(MAX_TOPPINGS + 1)];
+            for (int j = 0; j < toppingIds[i].length; j++) {
+                toppingIds[i][j] = toppings.get(random.nextInt(toppings.size())).getId();
+            }
+            quantities[i] = 1 + random.nextInt(3);
+        }
+    }
+
+    @Benchmark
+    public long quote() {
+        int i = next++ & (QUOTES - 1);
+        return tables.quoteCents(pizzaIds[i], toppingIds[i], toppingIds[i].length, quantities[i]);
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void run() throws Exception {
+        Collection<RunResult> results = new Runner(
+            new OptionsBuilder().include(PricingEngineBenchmarkIT.class.getName() + ".quote").addProfiler(GCProfiler.class).build()
+        )
+            .run();
+
+        RunResult result = results.iterator().next();
+        assertThat(result.getPrimaryResult().getScore()).isPositive();
+        // Secondary results are prefixed with a separator which depends on the JMH version
+        double allocatedBytesPerQuote = result
+            .getSecondaryResults()
+            .entrySet()
+            .stream()
+            .filter(entry -> entry.getKey().endsWith("gc.alloc.rate.norm"))
+            .findFirst()
+            .orElseThrow()
+            .getValue()
+            .getScore();
+        assertThat(allocatedBytesPerQuote).isLessThan(1);
+    }
+}
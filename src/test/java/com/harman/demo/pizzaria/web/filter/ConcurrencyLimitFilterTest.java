@@ -0,0 +1,154 @@
+package com.harman.demo.pizzaria.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConcurrencyLimitFilterTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.ConcurrencyLimit.Group catalog = new ApplicationProperties.ConcurrencyLimit.Group();
+        catalog.setPaths(List.of("/api/pizzas/**"));
+        catalog.setInitialLimit(2);
+        catalog.setMinLimit(1);
+        catalog.setMaxLimit(10);
+        ApplicationProperties.ConcurrencyLimit properties = new ApplicationProperties.ConcurrencyLimit();
+        properties.setRetryAfterSeconds(3);
+        properties.getGroups().put("catalog", catalog);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(properties, meterRegistry);
+    }
+
+    @Test
+    void requestsBeyondTheLimitAreRejected() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch finish = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            started.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Thread[] threads = new Thread[2];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] =
+                new Thread(() -> {
+                    try {
+                        filter.doFilter(request("POST", "/api/pizzas"), new MockHttpServletResponse(), blocking);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            threads[i].start();
+        }
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(inFlight()).isEqualTo(2);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("PUT", "/api/pizzas/1"), response, chain);
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get(ConcurrencyLimitFilter.REJECTED_METER_NAME).tag("group", "catalog").counter().count()).isEqualTo(1);
+
+        finish.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(inFlight()).isZero();
+        chain = new MockFilterChain();
+        response = new MockHttpServletResponse();
+        filter.doFilter(request("PUT", "/api/pizzas/1"), response, chain);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void otherRequestsAreNotLimited() throws Exception {
+        for (String[] request : new String[][] { { "GET", "/api/pizzas" }, { "POST", "/api/toppings" }, { "GET", "/management/health" } }) {
+            FilterChain notCounted = (req, res) -> assertThat(inFlight()).isZero();
+            for (int i = 0; i < 3; i++) {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(request(request[0], request[1]), response, notCounted);
+                assertThat(response.getStatus()).isEqualTo(200);
+            }
+        }
+    }
+
+    @Test
+    void asynchronousRequestsKeepTheirSlotUntilDispatched() throws Exception {
+        MockHttpServletRequest request = request("POST", "/api/pizzas");
+        request.setAsyncSupported(true);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertThat(inFlight()).isEqualTo(1);
+
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(inFlight()).isZero();
+        // Completing the response afterwards does not release the slot again
+        request.getAsyncContext().complete();
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsSteady() {
+        GradientLimit limit = new GradientLimit(10, 2, 100, 1.5);
+        for (int i = 0; i < 200; i++) {
+            limit.update(TimeUnit.MILLISECONDS.toNanos(20), limit.getLimit());
+        }
+        assertThat(limit.getLimit()).isEqualTo(100);
+
+        // A quiet service keeps its limit
+        GradientLimit quiet = new GradientLimit(10, 2, 100, 1.5);
+        for (int i = 0; i < 200; i++) {
+            quiet.update(TimeUnit.MILLISECONDS.toNanos(20), 1);
+        }
+        assertThat(quiet.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() {
+        GradientLimit limit = new GradientLimit(50, 2, 100, 1.5);
+        for (int i = 0; i < 100; i++) {
+            limit.update(TimeUnit.MILLISECONDS.toNanos(20), limit.getLimit());
+        }
+        int steady = limit.getLimit();
+        // Requests waiting for database connections take ten times longer
+        for (int i = 0; i < 50; i++) {
+            limit.update(TimeUnit.MILLISECONDS.toNanos(200), limit.getLimit());
+        }
+        assertThat(limit.getLimit()).isLessThan(steady / 4).isGreaterThanOrEqualTo(2);
+    }
+
+    private int inFlight() {
+        return (int) meterRegistry.get(ConcurrencyLimitFilter.IN_FLIGHT_METER_NAME).tag("group", "catalog").gauge().value();
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setDispatcherType(DispatcherType.REQUEST);
+        return request;
+    }
+}
@@ -0,0 +1,120 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.repository.PizzaOrderRepository;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.security.AuthoritiesConstants;
+import com.harman.demo.pizzaria.service.PizzaService;
+import com.harman.demo.pizzaria.service.dto.OrderLineDTO;
+import com.harman.demo.pizzaria.service.dto.OrderReceiptDTO;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.service.dto.PizzaOrderDTO;
+import com.harman.demo.pizzaria.service.order.OrderIntakeService;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link AnalyticsResource} REST controller.
+ * <p>
+ * Sales are counted once orders are committed, so the order is committed rather than rolled back.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class AnalyticsResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/analytics/sales";
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private PizzaOrderRepository pizzaOrderRepository;
+
+    @Autowired
+    private PizzaService pizzaService;
+
+    @Autowired
+    private ToppingRepository toppingRepository;
+
+    @Autowired
+    private MockMvc restAnalyticsMockMvc;
+
+    private PizzaDTO pizza;
+
+    private Topping topping;
+
+    private OrderReceiptDTO receipt;
+
+    @BeforeEach
+    public void initTest() {
+        PizzaDTO pizzaDTO = new PizzaDTO();
+        pizzaDTO.setPizzaSize(PizzaSize.EXTRA_LARGE);
+        pizzaDTO.setPrice(14F);
+        pizza = pizzaService.save(pizzaDTO);
+        topping = toppingRepository.saveAndFlush(new Topping().name("COUNTED").price(1F));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        applicationProperties.getOrders().setAck(ApplicationProperties.Orders.Ack.ENQUEUE);
+        if (receipt != null) {
+            pizzaOrderRepository.findOneByReference(receipt.getReference()).ifPresent(pizzaOrderRepository::delete);
+        }
+        pizzaService.delete(pizza.getId());
+        toppingRepository.deleteById(topping.getId());
+    }
+
+    @Test
+    void getSalesPerMinuteAndPerHour() throws Exception {
+        applicationProperties.getOrders().setAck(ApplicationProperties.Orders.Ack.FLUSH);
+        receipt = orderIntakeService.submit(order(3)).get();
+
+        // The order may have been counted in the previous minute
+        restAnalyticsMockMvc
+            .perform(get(ENTITY_API_URL + "/minutes?count=2"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[*].toppings." + topping.getId()).value(hasItem(3)));
+        restAnalyticsMockMvc
+            .perform(get(ENTITY_API_URL + "/hours?count=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].start").isNotEmpty())
+            .andExpect(jsonPath("$.[*].pizzas." + PizzaSize.EXTRA_LARGE.name()).isNotEmpty())
+            .andExpect(jsonPath("$.[*].toppings." + topping.getId()).value(hasItem(3)));
+    }
+
+    @Test
+    @WithMockUser
+    void getSalesRequiresAdmin() throws Exception {
+        restAnalyticsMockMvc.perform(get(ENTITY_API_URL + "/minutes")).andExpect(status().isForbidden());
+    }
+
+    private PizzaOrderDTO order(int quantity) {
+        OrderLineDTO line = new OrderLineDTO();
+        line.setPizzaId(pizza.getId());
+        line.setQuantity(quantity);
+        line.setToppingIds(List.of(topping.getId()));
+        PizzaOrderDTO pizzaOrderDTO = new PizzaOrderDTO();
+        pizzaOrderDTO.setLines(List.of(line));
+        return pizzaOrderDTO;
+    }
+}
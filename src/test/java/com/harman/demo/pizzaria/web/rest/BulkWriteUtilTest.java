@@ -0,0 +1,40 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.web.rest.vm.BulkItemResultVM;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class BulkWriteUtilTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void itemsRefusedTogetherAreSavedOneByOne() {
+        // "b" was written meanwhile by another request, so the database refuses it, and the batch with it
+        List<BulkItemResultVM<String>> results = BulkWriteUtil.createAll(
+            List.of("a", "b", "c"),
+            item -> null,
+            validator,
+            items -> {
+                throw new DataIntegrityViolationException("Duplicate entry 'b'");
+            },
+            item -> {
+                if (item.equals("b")) {
+                    throw new DataIntegrityViolationException("Duplicate entry 'b'");
+                }
+                return item.toUpperCase();
+            },
+            "item"
+        );
+
+        assertThat(results.stream().map(BulkItemResultVM::getStatus).collect(Collectors.toList())).containsExactly(201, 409, 201);
+        assertThat(results.stream().map(BulkItemResultVM::getEntity).collect(Collectors.toList())).containsExactly("A", null, "C");
+        assertThat(results.get(1).getError()).isEqualTo("Conflicts with another item written meanwhile");
+    }
+}
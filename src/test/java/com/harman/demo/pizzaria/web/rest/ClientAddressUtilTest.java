@@ -0,0 +1,50 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class ClientAddressUtilTest {
+
+    private final Pattern trustedProxies = Pattern.compile(new ApplicationProperties.Security.LoginThrottle().getTrustedProxies());
+
+    @Test
+    void directClientsAreTheirRemoteAddress() {
+        MockHttpServletRequest request = request("203.0.113.7");
+        request.addHeader(ClientAddressUtil.FORWARDED_FOR_HEADER, "198.51.100.1");
+
+        assertThat(ClientAddressUtil.resolve(request, trustedProxies)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void clientsBehindTrustedProxiesAreTheAddressTheyForwarded() {
+        MockHttpServletRequest request = request("10.0.0.2");
+        // The first address was made up by the client, the proxies added the others
+        request.addHeader(ClientAddressUtil.FORWARDED_FOR_HEADER, "198.51.100.1, 203.0.113.7");
+        request.addHeader(ClientAddressUtil.FORWARDED_FOR_HEADER, "192.168.1.1");
+
+        assertThat(ClientAddressUtil.resolve(request, trustedProxies)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void clientsOfTheInternalNetworkAreTheFirstAddress() {
+        MockHttpServletRequest request = request("127.0.0.1");
+        request.addHeader(ClientAddressUtil.FORWARDED_FOR_HEADER, "192.168.1.20, 10.0.0.2");
+
+        assertThat(ClientAddressUtil.resolve(request, trustedProxies)).isEqualTo("192.168.1.20");
+    }
+
+    @Test
+    void clientsTrustedProxiesDidNotForwardAreUnknown() {
+        assertThat(ClientAddressUtil.resolve(request("172.16.0.3"), trustedProxies)).isNull();
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
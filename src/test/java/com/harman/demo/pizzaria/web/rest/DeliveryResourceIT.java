@@ -0,0 +1,84 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.domain.OrderLine;
+import com.harman.demo.pizzaria.domain.PizzaOrder;
+import com.harman.demo.pizzaria.service.delivery.DeliveryPlanner;
+import com.harman.demo.pizzaria.service.dto.DeliveryPlanDTO;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link DeliveryResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class DeliveryResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/delivery/plans";
+
+    @Autowired
+    private DeliveryPlanner deliveryPlanner;
+
+    @Autowired
+    private MockMvc restDeliveryMockMvc;
+
+    @Test
+    void getPlansAndDispatch() throws Exception {
+        UUID reference = UUID.randomUUID();
+        PizzaOrder pizzaOrder = new PizzaOrder()
+            .reference(reference)
+            .deliveryLatitude(-45.0)
+            .deliveryLongitude(170.0)
+            .addLines(new OrderLine().quantity(2));
+        deliveryPlanner.add(pizzaOrder, Instant.now().minusSeconds(1));
+        deliveryPlanner.plan();
+        Long id = deliveryPlanner
+            .getPlans()
+            .stream()
+            .filter(plan -> plan.getStops().stream().anyMatch(stop -> stop.getReference().equals(reference)))
+            .map(DeliveryPlanDTO::getId)
+            .findFirst()
+            .orElseThrow();
+
+        restDeliveryMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(id.intValue())))
+            .andExpect(jsonPath("$.[*].stops.[*].reference").value(hasItem(reference.toString())))
+            .andExpect(jsonPath("$.[*].stops.[*].location.latitude").value(hasItem(-45.0)));
+
+        restDeliveryMockMvc
+            .perform(post(ENTITY_API_URL + "/{id}/dispatch", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(id.intValue()))
+            .andExpect(jsonPath("$.pizzas").value(2))
+            .andExpect(jsonPath("$.stops.[0].reference").value(reference.toString()));
+
+        restDeliveryMockMvc.perform(post(ENTITY_API_URL + "/{id}/dispatch", id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void ordersPickedUpAreNotDelivered() {
+        UUID reference = UUID.randomUUID();
+        deliveryPlanner.add(new PizzaOrder().reference(reference).addLines(new OrderLine().quantity(1)), Instant.now().minusSeconds(1));
+        deliveryPlanner.plan();
+
+        assertThat(deliveryPlanner.getPlans())
+            .flatExtracting(DeliveryPlanDTO::getStops)
+            .noneMatch(stop -> stop.getReference().equals(reference));
+    }
+}
@@ -0,0 +1,109 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.security.AuthoritiesConstants;
+import com.harman.demo.pizzaria.service.dto.ToppingStockDTO;
+import com.harman.demo.pizzaria.service.inventory.ToppingInventory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link InventoryResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class InventoryResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/inventory/toppings";
+
+    @Autowired
+    private ToppingInventory toppingInventory;
+
+    @Autowired
+    private ToppingRepository toppingRepository;
+
+    @Autowired
+    private MockMvc restInventoryMockMvc;
+
+    private Topping topping;
+
+    @BeforeEach
+    public void initTest() {
+        topping = toppingRepository.saveAndFlush(new Topping().name("STOCKED").price(1F));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        toppingInventory.setAvailable(topping.getId(), null);
+        toppingRepository.deleteById(topping.getId());
+    }
+
+    @Test
+    void setAndGetStock() throws Exception {
+        restInventoryMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/{id}", topping.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new ToppingStockDTO(null, 12L)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.toppingId").value(topping.getId()))
+            .andExpect(jsonPath("$.available").value(12));
+
+        restInventoryMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].toppingId").value(hasItem(topping.getId().intValue())));
+        assertThat(toppingInventory.getAvailable(topping.getId())).contains(12L);
+    }
+
+    @Test
+    void setNegativeStock() throws Exception {
+        restInventoryMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/{id}", topping.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new ToppingStockDTO(null, -1L)))
+            )
+            .andExpect(status().isBadRequest());
+        assertThat(toppingInventory.getAvailable(topping.getId())).isEmpty();
+    }
+
+    @Test
+    void setStockOfUnknownTopping() throws Exception {
+        restInventoryMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/{id}", Long.MAX_VALUE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new ToppingStockDTO(null, 12L)))
+            )
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void setStockRequiresAdmin() throws Exception {
+        restInventoryMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/{id}", topping.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new ToppingStockDTO(null, 12L)))
+            )
+            .andExpect(status().isForbidden());
+    }
+}
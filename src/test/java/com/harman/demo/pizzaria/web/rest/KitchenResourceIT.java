@@ -0,0 +1,68 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.service.kitchen.KitchenScheduler;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link KitchenResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class KitchenResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/kitchen";
+
+    @Autowired
+    private KitchenScheduler kitchenScheduler;
+
+    @Autowired
+    private MockMvc restKitchenMockMvc;
+
+    @Test
+    void getQueue() throws Exception {
+        UUID reference = UUID.randomUUID();
+        kitchenScheduler.schedule(reference, List.of(PizzaSize.EXTRA_LARGE));
+
+        restKitchenMockMvc
+            .perform(get(ENTITY_API_URL + "/queue"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$", hasSize(4)))
+            .andExpect(jsonPath("$.[*].bakes.[*].reference").value(hasItem(reference.toString())))
+            .andExpect(jsonPath("$.[*].bakes.[*].pizzaSize").value(hasItem(PizzaSize.EXTRA_LARGE.name())));
+    }
+
+    @Test
+    void getEta() throws Exception {
+        UUID reference = UUID.randomUUID();
+        Instant readyAt = kitchenScheduler.schedule(reference, List.of(PizzaSize.SMALL, PizzaSize.MEDIUM));
+
+        restKitchenMockMvc
+            .perform(get(ENTITY_API_URL + "/orders/{reference}", reference))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.reference").value(reference.toString()))
+            .andExpect(jsonPath("$.readyAt").value(readyAt.toString()));
+    }
+
+    @Test
+    void getEtaOfUnknownOrder() throws Exception {
+        restKitchenMockMvc.perform(get(ENTITY_API_URL + "/orders/{reference}", UUID.randomUUID())).andExpect(status().isNotFound());
+    }
+}
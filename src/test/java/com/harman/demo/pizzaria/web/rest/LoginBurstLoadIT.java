@@ -0,0 +1,196 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.harman.demo.pizzaria.PizzariaApp;
+import com.harman.demo.pizzaria.domain.User;
+import com.harman.demo.pizzaria.repository.UserRepository;
+import com.harman.demo.pizzaria.security.AuthoritiesConstants;
+import com.harman.demo.pizzaria.security.jwt.TokenProvider;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Load test of the {@link UserJWTController}: measures the latency of catalog reads on their own, then while logins
+ * arrive at {@code 500} per second, to check that verifying passwords does not stall the other requests: the latency
+ * stays within three times the one measured on its own.
+ * <p>
+ * The login throttle is disabled, since the logins all come from a single client. The rate of logins and how long they
+ * last can be changed with {@code -Dlogins.per.second=} and {@code -Dlogins.seconds=}.
+ * <p>
+ * Only run on demand: {@code ./mvnw verify -Dit.test=LoginBurstLoadIT -Dbenchmark=true}.
+ */
+@SpringBootTest(
+    classes = PizzariaApp.class,
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "application.security.login-throttle.enabled=false"
+)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoginBurstLoadIT {
+
+    private static final int LOGINS_PER_SECOND = Integer.getInteger("logins.per.second", 500);
+
+    private static final int LOGINS_SECONDS = Integer.getInteger("logins.seconds", 5);
+
+    private static final int BASELINE_READS = 1_000;
+
+    private static final String LOGIN = "login-burst";
+
+    private final Logger log = LoggerFactory.getLogger(LoginBurstLoadIT.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    /**
+     * The catalog reads and the logins use clients of their own, so the reads do not queue behind the logins on the
+     * client side.
+     */
+    private final HttpClient catalogClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    private final HttpClient loginClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    private HttpRequest catalogRead;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setLogin(LOGIN);
+        user.setEmail(LOGIN + "@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("password"));
+        userRepository.saveAndFlush(user);
+
+        String token = tokenProvider.createToken(
+            new UsernamePasswordAuthenticationToken("user", null, List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))),
+            false
+        );
+        catalogRead =
+            HttpRequest
+                .newBuilder(URI.create("http://localhost:" + port + "/api/pizzas"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.findOneByLogin(LOGIN).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void catalogReadsStayFastDuringALoginBurst() throws Exception {
+        // With a single processor, the password verification cannot leave one to the reads
+        assumeTrue(Runtime.getRuntime().availableProcessors() > 1, "needs more than one processor");
+        // Warm up the server, then measure without logins
+        readCatalog(BASELINE_READS, new AtomicBoolean(true));
+        long[] baselineMicros = readCatalog(BASELINE_READS, new AtomicBoolean(true));
+
+        Map<Integer, AtomicInteger> loginStatuses = new ConcurrentHashMap<>();
+        AtomicBoolean burst = new AtomicBoolean(true);
+        CompletableFuture<long[]> burstMicros = CompletableFuture.supplyAsync(() -> readCatalog(Integer.MAX_VALUE, burst));
+        List<CompletableFuture<Void>> logins = new ArrayList<>();
+        HttpRequest login = HttpRequest
+            .newBuilder(URI.create("http://localhost:" + port + "/api/authenticate"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + LOGIN + "\",\"password\":\"password\"}"))
+            .build();
+        long start = System.nanoTime();
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / LOGINS_PER_SECOND;
+        for (long sent = 0; sent < (long) LOGINS_PER_SECOND * LOGINS_SECONDS; sent++) {
+            long due = start + sent * periodNanos;
+            LockSupport.parkNanos(due - System.nanoTime());
+            logins.add(
+                loginClient
+                    .sendAsync(login, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> count(loginStatuses, response.statusCode()))
+            );
+        }
+        CompletableFuture.allOf(logins.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+        burst.set(false);
+        long[] duringMicros = burstMicros.get(1, TimeUnit.MINUTES);
+
+        log.info(
+            "Catalog reads took {} µs (median), {} µs (p99) on their own and {} µs (median), {} µs (p99) over {} reads " +
+            "while {} logins per second arrived for {} s, answered with {}",
+            percentile(baselineMicros, 0.5),
+            percentile(baselineMicros, 0.99),
+            percentile(duringMicros, 0.5),
+            percentile(duringMicros, 0.99),
+            duringMicros.length,
+            LOGINS_PER_SECOND,
+            LOGINS_SECONDS,
+            loginStatuses
+        );
+        assertThat(loginStatuses).containsKey(200).containsOnlyKeys(200, 503);
+        // The password verification keeps to its own threads, leaving the other processors and worker threads to the reads
+        assertThat(percentile(duringMicros, 0.5)).isLessThan(3 * percentile(baselineMicros, 0.5));
+        assertThat(percentile(duringMicros, 0.99)).isLessThan(3 * percentile(baselineMicros, 0.99));
+    }
+
+    /**
+     * Read the catalog sequentially, up to a number of times or until told to stop.
+     *
+     * @return the latency of each read, in microseconds.
+     */
+    private long[] readCatalog(int reads, AtomicBoolean running) {
+        long[] micros = new long[Math.min(reads, 1_000_000)];
+        int done = 0;
+        while (done < micros.length && running.get()) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = catalogClient.send(catalogRead, HttpResponse.BodyHandlers.discarding());
+                assertThat(response.statusCode()).isEqualTo(200);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            micros[done++] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        }
+        long[] latencies = Arrays.copyOf(micros, done);
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void count(Map<Integer, AtomicInteger> statuses, int status) {
+        statuses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))];
+    }
+}
@@ -0,0 +1,393 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.OrderLine;
+import com.harman.demo.pizzaria.domain.Pizza;
+import com.harman.demo.pizzaria.domain.PizzaOrder;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.repository.PizzaOrderRepository;
+import com.harman.demo.pizzaria.repository.PizzaRepository;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.service.analytics.SalesRollups;
+import com.harman.demo.pizzaria.service.dto.LocationDTO;
+import com.harman.demo.pizzaria.service.dto.OrderLineDTO;
+import com.harman.demo.pizzaria.service.dto.OrderReceiptDTO;
+import com.harman.demo.pizzaria.service.dto.PizzaOrderDTO;
+import com.harman.demo.pizzaria.service.inventory.ToppingInventory;
+import com.harman.demo.pizzaria.service.order.OrderIntakeService;
+import com.harman.demo.pizzaria.service.pricing.PricingEngine;
+import com.harman.demo.pizzaria.web.filter.ConcurrencyLimitFilter;
+import com.harman.demo.pizzaria.web.rest.errors.ErrorConstants;
+import com.harman.demo.pizzaria.web.rest.idempotency.IdempotencyAspect;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link PizzaOrderResource} REST controller.
+ * <p>
+ * Orders are written by the intake writer thread, so the catalog they reference is committed rather than rolled back.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class PizzaOrderResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/orders";
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private PizzaOrderRepository pizzaOrderRepository;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private ToppingRepository toppingRepository;
+
+    @Autowired
+    private ToppingInventory toppingInventory;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @SpyBean
+    private SalesRollups salesRollups;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc restPizzaOrderMockMvc;
+
+    private Pizza pizza;
+
+    private Topping topping;
+
+    private Topping otherTopping;
+
+    private final List<UUID> references = new ArrayList<>();
+
+    @BeforeEach
+    public void initTest() {
+        pizza = pizzaRepository.saveAndFlush(new Pizza().pizzaSize(PizzaSize.LARGE).price(10F));
+        topping = toppingRepository.saveAndFlush(new Topping().name("ORDERED").price(1.5F));
+        otherTopping = toppingRepository.saveAndFlush(new Topping().name("ORDERED TOO").price(1.5F));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        applicationProperties.getOrders().setAck(ApplicationProperties.Orders.Ack.ENQUEUE);
+        references.forEach(reference -> awaitOrder(reference).ifPresent(pizzaOrderRepository::delete));
+        toppingInventory.setAvailable(topping.getId(), null);
+        pizzaRepository.deleteById(pizza.getId());
+        toppingRepository.deleteById(topping.getId());
+        toppingRepository.deleteById(otherTopping.getId());
+    }
+
+    @Test
+    void createOrderAcknowledgedAfterFlush() throws Exception {
+        applicationProperties.getOrders().setAck(ApplicationProperties.Orders.Ack.FLUSH);
+
+        String body = placeOrder(order(line(pizza.getId(), 2, topping.getId(), otherTopping.getId()), line(pizza.getId(), 1)))
+            .andExpect(jsonPath("$.status").value(OrderReceiptDTO.Status.PERSISTED.name()))
+            .andExpect(jsonPath("$.total").value(36.0))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        UUID reference = UUID.fromString(JsonPath.read(body, "$.reference"));
+        references.add(reference);
+
+        // Validate the PizzaOrder in the database, already committed
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            PizzaOrder pizzaOrder = pizzaOrderRepository.findOneByReference(reference).orElseThrow();
+            assertThat(pizzaOrder.getTotal()).isEqualTo(36F);
+            assertThat(pizzaOrder.getLines()).hasSize(2).extracting(OrderLine::getUnitPrice).containsExactlyInAnyOrder(13F, 10F);
+            assertThat(pizzaOrder.getLines()).allSatisfy(line -> assertThat(line.getPizza().getId()).isEqualTo(pizza.getId()));
+        });
+    }
+
+    @Test
+    void getOrderStatus() throws Exception {
+        applicationProperties.getOrders().setAck(ApplicationProperties.Orders.Ack.FLUSH);
+
+        String body = placeOrder(order(line(pizza.getId(), 1))).andReturn().getResponse().getContentAsString();
+        UUID reference = UUID.fromString(JsonPath.read(body, "$.reference"));
+        references.add(reference);
+
+        restPizzaOrderMockMvc
+            .perform(get(ENTITY_API_URL + "/{reference}/status", reference))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.reference").value(reference.toString()))
+            .andExpect(jsonPath("$.status").value(OrderReceiptDTO.Status.PERSISTED.name()))
+            .andExpect(jsonPath("$.readyAt").isNotEmpty());
+    }
+
+    @Test
+    void getUnknownOrderStatus() throws Exception {
+        restPizzaOrderMockMvc.perform(get(ENTITY_API_URL + "/{reference}/status", UUID.randomUUID())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createOrderAcknowledgedAfterEnqueue() throws Exception {
+        String body = placeOrder(order(line(pizza.getId(), 1, topping.getId())))
+            .andExpect(jsonPath("$.status").value(OrderReceiptDTO.Status.QUEUED.name()))
+            .andExpect(jsonPath("$.total").value(11.5))
+            .andExpect(jsonPath("$.readyAt").isNotEmpty())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        UUID reference = UUID.fromString(JsonPath.read(body, "$.reference"));
+        references.add(reference);
+
+        // The writer thread persists it shortly after
+        assertThat(awaitOrder(reference)).map(PizzaOrder::getTotal).contains(11.5F);
+    }
+
+    @Test
+    void createOrderReleasesItsConcurrencySlot() throws Exception {
+        String body = placeOrder(order(line(pizza.getId(), 1))).andReturn().getResponse().getContentAsString();
+        references.add(UUID.fromString(JsonPath.read(body, "$.reference")));
+
+        // The slot taken by the request is given back by its asynchronous dispatch
+        double inFlight = meterRegistry
+            .get(ConcurrencyLimitFilter.IN_FLIGHT_METER_NAME)
+            .tag(ConcurrencyLimitFilter.GROUP_DIMENSION, "orders")
+            .gauge()
+            .value();
+        assertThat(inFlight).isZero();
+    }
+
+    @Test
+    void createOrderRetriedWithIdempotencyKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        PizzaOrderDTO pizzaOrderDTO = order(line(pizza.getId(), 1));
+
+        String body = placeOrder(pizzaOrderDTO, key).andReturn().getResponse().getContentAsString();
+        UUID reference = UUID.fromString(JsonPath.read(body, "$.reference"));
+        references.add(reference);
+
+        placeOrder(pizzaOrderDTO, key)
+            .andExpect(header().string(IdempotencyAspect.IDEMPOTENT_REPLAYED, "true"))
+            .andExpect(jsonPath("$.reference").value(reference.toString()));
+        assertThat(awaitOrder(reference)).isPresent();
+    }
+
+    @Test
+    void createOrderForDelivery() throws Exception {
+        applicationProperties.getOrders().setAck(ApplicationProperties.Orders.Ack.FLUSH);
+
+        PizzaOrderDTO pizzaOrderDTO = order(line(pizza.getId(), 1));
+        pizzaOrderDTO.setDelivery(new LocationDTO(41.06, -73.54));
+        String body = placeOrder(pizzaOrderDTO).andReturn().getResponse().getContentAsString();
+        UUID reference = UUID.fromString(JsonPath.read(body, "$.reference"));
+        references.add(reference);
+
+        PizzaOrder pizzaOrder = awaitOrder(reference).orElseThrow();
+        assertThat(pizzaOrder.getDeliveryLatitude()).isEqualTo(41.06);
+        assertThat(pizzaOrder.getDeliveryLongitude()).isEqualTo(-73.54);
+    }
+
+    @Test
+    void createOrderWithInvalidDeliveryIsRejected() throws Exception {
+        PizzaOrderDTO pizzaOrderDTO = order(line(pizza.getId(), 1));
+        pizzaOrderDTO.setDelivery(new LocationDTO(91.0, -73.54));
+        restPizzaOrderMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(pizzaOrderDTO)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createOrderWithUnknownToppingIsRejected() throws Exception {
+        restPizzaOrderMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(order(line(pizza.getId(), 1, Long.MAX_VALUE))))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title").value("Unknown topping: " + Long.MAX_VALUE));
+    }
+
+    @Test
+    void createOrderCostsWhatItWasQuoted() throws Exception {
+        pricingEngine.refresh();
+        // A price written behind the price tables' back is only picked up by their next rebuild
+        pizzaRepository.saveAndFlush(pizza.price(12F));
+        OrderLineDTO line = line(pizza.getId(), 3, topping.getId(), otherTopping.getId());
+        restPizzaOrderMockMvc
+            .perform(post("/api/quote").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(line)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalCents").value(3900));
+
+        String body = placeOrder(order(line)).andExpect(jsonPath("$.total").value(39.0)).andReturn().getResponse().getContentAsString();
+        references.add(UUID.fromString(JsonPath.read(body, "$.reference")));
+    }
+
+    @Test
+    void createOrderWithDuplicateToppingIsRejected() throws Exception {
+        restPizzaOrderMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(order(line(pizza.getId(), 1, topping.getId(), topping.getId()))))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title").value("Duplicate topping: " + topping.getId()));
+    }
+
+    @Test
+    void createOrderAfterAFailedWriteIsWritten() throws Exception {
+        applicationProperties.getOrders().setAck(ApplicationProperties.Orders.Ack.FLUSH);
+        // The first order is committed, then counting its sales fails
+        doAnswer(invocation -> {
+                Collection<PizzaOrder> pizzaOrders = invocation.getArgument(0);
+                pizzaOrders.forEach(pizzaOrder -> references.add(pizzaOrder.getReference()));
+                throw new IllegalStateException("Rollups unavailable");
+            })
+            .doCallRealMethod()
+            .when(salesRollups)
+            .record(any());
+
+        CompletableFuture<OrderReceiptDTO> failed = orderIntakeService.submit(order(line(pizza.getId(), 1)));
+        assertThatThrownBy(() -> failed.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+
+        // The writer is still running
+        OrderReceiptDTO receipt = orderIntakeService.submit(order(line(pizza.getId(), 1))).get(10, TimeUnit.SECONDS);
+        references.add(receipt.getReference());
+        assertThat(receipt.getStatus()).isEqualTo(OrderReceiptDTO.Status.PERSISTED);
+    }
+
+    @Test
+    void createOrderWhileStoppingIsRefused() throws Exception {
+        toppingInventory.setAvailable(topping.getId(), 5L);
+        orderIntakeService.stop();
+        try {
+            MvcResult result = restPizzaOrderMockMvc
+                .perform(
+                    post(ENTITY_API_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(order(line(pizza.getId(), 1, topping.getId()))))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restPizzaOrderMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_ORDER_INTAKE_STOPPED));
+        } finally {
+            orderIntakeService.start();
+        }
+        assertThat(toppingInventory.getAvailable(topping.getId())).contains(5L);
+    }
+
+    @Test
+    void createOrderOutOfStockIsRejected() throws Exception {
+        toppingInventory.setAvailable(topping.getId(), 2L);
+
+        PizzaOrderDTO tooMany = order(line(pizza.getId(), 2, topping.getId()), line(pizza.getId(), 1, topping.getId()));
+        restPizzaOrderMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(tooMany)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_OUT_OF_STOCK))
+            .andExpect(jsonPath("$.toppingId").value(topping.getId()));
+        assertThat(toppingInventory.getAvailable(topping.getId())).contains(2L);
+
+        String body = placeOrder(order(line(pizza.getId(), 2, topping.getId()))).andReturn().getResponse().getContentAsString();
+        references.add(UUID.fromString(JsonPath.read(body, "$.reference")));
+        assertThat(toppingInventory.getAvailable(topping.getId())).contains(0L);
+    }
+
+    @Test
+    void createOrderWithoutLinesIsRejected() throws Exception {
+        restPizzaOrderMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(order())))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.fieldErrors.[0].field").value("lines"));
+    }
+
+    private ResultActions placeOrder(PizzaOrderDTO pizzaOrderDTO) throws Exception {
+        return placeOrder(pizzaOrderDTO, null);
+    }
+
+    private ResultActions placeOrder(PizzaOrderDTO pizzaOrderDTO, String idempotencyKey) throws Exception {
+        MockHttpServletRequestBuilder builder = post(ENTITY_API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(pizzaOrderDTO));
+        if (idempotencyKey != null) {
+            builder.header(IdempotencyAspect.IDEMPOTENCY_KEY, idempotencyKey);
+        }
+        MvcResult result = restPizzaOrderMockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return restPizzaOrderMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isAccepted())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.reference").isNotEmpty());
+    }
+
+    private Optional<PizzaOrder> awaitOrder(UUID reference) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Optional<PizzaOrder> pizzaOrder = pizzaOrderRepository.findOneByReference(reference);
+        while (pizzaOrder.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            pizzaOrder = pizzaOrderRepository.findOneByReference(reference);
+        }
+        return pizzaOrder;
+    }
+
+    private static PizzaOrderDTO order(OrderLineDTO... lines) {
+        PizzaOrderDTO pizzaOrderDTO = new PizzaOrderDTO();
+        pizzaOrderDTO.setLines(List.of(lines));
+        return pizzaOrderDTO;
+    }
+
+    private static OrderLineDTO line(Long pizzaId, int quantity, Long... toppingIds) {
+        OrderLineDTO orderLineDTO = new OrderLineDTO();
+        orderLineDTO.setPizzaId(pizzaId);
+        orderLineDTO.setQuantity(quantity);
+        orderLineDTO.setToppingIds(List.of(toppingIds));
+        return orderLineDTO;
+    }
+}
@@ -1,6 +1,7 @@
 package com.harman.demo.pizzaria.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -11,17 +12,24 @@ import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
 import com.harman.demo.pizzaria.repository.PizzaRepository;
 import com.harman.demo.pizzaria.service.dto.PizzaDTO;
 import com.harman.demo.pizzaria.service.mapper.PizzaMapper;
+import com.jayway.jsonpath.JsonPath;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -37,6 +45,7 @@ class PizzaResourceIT {
 
     private static final Float DEFAULT_PRICE = 1F;
     private static final Float UPDATED_PRICE = 2F;
+    private static final Float SMALLER_PRICE = 1F - 1F;
 
     private static final String ENTITY_API_URL = "/api/pizzas";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
@@ -103,6 +112,30 @@ class PizzaResourceIT {
         assertThat(testPizza.getPrice()).isEqualTo(DEFAULT_PRICE);
     }
 
+    @Test
+    @Transactional
+    void createPizzasInBulk() throws Exception {
+        int databaseSizeBeforeCreate = pizzaRepository.findAll().size();
+        // Create a valid pizza and one without a price
+        PizzaDTO valid = pizzaMapper.toDto(pizza);
+        PizzaDTO withoutPrice = pizzaMapper.toDto(new Pizza().pizzaSize(UPDATED_PIZZA_SIZE));
+        restPizzaMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(withoutPrice, valid)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains(400, 201)))
+            .andExpect(jsonPath("$.[0].error").value("price: must not be null"))
+            .andExpect(jsonPath("$.[1].entity.id").isNumber())
+            .andExpect(jsonPath("$.[1].entity.pizzaSize").value(DEFAULT_PIZZA_SIZE.toString()));
+
+        // Validate the Pizza in the database
+        List<Pizza> pizzaList = pizzaRepository.findAll();
+        assertThat(pizzaList).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
     @Test
     @Transactional
     void createPizzaWithExistingId() throws Exception {
@@ -174,6 +207,75 @@ class PizzaResourceIT {
             .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.doubleValue())));
     }
 
+    @Test
+    @Transactional
+    void getAllPizzasWithKeysetPagination() throws Exception {
+        // Initialize the database, with sizes tied across the page boundaries
+        for (int i = 0; i < 7; i++) {
+            pizzaRepository.save(new Pizza().pizzaSize(i < 4 ? DEFAULT_PIZZA_SIZE : UPDATED_PIZZA_SIZE).price(DEFAULT_PRICE));
+        }
+        pizzaRepository.flush();
+        List<Long> expectedIds = pizzaRepository
+            .findAll(Sort.by(Sort.Direction.DESC, "pizzaSize", "id"))
+            .stream()
+            .map(Pizza::getId)
+            .collect(Collectors.toList());
+
+        // Follow the next links from the first page
+        List<Long> ids = new ArrayList<>();
+        String url = ENTITY_API_URL + "?cursor=&size=3&sort=pizzaSize,desc";
+        while (url != null) {
+            MockHttpServletResponse response = restPizzaMockMvc
+                .perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andReturn()
+                .getResponse();
+            List<Number> page = JsonPath.read(response.getContentAsString(), "$.[*].id");
+            page.forEach(id -> ids.add(id.longValue()));
+            String link = response.getHeader(HttpHeaders.LINK);
+            url = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        }
+        assertThat(ids).isEqualTo(expectedIds);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasWithInvalidKeysetIsRejected() throws Exception {
+        restPizzaMockMvc.perform(get(ENTITY_API_URL + "?cursor=&sort=pizzaSize,desc&sort=price")).andExpect(status().isBadRequest());
+        restPizzaMockMvc.perform(get(ENTITY_API_URL + "?cursor=&sort=price,desc")).andExpect(status().isBadRequest());
+        restPizzaMockMvc.perform(get(ENTITY_API_URL + "?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportPizzas() throws Exception {
+        // Initialize the database, committed so the export thread can read it
+        pizzaRepository.saveAndFlush(pizza);
+        Pizza other = pizzaRepository.saveAndFlush(new Pizza().pizzaSize(UPDATED_PIZZA_SIZE).price(UPDATED_PRICE));
+
+        try {
+            // Export the pizzas, one per line, ordered by id
+            MvcResult result = restPizzaMockMvc.perform(get(ENTITY_API_URL + "/_export")).andExpect(request().asyncStarted()).andReturn();
+            String body = restPizzaMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            List<String> lines = body
+                .lines()
+                .filter(line -> line.contains("\"id\":" + pizza.getId() + ",") || line.contains("\"id\":" + other.getId() + ","))
+                .collect(Collectors.toList());
+            assertThat(lines).hasSize(2);
+            assertThat(lines.get(0)).startsWith("{").contains("\"pizzaSize\":\"" + DEFAULT_PIZZA_SIZE + "\"");
+            assertThat(lines.get(1)).contains("\"pizzaSize\":\"" + UPDATED_PIZZA_SIZE + "\"");
+            assertThat(body).endsWith("}\n");
+        } finally {
+            pizzaRepository.deleteAllById(List.of(pizza.getId(), other.getId()));
+        }
+    }
+
     @Test
     @Transactional
     void getPizza() throws Exception {
@@ -190,6 +292,301 @@ class PizzaResourceIT {
             .andExpect(jsonPath("$.price").value(DEFAULT_PRICE.doubleValue()));
     }
 
+    @Test
+    @Transactional
+    void getPizzasByIds() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+        Pizza other = pizzaRepository.saveAndFlush(new Pizza().pizzaSize(UPDATED_PIZZA_SIZE).price(UPDATED_PRICE));
+        long missingId = other.getId() + 1000;
+
+        // Get the pizzas in request order, with the missing id reported
+        restPizzaMockMvc
+            .perform(get(ENTITY_API_URL + "?ids=" + other.getId() + "," + missingId + "," + pizza.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(MultiGetUtil.MISSING_IDS_HEADER, String.valueOf(missingId)))
+            .andExpect(jsonPath("$.[*].id").value(contains(other.getId().intValue(), pizza.getId().intValue())))
+            .andExpect(jsonPath("$.[*].pizzaSize").value(contains(UPDATED_PIZZA_SIZE.toString(), DEFAULT_PIZZA_SIZE.toString())));
+
+        // Every pizza found, no header
+        restPizzaMockMvc
+            .perform(get(ENTITY_API_URL + "?ids=" + pizza.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(MultiGetUtil.MISSING_IDS_HEADER))
+            .andExpect(jsonPath("$.[*].id").value(contains(pizza.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getPizzasByIdFiltering() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        Long id = pizza.getId();
+
+        defaultPizzaShouldBeFound("id.equals=" + id);
+        defaultPizzaShouldNotBeFound("id.notEquals=" + id);
+
+        defaultPizzaShouldBeFound("id.greaterThanOrEqual=" + id);
+        defaultPizzaShouldNotBeFound("id.greaterThan=" + id);
+
+        defaultPizzaShouldBeFound("id.lessThanOrEqual=" + id);
+        defaultPizzaShouldNotBeFound("id.lessThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPizzaSizeIsEqualToSomething() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where pizzaSize equals to DEFAULT_PIZZA_SIZE
+        defaultPizzaShouldBeFound("pizzaSize.equals=" + DEFAULT_PIZZA_SIZE);
+
+        // Get all the pizzaList where pizzaSize equals to UPDATED_PIZZA_SIZE
+        defaultPizzaShouldNotBeFound("pizzaSize.equals=" + UPDATED_PIZZA_SIZE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPizzaSizeIsNotEqualToSomething() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where pizzaSize not equals to UPDATED_PIZZA_SIZE
+        defaultPizzaShouldBeFound("pizzaSize.notEquals=" + UPDATED_PIZZA_SIZE);
+
+        // Get all the pizzaList where pizzaSize not equals to DEFAULT_PIZZA_SIZE
+        defaultPizzaShouldNotBeFound("pizzaSize.notEquals=" + DEFAULT_PIZZA_SIZE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPizzaSizeIsInShouldWork() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where pizzaSize in DEFAULT_PIZZA_SIZE or UPDATED_PIZZA_SIZE
+        defaultPizzaShouldBeFound("pizzaSize.in=" + DEFAULT_PIZZA_SIZE + "," + UPDATED_PIZZA_SIZE);
+
+        // Get all the pizzaList where pizzaSize equals to UPDATED_PIZZA_SIZE
+        defaultPizzaShouldNotBeFound("pizzaSize.in=" + UPDATED_PIZZA_SIZE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPizzaSizeIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where pizzaSize is not null
+        defaultPizzaShouldBeFound("pizzaSize.specified=true");
+
+        // Get all the pizzaList where pizzaSize is null
+        defaultPizzaShouldNotBeFound("pizzaSize.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPriceIsEqualToSomething() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where price equals to DEFAULT_PRICE
+        defaultPizzaShouldBeFound("price.equals=" + DEFAULT_PRICE);
+
+        // Get all the pizzaList where price equals to UPDATED_PRICE
+        defaultPizzaShouldNotBeFound("price.equals=" + UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPriceIsNotEqualToSomething() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where price not equals to UPDATED_PRICE
+        defaultPizzaShouldBeFound("price.notEquals=" + UPDATED_PRICE);
+
+        // Get all the pizzaList where price not equals to DEFAULT_PRICE
+        defaultPizzaShouldNotBeFound("price.notEquals=" + DEFAULT_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPriceIsInShouldWork() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where price in DEFAULT_PRICE or UPDATED_PRICE
+        defaultPizzaShouldBeFound("price.in=" + DEFAULT_PRICE + "," + UPDATED_PRICE);
+
+        // Get all the pizzaList where price equals to UPDATED_PRICE
+        defaultPizzaShouldNotBeFound("price.in=" + UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPriceIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where price is not null
+        defaultPizzaShouldBeFound("price.specified=true");
+
+        // Get all the pizzaList where price is null
+        defaultPizzaShouldNotBeFound("price.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPriceIsGreaterThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where price is greater than or equal to DEFAULT_PRICE
+        defaultPizzaShouldBeFound("price.greaterThanOrEqual=" + DEFAULT_PRICE);
+
+        // Get all the pizzaList where price is greater than or equal to UPDATED_PRICE
+        defaultPizzaShouldNotBeFound("price.greaterThanOrEqual=" + UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPriceIsLessThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where price is less than or equal to DEFAULT_PRICE
+        defaultPizzaShouldBeFound("price.lessThanOrEqual=" + DEFAULT_PRICE);
+
+        // Get all the pizzaList where price is less than or equal to SMALLER_PRICE
+        defaultPizzaShouldNotBeFound("price.lessThanOrEqual=" + SMALLER_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPriceIsLessThanSomething() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where price is less than UPDATED_PRICE
+        defaultPizzaShouldBeFound("price.lessThan=" + UPDATED_PRICE);
+
+        // Get all the pizzaList where price is less than DEFAULT_PRICE
+        defaultPizzaShouldNotBeFound("price.lessThan=" + DEFAULT_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasByPriceIsGreaterThanSomething() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        // Get all the pizzaList where price is greater than SMALLER_PRICE
+        defaultPizzaShouldBeFound("price.greaterThan=" + SMALLER_PRICE);
+
+        // Get all the pizzaList where price is greater than DEFAULT_PRICE
+        defaultPizzaShouldNotBeFound("price.greaterThan=" + DEFAULT_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasBySizeAndPriceRange() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+        pizzaRepository.saveAndFlush(new Pizza().pizzaSize(DEFAULT_PIZZA_SIZE).price(UPDATED_PRICE));
+        pizzaRepository.saveAndFlush(new Pizza().pizzaSize(UPDATED_PIZZA_SIZE).price(DEFAULT_PRICE));
+
+        // Get all the pizzaList where pizzaSize equals to DEFAULT_PIZZA_SIZE and price is less than UPDATED_PRICE
+        defaultPizzaShouldBeFound("pizzaSize.equals=" + DEFAULT_PIZZA_SIZE + "&price.lessThan=" + UPDATED_PRICE);
+
+        // Get all the pizzaList where pizzaSize equals to DEFAULT_PIZZA_SIZE and price is greater than DEFAULT_PRICE
+        restPizzaMockMvc
+            .perform(get(ENTITY_API_URL + "/count?pizzaSize.equals=" + DEFAULT_PIZZA_SIZE + "&price.greaterThan=" + DEFAULT_PRICE))
+            .andExpect(status().isOk())
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultPizzaShouldBeFound(String filter) throws Exception {
+        restPizzaMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(pizza.getId().intValue())))
+            .andExpect(jsonPath("$.[*].pizzaSize").value(hasItem(DEFAULT_PIZZA_SIZE.toString())))
+            .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE.doubleValue())));
+
+        // Check, that the count call also returns 1
+        restPizzaMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultPizzaShouldNotBeFound(String filter) throws Exception {
+        restPizzaMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restPizzaMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
+    @Test
+    @Transactional
+    void getAllPizzasWithCurrentETagIsNotModified() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        String eTag = restPizzaMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+
+        restPizzaMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+
+        restPizzaMockMvc
+            .perform(get(ENTITY_API_URL_ID, pizza.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    void getPizzaWithStaleETagIsServed() throws Exception {
+        // Initialize the database
+        pizzaRepository.saveAndFlush(pizza);
+
+        restPizzaMockMvc
+            .perform(get(ENTITY_API_URL_ID, pizza.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"-1\""))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.id").value(pizza.getId().intValue()));
+    }
+
     @Test
     @Transactional
     void getNonExistingPizza() throws Exception {
@@ -0,0 +1,132 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.domain.Pizza;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.repository.PizzaRepository;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.service.PizzaService;
+import com.harman.demo.pizzaria.service.dto.OrderLineDTO;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.service.pricing.PricingEngine;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link QuoteResource} REST controller.
+ * <p>
+ * Price tables are compiled in a transaction of their own, so the catalog is committed rather than rolled back.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class QuoteResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/quote";
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private ToppingRepository toppingRepository;
+
+    @Autowired
+    private PizzaService pizzaService;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private MockMvc restQuoteMockMvc;
+
+    private Pizza pizza;
+
+    private Topping topping;
+
+    @BeforeEach
+    public void initTest() {
+        pizza = pizzaRepository.saveAndFlush(new Pizza().pizzaSize(PizzaSize.SMALL).price(9.9F));
+        topping = toppingRepository.saveAndFlush(new Topping().name("QUOTED").price(0.2F));
+        pricingEngine.refresh();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pizzaRepository.deleteById(pizza.getId());
+        toppingRepository.deleteById(topping.getId());
+        pricingEngine.refresh();
+    }
+
+    @Test
+    void quote() throws Exception {
+        restQuoteMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(line(pizza.getId(), 3, topping.getId(), topping.getId())))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.unitPriceCents").value(1030))
+            .andExpect(jsonPath("$.totalCents").value(3090))
+            .andExpect(jsonPath("$.total").value(30.9));
+    }
+
+    @Test
+    void quoteFollowsCatalogWrites() throws Exception {
+        PizzaDTO pizzaDTO = new PizzaDTO();
+        pizzaDTO.setId(pizza.getId());
+        pizzaDTO.setPrice(11.5F);
+        pizzaService.partialUpdate(pizzaDTO);
+
+        restQuoteMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(line(pizza.getId(), 1)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalCents").value(1150));
+    }
+
+    @Test
+    void quoteWithUnknownToppingIsRejected() throws Exception {
+        restQuoteMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(line(pizza.getId(), 1, topping.getId(), Long.MAX_VALUE)))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.title").value("Unknown topping: " + Long.MAX_VALUE));
+    }
+
+    @Test
+    void quoteWithoutQuantityIsRejected() throws Exception {
+        OrderLineDTO orderLineDTO = line(pizza.getId(), 1);
+        orderLineDTO.setQuantity(null);
+
+        restQuoteMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(orderLineDTO)))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static OrderLineDTO line(Long pizzaId, int quantity, Long... toppingIds) {
+        OrderLineDTO orderLineDTO = new OrderLineDTO();
+        orderLineDTO.setPizzaId(pizzaId);
+        orderLineDTO.setQuantity(quantity);
+        orderLineDTO.setToppingIds(List.of(toppingIds));
+        return orderLineDTO;
+    }
+}
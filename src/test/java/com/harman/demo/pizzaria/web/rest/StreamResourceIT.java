@@ -0,0 +1,193 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.repository.PizzaOrderRepository;
+import com.harman.demo.pizzaria.security.AuthoritiesConstants;
+import com.harman.demo.pizzaria.service.PizzaService;
+import com.harman.demo.pizzaria.service.dto.OrderLineDTO;
+import com.harman.demo.pizzaria.service.dto.OrderReceiptDTO;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.service.dto.PizzaOrderDTO;
+import com.harman.demo.pizzaria.service.order.OrderIntakeService;
+import com.harman.demo.pizzaria.web.rest.stream.EventStreams;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link StreamResource} REST controller.
+ * <p>
+ * Only committed changes are streamed, so the pizzas and orders are committed rather than rolled back.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class StreamResourceIT {
+
+    private static final String UPDATED = "\"changeType\":\"UPDATED\"";
+
+    @Autowired
+    private PizzaService pizzaService;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private PizzaOrderRepository pizzaOrderRepository;
+
+    @Autowired
+    private EventStreams eventStreams;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restStreamMockMvc;
+
+    private PizzaDTO pizza;
+
+    private final List<UUID> references = new ArrayList<>();
+
+    @BeforeEach
+    public void initTest() {
+        PizzaDTO pizzaDTO = new PizzaDTO();
+        pizzaDTO.setPizzaSize(PizzaSize.SMALL);
+        pizzaDTO.setPrice(7F);
+        pizza = pizzaService.save(pizzaDTO);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        references.forEach(reference -> pizzaOrderRepository.findOneByReference(reference).ifPresent(pizzaOrderRepository::delete));
+        pizzaService.delete(pizza.getId());
+    }
+
+    @Test
+    void menuStreamSendsCommittedChanges() throws Exception {
+        MockHttpServletResponse response = subscribe("/api/stream/menu");
+
+        // A rolled back change is not streamed
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            pizzaService.partialUpdate(priced(9F));
+            status.setRollbackOnly();
+        });
+        pizzaService.partialUpdate(priced(8F));
+
+        String events = await(response, content -> content.contains(UPDATED));
+        assertThat(events)
+            .contains("event:catalog-changed")
+            .contains("data:{\"entityType\":\"PIZZA\",\"entityId\":" + pizza.getId() + "," + UPDATED + "}")
+            .containsOnlyOnce(UPDATED);
+        assertThat(response.getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void orderStreamSendsTheStatusOfTheFollowedOrder() throws Exception {
+        MockHttpServletResponse all = subscribe("/api/stream/orders");
+
+        OrderReceiptDTO receipt = orderIntakeService.submit(order()).get();
+        references.add(receipt.getReference());
+        MockHttpServletResponse followed = subscribe("/api/stream/orders?reference=" + receipt.getReference());
+        MockHttpServletResponse other = subscribe("/api/stream/orders?reference=" + UUID.randomUUID());
+        OrderReceiptDTO otherReceipt = orderIntakeService.submit(order()).get();
+        references.add(otherReceipt.getReference());
+
+        String events = await(all, content -> content.contains(otherReceipt.getReference() + "\",\"status\":\"PERSISTED\""));
+        assertThat(events)
+            .contains("event:order-status")
+            .contains(receipt.getReference() + "\",\"status\":\"QUEUED\"")
+            .contains(receipt.getReference() + "\",\"status\":\"PERSISTED\"")
+            .contains(otherReceipt.getReference() + "\",\"status\":\"QUEUED\"");
+        // Subscribed after the order was queued, and possibly persisted
+        assertThat(followed.getContentAsString()).doesNotContain(otherReceipt.getReference().toString());
+        assertThat(other.getContentAsString()).doesNotContain("event:");
+    }
+
+    @Test
+    void onlyAdministratorsFollowEveryOrder() throws Exception {
+        int subscribers = eventStreams.getSubscriberCount();
+
+        restStreamMockMvc.perform(get("/api/stream/orders").accept(MediaType.TEXT_EVENT_STREAM)).andExpect(status().isForbidden());
+
+        assertThat(eventStreams.getSubscriberCount()).isEqualTo(subscribers);
+    }
+
+    @Test
+    void reconnectingClientsGetTheEventsTheyMissed() throws Exception {
+        MockHttpServletResponse first = subscribe("/api/stream/menu");
+        pizzaService.partialUpdate(priced(8F));
+        String events = await(first, content -> content.contains(UPDATED));
+        String lastEventId = events.substring(events.lastIndexOf("id:") + 3, events.indexOf('\n', events.lastIndexOf("id:")));
+        pizzaService.partialUpdate(priced(9F));
+
+        MockHttpServletResponse resumed = restStreamMockMvc
+            .perform(get("/api/stream/menu").header("Last-Event-ID", lastEventId))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+
+        String missed = await(resumed, content -> content.contains(UPDATED));
+        assertThat(missed).startsWith("id:" + (Long.parseLong(lastEventId) + 1)).containsOnlyOnce("event:catalog-changed");
+    }
+
+    private MockHttpServletResponse subscribe(String url) throws Exception {
+        int subscribers = eventStreams.getSubscriberCount();
+        MockHttpServletResponse response = restStreamMockMvc
+            .perform(get(url).accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+        assertThat(eventStreams.getSubscriberCount()).isEqualTo(subscribers + 1);
+        return response;
+    }
+
+    private PizzaDTO priced(Float price) {
+        PizzaDTO pizzaDTO = new PizzaDTO();
+        pizzaDTO.setId(pizza.getId());
+        pizzaDTO.setPrice(price);
+        return pizzaDTO;
+    }
+
+    private PizzaOrderDTO order() {
+        OrderLineDTO line = new OrderLineDTO();
+        line.setPizzaId(pizza.getId());
+        line.setQuantity(1);
+        line.setToppingIds(List.of());
+        PizzaOrderDTO pizzaOrderDTO = new PizzaOrderDTO();
+        pizzaOrderDTO.setLines(List.of(line));
+        return pizzaOrderDTO;
+    }
+
+    private static String await(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = response.getContentAsString();
+        while (!condition.test(content) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertThat(condition).as("event received in time").accepts(content);
+        // Give a redundant event the time to arrive, so it would be noticed
+        Thread.sleep(100);
+        return response.getContentAsString();
+    }
+}
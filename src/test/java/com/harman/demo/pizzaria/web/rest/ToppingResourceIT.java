@@ -1,7 +1,10 @@
 package com.harman.demo.pizzaria.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -11,17 +14,22 @@ import com.harman.demo.pizzaria.repository.ToppingRepository;
 import com.harman.demo.pizzaria.service.criteria.ToppingCriteria;
 import com.harman.demo.pizzaria.service.dto.ToppingDTO;
 import com.harman.demo.pizzaria.service.mapper.ToppingMapper;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -108,6 +116,76 @@ class ToppingResourceIT {
         assertThat(testTopping.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
     }
 
+    @Test
+    @Transactional
+    void createToppingsInBulk() throws Exception {
+        int databaseSizeBeforeCreate = toppingRepository.findAll().size();
+        // Create two valid toppings, one with an existing ID and one without a name
+        ToppingDTO first = toppingMapper.toDto(topping);
+        ToppingDTO withId = toppingMapper.toDto(new Topping().name(UPDATED_NAME).price(UPDATED_PRICE));
+        withId.setId(1L);
+        ToppingDTO withoutName = toppingMapper.toDto(new Topping().price(UPDATED_PRICE));
+        ToppingDTO second = toppingMapper.toDto(new Topping().name(UPDATED_NAME).price(UPDATED_PRICE));
+        restToppingMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(first, withId, withoutName, second)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3)))
+            .andExpect(jsonPath("$.[*].status").value(contains(201, 400, 400, 201)))
+            .andExpect(jsonPath("$.[0].entity.id").isNumber())
+            .andExpect(jsonPath("$.[0].entity.name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[1].entity").isEmpty())
+            .andExpect(jsonPath("$.[1].error").value("A new topping cannot already have an ID"))
+            .andExpect(jsonPath("$.[2].error").value(containsString("name")))
+            .andExpect(jsonPath("$.[3].entity.name").value(UPDATED_NAME));
+
+        // Validate the Toppings in the database
+        List<Topping> toppingList = toppingRepository.findAll();
+        assertThat(toppingList).hasSize(databaseSizeBeforeCreate + 2);
+        assertThat(toppingList).extracting(Topping::getName).contains(DEFAULT_NAME, UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void createToppingsInBulkWithTakenNames() throws Exception {
+        toppingRepository.saveAndFlush(topping);
+        int databaseSizeBeforeCreate = toppingRepository.findAll().size();
+        // One named like the existing topping, two named alike but for the case
+        ToppingDTO existing = toppingMapper.toDto(new Topping().name(DEFAULT_NAME).price(UPDATED_PRICE));
+        ToppingDTO first = toppingMapper.toDto(new Topping().name(UPDATED_NAME).price(UPDATED_PRICE));
+        ToppingDTO second = toppingMapper.toDto(new Topping().name(UPDATED_NAME.toLowerCase(Locale.ROOT)).price(DEFAULT_PRICE));
+        restToppingMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(existing, first, second)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains(400, 201, 400)))
+            .andExpect(jsonPath("$.[0].error").value("A topping named " + DEFAULT_NAME + " already exists"))
+            .andExpect(jsonPath("$.[1].entity.name").value(UPDATED_NAME))
+            .andExpect(jsonPath("$.[1].entity.price").value(UPDATED_PRICE.doubleValue()))
+            .andExpect(jsonPath("$.[2].error").value("Another topping of the request is named " + UPDATED_NAME.toLowerCase(Locale.ROOT)));
+
+        assertThat(toppingRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
+    @Test
+    @Transactional
+    void createTooManyToppingsInBulkIsRejected() throws Exception {
+        List<ToppingDTO> toppingDTOs = Collections.nCopies(BulkWriteUtil.MAX_ITEMS + 1, toppingMapper.toDto(topping));
+        restToppingMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(toppingDTOs))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void createToppingWithExistingId() throws Exception {
@@ -180,6 +258,35 @@ class ToppingResourceIT {
             .andExpect(jsonPath("$.[*].description").value(hasItem(DEFAULT_DESCRIPTION)));
     }
 
+    @Test
+    void exportToppings() throws Exception {
+        // Initialize the database, committed so the export thread can read it
+        toppingRepository.saveAndFlush(topping);
+        Topping other = toppingRepository.saveAndFlush(new Topping().name(UPDATED_NAME).price(UPDATED_PRICE));
+
+        try {
+            // Export the toppings, one per line, ordered by id
+            MvcResult result = restToppingMockMvc.perform(get(ENTITY_API_URL + "/_export")).andExpect(request().asyncStarted()).andReturn();
+            String body = restToppingMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            List<String> lines = body
+                .lines()
+                .filter(line -> line.contains("\"id\":" + topping.getId() + ",") || line.contains("\"id\":" + other.getId() + ","))
+                .collect(Collectors.toList());
+            assertThat(lines).hasSize(2);
+            assertThat(lines.get(0)).startsWith("{").contains("\"name\":\"" + DEFAULT_NAME + "\"");
+            assertThat(lines.get(1)).contains("\"name\":\"" + UPDATED_NAME + "\"");
+            assertThat(body).endsWith("}\n");
+        } finally {
+            toppingRepository.deleteAllById(List.of(topping.getId(), other.getId()));
+        }
+    }
+
     @Test
     @Transactional
     void getTopping() throws Exception {
@@ -197,6 +304,32 @@ class ToppingResourceIT {
             .andExpect(jsonPath("$.description").value(DEFAULT_DESCRIPTION));
     }
 
+    @Test
+    @Transactional
+    void getToppingsByIds() throws Exception {
+        // Initialize the database
+        toppingRepository.saveAndFlush(topping);
+        Topping other = toppingRepository.saveAndFlush(new Topping().name(UPDATED_NAME).price(UPDATED_PRICE));
+        long missingId = other.getId() + 1000;
+
+        // Get the toppings in request order, with the missing id reported
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?ids=" + other.getId() + "," + missingId + "," + topping.getId() + "," + other.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(MultiGetUtil.MISSING_IDS_HEADER, String.valueOf(missingId)))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(contains(other.getId().intValue(), topping.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(contains(UPDATED_NAME, DEFAULT_NAME)));
+    }
+
+    @Test
+    @Transactional
+    void getToppingsByTooManyIdsIsRejected() throws Exception {
+        String ids = String.join(",", Collections.nCopies(MultiGetUtil.MAX_IDS + 1, "1"));
+        restToppingMockMvc.perform(get(ENTITY_API_URL + "?ids=" + ids)).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getToppingsByIdFiltering() throws Exception {
@@ -215,6 +348,61 @@ class ToppingResourceIT {
         defaultToppingShouldNotBeFound("id.lessThan=" + id);
     }
 
+    @Test
+    @Transactional
+    void getAllToppingsWithKeysetPaginationAndCriteria() throws Exception {
+        // Initialize the database
+        toppingRepository.saveAndFlush(topping);
+        toppingRepository.saveAndFlush(new Topping().name(DEFAULT_NAME + "1").price(DEFAULT_PRICE));
+        toppingRepository.saveAndFlush(new Topping().name(DEFAULT_NAME + "2").price(DEFAULT_PRICE));
+        toppingRepository.saveAndFlush(new Topping().name(DEFAULT_NAME + "3").price(UPDATED_PRICE));
+
+        String link = restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor=&size=2&sort=name,asc&price.equals=" + DEFAULT_PRICE))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].name").value(contains(DEFAULT_NAME, DEFAULT_NAME + "1")))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LINK);
+        assertThat(link).endsWith("; rel=\"next\"").doesNotContain("sort=");
+
+        // The criteria still apply to the next page
+        restToppingMockMvc
+            .perform(get(link.substring(link.indexOf('<') + 1, link.indexOf('>')) + "&price.equals=" + DEFAULT_PRICE))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].name").value(contains(DEFAULT_NAME + "2")));
+    }
+
+    @Test
+    @Transactional
+    void getAllToppingsWithKeysetSortedByPriceIsRejected() throws Exception {
+        restToppingMockMvc.perform(get(ENTITY_API_URL + "?cursor=&sort=price,asc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllToppingsWithoutCount() throws Exception {
+        // Initialize the database
+        toppingRepository.saveAndFlush(topping);
+        toppingRepository.saveAndFlush(new Topping().name(DEFAULT_NAME + "1").price(DEFAULT_PRICE));
+
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?count=false&size=1&sort=id,asc&name.contains=" + DEFAULT_NAME))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"last\""))))
+            .andExpect(jsonPath("$.[*].id").value(contains(topping.getId().intValue())));
+
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?count=false&page=1&size=1&sort=id,asc&name.contains=" + DEFAULT_NAME))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))))
+            .andExpect(jsonPath("$.[*].name").value(contains(DEFAULT_NAME + "1")));
+    }
+
     @Test
     @Transactional
     void getAllToppingsByNameIsEqualToSomething() throws Exception {
@@ -515,6 +703,45 @@ class ToppingResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getAllToppingsWithCurrentETagIsNotModified() throws Exception {
+        // Initialize the database
+        toppingRepository.saveAndFlush(topping);
+
+        String eTag = restToppingMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL_ID, topping.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    void getToppingWithStaleETagIsServed() throws Exception {
+        // Initialize the database
+        toppingRepository.saveAndFlush(topping);
+
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL_ID, topping.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"-1\""))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.id").value(topping.getId().intValue()));
+    }
+
     @Test
     @Transactional
     void getNonExistingTopping() throws Exception {
@@ -0,0 +1,219 @@
+package com.harman.demo.pizzaria.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.Topping;
+import com.harman.demo.pizzaria.repository.ToppingRepository;
+import com.harman.demo.pizzaria.service.catalog.CatalogSnapshotService;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link ToppingResponseCache}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ToppingResponseCacheIT {
+
+    private static final String ENTITY_API_URL = "/api/toppings";
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ToppingRepository toppingRepository;
+
+    @Autowired
+    private MockMvc restToppingMockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Topping topping;
+
+    @BeforeEach
+    public void initTest() {
+        applicationProperties.getCatalog().getResponseCache().setEnabled(true);
+        topping = new Topping().name("CACHED").price(3F).description("cached topping");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        applicationProperties.getCatalog().getResponseCache().setEnabled(false);
+        applicationProperties.getCatalog().getResponseCache().setGzip(false);
+        cacheManager.getCache(ToppingResponseCache.CACHE_NAME).clear();
+    }
+
+    @Test
+    @Transactional
+    void repeatedQueriesAreServedFromTheCacheUntilTheCatalogChanges() throws Exception {
+        toppingRepository.saveAndFlush(topping);
+
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?name.equals=CACHED&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(topping.getId().intValue())));
+
+        // Removed behind the service's back, the cached response is still served
+        toppingRepository.delete(topping);
+        toppingRepository.flush();
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?name.equals=CACHED&sort=id,desc&distinct=true"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(topping.getId().intValue())));
+
+        // A new catalog version makes the entry unreachable
+        changeCatalogElsewhere();
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?name.equals=CACHED&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "0"))
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(topping.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    void uncountedResponsesAreCachedSeparately() throws Exception {
+        toppingRepository.saveAndFlush(topping);
+
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?name.equals=CACHED&count=false"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))))
+            .andExpect(jsonPath("$.[*].name").value(hasItem("CACHED")));
+
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?name.equals=CACHED"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"));
+    }
+
+    @Test
+    @Transactional
+    void responsesAreCompressedForClientsAcceptingGzip() throws Exception {
+        applicationProperties.getCatalog().getResponseCache().setGzip(true);
+        toppingRepository.saveAndFlush(topping);
+
+        MockHttpServletResponse response = restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?name.equals=CACHED").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+            .andReturn()
+            .getResponse();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).contains("\"name\":\"CACHED\"");
+        }
+
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?name.equals=CACHED"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(jsonPath("$.[*].name").value(hasItem("CACHED")));
+    }
+
+    @Test
+    @Transactional
+    void compressedResponsesHaveTagsOfTheirOwn() throws Exception {
+        applicationProperties.getCatalog().getResponseCache().setGzip(true);
+        toppingRepository.saveAndFlush(topping);
+
+        String gzipETag = restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?name.equals=CACHED").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        String identityETag = restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?name.equals=CACHED"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(gzipETag).isNotEqualTo(identityETag);
+
+        // A copy of the compressed body is not a copy of the identity one
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?name.equals=CACHED").header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        restToppingMockMvc
+            .perform(
+                get(ENTITY_API_URL + "?name.equals=CACHED")
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                    .header(HttpHeaders.IF_NONE_MATCH, gzipETag)
+            )
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    void responsesAreNotCompressedForClientsRefusingGzip() throws Exception {
+        applicationProperties.getCatalog().getResponseCache().setGzip(true);
+        toppingRepository.saveAndFlush(topping);
+
+        for (String acceptEncoding : new String[] { "gzip;q=0, identity", "br, *;q=0", "*;q=0.5, gzip; q=0" }) {
+            restToppingMockMvc
+                .perform(get(ENTITY_API_URL + "?name.equals=CACHED").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.[*].name").value(hasItem("CACHED")));
+        }
+        restToppingMockMvc
+            .perform(get(ENTITY_API_URL + "?name.equals=CACHED").header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, *;q=0.1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    /**
+     * Increment the catalog version as another instance would, in a committed transaction, and check it.
+     */
+    private void changeCatalogElsewhere() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("update catalog_version set version = version + 1 where id = 1")
+        );
+        catalogSnapshotService.scheduledVersionCheck();
+    }
+}
@@ -4,25 +4,36 @@ import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.harman.demo.pizzaria.IntegrationTest;
 import com.harman.demo.pizzaria.domain.User;
 import com.harman.demo.pizzaria.repository.UserRepository;
+import com.harman.demo.pizzaria.web.rest.errors.ErrorConstants;
 import com.harman.demo.pizzaria.web.rest.vm.LoginVM;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.test.web.servlet.MvcResult;
 
 /**
  * Integration tests for the {@link UserJWTController} REST controller.
+ * <p>
+ * Passwords are verified on the threads of the {@link com.harman.demo.pizzaria.security.LoginExecutor}, so the users
+ * are committed rather than saved in a test transaction those threads cannot see.
  */
 @AutoConfigureMockMvc
 @IntegrationTest
@@ -37,8 +48,14 @@ class UserJWTControllerIT {
     @Autowired
     private MockMvc mockMvc;
 
+    @AfterEach
+    public void deleteUsers() {
+        userRepository.findOneByLogin("user-jwt-controller").ifPresent(userRepository::delete);
+        userRepository.findOneByLogin("user-jwt-controller-remember-me").ifPresent(userRepository::delete);
+        userRepository.findOneByLogin("user-jwt-controller-logout").ifPresent(userRepository::delete);
+    }
+
     @Test
-    @Transactional
     void testAuthorize() throws Exception {
         User user = new User();
         user.setLogin("user-jwt-controller");
@@ -51,8 +68,12 @@ class UserJWTControllerIT {
         LoginVM login = new LoginVM();
         login.setUsername("user-jwt-controller");
         login.setPassword("test");
-        mockMvc
+        MvcResult result = mockMvc
             .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc
+            .perform(asyncDispatch(result))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id_token").isString())
             .andExpect(jsonPath("$.id_token").isNotEmpty())
@@ -61,7 +82,6 @@ class UserJWTControllerIT {
     }
 
     @Test
-    @Transactional
     void testAuthorizeWithRememberMe() throws Exception {
         User user = new User();
         user.setLogin("user-jwt-controller-remember-me");
@@ -75,8 +95,12 @@ class UserJWTControllerIT {
         login.setUsername("user-jwt-controller-remember-me");
         login.setPassword("test");
         login.setRememberMe(true);
-        mockMvc
+        MvcResult result = mockMvc
             .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc
+            .perform(asyncDispatch(result))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id_token").isString())
             .andExpect(jsonPath("$.id_token").isNotEmpty())
@@ -89,10 +113,63 @@ class UserJWTControllerIT {
         LoginVM login = new LoginVM();
         login.setUsername("wrong-user");
         login.setPassword("wrong password");
-        mockMvc
+        MvcResult result = mockMvc
             .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc
+            .perform(asyncDispatch(result))
             .andExpect(status().isUnauthorized())
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    void testAuthorizeIsThrottled() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-throttled");
+        login.setPassword("wrong password");
+        byte[] content = TestUtil.convertObjectToJsonBytes(login);
+        for (int attempt = 0; attempt < 5; attempt++) {
+            MvcResult result = mockMvc
+                .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(content))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isUnauthorized());
+        }
+
+        // Refused whatever the case of the login, before the password is checked
+        login.setUsername("User-JWT-Controller-Throttled");
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(request().asyncNotStarted())
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_LOGIN_THROTTLED));
+    }
+
+    @Test
+    void testLogoutRevokesTheToken() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-logout");
+        user.setEmail("user-jwt-controller-logout@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-logout");
+        login.setPassword("test");
+        MvcResult result = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        String authorization = "Bearer " + JsonPath.read(body, "$.id_token");
+
+        mockMvc.perform(get("/api/account").header(HttpHeaders.AUTHORIZATION, authorization)).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/authenticate").header(HttpHeaders.AUTHORIZATION, authorization)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/account").header(HttpHeaders.AUTHORIZATION, authorization)).andExpect(status().isUnauthorized());
+    }
 }
@@ -15,6 +15,7 @@ import com.harman.demo.pizzaria.service.dto.AdminUserDTO;
 import com.harman.demo.pizzaria.service.dto.UserDTO;
 import com.harman.demo.pizzaria.service.mapper.UserMapper;
 import com.harman.demo.pizzaria.web.rest.vm.ManagedUserVM;
+import com.jayway.jsonpath.JsonPath;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Consumer;
@@ -25,7 +26,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -259,6 +263,33 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersWithKeysetPagination() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        List<String> expectedLogins = new ArrayList<>();
+        userRepository.findAll(Sort.by("login")).forEach(u -> expectedLogins.add(u.getLogin()));
+
+        // Follow the next links from the first page
+        List<String> logins = new ArrayList<>();
+        String url = "/api/admin/users?cursor=&size=2&sort=login";
+        while (url != null) {
+            MockHttpServletResponse response = restUserMockMvc
+                .perform(get(url).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+            logins.addAll(JsonPath.read(response.getContentAsString(), "$.[*].login"));
+            String link = response.getHeader(HttpHeaders.LINK);
+            url = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        }
+        assertThat(logins).isEqualTo(expectedLogins);
+
+        // Only mandatory columns can be sorted by
+        restUserMockMvc.perform(get("/api/admin/users?cursor=&sort=email")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {
@@ -3,6 +3,7 @@ package com.harman.demo.pizzaria.web.rest.errors;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -35,6 +37,65 @@ class ExceptionTranslatorIT {
             .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_CONCURRENCY_FAILURE));
     }
 
+    @Test
+    void testOrderQueueFull() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/order-queue-full"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_ORDER_QUEUE_FULL));
+    }
+
+    @Test
+    void testOrderIntakeStopped() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/order-intake-stopped"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_ORDER_INTAKE_STOPPED));
+    }
+
+    @Test
+    void testLoginCapacityExceeded() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/login-capacity-exceeded"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_LOGIN_CAPACITY_EXCEEDED));
+    }
+
+    @Test
+    void testLoginThrottled() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/login-throttled"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "42"))
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_LOGIN_THROTTLED));
+    }
+
+    @Test
+    void testIdempotencyKeyReused() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/idempotency-key-reused"))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_IDEMPOTENCY_KEY_REUSED));
+    }
+
+    @Test
+    void testIdempotentRequestInProgress() throws Exception {
+        mockMvc
+            .perform(get("/api/exception-translator-test/idempotent-request-in-progress"))
+            .andExpect(status().isConflict())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_IDEMPOTENT_REQUEST_IN_PROGRESS));
+    }
+
     @Test
     void testMethodArgumentNotValid() throws Exception {
         mockMvc
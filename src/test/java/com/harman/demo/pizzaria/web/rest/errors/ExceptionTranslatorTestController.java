@@ -1,5 +1,11 @@
 package com.harman.demo.pizzaria.web.rest.errors;
 
+import com.harman.demo.pizzaria.security.LoginCapacityExceededException;
+import com.harman.demo.pizzaria.security.LoginThrottledException;
+import com.harman.demo.pizzaria.service.order.OrderIntakeStoppedException;
+import com.harman.demo.pizzaria.service.order.OrderQueueFullException;
+import com.harman.demo.pizzaria.web.rest.idempotency.IdempotencyKeyReusedException;
+import com.harman.demo.pizzaria.web.rest.idempotency.IdempotentRequestInProgressException;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.springframework.dao.ConcurrencyFailureException;
@@ -17,6 +23,36 @@ public class ExceptionTranslatorTestController {
         throw new ConcurrencyFailureException("test concurrency failure");
     }
 
+    @GetMapping("/order-queue-full")
+    public void orderQueueFull() {
+        throw new OrderQueueFullException();
+    }
+
+    @GetMapping("/order-intake-stopped")
+    public void orderIntakeStopped() {
+        throw new OrderIntakeStoppedException();
+    }
+
+    @GetMapping("/login-capacity-exceeded")
+    public void loginCapacityExceeded() {
+        throw new LoginCapacityExceededException();
+    }
+
+    @GetMapping("/login-throttled")
+    public void loginThrottled() {
+        throw new LoginThrottledException(42);
+    }
+
+    @GetMapping("/idempotency-key-reused")
+    public void idempotencyKeyReused() {
+        throw new IdempotencyKeyReusedException();
+    }
+
+    @GetMapping("/idempotent-request-in-progress")
+    public void idempotentRequestInProgress() {
+        throw new IdempotentRequestInProgressException();
+    }
+
     @PostMapping("/method-argument")
     public void methodArgument(@Valid @RequestBody TestDTO testDTO) {}
 
@@ -0,0 +1,265 @@
+package com.harman.demo.pizzaria.web.rest.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harman.demo.pizzaria.IntegrationTest;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import com.harman.demo.pizzaria.domain.IdempotentRequest;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.repository.IdempotentRequestRepository;
+import com.harman.demo.pizzaria.repository.PizzaRepository;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import com.harman.demo.pizzaria.web.rest.TestUtil;
+import com.jayway.jsonpath.JsonPath;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for the {@link IdempotencyAspect}, through {@code POST /api/pizzas}.
+ * <p>
+ * Concurrent requests need to see each other's writes, so pizzas are committed rather than rolled back.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class IdempotencyIT {
+
+    private static final String ENTITY_API_URL = "/api/pizzas";
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private IdempotentRequestRepository idempotentRequestRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc restPizzaMockMvc;
+
+    private final Set<Long> pizzaIds = new HashSet<>();
+
+    @AfterEach
+    public void tearDown() {
+        applicationProperties.getIdempotency().setDatabase(false);
+        pizzaIds.forEach(pizzaRepository::deleteById);
+        idempotentRequestRepository.deleteAll();
+    }
+
+    @Test
+    void retriesReplayTheFirstResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        long count = pizzaRepository.count();
+
+        String body = restPizzaMockMvc
+            .perform(createPizza(key, 12F))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotencyAspect.IDEMPOTENT_REPLAYED))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        Integer id = JsonPath.read(body, "$.id");
+        pizzaIds.add(id.longValue());
+
+        restPizzaMockMvc
+            .perform(createPizza(key, 12F))
+            .andExpect(status().isCreated())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(IdempotencyAspect.IDEMPOTENT_REPLAYED, "true"))
+            .andExpect(header().string(HttpHeaders.LOCATION, "/api/pizzas/" + id))
+            .andExpect(jsonPath("$.id").value(id))
+            .andExpect(jsonPath("$.price").value(12.0));
+        assertThat(pizzaRepository.count()).isEqualTo(count + 1);
+    }
+
+    @Test
+    void keysCannotBeReusedForAnotherBody() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = restPizzaMockMvc
+            .perform(createPizza(key, 12F))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        pizzaIds.add(((Integer) JsonPath.read(body, "$.id")).longValue());
+
+        restPizzaMockMvc.perform(createPizza(key, 13F)).andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void requestsWithoutKeyAreNotDeduplicated() throws Exception {
+        long count = pizzaRepository.count();
+        for (int i = 0; i < 2; i++) {
+            String body = restPizzaMockMvc
+                .perform(createPizza(null, 12F))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            pizzaIds.add(((Integer) JsonPath.read(body, "$.id")).longValue());
+        }
+        assertThat(pizzaRepository.count()).isEqualTo(count + 2);
+    }
+
+    @Test
+    void invalidKeysAreRejected() throws Exception {
+        restPizzaMockMvc.perform(createPizza(" ", 12F)).andExpect(status().isBadRequest());
+        restPizzaMockMvc.perform(createPizza("k".repeat(IdempotencyAspect.MAX_KEY_LENGTH + 1), 12F)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void concurrentDuplicatesExecuteOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        long count = pizzaRepository.count();
+        int clients = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Integer> ids = new HashSet<>();
+        try {
+            List<Future<String>> bodies = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                bodies.add(
+                    executor.submit(() -> {
+                        start.await();
+                        return restPizzaMockMvc
+                            .perform(createPizza(key, 12F).with(user("user")))
+                            .andExpect(status().isCreated())
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsString();
+                    })
+                );
+            }
+            start.countDown();
+            for (Future<String> body : bodies) {
+                ids.add(JsonPath.read(body.get(), "$.id"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        ids.forEach(id -> pizzaIds.add(id.longValue()));
+
+        assertThat(ids).hasSize(1);
+        assertThat(pizzaRepository.count()).isEqualTo(count + 1);
+    }
+
+    @Test
+    void responsesAreSharedThroughTheDatabase() throws Exception {
+        applicationProperties.getIdempotency().setDatabase(true);
+        String key = UUID.randomUUID().toString();
+
+        String body = restPizzaMockMvc
+            .perform(createPizza(key, 12F))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        Integer id = JsonPath.read(body, "$.id");
+        pizzaIds.add(id.longValue());
+
+        List<IdempotentRequest> requests = idempotentRequestRepository.findAll();
+        assertThat(requests)
+            .singleElement()
+            .satisfies(request -> {
+                assertThat(request.getResponseStatus()).isEqualTo(201);
+                // Kept for the whole time to live once the response is written, not just the lease
+                assertThat(request.getExpiresAt()).isAfter(Instant.now().plus(Duration.ofHours(1)));
+            });
+
+        // Another instance, with an empty memory, replays the stored response
+        IdempotencyStore otherInstance = otherInstance();
+        IdempotencyStore.Claim claim = otherInstance.begin(requests.get(0).getId(), requests.get(0).getFingerprint());
+        assertThat(claim.isOwner()).isFalse();
+        StoredResponse response = claim.getResponse().get();
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getHeaders().getLocation()).hasToString("/api/pizzas/" + id);
+        assertThat((Integer) JsonPath.read(new String(response.getBody(), StandardCharsets.UTF_8), "$.id")).isEqualTo(id);
+    }
+
+    @Test
+    void retriesWaitForAnotherInstanceWithoutBlocking() throws Exception {
+        applicationProperties.getIdempotency().setDatabase(true);
+        IdempotentRequest inProgress = claimedElsewhere(Instant.now().plusSeconds(60));
+
+        IdempotencyStore.Claim claim = otherInstance().begin(inProgress.getId(), inProgress.getFingerprint());
+        assertThat(claim.isOwner()).isFalse();
+        assertThat(claim.getResponse()).isNotDone();
+
+        idempotentRequestRepository.saveAndFlush(inProgress.responseStatus(201).responseHeaders("{}"));
+        assertThat(claim.getResponse().get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    void claimsWhoseLeaseRanOutAreTakenOver() {
+        applicationProperties.getIdempotency().setDatabase(true);
+        // Claimed by an instance which crashed before writing its response
+        IdempotentRequest abandoned = claimedElsewhere(Instant.now().minusSeconds(1));
+
+        IdempotencyStore.Claim claim = otherInstance().begin(abandoned.getId(), abandoned.getFingerprint());
+
+        assertThat(claim.isOwner()).isTrue();
+        assertThat(idempotentRequestRepository.findById(abandoned.getId()))
+            .hasValueSatisfying(request -> {
+                assertThat(request.getResponseStatus()).isNull();
+                assertThat(request.getExpiresAt()).isAfter(Instant.now());
+            });
+    }
+
+    private IdempotentRequest claimedElsewhere(Instant leaseExpiresAt) {
+        IdempotentRequest request = new IdempotentRequest()
+            .id(UUID.randomUUID().toString())
+            .fingerprint(UUID.randomUUID().toString())
+            .expiresAt(leaseExpiresAt);
+        idempotentRequestRepository.saveAndFlush(request);
+        return idempotentRequestRepository.findById(request.getId()).orElseThrow();
+    }
+
+    /**
+     * Another instance, with an empty memory.
+     */
+    private IdempotencyStore otherInstance() {
+        return new IdempotencyStore(applicationProperties, idempotentRequestRepository, objectMapper, transactionManager);
+    }
+
+    private static MockHttpServletRequestBuilder createPizza(String idempotencyKey, Float price) throws Exception {
+        PizzaDTO pizzaDTO = new PizzaDTO();
+        pizzaDTO.setPizzaSize(PizzaSize.MEDIUM);
+        pizzaDTO.setPrice(price);
+        MockHttpServletRequestBuilder request = post(ENTITY_API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(pizzaDTO));
+        return idempotencyKey == null ? request : request.header(IdempotencyAspect.IDEMPOTENCY_KEY, idempotencyKey);
+    }
+}
@@ -0,0 +1,143 @@
+package com.harman.demo.pizzaria.web.rest.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harman.demo.pizzaria.MutableClock;
+import com.harman.demo.pizzaria.config.ApplicationProperties;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class IdempotencyStoreTest {
+
+    private static final Instant START = Instant.parse("2022-05-01T18:00:00Z");
+
+    private ApplicationProperties.Idempotency properties;
+
+    private final MutableClock clock = new MutableClock(START);
+
+    @BeforeEach
+    void setUp() {
+        properties = new ApplicationProperties.Idempotency();
+    }
+
+    @Test
+    void retriesGetTheResponseOfTheFirstRequest() throws Exception {
+        IdempotencyStore store = store();
+
+        IdempotencyStore.Claim first = store.begin("key", "body");
+        IdempotencyStore.Claim retry = store.begin("key", "body");
+        assertThat(first.isOwner()).isTrue();
+        assertThat(retry.isOwner()).isFalse();
+        assertThat(retry.getResponse()).isNotDone();
+
+        StoredResponse response = response(201, "{\"id\":1}");
+        store.complete(first, response);
+        assertThat(retry.getResponse().get()).isSameAs(response);
+        assertThat(store.begin("key", "body").getResponse().get()).isSameAs(response);
+        assertThat(store.begin("other", "body").isOwner()).isTrue();
+    }
+
+    @Test
+    void keysCannotBeReusedForAnotherRequest() {
+        IdempotencyStore store = store();
+        store.begin("key", "body");
+
+        assertThatThrownBy(() -> store.begin("key", "other body")).isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void failedRequestsCanBeRetried() {
+        IdempotencyStore store = store();
+        IdempotencyStore.Claim first = store.begin("key", "body");
+        IdempotencyStore.Claim retry = store.begin("key", "body");
+
+        store.fail(first, new IllegalStateException("failed"));
+
+        assertThat(retry.getResponse()).isCompletedExceptionally();
+        assertThat(store.begin("key", "body").isOwner()).isTrue();
+    }
+
+    @Test
+    void oldestResponsesAreEvictedBeyondTheMemoryBound() {
+        properties.setStripes(1);
+        properties.setMaxBytes(3 * (StoredResponse.OVERHEAD_BYTES + 1000));
+        IdempotencyStore store = store();
+        IdempotencyStore.Claim inProgress = store.begin("in progress", "body");
+        for (int i = 0; i < 5; i++) {
+            store.complete(store.begin("key" + i, "body"), response(201, "x".repeat(1000)));
+        }
+
+        assertThat(store.getBytes()).isLessThanOrEqualTo(properties.getMaxBytes());
+        assertThat(store.begin("key0", "body").isOwner()).isTrue();
+        assertThat(store.begin("key4", "body").isOwner()).isFalse();
+        // Requests in progress are kept, so their retries still wait for them
+        assertThat(store.begin("in progress", "body").getResponse()).isSameAs(inProgress.getResponse());
+    }
+
+    @Test
+    void responsesExpire() {
+        properties.setTtl(Duration.ofHours(1));
+        IdempotencyStore store = store();
+        store.complete(store.begin("key", "body"), response(201, "{}"));
+
+        clock.advance(Duration.ofMinutes(59));
+        assertThat(store.begin("key", "body").isOwner()).isFalse();
+        store.purge();
+        assertThat(store.size()).isEqualTo(1);
+
+        clock.advance(Duration.ofMinutes(2));
+        store.purge();
+        assertThat(store.size()).isZero();
+        assertThat(store.getBytes()).isZero();
+        assertThat(store.begin("key", "body").isOwner()).isTrue();
+    }
+
+    @Test
+    void concurrentDuplicatesHaveASingleOwner() throws Exception {
+        IdempotencyStore store = store();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<IdempotencyStore.Claim>> claims = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                claims.add(
+                    executor.submit(() -> {
+                        start.await();
+                        return store.begin("key", "body");
+                    })
+                );
+            }
+            start.countDown();
+            int owners = 0;
+            for (Future<IdempotencyStore.Claim> claim : claims) {
+                owners += claim.get().isOwner() ? 1 : 0;
+            }
+            assertThat(owners).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private IdempotencyStore store() {
+        return new IdempotencyStore(properties, null, new ObjectMapper(), null, clock);
+    }
+
+    private static StoredResponse response(int status, String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.LOCATION, "/api/pizzas/1");
+        return new StoredResponse(status, headers, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,62 @@
+package com.harman.demo.pizzaria.web.rest.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class BroadcastRingTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new BroadcastRing<>(1).capacity()).isEqualTo(1);
+        assertThat(new BroadcastRing<>(8).capacity()).isEqualTo(8);
+        assertThat(new BroadcastRing<>(1000).capacity()).isEqualTo(1024);
+        assertThatThrownBy(() -> new BroadcastRing<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void eventsAreReadableUntilOverwritten() {
+        BroadcastRing<String> ring = new BroadcastRing<>(4);
+        assertThat(ring.head()).isZero();
+        for (int i = 0; i < 6; i++) {
+            assertThat(ring.publish("e" + i)).isEqualTo(i);
+        }
+
+        assertThat(ring.head()).isEqualTo(6);
+        assertThat(ring.get(0)).isNull();
+        assertThat(ring.get(1)).isNull();
+        assertThat(ring.get(2)).isEqualTo("e2");
+        assertThat(ring.get(5)).isEqualTo("e5");
+    }
+
+    @Test
+    void readersSeeEveryPublishedEventOrItsOverwrite() throws Exception {
+        BroadcastRing<Long> ring = new BroadcastRing<>(16);
+        int events = 200_000;
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            long cursor = 0;
+            while (cursor < events) {
+                long head = ring.head();
+                for (; cursor < head; cursor++) {
+                    Long event = ring.get(cursor);
+                    if (event != null && event != cursor) {
+                        error.set("Read " + event + " at " + cursor);
+                        return;
+                    }
+                }
+                Thread.yield();
+            }
+        });
+        reader.start();
+        for (long i = 0; i < events; i++) {
+            ring.publish(i);
+        }
+        reader.join(10_000);
+
+        assertThat(reader.isAlive()).isFalse();
+        assertThat(error.get()).isNull();
+    }
+}
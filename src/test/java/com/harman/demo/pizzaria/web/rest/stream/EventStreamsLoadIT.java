@@ -0,0 +1,236 @@
+package com.harman.demo.pizzaria.web.rest.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.harman.demo.pizzaria.PizzariaApp;
+import com.harman.demo.pizzaria.domain.enumeration.PizzaSize;
+import com.harman.demo.pizzaria.security.AuthoritiesConstants;
+import com.harman.demo.pizzaria.security.jwt.TokenProvider;
+import com.harman.demo.pizzaria.service.PizzaService;
+import com.harman.demo.pizzaria.service.dto.PizzaDTO;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Load test of the {@link EventStreams}: holds {@code 10,000} subscriptions to {@code /api/stream/menu} open against
+ * the embedded server, then measures how long a menu change takes to reach all of them.
+ * <p>
+ * The clients share a single selector thread, as the server shares its IO threads. Each connection uses a file
+ * descriptor on both ends, so the open files limit must be above twice the number of subscribers, which can be
+ * lowered with {@code -Dsubscribers=}.
+ * <p>
+ * Only run on demand: {@code ./mvnw verify -Dit.test=EventStreamsLoadIT -Dbenchmark=true}.
+ */
+@SpringBootTest(classes = PizzariaApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EventStreamsLoadIT {
+
+    private static final int SUBSCRIBERS = Integer.getInteger("subscribers", 10_000);
+
+    /**
+     * Connections opened at once, within the accept backlog of the server.
+     */
+    private static final int CONNECT_BATCH = 500;
+
+    private static final int CHANGES = 5;
+
+    private final Logger log = LoggerFactory.getLogger(EventStreamsLoadIT.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EventStreams eventStreams;
+
+    @Autowired
+    private PizzaService pizzaService;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    private final List<Client> clients = new ArrayList<>();
+
+    private Selector selector;
+
+    private PizzaDTO pizza;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        selector = Selector.open();
+        PizzaDTO pizzaDTO = new PizzaDTO();
+        pizzaDTO.setPizzaSize(PizzaSize.SMALL);
+        pizzaDTO.setPrice(7F);
+        pizza = pizzaService.save(pizzaDTO);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        for (Client client : clients) {
+            client.channel.close();
+        }
+        selector.close();
+        pizzaService.delete(pizza.getId());
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void menuChangesReachEveryIdleSubscriber() throws Exception {
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        int subscribersBefore = eventStreams.getSubscriberCount();
+        byte[] request = request();
+
+        long connecting = System.nanoTime();
+        while (clients.size() < SUBSCRIBERS) {
+            int batch = Math.min(CONNECT_BATCH, SUBSCRIBERS - clients.size());
+            for (int i = 0; i < batch; i++) {
+                clients.add(new Client(request));
+            }
+            int connected = clients.size();
+            poll(() -> clients.stream().limit(connected).allMatch(client -> client.subscribed), TimeUnit.SECONDS.toNanos(60));
+        }
+        long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connecting);
+        poll(() -> eventStreams.getSubscriberCount() == subscribersBefore + SUBSCRIBERS, TimeUnit.SECONDS.toNanos(10));
+        int threadsDuring = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        long[] fanOutMicros = new long[CHANGES];
+        for (int change = 1; change <= CHANGES; change++) {
+            int expected = change;
+            PizzaDTO priced = new PizzaDTO();
+            priced.setId(pizza.getId());
+            priced.setPrice(7F + change);
+            long start = System.nanoTime();
+            pizzaService.partialUpdate(priced);
+            poll(() -> clients.stream().allMatch(client -> client.events >= expected), TimeUnit.SECONDS.toNanos(30));
+            fanOutMicros[change - 1] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        }
+        Arrays.sort(fanOutMicros);
+
+        log.info(
+            "Opened {} subscriptions in {} ms, with {} threads before and {} during; " +
+            "a change reached all of them in {} µs (median), {} µs (max)",
+            SUBSCRIBERS,
+            connectMillis,
+            threadsBefore,
+            threadsDuring,
+            fanOutMicros[CHANGES / 2],
+            fanOutMicros[CHANGES - 1]
+        );
+        // Subscribers hold connections, not threads
+        assertThat(threadsDuring - threadsBefore).isLessThan(100);
+        assertThat(clients).allSatisfy(client -> assertThat(client.events).isEqualTo(CHANGES));
+    }
+
+    private byte[] request() {
+        String token = tokenProvider.createToken(
+            new UsernamePasswordAuthenticationToken("user", null, List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))),
+            false
+        );
+        String request =
+            "GET /api/stream/menu HTTP/1.1\r\n" +
+            "Host: localhost:" +
+            port +
+            "\r\n" +
+            "Accept: text/event-stream\r\n" +
+            "Authorization: Bearer " +
+            token +
+            "\r\n\r\n";
+        return request.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Process the network events of every client until a condition is met.
+     */
+    private void poll(BooleanSupplier condition, long timeoutNanos) throws IOException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+            selector.select(10);
+            for (SelectionKey key : selector.selectedKeys()) {
+                ((Client) key.attachment()).handle(key);
+            }
+            selector.selectedKeys().clear();
+        }
+    }
+
+    /**
+     * A subscriber, counting the events it receives.
+     */
+    private final class Client {
+
+        private final SocketChannel channel;
+
+        private final ByteBuffer request;
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        /**
+         * The end of the text received so far, since events may be split between reads.
+         */
+        private String tail = "";
+
+        private volatile boolean subscribed;
+
+        private volatile int events;
+
+        Client(byte[] request) throws IOException {
+            this.request = ByteBuffer.wrap(request);
+            this.channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.connect(new InetSocketAddress("localhost", port));
+            channel.register(selector, SelectionKey.OP_CONNECT, this);
+        }
+
+        void handle(SelectionKey key) throws IOException {
+            if (key.isConnectable() && channel.finishConnect()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            }
+            if (key.isValid() && key.isWritable()) {
+                channel.write(request);
+                if (!request.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+            if (key.isValid() && key.isReadable()) {
+                buffer.clear();
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Subscription closed by the server");
+                }
+                String text = tail + new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+                if (!subscribed) {
+                    assertThat(text).startsWith("HTTP/1.1 200");
+                    subscribed = true;
+                }
+                int from = 0;
+                int found;
+                while ((found = text.indexOf("event:" + EventStreams.MENU_EVENT, from)) >= 0) {
+                    events++;
+                    from = found + 1;
+                }
+                tail = text.substring(Math.max(from, text.length() - 32));
+            }
+        }
+    }
+}
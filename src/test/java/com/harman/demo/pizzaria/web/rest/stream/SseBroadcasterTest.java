@@ -0,0 +1,232 @@
+package com.harman.demo.pizzaria.web.rest.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SseBroadcasterTest {
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+
+    private final ExecutorService sender = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    @Test
+    void eventsAreSentToEverySubscriberInOrder() {
+        SseBroadcaster<String> broadcaster = broadcaster(16);
+        List<RecordingEmitter> emitters = List.of(new RecordingEmitter(), new RecordingEmitter(), new RecordingEmitter());
+        emitters.forEach(emitter -> broadcaster.subscribe(emitter, event -> true, null));
+
+        for (int i = 0; i < 5; i++) {
+            broadcaster.publish("e" + i);
+        }
+
+        for (RecordingEmitter emitter : emitters) {
+            await(() -> emitter.sent.size() == 5);
+            assertThat(emitter.sent)
+                .containsExactly(event(0, "e0"), event(1, "e1"), event(2, "e2"), event(3, "e3"), event(4, "e4"));
+        }
+    }
+
+    @Test
+    void filteredOutEventsAreNotSent() {
+        SseBroadcaster<String> broadcaster = broadcaster(16);
+        RecordingEmitter all = new RecordingEmitter();
+        RecordingEmitter filtered = new RecordingEmitter();
+        broadcaster.subscribe(all, event -> true, null);
+        broadcaster.subscribe(filtered, "b"::equals, null);
+
+        broadcaster.publish("a");
+        broadcaster.publish("b");
+        broadcaster.publish("c");
+        broadcaster.publish("b");
+
+        // Each subscriber gets its events in order, so the second "b" arrives after "c" was skipped
+        await(() -> all.sent.size() == 4 && filtered.sent.size() == 2);
+        assertThat(filtered.sent).containsExactly(event(1, "b"), event(3, "b"));
+    }
+
+    @Test
+    void reconnectingClientsResumeAfterTheirLastEvent() {
+        SseBroadcaster<String> broadcaster = broadcaster(16);
+        RecordingEmitter first = new RecordingEmitter();
+        broadcaster.subscribe(first, event -> true, null);
+        broadcaster.publish("a");
+        broadcaster.publish("b");
+        broadcaster.publish("c");
+        await(() -> first.sent.size() == 3);
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        broadcaster.subscribe(resumed, event -> true, "0");
+        RecordingEmitter fromTheFuture = new RecordingEmitter();
+        broadcaster.subscribe(fromTheFuture, event -> true, "42");
+        RecordingEmitter invalid = new RecordingEmitter();
+        broadcaster.subscribe(invalid, event -> true, "not a number");
+        broadcaster.publish("d");
+
+        await(() -> resumed.sent.size() == 3 && invalid.sent.size() == 1 && fromTheFuture.sent.size() == 1);
+        assertThat(resumed.sent).containsExactly(event(1, "b"), event(2, "c"), event(3, "d"));
+        assertThat(fromTheFuture.sent).containsExactly(event(3, "d"));
+        assertThat(invalid.sent).containsExactly(event(3, "d"));
+    }
+
+    @Test
+    void slowSubscribersSkipToTheLatestEventWithoutDelayingOthers() throws Exception {
+        SseBroadcaster<String> broadcaster = broadcaster(4);
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.blocked = new CountDownLatch(1);
+        RecordingEmitter fast = new RecordingEmitter();
+        broadcaster.subscribe(slow, event -> true, null);
+        broadcaster.subscribe(fast, event -> true, null);
+
+        broadcaster.publish("e0");
+        await(() -> slow.sending);
+        for (int i = 1; i < 10; i++) {
+            broadcaster.publish("e" + i);
+            // Paced, so the fast subscriber does not fall a ring behind either
+            int sent = i + 1;
+            await(() -> fast.sent.size() == sent);
+        }
+        slow.blocked.countDown();
+
+        await(() -> slow.sent.size() == 2);
+        assertThat(slow.sent).containsExactly(event(0, "e0"), "id:9\nevent:resync\ndata:{}\n\n");
+        assertThat(broadcaster.getResyncCount()).isEqualTo(1);
+
+        broadcaster.publish("e10");
+        await(() -> slow.sent.size() == 3);
+        assertThat(slow.sent.get(2)).isEqualTo(event(10, "e10"));
+    }
+
+    @Test
+    void stalledSendsAreAbortedSoOthersStillGetEvents() {
+        SseBroadcaster<String> broadcaster = broadcaster(16, Duration.ofMillis(10));
+        // As many stalled subscribers as sender threads
+        List<RecordingEmitter> stalled = List.of(new RecordingEmitter(), new RecordingEmitter());
+        stalled.forEach(emitter -> {
+            emitter.blocked = new CountDownLatch(1);
+            broadcaster.subscribe(emitter, event -> true, null);
+        });
+        broadcaster.publish("a");
+        await(() -> stalled.stream().allMatch(emitter -> emitter.sending));
+
+        RecordingEmitter healthy = new RecordingEmitter();
+        broadcaster.subscribe(healthy, event -> true, null);
+        broadcaster.publish("b");
+        await(() -> {
+            broadcaster.abortStalledSends();
+            return broadcaster.getSubscriberCount() == 1;
+        });
+
+        await(() -> healthy.sent.size() == 1);
+        assertThat(healthy.sent).containsExactly(event(1, "b"));
+        for (RecordingEmitter emitter : stalled) {
+            assertThat(emitter.sent).isEmpty();
+            assertThat(emitter.attempts).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void heartbeatsAreOnlySentToIdleSubscribers() {
+        SseBroadcaster<String> broadcaster = broadcaster(16);
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter, event -> true, null);
+
+        broadcaster.heartbeat();
+
+        await(() -> emitter.sent.size() == 1);
+        assertThat(emitter.sent.get(0)).startsWith(":");
+    }
+
+    @Test
+    void failedSendsCloseTheSubscription() {
+        SseBroadcaster<String> broadcaster = broadcaster(16);
+        RecordingEmitter broken = new RecordingEmitter();
+        broken.failure = new IOException("Broken pipe");
+        RecordingEmitter healthy = new RecordingEmitter();
+        broadcaster.subscribe(broken, event -> true, null);
+        broadcaster.subscribe(healthy, event -> true, null);
+        assertThat(broadcaster.getSubscriberCount()).isEqualTo(2);
+
+        broadcaster.publish("a");
+        await(() -> broadcaster.getSubscriberCount() == 1);
+        broadcaster.publish("b");
+
+        await(() -> healthy.sent.size() == 2);
+        assertThat(broken.attempts).isEqualTo(1);
+    }
+
+    private SseBroadcaster<String> broadcaster(int bufferSize) {
+        return broadcaster(bufferSize, Duration.ofMinutes(1));
+    }
+
+    private SseBroadcaster<String> broadcaster(int bufferSize, Duration sendTimeout) {
+        return new SseBroadcaster<>("test", bufferSize, new ObjectMapper(), dispatcher, sender, sendTimeout);
+    }
+
+    private static String event(long id, String data) {
+        return "id:" + id + "\nevent:test\ndata:\"" + data + "\"\n\n";
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+            Thread.yield();
+        }
+    }
+
+    /**
+     * An emitter recording the events sent to it, as they would be written to the response.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+
+        private volatile CountDownLatch blocked;
+
+        private volatile boolean sending;
+
+        private volatile IOException failure;
+
+        private volatile int attempts;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts++;
+            sending = true;
+            if (failure != null) {
+                throw failure;
+            }
+            if (blocked != null) {
+                try {
+                    blocked.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // As a blocking servlet write does
+                    throw new InterruptedIOException();
+                }
+            }
+            sent.add(builder.build().stream().map(data -> data.getData().toString()).collect(Collectors.joining()));
+        }
+    }
+}